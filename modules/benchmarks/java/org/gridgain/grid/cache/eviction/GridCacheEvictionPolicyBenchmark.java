@@ -0,0 +1,259 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.cache.eviction;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.eviction.lirs.*;
+import org.gridgain.grid.cache.eviction.lru.*;
+import org.gridgain.grid.cache.eviction.tinylfu.*;
+import org.gridgain.grid.typedef.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.gridgain.grid.cache.GridCacheMode.*;
+
+/**
+ * Compares hit ratio and throughput of LRU, LIRS and W-TinyLFU eviction policies on
+ * Zipfian trace and on the same trace interleaved with sequential scans of keys which
+ * are never accessed again. Every policy is configured on its own local cache of the
+ * same maximum size. Access to missing key puts it into cache, as read-through would.
+ * <p>
+ * Hit ratio is measured by replaying trace in a single thread, throughput by replaying
+ * it concurrently from several threads.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCacheEvictionPolicyBenchmark {
+    /** Maximum cache size. */
+    private static final int MAX_SIZE = 10000;
+
+    /** Number of distinct keys in Zipfian distribution. */
+    private static final int KEYS = 200000;
+
+    /** Zipfian distribution exponent. */
+    private static final double ZIPF_EXP = 0.99;
+
+    /** Trace length. */
+    private static final int OPS = 2000000;
+
+    /** Number of Zipfian accesses between two scans. */
+    private static final int SCAN_PERIOD = 50000;
+
+    /** Length of scan, in keys. */
+    private static final int SCAN_LEN = MAX_SIZE * 2;
+
+    /** Number of threads replaying trace for throughput measurement. */
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    /** Cache names which are also policy names. */
+    private static final String[] CACHES = {"lru", "lirs", "tinylfu"};
+
+    /**
+     * Ensures singleton.
+     */
+    private GridCacheEvictionPolicyBenchmark() {
+        /* No-op. */
+    }
+
+    /**
+     * Runs benchmark.
+     *
+     * @param args Command line arguments, none required.
+     * @throws Exception If benchmark failed.
+     */
+    public static void main(String[] args) throws Exception {
+        GridConfigurationAdapter cfg = new GridConfigurationAdapter();
+
+        cfg.setCacheConfiguration(
+            cacheConfiguration(CACHES[0], new GridCacheLruEvictionPolicy<Integer, Integer>(MAX_SIZE)),
+            cacheConfiguration(CACHES[1], new GridCacheLirsEvictionPolicy<Integer, Integer>(MAX_SIZE)),
+            cacheConfiguration(CACHES[2], new GridCacheTinyLfuEvictionPolicy<Integer, Integer>(MAX_SIZE)));
+
+        Grid g = G.start(cfg);
+
+        try {
+            int[] zipf = zipfTrace(new Random(1));
+            int[] scan = scanTrace(new Random(1));
+
+            for (String name : CACHES) {
+                GridCache<Integer, Integer> cache = g.cache(name);
+
+                run(cache, "zipf", zipf);
+                run(cache, "zipf+scan", scan);
+            }
+        }
+        finally {
+            G.stop(true);
+        }
+    }
+
+    /**
+     * @param name Cache name.
+     * @param plc Eviction policy.
+     * @return Local cache configuration.
+     */
+    private static GridCacheConfiguration cacheConfiguration(String name,
+        GridCacheEvictionPolicy<Integer, Integer> plc) {
+        GridCacheConfigurationAdapter cc = new GridCacheConfigurationAdapter();
+
+        cc.setName(name);
+        cc.setCacheMode(LOCAL);
+        cc.setEvictionPolicy(plc);
+
+        return cc;
+    }
+
+    /**
+     * Replays trace on cleared cache to measure hit ratio, and then concurrently to measure throughput.
+     *
+     * @param cache Cache.
+     * @param traceName Trace name.
+     * @param trace Trace.
+     * @throws Exception If failed.
+     */
+    private static void run(final GridCache<Integer, Integer> cache, String traceName, final int[] trace)
+        throws Exception {
+        cache.clearAll();
+
+        long hits = replay(cache, trace, 0, trace.length);
+
+        cache.clearAll();
+
+        final AtomicLong ops = new AtomicLong();
+
+        ExecutorService exec = Executors.newFixedThreadPool(THREADS);
+
+        long start = System.nanoTime();
+
+        try {
+            Collection<Future<?>> futs = new ArrayList<Future<?>>(THREADS);
+
+            for (int i = 0; i < THREADS; i++) {
+                final int from = trace.length / THREADS * i;
+                final int to = i == THREADS - 1 ? trace.length : from + trace.length / THREADS;
+
+                futs.add(exec.submit(new Callable<Object>() {
+                    @Override public Object call() throws Exception {
+                        replay(cache, trace, from, to);
+
+                        ops.addAndGet(to - from);
+
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<?> fut : futs)
+                fut.get();
+        }
+        finally {
+            exec.shutdown();
+        }
+
+        long dur = System.nanoTime() - start;
+
+        X.println(">>> " + cache.name() + " [trace=" + traceName + ", hitRatio=" +
+            String.format("%.2f%%", hits * 100.0 / trace.length) + ", throughput=" +
+            ops.get() * 1000000000L / dur + " ops/sec, threads=" + THREADS + ']');
+    }
+
+    /**
+     * @param cache Cache.
+     * @param trace Trace.
+     * @param from First trace index (inclusive).
+     * @param to Last trace index (exclusive).
+     * @return Number of hits.
+     * @throws GridException If failed.
+     */
+    private static long replay(GridCache<Integer, Integer> cache, int[] trace, int from, int to)
+        throws GridException {
+        long hits = 0;
+
+        for (int i = from; i < to; i++) {
+            Integer key = trace[i];
+
+            if (cache.get(key) != null)
+                hits++;
+            else
+                cache.putx(key, key);
+        }
+
+        return hits;
+    }
+
+    /**
+     * @param rnd Random.
+     * @return Zipfian trace.
+     */
+    private static int[] zipfTrace(Random rnd) {
+        double[] cdf = zipfCdf();
+
+        int[] trace = new int[OPS];
+
+        for (int i = 0; i < trace.length; i++)
+            trace[i] = zipf(cdf, rnd);
+
+        return trace;
+    }
+
+    /**
+     * @param rnd Random.
+     * @return Zipfian trace interleaved with scans of keys outside of Zipfian key range.
+     */
+    private static int[] scanTrace(Random rnd) {
+        double[] cdf = zipfCdf();
+
+        int[] trace = new int[OPS];
+
+        int scanKey = KEYS;
+
+        for (int i = 0; i < trace.length;) {
+            for (int j = 0; j < SCAN_PERIOD && i < trace.length; j++)
+                trace[i++] = zipf(cdf, rnd);
+
+            for (int j = 0; j < SCAN_LEN && i < trace.length; j++)
+                trace[i++] = scanKey++;
+        }
+
+        return trace;
+    }
+
+    /**
+     * @return Cumulative Zipfian distribution over key range.
+     */
+    private static double[] zipfCdf() {
+        double[] cdf = new double[KEYS];
+
+        double sum = 0;
+
+        for (int i = 0; i < KEYS; i++)
+            cdf[i] = sum += 1 / Math.pow(i + 1, ZIPF_EXP);
+
+        for (int i = 0; i < KEYS; i++)
+            cdf[i] /= sum;
+
+        return cdf;
+    }
+
+    /**
+     * @param cdf Cumulative distribution.
+     * @param rnd Random.
+     * @return Key.
+     */
+    private static int zipf(double[] cdf, Random rnd) {
+        int idx = Arrays.binarySearch(cdf, rnd.nextDouble());
+
+        return Math.min(idx >= 0 ? idx : -idx - 1, KEYS - 1);
+    }
+}
@@ -0,0 +1,142 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.job;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.typedef.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Measures throughput of job processor on short jobs: many threads concurrently execute
+ * tasks each splitting into a number of no-op jobs on local node, so that job registry
+ * is updated on every job start and finish. Run it before and after changes to job
+ * processor to compare.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridJobThroughputBenchmark {
+    /** Number of threads executing tasks. */
+    private static final int THREADS = Runtime.getRuntime().availableProcessors() * 4;
+
+    /** Number of jobs per task. */
+    private static final int JOBS = 16;
+
+    /** Warmup duration in milliseconds. */
+    private static final long WARMUP = 10000;
+
+    /** Measurement duration in milliseconds. */
+    private static final long DURATION = 30000;
+
+    /**
+     * Ensures singleton.
+     */
+    private GridJobThroughputBenchmark() {
+        /* No-op. */
+    }
+
+    /**
+     * Runs benchmark.
+     *
+     * @param args Command line arguments, none required.
+     * @throws Exception If benchmark failed.
+     */
+    public static void main(String[] args) throws Exception {
+        Grid g = G.start(new GridConfigurationAdapter());
+
+        try {
+            run(g, WARMUP);
+
+            long jobs = run(g, DURATION);
+
+            X.println(">>> Job throughput [jobs/sec=" + jobs * 1000 / DURATION + ", threads=" + THREADS +
+                ", jobsPerTask=" + JOBS + ']');
+        }
+        finally {
+            G.stop(true);
+        }
+    }
+
+    /**
+     * @param g Grid.
+     * @param dur Duration in milliseconds.
+     * @return Number of executed jobs.
+     * @throws Exception If failed.
+     */
+    private static long run(final Grid g, long dur) throws Exception {
+        final long end = System.currentTimeMillis() + dur;
+
+        final AtomicLong jobs = new AtomicLong();
+
+        ExecutorService exec = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            Collection<Future<?>> futs = new ArrayList<Future<?>>(THREADS);
+
+            for (int i = 0; i < THREADS; i++) {
+                futs.add(exec.submit(new Callable<Object>() {
+                    @Override public Object call() throws Exception {
+                        while (System.currentTimeMillis() < end)
+                            jobs.addAndGet(g.execute(new NoopTask(), JOBS).get());
+
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<?> fut : futs)
+                fut.get();
+        }
+        finally {
+            exec.shutdown();
+        }
+
+        return jobs.get();
+    }
+
+    /**
+     * Task splitting into given number of no-op jobs.
+     *
+     * @author 2012 Copyright (C) GridGain Systems
+     * @version 3.6.0c.09012012
+     */
+    private static class NoopTask extends GridTaskSplitAdapter<Integer, Integer> {
+        /** {@inheritDoc} */
+        @Override protected Collection<? extends GridJob> split(int gridSize, Integer arg) {
+            Collection<GridJob> jobs = new ArrayList<GridJob>(arg);
+
+            for (int i = 0; i < arg; i++)
+                jobs.add(new NoopJob());
+
+            return jobs;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Integer reduce(List<GridJobResult> results) {
+            return results.size();
+        }
+    }
+
+    /**
+     * No-op job.
+     *
+     * @author 2012 Copyright (C) GridGain Systems
+     * @version 3.6.0c.09012012
+     */
+    private static class NoopJob extends GridJobAdapterEx {
+        /** {@inheritDoc} */
+        @Override public Object execute() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.thread;
+
+import org.gridgain.grid.typedef.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Compares short task throughput of fixed {@link GridThreadPoolExecutor} over a single queue,
+ * which is the default public pool, with {@link GridWorkStealingExecutor} of the same parallelism.
+ * Two workloads are measured: no-op tasks submitted by several external threads, and tasks
+ * which fork no-op sub-tasks from pool threads, as jobs forking local work do.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridWorkStealingExecutorBenchmark {
+    /** Pool parallelism. */
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /** Number of external submitting threads. */
+    private static final int PRODUCERS = PARALLELISM;
+
+    /** Number of tasks per run. */
+    private static final int TASKS = 2000000;
+
+    /** Number of sub-tasks forked by every task in forking workload. */
+    private static final int FORKS = 16;
+
+    /** Number of runs, first of which is warmup. */
+    private static final int RUNS = 3;
+
+    /**
+     * Ensures singleton.
+     */
+    private GridWorkStealingExecutorBenchmark() {
+        /* No-op. */
+    }
+
+    /**
+     * Runs benchmark.
+     *
+     * @param args Command line arguments, none required.
+     * @throws Exception If benchmark failed.
+     */
+    public static void main(String[] args) throws Exception {
+        for (boolean stealing : new boolean[] {false, true}) {
+            ExecutorService exec = stealing ? new GridWorkStealingExecutor(null, PARALLELISM, PARALLELISM * 2) :
+                new GridThreadPoolExecutor(null, PARALLELISM, PARALLELISM, 0, new LinkedBlockingQueue<Runnable>());
+
+            String name = stealing ? "work-stealing" : "fixed";
+
+            try {
+                for (int i = 0; i < RUNS; i++) {
+                    long submitted = submit(exec);
+                    long forked = fork(exec);
+
+                    // First run is warmup.
+                    if (i > 0)
+                        X.println(">>> " + name + " [submit tasks/sec=" + submitted + ", fork tasks/sec=" + forked +
+                            ", parallelism=" + PARALLELISM + ']');
+                }
+            }
+            finally {
+                exec.shutdown();
+
+                exec.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Submits no-op tasks from external threads.
+     *
+     * @param exec Executor.
+     * @return Tasks per second.
+     * @throws Exception If failed.
+     */
+    private static long submit(final ExecutorService exec) throws Exception {
+        final CountDownLatch done = new CountDownLatch(TASKS);
+
+        final Runnable task = new Runnable() {
+            @Override public void run() {
+                done.countDown();
+            }
+        };
+
+        Collection<Thread> producers = new ArrayList<Thread>(PRODUCERS);
+
+        for (int i = 0; i < PRODUCERS; i++) {
+            final int cnt = i == 0 ? TASKS - TASKS / PRODUCERS * (PRODUCERS - 1) : TASKS / PRODUCERS;
+
+            producers.add(new Thread(new Runnable() {
+                @Override public void run() {
+                    for (int j = 0; j < cnt; j++)
+                        exec.execute(task);
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+
+        for (Thread t : producers)
+            t.start();
+
+        done.await();
+
+        long dur = System.nanoTime() - start;
+
+        for (Thread t : producers)
+            t.join();
+
+        return TASKS * 1000000000L / dur;
+    }
+
+    /**
+     * Submits tasks which fork no-op sub-tasks from pool threads.
+     *
+     * @param exec Executor.
+     * @return Tasks per second, counting both tasks and sub-tasks.
+     * @throws Exception If failed.
+     */
+    private static long fork(final ExecutorService exec) throws Exception {
+        int roots = TASKS / (FORKS + 1);
+
+        final CountDownLatch done = new CountDownLatch(roots * (FORKS + 1));
+
+        final Runnable leaf = new Runnable() {
+            @Override public void run() {
+                done.countDown();
+            }
+        };
+
+        Runnable root = new Runnable() {
+            @Override public void run() {
+                for (int i = 0; i < FORKS; i++)
+                    exec.execute(leaf);
+
+                done.countDown();
+            }
+        };
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < roots; i++)
+            exec.execute(root);
+
+        done.await();
+
+        long dur = System.nanoTime() - start;
+
+        return roots * (FORKS + 1) * 1000000000L / dur;
+    }
+}
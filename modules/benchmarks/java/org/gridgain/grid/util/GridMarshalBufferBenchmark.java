@@ -0,0 +1,133 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.util;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.marshaller.*;
+import org.gridgain.grid.marshaller.optimized.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.lang.management.*;
+import java.util.*;
+
+/**
+ * Compares allocation rate and throughput of marshalling via {@link GridUtils#marshal(GridMarshaller, Object)},
+ * which reuses per-thread cached buffer, with marshalling into a new stream for every call, as
+ * it was done before buffers were cached. Payloads resemble small messages, cache
+ * {@code putAll()} batches and large values.
+ * <p>
+ * Allocated bytes are measured with {@code com.sun.management.ThreadMXBean}, if JVM provides it.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridMarshalBufferBenchmark {
+    /** Number of warmup iterations. */
+    private static final int WARMUP = 200000;
+
+    /** Number of measured iterations. */
+    private static final int ITERS = 1000000;
+
+    /** Marshaller used by default. */
+    private static final GridMarshaller marsh = new GridOptimizedMarshaller();
+
+    /**
+     * Ensures singleton.
+     */
+    private GridMarshalBufferBenchmark() {
+        /* No-op. */
+    }
+
+    /**
+     * Runs benchmark.
+     *
+     * @param args Command line arguments, none required.
+     * @throws Exception If benchmark failed.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<Integer, String> batch = new HashMap<Integer, String>();
+
+        for (int i = 0; i < 100; i++)
+            batch.put(i, "value-" + i);
+
+        run("small", new T2<Integer, String>(1, "value"));
+        run("putAll", batch);
+        run("large", new byte[48 * 1024]);
+    }
+
+    /**
+     * @param name Payload name.
+     * @param obj Payload.
+     * @throws GridException If failed.
+     */
+    private static void run(String name, Object obj) throws GridException {
+        for (boolean cached : new boolean[] {false, true}) {
+            marshal(obj, cached, WARMUP);
+
+            long allocated = allocatedBytes();
+
+            long start = System.nanoTime();
+
+            marshal(obj, cached, ITERS);
+
+            long dur = System.nanoTime() - start;
+
+            allocated = allocatedBytes() - allocated;
+
+            X.println(">>> " + name + " [buf=" + (cached ? "cached" : "new") + ", size=" +
+                U.marshal(marsh, obj).getSize() + ", ops/sec=" + ITERS * 1000000000L / dur + ", bytes/op=" +
+                (allocated < 0 ? "n/a" : Long.toString(allocated / ITERS)) + ']');
+        }
+    }
+
+    /**
+     * @param obj Object to marshal.
+     * @param cached Whether to use per-thread cached buffer.
+     * @param iters Number of iterations.
+     * @return Total marshalled size, so that result is used.
+     * @throws GridException If failed.
+     */
+    private static long marshal(Object obj, boolean cached, int iters) throws GridException {
+        long size = 0;
+
+        for (int i = 0; i < iters; i++) {
+            GridByteArrayList bytes;
+
+            if (cached)
+                bytes = U.marshal(marsh, obj);
+            else {
+                GridByteArrayOutputStream out = new GridByteArrayOutputStream(GridUtils.DFLT_BUFFER_SIZE);
+
+                marsh.marshal(obj, out);
+
+                bytes = out.toByteArrayList();
+            }
+
+            // Consumers such as cache messages take exact-size array.
+            size += bytes.getEntireArray().length;
+        }
+
+        return size;
+    }
+
+    /**
+     * @return Bytes allocated by current thread so far or {@code -1} if not supported by JVM.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        return -1;
+    }
+}
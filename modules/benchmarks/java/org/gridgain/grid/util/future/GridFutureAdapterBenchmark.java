@@ -0,0 +1,210 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.util.future;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.typedef.*;
+
+import java.lang.management.*;
+
+import static org.gridgain.grid.cache.GridCacheMode.*;
+
+/**
+ * Measures cost of {@link GridFutureAdapter} life cycle: creating and completing future,
+ * waiting for completed future and notifying listeners added before and after completion.
+ * Then measures allocation rate of put-heavy workload on local cache, where every operation
+ * creates several futures. Run it before and after changes to futures to compare.
+ * <p>
+ * Allocated bytes are measured with {@code com.sun.management.ThreadMXBean}, if JVM provides it.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridFutureAdapterBenchmark {
+    /** Number of warmup iterations. */
+    private static final int WARMUP = 1000000;
+
+    /** Number of measured iterations. */
+    private static final int ITERS = 10000000;
+
+    /** Number of cache puts. */
+    private static final int PUTS = 500000;
+
+    /** Number of distinct cache keys. */
+    private static final int KEYS = 10000;
+
+    /** Sink for results, so that JIT does not eliminate measured code. */
+    private static volatile long sink;
+
+    /** Listener. */
+    private static final GridInClosure<GridFuture<Integer>> lsnr = new CI1<GridFuture<Integer>>() {
+        @Override public void apply(GridFuture<Integer> f) {
+            // No-op.
+        }
+    };
+
+    /**
+     * Ensures singleton.
+     */
+    private GridFutureAdapterBenchmark() {
+        /* No-op. */
+    }
+
+    /**
+     * Runs benchmark.
+     *
+     * @param args Command line arguments, none required.
+     * @throws Exception If benchmark failed.
+     */
+    public static void main(String[] args) throws Exception {
+        for (Scenario s : Scenario.values()) {
+            sink += run(s, WARMUP);
+
+            long allocated = allocatedBytes();
+
+            long start = System.nanoTime();
+
+            sink += run(s, ITERS);
+
+            long dur = System.nanoTime() - start;
+
+            allocated = allocatedBytes() - allocated;
+
+            X.println(">>> " + s + " [ops/sec=" + ITERS * 1000000000L / dur + ", bytes/op=" +
+                (allocated < 0 ? "n/a" : Long.toString(allocated / ITERS)) + ']');
+        }
+
+        GridCacheConfigurationAdapter cc = new GridCacheConfigurationAdapter();
+
+        cc.setCacheMode(LOCAL);
+
+        GridConfigurationAdapter cfg = new GridConfigurationAdapter();
+
+        cfg.setCacheConfiguration(cc);
+
+        Grid g = G.start(cfg);
+
+        try {
+            GridCache<Integer, Integer> cache = g.cache();
+
+            put(cache, PUTS);
+
+            long allocated = allocatedBytes();
+
+            long start = System.nanoTime();
+
+            put(cache, PUTS);
+
+            long dur = System.nanoTime() - start;
+
+            allocated = allocatedBytes() - allocated;
+
+            X.println(">>> CACHE_PUT [ops/sec=" + PUTS * 1000000000L / dur + ", bytes/op=" +
+                (allocated < 0 ? "n/a" : Long.toString(allocated / PUTS)) + ']');
+        }
+        finally {
+            G.stop(true);
+        }
+    }
+
+    /**
+     * @param s Scenario.
+     * @param iters Number of iterations.
+     * @return Sum of future results.
+     * @throws GridException If failed.
+     */
+    private static long run(Scenario s, int iters) throws GridException {
+        long sum = 0;
+
+        for (int i = 0; i < iters; i++) {
+            GridFutureAdapter<Integer> fut = new GridFutureAdapter<Integer>();
+
+            fut.syncNotify(true);
+
+            switch (s) {
+                case COMPLETE: {
+                    fut.onDone(i);
+
+                    break;
+                }
+
+                case COMPLETE_GET: {
+                    fut.onDone(i);
+
+                    sum += fut.get();
+
+                    break;
+                }
+
+                case LISTEN_COMPLETE: {
+                    fut.listenAsync(lsnr);
+
+                    fut.onDone(i);
+
+                    break;
+                }
+
+                case COMPLETE_LISTEN: {
+                    fut.onDone(i);
+
+                    fut.listenAsync(lsnr);
+
+                    break;
+                }
+
+                default:
+                    assert false : "Unknown scenario: " + s;
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * @param cache Cache.
+     * @param puts Number of puts.
+     * @throws GridException If failed.
+     */
+    private static void put(GridCache<Integer, Integer> cache, int puts) throws GridException {
+        for (int i = 0; i < puts; i++)
+            cache.putx(i % KEYS, i);
+    }
+
+    /**
+     * @return Bytes allocated by current thread so far or {@code -1} if not supported by JVM.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        return -1;
+    }
+
+    /**
+     * Benchmark scenarios.
+     */
+    private enum Scenario {
+        /** Create and complete. */
+        COMPLETE,
+
+        /** Create, complete and get result. */
+        COMPLETE_GET,
+
+        /** Create, add listener and complete. */
+        LISTEN_COMPLETE,
+
+        /** Create, complete and add listener. */
+        COMPLETE_LISTEN
+    }
+}
@@ -0,0 +1,379 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.cache.store.jdbc;
+
+import junit.framework.*;
+import org.gridgain.grid.logger.java.*;
+import org.gridgain.grid.typedef.*;
+import org.h2.jdbcx.*;
+
+import javax.sql.*;
+import java.lang.reflect.*;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Tests for {@link GridCacheJdbcPojoStore} against bundled H2 database.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCacheJdbcPojoStoreSelfTest extends TestCase {
+    /** Database counter, every test gets its own database. */
+    private static final AtomicInteger dbCntr = new AtomicInteger();
+
+    /** Create table query. */
+    private static final String CREATE_TBL =
+        "create table PERSONS (id bigint primary key, name varchar(64), age int)";
+
+    /** H2 data source. */
+    private JdbcDataSource h2;
+
+    /** Store. */
+    private GridCacheJdbcPojoStore<Long, Person> store;
+
+    /** {@inheritDoc} */
+    @Override protected void setUp() throws Exception {
+        h2 = new JdbcDataSource();
+
+        h2.setURL("jdbc:h2:mem:pojoStoreTest" + dbCntr.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+
+        store = store(h2);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void tearDown() throws Exception {
+        store.close();
+
+        Connection conn = h2.getConnection();
+
+        try {
+            conn.createStatement().execute("shutdown");
+        }
+        finally {
+            conn.close();
+        }
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    public void testPutLoadRemove() throws Exception {
+        store.put(null, null, 1L, new Person("a", 1));
+        store.put(null, null, 1L, new Person("b", 2));
+
+        Person p = store.load(null, null, 1L);
+
+        assertEquals("b", p.name);
+        assertEquals(2, p.age);
+
+        store.remove(null, null, 1L);
+
+        assertNull(store.load(null, null, 1L));
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    public void testPutAllLoadAll() throws Exception {
+        Map<Long, Person> map = persons(0, 100);
+
+        store.putAll(null, null, map);
+
+        // Half of entries are updated, half are inserted.
+        map = persons(50, 150);
+
+        store.putAll(null, null, map);
+
+        final Map<Long, Person> loaded = new HashMap<Long, Person>();
+
+        store.loadAll(null, null, map.keySet(), new CI2<Long, Person>() {
+            @Override public void apply(Long key, Person val) {
+                loaded.put(key, val);
+            }
+        });
+
+        assertEquals(map, loaded);
+
+        assertEquals(150, count());
+
+        store.removeAll(null, null, map.keySet());
+
+        assertEquals(50, count());
+    }
+
+    /**
+     * Checks that entries are inserted if driver does not report update counts
+     * for batched statements.
+     *
+     * @throws Exception If failed.
+     */
+    public void testSuccessNoInfo() throws Exception {
+        store.close();
+
+        store = store(noInfoDataSource(h2));
+
+        store.putAll(null, null, persons(0, 10));
+
+        // Mix of updates and inserts.
+        store.putAll(null, null, persons(5, 20));
+
+        assertEquals(20, count());
+
+        assertEquals("name-7", store.load(null, null, 7L).name);
+    }
+
+    /**
+     * Checks that concurrent puts of the same new keys do not fail on duplicate keys.
+     *
+     * @throws Exception If failed.
+     */
+    public void testConcurrentUpsert() throws Exception {
+        int threads = 8;
+
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+
+        ExecutorService exec = Executors.newFixedThreadPool(threads);
+
+        try {
+            Collection<Future<?>> futs = new ArrayList<Future<?>>();
+
+            for (int i = 0; i < threads; i++) {
+                futs.add(exec.submit(new Callable<Object>() {
+                    @Override public Object call() throws Exception {
+                        for (int k = 0; k < 20; k++) {
+                            barrier.await();
+
+                            store.putAll(null, null, persons(k * 10, k * 10 + 10));
+                        }
+
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<?> fut : futs)
+                fut.get();
+        }
+        finally {
+            exec.shutdownNow();
+        }
+
+        assertEquals(200, count());
+    }
+
+    /**
+     * Checks that key range wider than {@link Long#MAX_VALUE} is split correctly.
+     *
+     * @throws Exception If failed.
+     */
+    public void testWideKeyRange() throws Exception {
+        Map<Long, Person> map = new HashMap<Long, Person>();
+
+        map.put(Long.MIN_VALUE, new Person("min", 1));
+        map.put(0L, new Person("zero", 2));
+        map.put(Long.MAX_VALUE, new Person("max", 3));
+
+        store.putAll(null, null, map);
+
+        Collection<?> ranges = store.loadRanges(null);
+
+        assertTrue(ranges.size() > 1);
+
+        final Map<Long, Person> loaded = new HashMap<Long, Person>();
+
+        for (Object range : ranges) {
+            store.loadRange(null, range, new CI2<Long, Person>() {
+                @Override public void apply(Long key, Person val) {
+                    assertNull("Key loaded twice: " + key, loaded.put(key, val));
+                }
+            });
+        }
+
+        assertEquals(map, loaded);
+    }
+
+    /**
+     * @param ds Data source.
+     * @return Store.
+     * @throws Exception If failed.
+     */
+    private GridCacheJdbcPojoStore<Long, Person> store(DataSource ds) throws Exception {
+        GridCacheJdbcPojoStore<Long, Person> store = new GridCacheJdbcPojoStore<Long, Person>();
+
+        store.setDataSource(ds);
+        store.setTableName("PERSONS");
+        store.setKeyColumn("id");
+        store.setValueType(Person.class);
+        store.setBatchSize(16);
+        store.setLoadRangeCount(4);
+
+        if (!tableExists())
+            store.setCreateTableQuery(CREATE_TBL);
+
+        Field log = GridCacheJdbcPojoStore.class.getDeclaredField("log");
+
+        log.setAccessible(true);
+
+        log.set(store, new GridJavaLogger());
+
+        return store;
+    }
+
+    /**
+     * @return {@code True} if table already exists.
+     * @throws SQLException If failed.
+     */
+    private boolean tableExists() throws SQLException {
+        Connection conn = h2.getConnection();
+
+        try {
+            ResultSet rs = conn.getMetaData().getTables(null, null, "PERSONS", null);
+
+            return rs.next();
+        }
+        finally {
+            conn.close();
+        }
+    }
+
+    /**
+     * @return Number of rows in table.
+     * @throws SQLException If failed.
+     */
+    private int count() throws SQLException {
+        Connection conn = h2.getConnection();
+
+        try {
+            ResultSet rs = conn.createStatement().executeQuery("select count(*) from PERSONS");
+
+            rs.next();
+
+            return rs.getInt(1);
+        }
+        finally {
+            conn.close();
+        }
+    }
+
+    /**
+     * @param from First key, inclusive.
+     * @param to Last key, exclusive.
+     * @return Persons by keys.
+     */
+    private static Map<Long, Person> persons(int from, int to) {
+        Map<Long, Person> map = new HashMap<Long, Person>();
+
+        for (long k = from; k < to; k++)
+            map.put(k, new Person("name-" + k, (int)k));
+
+        return map;
+    }
+
+    /**
+     * Wraps data source, so that batched statements report {@link Statement#SUCCESS_NO_INFO}
+     * instead of update counts.
+     *
+     * @param ds Data source.
+     * @return Wrapped data source.
+     */
+    private static DataSource noInfoDataSource(final DataSource ds) {
+        return proxy(DataSource.class, ds);
+    }
+
+    /**
+     * @param itf Interface.
+     * @param target Target object.
+     * @return Proxy replacing batch update counts.
+     */
+    @SuppressWarnings({"unchecked"})
+    private static <T> T proxy(Class<T> itf, final Object target) {
+        return (T)Proxy.newProxyInstance(itf.getClassLoader(), new Class[] {itf}, new InvocationHandler() {
+            @Override public Object invoke(Object proxy, Method mtd, Object[] args) throws Throwable {
+                Object res;
+
+                try {
+                    res = mtd.invoke(target, args);
+                }
+                catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+
+                if ("executeBatch".equals(mtd.getName())) {
+                    int[] cnts = (int[])res;
+
+                    Arrays.fill(cnts, Statement.SUCCESS_NO_INFO);
+
+                    return cnts;
+                }
+
+                if (res instanceof Connection)
+                    return proxy(Connection.class, res);
+
+                if (res instanceof PreparedStatement)
+                    return proxy(PreparedStatement.class, res);
+
+                return res;
+            }
+        });
+    }
+
+    /**
+     * Test value.
+     */
+    private static class Person {
+        /** Name. */
+        private String name;
+
+        /** Age. */
+        private int age;
+
+        /**
+         * Required by store.
+         */
+        private Person() {
+            // No-op.
+        }
+
+        /**
+         * @param name Name.
+         * @param age Age.
+         */
+        Person(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean equals(Object o) {
+            if (this == o)
+                return true;
+
+            if (!(o instanceof Person))
+                return false;
+
+            Person p = (Person)o;
+
+            return age == p.age && F.eq(name, p.name);
+        }
+
+        /** {@inheritDoc} */
+        @Override public int hashCode() {
+            return 31 * (name != null ? name.hashCode() : 0) + age;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return "Person [name=" + name + ", age=" + age + ']';
+        }
+    }
+}
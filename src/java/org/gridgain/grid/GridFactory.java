@@ -1624,11 +1624,18 @@ public class GridFactory {
             if (execSvc == null) {
                 isAutoExecSvc = true;
 
-                execSvc = new GridThreadPoolExecutor(cfg.getGridName(), DFLT_PUBLIC_THREAD_CNT,
-                    DFLT_PUBLIC_THREAD_CNT, 0, new LinkedBlockingQueue<Runnable>());
-
-                // Pre-start all threads as they are guaranteed to be needed.
-                ((ThreadPoolExecutor)execSvc).prestartAllCoreThreads();
+                if (Boolean.parseBoolean(X.getSystemOrEnv(GG_WORK_STEALING_PUBLIC_POOL)))
+                    // Workers are started right away. Up to the same number of spare
+                    // workers may be added to compensate for workers blocked on futures.
+                    execSvc = new GridWorkStealingExecutor(cfg.getGridName(), DFLT_PUBLIC_THREAD_CNT,
+                        DFLT_PUBLIC_THREAD_CNT * 2);
+                else {
+                    execSvc = new GridThreadPoolExecutor(cfg.getGridName(), DFLT_PUBLIC_THREAD_CNT,
+                        DFLT_PUBLIC_THREAD_CNT, 0, new LinkedBlockingQueue<Runnable>());
+
+                    // Pre-start all threads as they are guaranteed to be needed.
+                    ((ThreadPoolExecutor)execSvc).prestartAllCoreThreads();
+                }
             }
 
             if (sysExecSvc == null) {
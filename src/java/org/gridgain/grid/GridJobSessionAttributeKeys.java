@@ -0,0 +1,38 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid;
+
+import java.lang.annotation.*;
+
+/**
+ * This annotation limits session attributes delivered to node executing a job when attached
+ * to {@link GridJob} class. By default every attribute set by task or by any sibling job is
+ * sent to all nodes executing siblings of the task. When this annotation is attached to a job
+ * class, then node running the job will only receive attributes with given {@code String} keys,
+ * and annotation with no keys opts job out of attribute updates altogether.
+ * <p>
+ * Use this annotation for jobs that never wait or listen for attributes published by siblings,
+ * e.g. when siblings report progress through session attributes which only task is interested in.
+ * Note that attributes are delivered per node, so node will still receive all attributes if it
+ * executes another sibling job without this annotation. Attributes which are not delivered
+ * are not available through {@link GridTaskSession#getAttribute(Object)} on that node either.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface GridJobSessionAttributeKeys {
+    /**
+     * Keys of attributes job waits or listens for.
+     */
+    @SuppressWarnings({"JavaDoc"}) String[] value() default {};
+}
@@ -332,6 +332,37 @@ public final class GridSystemProperties {
      */
     public static final String GG_SLOW_TX_WARN_TIMEOUT = "GRIDGAIN_SLOW_TX_WARN_TIMEOUT";
 
+    /**
+     * Maximum size in bytes of marshalling buffer kept by every thread for reuse
+     * (see {@link org.gridgain.grid.util.GridByteArrayOutputStreamFactory}). Default
+     * value is {@code 65536}.
+     */
+    public static final String GG_MARSH_BUF_CACHE_SIZE = "GRIDGAIN_MARSHAL_BUFFER_CACHE_SIZE";
+
+    /**
+     * If this system property is set to {@code true}, then public thread pool created
+     * by default is a work-stealing pool (see {@link org.gridgain.grid.thread.GridWorkStealingExecutor})
+     * instead of a fixed pool over a single queue. Ignored if executor service is
+     * provided in configuration. Default value is {@code false}.
+     */
+    public static final String GG_WORK_STEALING_PUBLIC_POOL = "GRIDGAIN_WORK_STEALING_PUBLIC_POOL";
+
+    /**
+     * Time window in milliseconds within which task session attribute updates are collected
+     * and sent as one batch, both from job to task node and from task node to nodes running
+     * sibling jobs. Only the latest value of every changed key is sent. Default value
+     * is {@code 10}, {@code 0} disables coalescing and sends every update right away.
+     */
+    public static final String GG_SES_ATTR_WINDOW = "GRIDGAIN_SESSION_ATTRIBUTES_WINDOW";
+
+    /**
+     * Number of recent removals remembered by every local partition of partitioned cache.
+     * Partition which was partially preloaded from some node is then preloaded from the
+     * same node by sending only entries changed since, as long as all removals made in
+     * the meantime are still remembered. Default value is {@code 128}.
+     */
+    public static final String GG_DHT_PART_RMV_HISTORY_SIZE = "GRIDGAIN_DHT_PARTITION_REMOVE_HISTORY_SIZE";
+
     /**
      * Enforces singleton.
      */
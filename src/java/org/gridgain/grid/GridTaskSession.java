@@ -435,6 +435,47 @@ public interface GridTaskSession extends GridMetadataAware {
     public void saveCheckpoint(String key, Object state, GridTaskSessionScope scope, long timeout,
         boolean overwrite) throws GridException;
 
+    /**
+     * Asynchronously saves intermediate state of a job or task to a storage. This method
+     * is analogous to {@link #saveCheckpoint(String, Object)}, but it does not wait for the
+     * storage. State is captured right away, so it can be safely changed after this method
+     * returns. If previous state saved with the same key has not been written yet, then
+     * only the latest state is written.
+     * <p>
+     * Result of a job is not sent to task node until all checkpoints saved by the job
+     * asynchronously are written, and if any of them fails, the job fails too.
+     *
+     * @param key Key to be used to load this checkpoint in future.
+     * @param state Intermediate job state to save.
+     * @return Future which completes once state is written.
+     * @throws GridException If failed to capture intermediate job state.
+     * @see #saveCheckpoint(String, Object)
+     */
+    public GridFuture<Boolean> saveCheckpointAsync(String key, Object state) throws GridException;
+
+    /**
+     * Asynchronously saves intermediate state of a job or task to a storage. This method
+     * is analogous to {@link #saveCheckpoint(String, Object, GridTaskSessionScope, long, boolean)},
+     * but it does not wait for the storage. State is captured right away, so it can be safely
+     * changed after this method returns. If previous state saved with the same key has not been
+     * written yet, then only the latest state is written.
+     * <p>
+     * Result of a job is not sent to task node until all checkpoints saved by the job
+     * asynchronously are written, and if any of them fails, the job fails too.
+     *
+     * @param key Key to be used to load this checkpoint in future.
+     * @param state Intermediate job state to save.
+     * @param scope Checkpoint scope.
+     * @param timeout Maximum time this state should be kept by the underlying storage. Value <tt>0</tt> means that
+     *      timeout will never expire.
+     * @param overwrite Whether or not overwrite checkpoint if it already exists.
+     * @return Future which completes with {@code true} if checkpoint has been actually saved.
+     * @throws GridException If failed to capture intermediate job state.
+     * @see #saveCheckpoint(String, Object, GridTaskSessionScope, long, boolean)
+     */
+    public GridFuture<Boolean> saveCheckpointAsync(String key, Object state, GridTaskSessionScope scope,
+        long timeout, boolean overwrite) throws GridException;
+
     /**
      * Loads job's state previously saved via {@link #saveCheckpoint(String, Object, GridTaskSessionScope , long)}
      * method from an underlying storage for a given {@code key}. If state was not previously
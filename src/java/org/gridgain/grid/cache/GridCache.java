@@ -144,6 +144,11 @@ public interface GridCache<K, V> extends GridCacheProjection<K, V> {
      * cache if another thread has updated the value immediately after it has been
      * loaded. It is mostly useful when pre-loading the cache from underlying
      * data store before start, or for read-only caches.
+     * <p>
+     * Only values for keys for which local node is primary or backup are put into cache.
+     * If store implements {@link GridCachePartitionLoadStore} or {@link GridCacheRangeLoadStore},
+     * partitions or ranges are loaded in parallel by
+     * {@link GridCacheConfiguration#getStoreLoadThreadCount()} threads.
      *
      * @param ttl Time to live for loaded entries ({@code 0} for infinity).
      * @param p Optional predicate (may be {@code null}). If provided, will be used to
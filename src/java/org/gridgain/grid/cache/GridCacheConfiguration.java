@@ -200,6 +200,15 @@ public interface GridCacheConfiguration {
     /** Default batch size for write-from-behind cache store. */
     public static final int DFLT_WRITE_FROM_BEHIND_BATCH_SIZE = 512;
 
+    /** Default number of threads used to load cache from persistent store. */
+    public static final int DFLT_STORE_LOAD_THREAD_CNT = Runtime.getRuntime().availableProcessors();
+
+    /** Default batch size for loading cache from persistent store. */
+    public static final int DFLT_STORE_LOAD_BATCH_SIZE = 512;
+
+    /** Default window for grouping read-through misses into one store batch (batching is disabled). */
+    public static final long DFLT_READ_THROUGH_BATCH_WINDOW = 0;
+
     /**
      * Cache name. If not provided or {@code null}, then this will be considered a default
      * cache which can be accessed via {@link Grid#cache()} method. Otherwise, if name
@@ -785,6 +794,44 @@ public interface GridCacheConfiguration {
      */
     public int getWriteFromBehindBatchSize();
 
+    /**
+     * Maximum number of system pool threads used by {@link GridCache#loadCache(GridPredicate2, long, Object...)}
+     * to load cache from persistent store. If store implements {@link GridCachePartitionLoadStore}
+     * or {@link GridCacheRangeLoadStore}, partitions or ranges are loaded in parallel by these
+     * threads. Otherwise, values loaded by {@link GridCacheStore#loadAll(String, GridInClosure2, Object...)}
+     * are put into cache by these threads in batches. This value should be less than size
+     * of system pool, so that system messages are processed during loading.
+     * <p>
+     * If not provided, default value is {@link #DFLT_STORE_LOAD_THREAD_CNT}.
+     *
+     * @return Number of threads used to load cache from persistent store.
+     */
+    public int getStoreLoadThreadCount();
+
+    /**
+     * Number of loaded entries which are put into cache in one batch during
+     * {@link GridCache#loadCache(GridPredicate2, long, Object...)}.
+     * <p>
+     * If not provided, default value is {@link #DFLT_STORE_LOAD_BATCH_SIZE}.
+     *
+     * @return Batch size for loading cache from persistent store.
+     */
+    public int getStoreLoadBatchSize();
+
+    /**
+     * Time window in milliseconds during which read-through misses of individual keys are
+     * grouped together and loaded with one {@link GridCacheStore#loadAll(String, GridCacheTx, Collection, GridInClosure2)}
+     * call. The first miss waits for this window to let concurrent misses join its batch, a batch is
+     * loaded earlier if it reaches {@link #getStoreLoadBatchSize()} keys. Concurrent misses of the
+     * same key are always loaded from store only once regardless of this setting.
+     * <p>
+     * If not provided, default value is {@link #DFLT_READ_THROUGH_BATCH_WINDOW} and every miss
+     * is loaded right away.
+     *
+     * @return Time window in milliseconds for grouping read-through misses, {@code 0} to disable.
+     */
+    public long getReadThroughBatchWindow();
+
     /**
      * Cloner to be used for cloning values that are returned to user only if {@link GridCacheFlag#CLONE}
      * is set on {@link GridCacheProjection}. Cloning values is useful when it is needed to get value from
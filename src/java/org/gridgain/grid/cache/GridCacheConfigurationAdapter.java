@@ -197,6 +197,15 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
     /** Flush thread count for write from behind cache store. */
     private int writeFromBehindFlushThreadCnt = DFLT_WRITE_FROM_BEHIND_FLUSH_THREAD_CNT;
 
+    /** Number of threads used to load cache from persistent store. */
+    private int storeLoadThreadCnt = DFLT_STORE_LOAD_THREAD_CNT;
+
+    /** Batch size for loading cache from persistent store. */
+    private int storeLoadBatchSize = DFLT_STORE_LOAD_BATCH_SIZE;
+
+    /** Time window for grouping read-through misses. */
+    private long readThroughBatchWindow = DFLT_READ_THROUGH_BATCH_WINDOW;
+
     /** Maximum batch size for write from behind cache store. */
     private int writeFromBehindBatchSize = DFLT_WRITE_FROM_BEHIND_BATCH_SIZE;
 
@@ -292,6 +301,9 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         writeFromBehindFlushFrequency = cc.getWriteFromBehindFlushFrequency();
         writeFromBehindFlushSize = cc.getWriteFromBehindFlushSize();
         writeFromBehindFlushThreadCnt = cc.getWriteFromBehindFlushThreadCount();
+        storeLoadThreadCnt = cc.getStoreLoadThreadCount();
+        storeLoadBatchSize = cc.getStoreLoadBatchSize();
+        readThroughBatchWindow = cc.getReadThroughBatchWindow();
     }
 
     /** {@inheritDoc} */
@@ -1124,6 +1136,51 @@ public class GridCacheConfigurationAdapter implements GridCacheConfiguration {
         this.writeFromBehindBatchSize = writeFromBehindBatchSize;
     }
 
+    /** {@inheritDoc} */
+    @Override public int getStoreLoadThreadCount() {
+        return storeLoadThreadCnt;
+    }
+
+    /**
+     * Sets number of threads used to load cache from persistent store.
+     *
+     * @param storeLoadThreadCnt Number of threads used to load cache from persistent store.
+     * @see #getStoreLoadThreadCount()
+     */
+    public void setStoreLoadThreadCount(int storeLoadThreadCnt) {
+        this.storeLoadThreadCnt = storeLoadThreadCnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getStoreLoadBatchSize() {
+        return storeLoadBatchSize;
+    }
+
+    /**
+     * Sets batch size for loading cache from persistent store.
+     *
+     * @param storeLoadBatchSize Batch size for loading cache from persistent store.
+     * @see #getStoreLoadBatchSize()
+     */
+    public void setStoreLoadBatchSize(int storeLoadBatchSize) {
+        this.storeLoadBatchSize = storeLoadBatchSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getReadThroughBatchWindow() {
+        return readThroughBatchWindow;
+    }
+
+    /**
+     * Sets time window in milliseconds for grouping read-through misses into one store batch.
+     *
+     * @param readThroughBatchWindow Time window for grouping read-through misses, {@code 0} to disable.
+     * @see #getReadThroughBatchWindow()
+     */
+    public void setReadThroughBatchWindow(long readThroughBatchWindow) {
+        this.readThroughBatchWindow = readThroughBatchWindow;
+    }
+
     /** {@inheritDoc} */
     @SuppressWarnings({"unchecked"})
     @Override public GridCacheCloner getCloner() {
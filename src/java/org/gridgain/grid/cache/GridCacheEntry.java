@@ -294,6 +294,17 @@ public interface GridCacheEntry<K, V> extends Map.Entry<K, V>, GridMetadataAware
      */
     public int partition();
 
+    /**
+     * Gets estimated size of this entry in bytes. The size is calculated as a sum of
+     * serialized key and value sizes. If value bytes are not stored in cache
+     * (see {@link GridCacheConfiguration#isStoreValueBytes()}), then value will be
+     * marshalled on every call, so this method should be used with care on hot paths.
+     *
+     * @return Estimated entry size in bytes.
+     * @throws GridException If key or value could not be marshalled.
+     */
+    public long memorySize() throws GridException;
+
     /**
      * Gets parent grid projection for this entry.
      *
@@ -2218,6 +2218,15 @@ public interface GridCacheProjection<K, V> extends Iterable<GridCacheEntry<K, V>
     public <R1, R2> GridCacheReduceQuery<K, V, R1, R2> createReduceQuery(GridCacheQueryType type,
         @Nullable String clsName, @Nullable String clause);
 
+    /**
+     * Creates continuous query which notifies local callback about updates of cache entries
+     * passing remote filter. For more information refer to {@link GridCacheContinuousQuery}
+     * documentation.
+     *
+     * @return Created continuous query.
+     */
+    public GridCacheContinuousQuery<K, V> createContinuousQuery();
+
     /**
      * Starts transaction with default isolation, concurrency, timeout, and invalidation policy.
      * All defaults are set in {@link GridCacheConfiguration} at startup.
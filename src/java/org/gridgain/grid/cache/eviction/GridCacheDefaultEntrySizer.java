@@ -0,0 +1,58 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+package org.gridgain.grid.cache.eviction;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.util.*;
+
+/**
+ * Default entry sizer which estimates entry size as a sum of serialized key and
+ * value sizes, as returned by {@link GridCacheEntry#memorySize()}. Estimated size
+ * is attached to entry and is only recomputed after entry version changes, so that
+ * values are not marshalled on every access.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCacheDefaultEntrySizer<K, V> implements GridCacheEntrySizer<K, V> {
+    /** Tag of entry version and size estimated for it. */
+    private final String meta = UUID.randomUUID().toString();
+
+    /** {@inheritDoc} */
+    @Override public long size(GridCacheEntry<K, V> entry) {
+        Object ver = entry.version();
+
+        T2<Object, Long> cached = entry.meta(meta);
+
+        if (cached != null && F.eq(cached.get1(), ver))
+            return cached.get2();
+
+        try {
+            long size = entry.memorySize();
+
+            entry.addMeta(meta, new T2<Object, Long>(ver, size));
+
+            return size;
+        }
+        catch (GridException e) {
+            U.error(null, "Failed to estimate cache entry size (will assume 0): " + entry, e);
+
+            return 0;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheDefaultEntrySizer.class, this);
+    }
+}
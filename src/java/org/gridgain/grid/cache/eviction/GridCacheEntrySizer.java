@@ -0,0 +1,35 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+package org.gridgain.grid.cache.eviction;
+
+import org.gridgain.grid.cache.*;
+
+/**
+ * Estimates memory footprint of cache entries for eviction policies that bound
+ * cache by memory size rather than by number of entries (see
+ * {@code setMaxMemorySize(long)} on shipped eviction policies).
+ * <p>
+ * By default, {@link GridCacheDefaultEntrySizer} is used which relies on serialized
+ * key and value sizes returned by {@link GridCacheEntry#memorySize()}. It works best when
+ * {@link GridCacheConfiguration#isStoreValueBytes()} is enabled, since otherwise values
+ * have to be marshalled once after every update. If value bytes are not stored, it is recommended
+ * to provide custom sizer which estimates size directly from key and value objects.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public interface GridCacheEntrySizer<K, V> {
+    /**
+     * Gets estimated size of cache entry in bytes.
+     *
+     * @param entry Cache entry.
+     * @return Estimated entry size in bytes.
+     */
+    public long size(GridCacheEntry<K, V> entry);
+}
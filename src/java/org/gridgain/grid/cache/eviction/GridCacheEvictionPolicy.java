@@ -16,6 +16,7 @@ import org.gridgain.grid.cache.eviction.lirs.*;
 import org.gridgain.grid.cache.eviction.lru.*;
 import org.gridgain.grid.cache.eviction.never.*;
 import org.gridgain.grid.cache.eviction.random.*;
+import org.gridgain.grid.cache.eviction.tinylfu.*;
 import org.gridgain.grid.lang.*;
 
 /**
@@ -29,6 +30,7 @@ import org.gridgain.grid.lang.*;
  * <ul>
  * <li>{@link GridCacheLruEvictionPolicy}</li>
  * <li>{@link GridCacheLirsEvictionPolicy}</li>
+ * <li>{@link GridCacheTinyLfuEvictionPolicy}</li>
  * <li>{@link GridCacheRandomEvictionPolicy}</li>
  * <li>{@link GridCacheFifoEvictionPolicy}</li>
  * <li>{@link GridCacheAlwaysEvictionPolicy}</li>
@@ -17,6 +17,7 @@ import org.gridgain.grid.lang.utils.GridQueue.*;
 import org.gridgain.grid.typedef.internal.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 import static org.gridgain.grid.cache.GridCachePeekMode.*;
 
@@ -25,12 +26,19 @@ import static org.gridgain.grid.cache.GridCachePeekMode.*;
  * implementation is very efficient since it is lock-free and does not
  * create any additional table-like data structures. The {@code FIFO} ordering
  * information is maintained by attaching ordering metadata to cache entries.
+ * <p>
+ * In addition to maximum number of entries, cache may be bounded by memory size via
+ * {@link #setMaxMemorySize(long)}. In that case entry sizes are estimated by configured
+ * {@link GridCacheEntrySizer} and entries are evicted until total size fits into the limit.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.09012012
  */
 public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolicy<K, V>,
     GridCacheFifoEvictionPolicyMBean {
+    /** Memory size marker of removed or evicted entry which is no longer tracked. */
+    private static final Long RELEASED = -1L;
+
     /** Tag. */
     private final String meta = UUID.randomUUID().toString();
 
@@ -43,6 +51,18 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
     /** FIFO queue. */
     private final GridQueue<GridCacheEntry<K, V>> queue = new GridQueue<GridCacheEntry<K, V>>();
 
+    /** Maximum memory size in bytes, {@code 0} if memory size is not bounded. */
+    private volatile long maxMemSize;
+
+    /** Current memory size of all tracked entries. */
+    private final AtomicLong memSize = new AtomicLong();
+
+    /** Entry sizer. */
+    private volatile GridCacheEntrySizer<K, V> sizer = new GridCacheDefaultEntrySizer<K, V>();
+
+    /** Memory size tag. */
+    private final String memMeta = UUID.randomUUID().toString();
+
     /**
      * Constructs LRU eviction policy with all defaults.
      */
@@ -73,6 +93,21 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
         this.allowEmptyEntries = allowEmptyEntries;
     }
 
+    /**
+     * Constructs FIFO eviction policy with maximum size and maximum memory size. Entries will be
+     * evicted whenever either of the limits is exceeded.
+     *
+     * @param max Maximum allowed size of cache before entry will start getting evicted.
+     * @param maxMemSize Maximum allowed memory size in bytes of all cache entries.
+     */
+    public GridCacheFifoEvictionPolicy(int max, long maxMemSize) {
+        this(max);
+
+        A.ensure(maxMemSize > 0, "maxMemSize > 0");
+
+        this.maxMemSize = maxMemSize;
+    }
+
     /**
      * Gets maximum allowed size of cache before entry will start getting evicted.
      *
@@ -93,6 +128,45 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
         this.max = max;
     }
 
+    /** {@inheritDoc} */
+    @Override public long getMaxMemorySize() {
+        return maxMemSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setMaxMemorySize(long maxMemSize) {
+        A.ensure(maxMemSize >= 0, "maxMemSize >= 0");
+
+        this.maxMemSize = maxMemSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getCurrentMemorySize() {
+        return memSize.get();
+    }
+
+    /**
+     * Gets entry sizer used to estimate memory size of cache entries.
+     *
+     * @return Entry sizer.
+     */
+    public GridCacheEntrySizer<K, V> getEntrySizer() {
+        return sizer;
+    }
+
+    /**
+     * Sets entry sizer used to estimate memory size of cache entries. Entry sizes are
+     * only tracked if maximum memory size is set. By default {@link GridCacheDefaultEntrySizer}
+     * is used.
+     *
+     * @param sizer Entry sizer.
+     */
+    public void setEntrySizer(GridCacheEntrySizer<K, V> sizer) {
+        A.notNull(sizer, "sizer");
+
+        this.sizer = sizer;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean isAllowEmptyEntries() {
         return allowEmptyEntries;
@@ -133,6 +207,8 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
 
                 if (!entry.evict())
                     touch(entry);
+                else
+                    releaseMemory(entry);
             }
             else
                 touch(entry);
@@ -142,6 +218,8 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
 
             if (node != null)
                 queue.unlink(node);
+
+            releaseMemory(entry);
         }
 
         shrink();
@@ -159,6 +237,8 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
 
             assert old == null : "Node was enqueued by another thread: " + old;
         }
+
+        trackMemory(entry);
     }
 
     /**
@@ -188,7 +268,7 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
 
         int startSize = queue.size();
 
-        for (int i = 0; i < startSize && queue.size() > max; i++) {
+        for (int i = 0; i < startSize && (queue.size() > max || memoryExceeded()); i++) {
             GridCacheEntry<K, V> entry = queue.poll();
 
             assert entry != null;
@@ -199,6 +279,76 @@ public class GridCacheFifoEvictionPolicy<K, V> implements GridCacheEvictionPolic
 
             if (!entry.evict())
                 touch(entry);
+            else
+                releaseMemory(entry);
+        }
+    }
+
+    /**
+     * @return {@code True} if maximum memory size is set and exceeded.
+     */
+    private boolean memoryExceeded() {
+        long maxMemSize = this.maxMemSize;
+
+        return maxMemSize > 0 && memSize.get() > maxMemSize;
+    }
+
+    /**
+     * Updates tracked memory size of given entry. Sizes are tracked only if
+     * maximum memory size is set.
+     *
+     * @param entry Touched entry.
+     */
+    private void trackMemory(GridCacheEntry<K, V> entry) {
+        if (maxMemSize <= 0)
+            return;
+
+        long size = sizer.size(entry);
+
+        // Size is swapped atomically, so that concurrent touches and releases never
+        // count the same entry twice.
+        while (true) {
+            Long old = entry.meta(memMeta);
+
+            if (old == null) {
+                if (entry.putMetaIfAbsent(memMeta, size) == null) {
+                    memSize.addAndGet(size);
+
+                    return;
+                }
+            }
+            else if (RELEASED.equals(old))
+                // Entry has been removed or evicted.
+                return;
+            else if (entry.replaceMeta(memMeta, old, size)) {
+                memSize.addAndGet(size - old);
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases tracked memory size of removed or evicted entry. Released entry is
+     * marked, so that it is not tracked again by concurrent touch.
+     *
+     * @param entry Removed or evicted entry.
+     */
+    private void releaseMemory(GridCacheEntry<K, V> entry) {
+        while (true) {
+            Long old = entry.meta(memMeta);
+
+            if (old == null) {
+                if (entry.putMetaIfAbsent(memMeta, RELEASED) == null)
+                    return;
+            }
+            else if (RELEASED.equals(old))
+                return;
+            else if (entry.replaceMeta(memMeta, old, RELEASED)) {
+                memSize.addAndGet(-old);
+
+                return;
+            }
         }
     }
 
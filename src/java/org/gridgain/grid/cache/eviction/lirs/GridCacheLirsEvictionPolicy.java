@@ -20,6 +20,7 @@ import org.gridgain.grid.util.tostring.*;
 import org.jetbrains.annotations.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 import static org.gridgain.grid.cache.GridCachePeekMode.*;
 import static org.gridgain.grid.cache.eviction.lirs.GridCacheLirsEvictionPolicy.State.*;
@@ -39,6 +40,10 @@ import static org.gridgain.grid.lang.utils.GridQueue.*;
  * For more information see
  * <a href="http://citeseerx.ist.psu.edu/viewdoc/download?doi=10.1.1.116.2184&rep=rep1&type=pdf">Low Inter-Reference Recency Set (LIRS)</a>
  * algorithm by Sone Jiang and Xiaodong Zhang.
+ * <p>
+ * In addition to maximum number of entries, cache may be bounded by memory size via
+ * {@link #setMaxMemorySize(long)}. In that case entry sizes are estimated by configured
+ * {@link GridCacheEntrySizer} and entries are evicted until total size fits into the limit.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.09012012
@@ -69,6 +74,16 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
     /** Ratio of {@code HIRS} (High Inter-reference Recency Set). */
     private double queueRatio = DFLT_QUEUE_SIZE_RATIO;
 
+    /** Maximum memory size in bytes, {@code 0} if memory size is not bounded. */
+    private volatile long maxMemSize;
+
+    /** Current memory size of all tracked entries. */
+    private final AtomicLong memSize = new AtomicLong();
+
+    /** Entry sizer. */
+    @GridToStringExclude
+    private volatile GridCacheEntrySizer<K, V> sizer = new GridCacheDefaultEntrySizer<K, V>();
+
     /** Meta tag. */
     @GridToStringExclude
     private final String meta = UUID.randomUUID().toString();
@@ -136,6 +151,21 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
         this.allowEmptyEntries = allowEmptyEntries;
     }
 
+    /**
+     * Constructs LIRS eviction policy with maximum size and maximum memory size. Entries will be
+     * evicted whenever either of the limits is exceeded.
+     *
+     * @param max Maximum allowed size of entries in cache.
+     * @param maxMemSize Maximum allowed memory size in bytes of all cache entries.
+     */
+    public GridCacheLirsEvictionPolicy(int max, long maxMemSize) {
+        A.ensure(max > 0, "max > 0");
+        A.ensure(maxMemSize > 0, "maxMemSize > 0");
+
+        this.max = max;
+        this.maxMemSize = maxMemSize;
+    }
+
     /** {@inheritDoc} */
     @Override public int getMaxSize() {
         return max;
@@ -152,6 +182,45 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
         this.max = max;
     }
 
+    /** {@inheritDoc} */
+    @Override public long getMaxMemorySize() {
+        return maxMemSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setMaxMemorySize(long maxMemSize) {
+        A.ensure(maxMemSize >= 0, "maxMemSize >= 0");
+
+        this.maxMemSize = maxMemSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getCurrentMemorySize() {
+        return memSize.get();
+    }
+
+    /**
+     * Gets entry sizer used to estimate memory size of cache entries.
+     *
+     * @return Entry sizer.
+     */
+    public GridCacheEntrySizer<K, V> getEntrySizer() {
+        return sizer;
+    }
+
+    /**
+     * Sets entry sizer used to estimate memory size of cache entries. Entry sizes are
+     * only tracked if maximum memory size is set. By default {@link GridCacheDefaultEntrySizer}
+     * is used.
+     *
+     * @param sizer Entry sizer.
+     */
+    public void setEntrySizer(GridCacheEntrySizer<K, V> sizer) {
+        A.notNull(sizer, "sizer");
+
+        this.sizer = sizer;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean isAllowEmptyEntries() {
         return allowEmptyEntries;
@@ -249,6 +318,8 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
             if (c != null)
                 c.clear();
         }
+
+        shrinkMemory();
     }
 
     /**
@@ -298,6 +369,8 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
         if (c.cleared())
             entry.addMeta(meta, c = new Capsule(entry, initState));
 
+        c.trackMemory();
+
         switch (c.state()) {
             // Low inter-recency.
             case LIR: {
@@ -397,6 +470,43 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
         }
     }
 
+    /**
+     * Evicts entries until memory size fits into maximum allowed memory size. Resident
+     * {@code HIR} entries are evicted first, and if there are none left, {@code LIR}
+     * entries are demoted from the bottom of the stack.
+     */
+    private void shrinkMemory() {
+        long maxMemSize = this.maxMemSize;
+
+        if (maxMemSize <= 0)
+            return;
+
+        int startSize = stack.size() + queue.size();
+
+        for (int i = 0; i < startSize && memSize.get() > maxMemSize; i++) {
+            Capsule c = queue.poll();
+
+            if (c == null) {
+                c = stack.prune();
+
+                if (c == null || !c.demote())
+                    break;
+
+                continue;
+            }
+
+            if (c.cleared())
+                continue;
+
+            // Entry is evicted even if it is still in stack, since otherwise
+            // its memory would not be freed. Capsule is not needed any more.
+            if (c.evict())
+                c.clear();
+            else
+                c.addStackNode(LIR);
+        }
+    }
+
     /**
      * Gets string representation of all queue and stack contents.
      *
@@ -489,7 +599,7 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
 
                     if (!c.inStack()) {
                         // It's OK to evict while holding lock on capsule.
-                        if (!c.entry().evict())
+                        if (!c.evict())
                             // Add to the top again.
                             c.addStackNode(LIR);
                     }
@@ -552,7 +662,7 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
                 // If need to evict.
                 else if (c.state() == HIR_NR) {
                     if (c.unstack())
-                        if (!c.entry().evict())
+                        if (!c.evict())
                             // Add to the top again.
                             c.addStackNode(LIR);
                 }
@@ -598,6 +708,9 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
         @GridToStringInclude
         private volatile GridCacheEntry<K, V> entry;
 
+        /** Tracked memory size of the entry. */
+        private long size;
+
         /**
          * Constructor for head node.
          */
@@ -625,6 +738,8 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
                 dequeue();
                 unstack();
 
+                releaseMemory();
+
                 entry = null;
 
                 state = null;
@@ -635,6 +750,45 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
             return false;
         }
 
+        /**
+         * Updates tracked memory size of the entry. Sizes are tracked only if
+         * maximum memory size is set.
+         */
+        void trackMemory() {
+            if (maxMemSize <= 0)
+                return;
+
+            long newSize = sizer.size(entry);
+
+            memSize.addAndGet(newSize - size);
+
+            size = newSize;
+        }
+
+        /**
+         * Releases tracked memory size of the entry.
+         */
+        void releaseMemory() {
+            memSize.addAndGet(-size);
+
+            size = 0;
+        }
+
+        /**
+         * Evicts entry from cache and releases its memory size if eviction succeeded.
+         *
+         * @return {@code True} if entry was evicted.
+         */
+        boolean evict() {
+            if (entry.evict()) {
+                releaseMemory();
+
+                return true;
+            }
+
+            return false;
+        }
+
         /**
          * @return {@code True} if capsule is cleared.
          */
@@ -759,7 +913,7 @@ public class GridCacheLirsEvictionPolicy<K, V> implements GridCacheEvictionPolic
                 dequeue();
 
                 if (!inStack())
-                    if (!entry.evict())
+                    if (!evict())
                         // Add to the top again.
                         addStackNode(LIR);
 
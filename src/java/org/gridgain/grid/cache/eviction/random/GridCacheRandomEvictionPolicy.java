@@ -14,6 +14,9 @@ import org.gridgain.grid.cache.*;
 import org.gridgain.grid.cache.eviction.*;
 import org.gridgain.grid.typedef.internal.*;
 
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
 import static org.gridgain.grid.cache.GridCachePeekMode.*;
 
 /**
@@ -24,18 +27,37 @@ import static org.gridgain.grid.cache.GridCachePeekMode.*;
  * <p>
  * Random eviction will provide the best performance over any key set in which every
  * key has the same probability of being accessed.
+ * <p>
+ * In addition to maximum number of entries, cache may be bounded by memory size via
+ * {@link #setMaxMemorySize(long)}. In that case entry sizes are estimated by configured
+ * {@link GridCacheEntrySizer} and entries are evicted until total size fits into the limit.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.09012012
  */
 public class GridCacheRandomEvictionPolicy<K, V> implements GridCacheEvictionPolicy<K, V>,
     GridCacheRandomEvictionPolicyMBean {
+    /** Memory size marker of removed or evicted entry which is no longer tracked. */
+    private static final Long RELEASED = -1L;
+
     /** Maximum size. */
     private volatile int max = -1;
 
     /** Flag indicating whether empty entries are allowed. */
     private volatile boolean allowEmptyEntries = true;
 
+    /** Maximum memory size in bytes, {@code 0} if memory size is not bounded. */
+    private volatile long maxMemSize;
+
+    /** Current memory size of all tracked entries. */
+    private final AtomicLong memSize = new AtomicLong();
+
+    /** Entry sizer. */
+    private volatile GridCacheEntrySizer<K, V> sizer = new GridCacheDefaultEntrySizer<K, V>();
+
+    /** Memory size tag. */
+    private final String memMeta = UUID.randomUUID().toString();
+
     /**
      * Constructs random eviction policy with all defaults.
      */
@@ -67,6 +89,21 @@ public class GridCacheRandomEvictionPolicy<K, V> implements GridCacheEvictionPol
         this.allowEmptyEntries = allowEmptyEntries;
     }
 
+    /**
+     * Constructs random eviction policy with maximum size and maximum memory size. Entries will be
+     * evicted whenever either of the limits is exceeded.
+     *
+     * @param max Maximum allowed size of cache before entry will start getting evicted.
+     * @param maxMemSize Maximum allowed memory size in bytes of all cache entries.
+     */
+    public GridCacheRandomEvictionPolicy(int max, long maxMemSize) {
+        A.ensure(max > 0, "max > 0");
+        A.ensure(maxMemSize > 0, "maxMemSize > 0");
+
+        this.max = max;
+        this.maxMemSize = maxMemSize;
+    }
+
     /**
      * Gets maximum allowed size of cache before entry will start getting evicted.
      *
@@ -87,6 +124,45 @@ public class GridCacheRandomEvictionPolicy<K, V> implements GridCacheEvictionPol
         this.max = max;
     }
 
+    /** {@inheritDoc} */
+    @Override public long getMaxMemorySize() {
+        return maxMemSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setMaxMemorySize(long maxMemSize) {
+        A.ensure(maxMemSize >= 0, "maxMemSize >= 0");
+
+        this.maxMemSize = maxMemSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getCurrentMemorySize() {
+        return memSize.get();
+    }
+
+    /**
+     * Gets entry sizer used to estimate memory size of cache entries.
+     *
+     * @return Entry sizer.
+     */
+    public GridCacheEntrySizer<K, V> getEntrySizer() {
+        return sizer;
+    }
+
+    /**
+     * Sets entry sizer used to estimate memory size of cache entries. Entry sizes are
+     * only tracked if maximum memory size is set. By default {@link GridCacheDefaultEntrySizer}
+     * is used.
+     *
+     * @param sizer Entry sizer.
+     */
+    public void setEntrySizer(GridCacheEntrySizer<K, V> sizer) {
+        A.notNull(sizer, "sizer");
+
+        this.sizer = sizer;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean isAllowEmptyEntries() {
         return allowEmptyEntries;
@@ -101,16 +177,92 @@ public class GridCacheRandomEvictionPolicy<K, V> implements GridCacheEvictionPol
     @Override public void onEntryAccessed(boolean rmv, GridCacheEntry<K, V> entry) {
         GridCache<K, V> cache = entry.parent().cache();
 
-        if (!allowEmptyEntries && empty(entry))
-            entry.evict();
+        boolean evicted = !allowEmptyEntries && empty(entry) && entry.evict();
+
+        if (rmv || evicted)
+            releaseMemory(entry);
+        else
+            trackMemory(entry);
 
         int size = cache.keySize();
 
         for (int i = max; i < size; i++) {
             GridCacheEntry<K, V> e = cache.randomEntry();
 
-            if (e != null)
-                e.evict();
+            if (e != null && e.evict())
+                releaseMemory(e);
+        }
+
+        long maxMemSize = this.maxMemSize;
+
+        if (maxMemSize > 0) {
+            // Number of attempts is bounded by cache size, since some of
+            // randomly selected entries may not be tracked or evictable.
+            for (int i = 0; i < size && memSize.get() > maxMemSize; i++) {
+                GridCacheEntry<K, V> e = cache.randomEntry();
+
+                if (e != null && e.evict())
+                    releaseMemory(e);
+            }
+        }
+    }
+
+    /**
+     * Updates tracked memory size of given entry. Sizes are tracked only if
+     * maximum memory size is set.
+     *
+     * @param entry Touched entry.
+     */
+    private void trackMemory(GridCacheEntry<K, V> entry) {
+        if (maxMemSize <= 0)
+            return;
+
+        long size = sizer.size(entry);
+
+        // Size is swapped atomically, so that concurrent touches and releases never
+        // count the same entry twice.
+        while (true) {
+            Long old = entry.meta(memMeta);
+
+            if (old == null) {
+                if (entry.putMetaIfAbsent(memMeta, size) == null) {
+                    memSize.addAndGet(size);
+
+                    return;
+                }
+            }
+            else if (RELEASED.equals(old))
+                // Entry has been removed or evicted.
+                return;
+            else if (entry.replaceMeta(memMeta, old, size)) {
+                memSize.addAndGet(size - old);
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases tracked memory size of removed or evicted entry. Released entry is
+     * marked, so that it is not tracked again by concurrent touch.
+     *
+     * @param entry Removed or evicted entry.
+     */
+    private void releaseMemory(GridCacheEntry<K, V> entry) {
+        while (true) {
+            Long old = entry.meta(memMeta);
+
+            if (old == null) {
+                if (entry.putMetaIfAbsent(memMeta, RELEASED) == null)
+                    return;
+            }
+            else if (RELEASED.equals(old))
+                return;
+            else if (entry.replaceMeta(memMeta, old, RELEASED)) {
+                memSize.addAndGet(-old);
+
+                return;
+            }
         }
     }
 
@@ -52,4 +52,30 @@ public interface GridCacheRandomEvictionPolicyMBean {
      */
     @GridMBeanDescription("Sets flag allowing presence of empty entries in cache.")
     public void setAllowEmptyEntries(boolean allowEmptyEntries);
+
+    /**
+     * Gets maximum allowed memory size in bytes of all cache entries, {@code 0} if
+     * memory size is not bounded.
+     *
+     * @return Maximum allowed memory size in bytes.
+     */
+    @GridMBeanDescription("Maximum allowed memory size in bytes of all cache entries.")
+    public long getMaxMemorySize();
+
+    /**
+     * Sets maximum allowed memory size in bytes of all cache entries. If {@code 0},
+     * then memory size is not bounded.
+     *
+     * @param maxMemSize Maximum allowed memory size in bytes.
+     */
+    @GridMBeanDescription("Sets maximum allowed memory size in bytes of all cache entries.")
+    public void setMaxMemorySize(long maxMemSize);
+
+    /**
+     * Gets current estimated memory size in bytes of all tracked cache entries.
+     *
+     * @return Current estimated memory size in bytes.
+     */
+    @GridMBeanDescription("Current estimated memory size in bytes of all tracked cache entries.")
+    public long getCurrentMemorySize();
 }
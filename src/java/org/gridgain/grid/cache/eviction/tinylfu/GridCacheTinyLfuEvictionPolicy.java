@@ -0,0 +1,740 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.cache.eviction.tinylfu;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.eviction.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.lang.utils.GridQueue.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+import static org.gridgain.grid.cache.GridCachePeekMode.*;
+
+/**
+ * Eviction policy based on {@code W-TinyLFU} algorithm. New entries are first placed into
+ * a small {@code LRU} admission window. Entries evicted from the window become candidates
+ * for the main space, which is a segmented {@code LRU} consisting of probation and protected
+ * segments. A candidate is admitted into main space only if its estimated access frequency
+ * is higher than that of the main space victim. Frequencies are estimated by a compact
+ * {@code TinyLFU} count-min sketch which is periodically aged, so that the policy adapts
+ * to changing workloads.
+ * <p>
+ * Contrary to {@link org.gridgain.grid.cache.eviction.lru.GridCacheLruEvictionPolicy}, this
+ * policy is scan-resistant: a full cache scan (e.g. scan query or {@code loadCache(..)}
+ * invocation) only flushes the admission window and does not evict frequently accessed
+ * entries from the main space.
+ * <p>
+ * Reads of already tracked entries are recorded into striped lock-free buffers and applied
+ * to the policy structures in batches, so concurrent readers never contend on the policy.
+ * Read buffers are lossy, i.e. access events may be dropped under heavy load, which only
+ * affects accuracy of recency and frequency information. Additions and removals are never
+ * dropped, but they are buffered as well and applied by whichever thread drains buffers
+ * next, so writers do not block each other either.
+ * <p>
+ * For more information see
+ * <a href="http://arxiv.org/abs/1512.00727">TinyLFU: A Highly Efficient Cache Admission Policy</a>
+ * by Gil Einziger, Roy Friedman and Ben Manes.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCacheTinyLfuEvictionPolicy<K, V> implements GridCacheEvictionPolicy<K, V>,
+    GridCacheTinyLfuEvictionPolicyMBean {
+    /**
+     * Default ratio of admission window size compared to maximum cache size. Default value
+     * is {@code 0.01}, which means that admission window size is {@code 1%} of cache size.
+     */
+    public static final double DFLT_WINDOW_SIZE_RATIO = 0.01;
+
+    /** Ratio of protected segment size compared to main space size. */
+    private static final double PROTECTED_SIZE_RATIO = 0.8;
+
+    /** Size of single read buffer (must be power of 2). */
+    private static final int READ_BUF_SIZE = 64;
+
+    /** Read buffer index mask. */
+    private static final int READ_BUF_MASK = READ_BUF_SIZE - 1;
+
+    /** Number of buffered reads after which buffers are drained. */
+    private static final int READ_BUF_DRAIN_THRESHOLD = READ_BUF_SIZE / 2;
+
+    /** Number of read buffer stripes (power of 2). */
+    private static final int READ_BUF_STRIPES = ceilPow2(Runtime.getRuntime().availableProcessors() * 2);
+
+    /** Admission window region. */
+    private static final byte WINDOW = 0;
+
+    /** Probation segment region. */
+    private static final byte PROBATION = 1;
+
+    /** Protected segment region. */
+    private static final byte PROTECTED = 2;
+
+    /** Tag. */
+    private final String meta = UUID.randomUUID().toString();
+
+    /** Maximum size. */
+    private volatile int max = GridCacheConfiguration.DFLT_CACHE_SIZE;
+
+    /** Allow empty entries flag. */
+    private volatile boolean allowEmptyEntries = true;
+
+    /** Admission window ratio. */
+    private volatile double windowRatio = DFLT_WINDOW_SIZE_RATIO;
+
+    /** Admission window. */
+    @GridToStringExclude
+    private final GridQueue<GridCacheEntry<K, V>> window = new GridQueue<GridCacheEntry<K, V>>();
+
+    /** Probation segment of main space. */
+    @GridToStringExclude
+    private final GridQueue<GridCacheEntry<K, V>> probation = new GridQueue<GridCacheEntry<K, V>>();
+
+    /** Protected segment of main space. */
+    @GridToStringExclude
+    private final GridQueue<GridCacheEntry<K, V>> prot = new GridQueue<GridCacheEntry<K, V>>();
+
+    /** Striped read buffers. */
+    @GridToStringExclude
+    private final List<ReadBuffer> readBufs = new ArrayList<ReadBuffer>(READ_BUF_STRIPES);
+
+    /** Write buffer (additions and removals). */
+    @GridToStringExclude
+    private final Queue<GridTuple2<GridCacheEntry<K, V>, Boolean>> writeBuf =
+        new ConcurrentLinkedQueue<GridTuple2<GridCacheEntry<K, V>, Boolean>>();
+
+    /** Lock guarding policy structures. */
+    @GridToStringExclude
+    private final Lock drainLock = new ReentrantLock();
+
+    /** Frequency sketch, accessed only under {@link #drainLock}. */
+    @GridToStringExclude
+    private FrequencySketch sketch;
+
+    /** Number of rejected candidates. */
+    private volatile long rejectCnt;
+
+    /** Number of dropped reads. */
+    private final AtomicLong dropCnt = new AtomicLong();
+
+    /**
+     * Constructs W-TinyLFU eviction policy with all defaults. Maximum size defaults
+     * to {@link GridCacheConfiguration#DFLT_CACHE_SIZE}.
+     */
+    public GridCacheTinyLfuEvictionPolicy() {
+        for (int i = 0; i < READ_BUF_STRIPES; i++)
+            readBufs.add(new ReadBuffer());
+    }
+
+    /**
+     * Constructs W-TinyLFU eviction policy with maximum size.
+     *
+     * @param max Maximum allowed size of cache before entry will start getting evicted.
+     */
+    public GridCacheTinyLfuEvictionPolicy(int max) {
+        this();
+
+        A.ensure(max > 0, "max > 0");
+
+        this.max = max;
+    }
+
+    /**
+     * Constructs W-TinyLFU eviction policy with maximum size and specified flag whether to allow
+     * empty entries.
+     *
+     * @param max Maximum allowed size of cache before entry will start getting evicted.
+     * @param allowEmptyEntries If {@code false}, entries with null values will be evicted immediately.
+     */
+    public GridCacheTinyLfuEvictionPolicy(int max, boolean allowEmptyEntries) {
+        this(max);
+
+        this.allowEmptyEntries = allowEmptyEntries;
+    }
+
+    /**
+     * Gets maximum allowed size of cache before entry will start getting evicted.
+     *
+     * @return Maximum allowed size of cache before entry will start getting evicted.
+     */
+    @Override public int getMaxSize() {
+        return max;
+    }
+
+    /**
+     * Sets maximum allowed size of cache before entry will start getting evicted.
+     *
+     * @param max Maximum allowed size of cache before entry will start getting evicted.
+     */
+    @Override public void setMaxSize(int max) {
+        A.ensure(max > 0, "max > 0");
+
+        this.max = max;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean isAllowEmptyEntries() {
+        return allowEmptyEntries;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void setAllowEmptyEntries(boolean allowEmptyEntries) {
+        this.allowEmptyEntries = allowEmptyEntries;
+    }
+
+    /** {@inheritDoc} */
+    @Override public double getWindowSizeRatio() {
+        return windowRatio;
+    }
+
+    /**
+     * Sets ratio of admission window size compared to maximum cache size. Larger window
+     * favors recency, smaller window favors frequency. The default value is {@code 0.01}
+     * defined by {@link #DFLT_WINDOW_SIZE_RATIO} constant.
+     *
+     * @param windowRatio Ratio of admission window size.
+     */
+    public void setWindowSizeRatio(double windowRatio) {
+        A.ensure(windowRatio > 0 && windowRatio < 1, "windowRatio > 0 && windowRatio < 1");
+
+        this.windowRatio = windowRatio;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getMaxWindowSize() {
+        return Math.max(1, (int)(max * windowRatio));
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getMaxProtectedSize() {
+        return (int)((max - getMaxWindowSize()) * PROTECTED_SIZE_RATIO);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getCurrentWindowSize() {
+        return window.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getCurrentProbationSize() {
+        return probation.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getCurrentProtectedSize() {
+        return prot.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getCurrentSize() {
+        return window.size() + probation.size() + prot.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getRejectedCount() {
+        return rejectCnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getDroppedCount() {
+        return dropCnt.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String getMetaAttributeName() {
+        return meta;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onEntryAccessed(boolean rmv, GridCacheEntry<K, V> entry) {
+        if (!rmv && entry.hasMeta(meta)) {
+            // Tracked entry is only reordered, so access can be buffered.
+            ReadBuffer buf = readBufs.get((int)Thread.currentThread().getId() & (READ_BUF_STRIPES - 1));
+
+            if (buf.offer(entry))
+                tryDrain();
+        }
+        else {
+            writeBuf.add(F.t(entry, rmv));
+
+            tryDrain();
+        }
+    }
+
+    /**
+     * Drains buffers if no other thread is draining them. Thread holding the lock
+     * may have polled write buffer before new event was added, so write buffer is
+     * checked again once the lock is released.
+     */
+    private void tryDrain() {
+        while (drainLock.tryLock()) {
+            try {
+                drain();
+            }
+            finally {
+                drainLock.unlock();
+            }
+
+            if (writeBuf.isEmpty())
+                break;
+        }
+    }
+
+    /**
+     * Applies buffered events to policy structures and evicts entries if needed.
+     * Must be called under {@link #drainLock}.
+     */
+    private void drain() {
+        int max = this.max;
+
+        if (sketch == null || sketch.capacity() < max)
+            sketch = new FrequencySketch(max);
+
+        for (ReadBuffer buf : readBufs)
+            buf.drain();
+
+        for (GridTuple2<GridCacheEntry<K, V>, Boolean> t = writeBuf.poll(); t != null; t = writeBuf.poll()) {
+            if (t.get2())
+                onRemove(t.get1());
+            else
+                onWrite(t.get1());
+        }
+
+        shrink();
+    }
+
+    /**
+     * @param entry Read entry.
+     */
+    private void onRead(GridCacheEntry<K, V> entry) {
+        Ref ref = entry.meta(meta);
+
+        // Entry was removed after access was buffered.
+        if (ref == null)
+            return;
+
+        sketch.increment(hash(entry));
+
+        reorder(entry, ref);
+    }
+
+    /**
+     * @param entry Added or updated entry.
+     */
+    private void onWrite(GridCacheEntry<K, V> entry) {
+        if (!allowEmptyEntries && empty(entry)) {
+            onRemove(entry);
+
+            if (entry.evict())
+                return;
+        }
+
+        sketch.increment(hash(entry));
+
+        Ref ref = entry.meta(meta);
+
+        if (ref == null) {
+            ref = new Ref();
+
+            ref.node = window.offerx(entry);
+
+            Ref old = entry.addMeta(meta, ref);
+
+            assert old == null : "Entry was tracked concurrently: " + old;
+        }
+        else
+            reorder(entry, ref);
+    }
+
+    /**
+     * @param entry Removed entry.
+     */
+    private void onRemove(GridCacheEntry<K, V> entry) {
+        Ref ref = entry.removeMeta(meta);
+
+        if (ref != null && !ref.node.unlinked())
+            region(ref.region).unlink(ref.node);
+    }
+
+    /**
+     * Moves entry to the tail of its region, promoting probation entries to protected segment.
+     *
+     * @param entry Accessed entry.
+     * @param ref Entry reference.
+     */
+    private void reorder(GridCacheEntry<K, V> entry, Ref ref) {
+        GridQueue<GridCacheEntry<K, V>> q = region(ref.region);
+
+        if (!ref.node.unlinked())
+            q.unlink(ref.node);
+
+        if (ref.region == PROBATION) {
+            ref.region = PROTECTED;
+
+            ref.node = prot.offerx(entry);
+
+            int maxProt = getMaxProtectedSize();
+
+            // Demote least recently used protected entries back to probation.
+            while (prot.size() > maxProt) {
+                GridCacheEntry<K, V> e = prot.poll();
+
+                Ref r = e.meta(meta);
+
+                assert r != null : "Entry does not have metadata: " + e;
+
+                r.region = PROBATION;
+                r.node = probation.offerx(e);
+            }
+        }
+        else
+            ref.node = q.offerx(entry);
+    }
+
+    /**
+     * Moves overflowing window entries into main space if admitted by frequency
+     * filter and evicts main space entries over the limit.
+     */
+    private void shrink() {
+        int maxWindow = getMaxWindowSize();
+        int maxMain = Math.max(0, max - maxWindow);
+
+        int startSize = getCurrentSize();
+
+        for (int i = 0; i < startSize && window.size() > maxWindow; i++) {
+            GridCacheEntry<K, V> cand = window.poll();
+
+            Ref ref = cand.meta(meta);
+
+            assert ref != null : "Entry does not have metadata: " + cand;
+
+            if (probation.size() + prot.size() < maxMain) {
+                admit(cand, ref);
+
+                continue;
+            }
+
+            GridCacheEntry<K, V> victim = probation.size() > 0 ? probation.peek() : prot.peek();
+
+            if (victim != null && sketch.frequency(hash(cand)) > sketch.frequency(hash(victim))) {
+                admit(cand, ref);
+
+                evict(victim);
+            }
+            else {
+                rejectCnt++;
+
+                evict(cand);
+            }
+        }
+
+        // Main space may still be oversized if maximum size was decreased.
+        for (int i = 0; i < startSize && probation.size() + prot.size() > maxMain; i++)
+            evict(probation.size() > 0 ? probation.peek() : prot.peek());
+    }
+
+    /**
+     * @param cand Candidate entry.
+     * @param ref Candidate reference.
+     */
+    private void admit(GridCacheEntry<K, V> cand, Ref ref) {
+        ref.region = PROBATION;
+        ref.node = probation.offerx(cand);
+    }
+
+    /**
+     * Evicts entry. If entry cannot be evicted, it is returned to the tail of its region.
+     *
+     * @param entry Entry to evict.
+     */
+    private void evict(GridCacheEntry<K, V> entry) {
+        Ref ref = entry.removeMeta(meta);
+
+        assert ref != null : "Entry does not have metadata: " + entry;
+
+        GridQueue<GridCacheEntry<K, V>> q = region(ref.region);
+
+        if (!ref.node.unlinked())
+            q.unlink(ref.node);
+
+        if (!entry.evict()) {
+            ref.node = q.offerx(entry);
+
+            entry.addMeta(meta, ref);
+        }
+    }
+
+    /**
+     * @param region Region.
+     * @return Queue for region.
+     */
+    private GridQueue<GridCacheEntry<K, V>> region(byte region) {
+        switch (region) {
+            case WINDOW: return window;
+            case PROBATION: return probation;
+            case PROTECTED: return prot;
+
+            default:
+                throw new IllegalStateException("Unknown region: " + region);
+        }
+    }
+
+    /**
+     * Checks entry for empty value.
+     *
+     * @param entry Entry to check.
+     * @return {@code True} if entry is empty.
+     */
+    private boolean empty(GridCacheEntry<K, V> entry) {
+        try {
+            return !entry.hasValue(GLOBAL);
+        }
+        catch (GridException e) {
+            U.error(null, e.getMessage(), e);
+
+            assert false : "Should never happen: " + e;
+
+            return false;
+        }
+    }
+
+    /**
+     * @param entry Entry.
+     * @return Spread hash code of entry key.
+     */
+    private static int hash(GridCacheEntry<?, ?> entry) {
+        int h = entry.getKey().hashCode();
+
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+
+        return (h >>> 16) ^ h;
+    }
+
+    /**
+     * @param v Value.
+     * @return Closest power of 2 greater or equal to value.
+     */
+    private static int ceilPow2(int v) {
+        return v <= 1 ? 1 : Integer.highestOneBit(v - 1) << 1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheTinyLfuEvictionPolicy.class, this,
+            "windowSize", window.size(),
+            "probationSize", probation.size(),
+            "protectedSize", prot.size());
+    }
+
+    /**
+     * Reference to entry position in policy structures, stored as entry metadata.
+     */
+    private class Ref {
+        /** Region. */
+        private byte region = WINDOW;
+
+        /** Queue node. */
+        private Node<GridCacheEntry<K, V>> node;
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(Ref.class, this);
+        }
+    }
+
+    /**
+     * Lossy lock-free ring buffer of read events.
+     */
+    private class ReadBuffer {
+        /** Buffered entries. */
+        private final AtomicReferenceArray<GridCacheEntry<K, V>> buf =
+            new AtomicReferenceArray<GridCacheEntry<K, V>>(READ_BUF_SIZE);
+
+        /** Write counter. */
+        private final AtomicLong writeCnt = new AtomicLong();
+
+        /** Read counter, updated only under {@link #drainLock}. */
+        private volatile long readCnt;
+
+        /**
+         * Records read event. If buffer is full or there is a concurrent writer to
+         * the same stripe, the event is dropped.
+         *
+         * @param entry Read entry.
+         * @return {@code True} if buffers should be drained.
+         */
+        boolean offer(GridCacheEntry<K, V> entry) {
+            long w = writeCnt.get();
+
+            long size = w - readCnt;
+
+            if (size >= READ_BUF_SIZE || !writeCnt.compareAndSet(w, w + 1)) {
+                dropCnt.incrementAndGet();
+
+                return size >= READ_BUF_DRAIN_THRESHOLD;
+            }
+
+            buf.lazySet((int)(w & READ_BUF_MASK), entry);
+
+            return size + 1 >= READ_BUF_DRAIN_THRESHOLD;
+        }
+
+        /**
+         * Applies all published read events. Must be called under {@link #drainLock}.
+         */
+        void drain() {
+            long r = readCnt;
+            long w = writeCnt.get();
+
+            for (; r < w; r++) {
+                int idx = (int)(r & READ_BUF_MASK);
+
+                GridCacheEntry<K, V> e = buf.get(idx);
+
+                // Writer has not published entry yet.
+                if (e == null)
+                    break;
+
+                buf.lazySet(idx, null);
+
+                onRead(e);
+            }
+
+            readCnt = r;
+        }
+    }
+
+    /**
+     * Count-min sketch with 4-bit counters used to estimate access frequency
+     * of entries. Counters are halved once number of increments reaches sample
+     * size, so that old frequencies fade out.
+     */
+    private static class FrequencySketch {
+        /** Hash seeds. */
+        private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+
+        /** Mask to halve all 4-bit counters in a word. */
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        /** Counters, each word holds sixteen 4-bit counters. */
+        private final long[] tbl;
+
+        /** Table index mask. */
+        private final int tblMask;
+
+        /** Capacity sketch was created for. */
+        private final int cap;
+
+        /** Number of increments before aging. */
+        private final int sampleSize;
+
+        /** Number of increments since last aging. */
+        private int size;
+
+        /**
+         * @param cap Maximum number of entries.
+         */
+        FrequencySketch(int cap) {
+            this.cap = Math.max(1, cap);
+
+            tbl = new long[ceilPow2(this.cap)];
+
+            tblMask = tbl.length - 1;
+
+            sampleSize = this.cap <= Integer.MAX_VALUE / 10 ? this.cap * 10 : Integer.MAX_VALUE;
+        }
+
+        /**
+         * @return Capacity sketch was created for.
+         */
+        int capacity() {
+            return cap;
+        }
+
+        /**
+         * @param hash Hash.
+         * @return Estimated frequency (from {@code 0} to {@code 15}).
+         */
+        int frequency(int hash) {
+            int start = (hash & 3) << 2;
+
+            int freq = Integer.MAX_VALUE;
+
+            for (int i = 0; i < 4; i++) {
+                int idx = index(hash, i);
+
+                int cnt = (int)((tbl[idx] >>> ((start + i) << 2)) & 0xfL);
+
+                freq = Math.min(freq, cnt);
+            }
+
+            return freq;
+        }
+
+        /**
+         * @param hash Hash.
+         */
+        void increment(int hash) {
+            int start = (hash & 3) << 2;
+
+            boolean added = false;
+
+            for (int i = 0; i < 4; i++) {
+                int idx = index(hash, i);
+
+                int offset = (start + i) << 2;
+
+                if (((tbl[idx] >>> offset) & 0xfL) != 0xfL) {
+                    tbl[idx] += 1L << offset;
+
+                    added = true;
+                }
+            }
+
+            if (added && ++size >= sampleSize)
+                reset();
+        }
+
+        /**
+         * Halves all counters.
+         */
+        private void reset() {
+            for (int i = 0; i < tbl.length; i++)
+                tbl[i] = (tbl[i] >>> 1) & RESET_MASK;
+
+            size >>>= 1;
+        }
+
+        /**
+         * @param hash Hash.
+         * @param i Counter depth.
+         * @return Table index.
+         */
+        private int index(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+
+            h += h >>> 32;
+
+            return (int)h & tblMask;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+package org.gridgain.grid.cache.eviction.tinylfu;
+
+import org.gridgain.grid.util.mbean.*;
+
+/**
+ * MBean for {@code W-TinyLFU} eviction policy.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+@GridMBeanDescription("MBean for W-TinyLFU cache eviction policy.")
+public interface GridCacheTinyLfuEvictionPolicyMBean {
+    /**
+     * Gets name of metadata attribute used to store eviction policy data.
+     *
+     * @return Name of metadata attribute used to store eviction policy data.
+     */
+    @GridMBeanDescription("Name of metadata attribute used to store eviction policy data.")
+    public String getMetaAttributeName();
+
+    /**
+     * Gets maximum allowed cache size.
+     *
+     * @return Maximum allowed cache size.
+     */
+    @GridMBeanDescription("Maximum allowed cache size.")
+    public int getMaxSize();
+
+    /**
+     * Sets maximum allowed cache size.
+     *
+     * @param max Maximum allowed cache size.
+     */
+    @GridMBeanDescription("Sets maximum allowed cache size.")
+    public void setMaxSize(int max);
+
+    /**
+     * Gets flag indicating whether empty entries (entries with {@code null} values)
+     * are allowed.
+     *
+     * @return {@code True} if empty entries are allowed, {@code false} otherwise.
+     */
+    @GridMBeanDescription("Flag indicating whether empty entries are allowed.")
+    public boolean isAllowEmptyEntries();
+
+    /**
+     * Sets flag that allows empty entries (entries with {@code null} values)
+     * to be stored in cache.
+     *
+     * @param allowEmptyEntries If {@code false}, empty entries will be evicted immediately.
+     */
+    @GridMBeanDescription("Sets flag allowing presence of empty entries in cache.")
+    public void setAllowEmptyEntries(boolean allowEmptyEntries);
+
+    /**
+     * Gets ratio of admission window size compared to maximum cache size.
+     *
+     * @return Ratio of admission window size.
+     */
+    @GridMBeanDescription("Ratio of admission window size compared to maximum cache size.")
+    public double getWindowSizeRatio();
+
+    /**
+     * Gets maximum size of admission window.
+     *
+     * @return Maximum size of admission window.
+     */
+    @GridMBeanDescription("Maximum size of admission window.")
+    public int getMaxWindowSize();
+
+    /**
+     * Gets maximum size of protected segment of main space.
+     *
+     * @return Maximum size of protected segment.
+     */
+    @GridMBeanDescription("Maximum size of protected segment of main space.")
+    public int getMaxProtectedSize();
+
+    /**
+     * Gets current size of admission window.
+     *
+     * @return Current size of admission window.
+     */
+    @GridMBeanDescription("Current size of admission window.")
+    public int getCurrentWindowSize();
+
+    /**
+     * Gets current size of probation segment of main space.
+     *
+     * @return Current size of probation segment.
+     */
+    @GridMBeanDescription("Current size of probation segment of main space.")
+    public int getCurrentProbationSize();
+
+    /**
+     * Gets current size of protected segment of main space.
+     *
+     * @return Current size of protected segment.
+     */
+    @GridMBeanDescription("Current size of protected segment of main space.")
+    public int getCurrentProtectedSize();
+
+    /**
+     * Gets current number of tracked entries.
+     *
+     * @return Current number of tracked entries.
+     */
+    @GridMBeanDescription("Current number of tracked entries.")
+    public int getCurrentSize();
+
+    /**
+     * Gets number of candidates rejected by frequency admission filter.
+     *
+     * @return Number of rejected candidates.
+     */
+    @GridMBeanDescription("Number of candidates rejected by frequency admission filter.")
+    public long getRejectedCount();
+
+    /**
+     * Gets number of access events dropped because read buffers were full.
+     *
+     * @return Number of dropped access events.
+     */
+    @GridMBeanDescription("Number of access events dropped because read buffers were full.")
+    public long getDroppedCount();
+}
@@ -0,0 +1,171 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.cache.query;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.lang.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * API for continuous cache queries. Continuous query deploys its filter to all nodes
+ * running the cache and gets notified about every update of matching entries on the nodes
+ * that are primary for the updated keys.
+ * <p>
+ * Filter is evaluated inside of the cache update path on primary node, so only matching
+ * updates ever leave that node. Matching updates are buffered and sent to the node that
+ * executed the query in batches: batch is sent once it reaches {@link #bufferSize()} or
+ * once {@link #timeInterval()} passes since first entry was buffered, whichever happens
+ * first. Callback is notified with node ID the batch came from and the batch entries.
+ * Entries with {@code null} values correspond to removals.
+ * <p>
+ * If {@link #initialScan(boolean)} is enabled, every node also sends its primary entries
+ * passing the filter right after query is started, so callback can build initial state
+ * without a separate query. The same entry may be delivered by both initial scan and
+ * update notification if it is updated while scan is in progress.
+ * <p>
+ * Here is an example of maintaining local view of entries with positive values:
+ * <pre name="code" class="java">
+ * GridCacheContinuousQuery&lt;String, Integer&gt; qry = cache.createContinuousQuery();
+ *
+ * qry.callback(new P2&lt;UUID, Collection&lt;Map.Entry&lt;String, Integer&gt;&gt;&gt;() {
+ *     &#64;Override public boolean apply(UUID nodeId, Collection&lt;Map.Entry&lt;String, Integer&gt;&gt; entries) {
+ *         for (Map.Entry&lt;String, Integer&gt; e : entries)
+ *             view.put(e.getKey(), e.getValue());
+ *
+ *         return true; // Continue listening.
+ *     }
+ * });
+ *
+ * qry.filter(new P2&lt;String, Integer&gt;() {
+ *     &#64;Override public boolean apply(String key, Integer val) {
+ *         return val != null &amp;&amp; val &gt; 0;
+ *     }
+ * });
+ *
+ * qry.bufferSize(100);
+ * qry.timeInterval(500);
+ * qry.initialScan(true);
+ *
+ * qry.execute();
+ * ...
+ * qry.close();
+ * </pre>
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public interface GridCacheContinuousQuery<K, V> extends Closeable {
+    /** Default buffer size. */
+    public static final int DFLT_BUF_SIZE = 1;
+
+    /** Default time interval. */
+    public static final long DFLT_TIME_INTERVAL = 0;
+
+    /**
+     * Gets query ID. ID is assigned when query is executed.
+     *
+     * @return Query ID or {@code null} if query was not executed yet.
+     */
+    @Nullable public UUID id();
+
+    /**
+     * Sets local callback which is notified with batches of matching updates. If callback
+     * returns {@code false}, then query is cancelled.
+     *
+     * @param cb Local callback.
+     */
+    public void callback(GridPredicate2<UUID, Collection<Map.Entry<K, V>>> cb);
+
+    /**
+     * Gets local callback.
+     *
+     * @return Local callback.
+     */
+    @Nullable public GridPredicate2<UUID, Collection<Map.Entry<K, V>>> callback();
+
+    /**
+     * Sets filter evaluated on primary nodes for every update. Filter receives key and new
+     * value, which is {@code null} for removals. If filter is not set, all updates are sent.
+     *
+     * @param filter Remote filter.
+     */
+    public void filter(@Nullable GridPredicate2<K, V> filter);
+
+    /**
+     * Gets remote filter.
+     *
+     * @return Remote filter.
+     */
+    @Nullable public GridPredicate2<K, V> filter();
+
+    /**
+     * Sets number of entries to buffer on remote node before sending a batch. If not provided,
+     * {@link #DFLT_BUF_SIZE} will be used.
+     *
+     * @param bufSize Buffer size.
+     */
+    public void bufferSize(int bufSize);
+
+    /**
+     * Gets buffer size.
+     *
+     * @return Buffer size.
+     */
+    public int bufferSize();
+
+    /**
+     * Sets maximum time in milliseconds entry can stay in remote buffer before it is sent.
+     * {@code 0} means that buffer is sent only when it is full. If not provided,
+     * {@link #DFLT_TIME_INTERVAL} will be used.
+     *
+     * @param timeInterval Time interval.
+     */
+    public void timeInterval(long timeInterval);
+
+    /**
+     * Gets time interval.
+     *
+     * @return Time interval.
+     */
+    public long timeInterval();
+
+    /**
+     * Sets flag indicating whether existing entries passing the filter should be sent
+     * right after query is started.
+     *
+     * @param initialScan Initial scan flag.
+     */
+    public void initialScan(boolean initialScan);
+
+    /**
+     * Gets initial scan flag.
+     *
+     * @return Initial scan flag.
+     */
+    public boolean initialScan();
+
+    /**
+     * Starts continuous query on all nodes running the cache. Nodes joining topology
+     * later get the query deployed as well.
+     *
+     * @throws GridException If query could not be started.
+     */
+    public void execute() throws GridException;
+
+    /**
+     * Stops continuous query on all nodes. Same as {@link #close()}.
+     *
+     * @throws GridException If query could not be stopped.
+     */
+    public void cancel() throws GridException;
+}
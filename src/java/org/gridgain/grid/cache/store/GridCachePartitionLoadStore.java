@@ -0,0 +1,49 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+package org.gridgain.grid.cache.store;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.lang.*;
+import org.jetbrains.annotations.*;
+
+/**
+ * Optional extension of {@link GridCacheStore} for stores which are able to load
+ * data for a single cache partition, e.g. if partition id is stored in database
+ * table along with the key. If configured cache store implements this interface,
+ * then {@link GridCache#loadCache(GridPredicate2, long, Object...)} will load only
+ * partitions for which local node is primary or backup, and different partitions
+ * will be loaded in parallel by
+ * {@link GridCacheConfiguration#getStoreLoadThreadCount()} threads. In this case
+ * {@link GridCacheStore#loadAll(String, GridInClosure2, Object...)} is not called.
+ * <p>
+ * Partition for a key can be obtained via {@code GridCacheAffinity.partition(..)} method
+ * of cache affinity applied to affinity key.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public interface GridCachePartitionLoadStore<K, V> {
+    /**
+     * Loads all values for given partition from underlying persistent storage. This method
+     * may be called concurrently for different partitions.
+     * <p>
+     * For every loaded value method {@link GridInClosure2#apply(Object, Object)}
+     * should be called on the passed in closure.
+     *
+     * @param cacheName Cache name ({@code null} for default no-name cache).
+     * @param part Partition to load.
+     * @param c Closure for loaded values.
+     * @param args Arguments passes into
+     *      {@link GridCache#loadCache(GridPredicate2, long, Object...)} method.
+     * @throws GridException If loading failed.
+     */
+    public void loadPartition(@Nullable String cacheName, int part, GridInClosure2<K, V> c,
+        @Nullable Object... args) throws GridException;
+}
@@ -0,0 +1,62 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+package org.gridgain.grid.cache.store;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.lang.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+
+/**
+ * Optional extension of {@link GridCacheStore} for stores which are able to split
+ * initial cache loading into independent ranges, e.g. key ranges of database table.
+ * If configured cache store implements this interface, then
+ * {@link GridCache#loadCache(GridPredicate2, long, Object...)} will load ranges
+ * returned by {@link #loadRanges(String, Object...)} in parallel by
+ * {@link GridCacheConfiguration#getStoreLoadThreadCount()} threads. Loaded values
+ * for keys for which local node is neither primary nor backup are ignored. In this case
+ * {@link GridCacheStore#loadAll(String, GridInClosure2, Object...)} is not called.
+ * <p>
+ * Note that if store is able to load data by partition, it is more efficient to implement
+ * {@link GridCachePartitionLoadStore}, which avoids loading of data not owned by local node.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public interface GridCacheRangeLoadStore<K, V> {
+    /**
+     * Splits initial cache loading into ranges which can be loaded independently.
+     *
+     * @param cacheName Cache name ({@code null} for default no-name cache).
+     * @param args Arguments passes into
+     *      {@link GridCache#loadCache(GridPredicate2, long, Object...)} method.
+     * @return Ranges to load, each range is passed to {@link #loadRange(String, Object, GridInClosure2, Object...)}.
+     * @throws GridException If failed.
+     */
+    public Collection<?> loadRanges(@Nullable String cacheName, @Nullable Object... args) throws GridException;
+
+    /**
+     * Loads all values for given range from underlying persistent storage. This method
+     * may be called concurrently for different ranges.
+     * <p>
+     * For every loaded value method {@link GridInClosure2#apply(Object, Object)}
+     * should be called on the passed in closure.
+     *
+     * @param cacheName Cache name ({@code null} for default no-name cache).
+     * @param range Range returned by {@link #loadRanges(String, Object...)}.
+     * @param c Closure for loaded values.
+     * @param args Arguments passes into
+     *      {@link GridCache#loadCache(GridPredicate2, long, Object...)} method.
+     * @throws GridException If loading failed.
+     */
+    public void loadRange(@Nullable String cacheName, Object range, GridInClosure2<K, V> c,
+        @Nullable Object... args) throws GridException;
+}
@@ -79,6 +79,9 @@ public interface GridCacheStore<K, V> {
      * method to do anything. Default implementation of this method in
      * {@link GridCacheStoreAdapter} does nothing.
      * <p>
+     * If store implements {@link GridCachePartitionLoadStore} or {@link GridCacheRangeLoadStore},
+     * then this method is not called, and cache is loaded in parallel by partitions or ranges instead.
+     * <p>
      * For every loaded value method {@link GridInClosure2#apply(Object, Object)}
      * should be called on the passed in closure. The closure will then make sure
      * that the loaded value is stored in cache.
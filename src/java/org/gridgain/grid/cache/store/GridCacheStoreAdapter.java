@@ -24,7 +24,10 @@ import java.util.*;
  * {@link #put(String, GridCacheTx, Object, Object)}, and {@link #remove(String, GridCacheTx, Object)}
  * operations. Use this adapter whenever such behaviour is acceptable. However in many cases
  * it maybe more preferable to take advantage of database batch update functionality, and therefore
- * default adapter implementation may not be the best option.
+ * default adapter implementation may not be the best option. This is especially true for
+ * read-through, since cache misses from {@code getAll(..)} calls and misses grouped within
+ * {@link GridCacheConfiguration#getReadThroughBatchWindow()} are loaded with a single
+ * {@link #loadAll(String, GridCacheTx, Collection, GridInClosure2)} call.
  * <p>
  * Note that method {@link #loadAll(String, org.gridgain.grid.lang.GridInClosure2 , Object...)} has empty
  * implementation because it is essentially up to the user to invoke it with
@@ -0,0 +1,1291 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.cache.store.jdbc;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.store.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.resources.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import javax.sql.*;
+import java.io.*;
+import java.lang.reflect.*;
+import java.math.*;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * {@link GridCacheStore} implementation backed by JDBC which maps fields of value
+ * objects to table columns.
+ * <p>
+ * Every value is stored in one row of configured table. Key is stored in key column
+ * and every field of value class is stored in column with the same name, unless explicit
+ * field to column mapping is provided. Key has to be of a type supported by JDBC driver
+ * (e.g. number or string), value class has to have no-arg constructor.
+ * <p>
+ * Store is optimized for bulk operations:
+ * <ul>
+ *     <li>{@code putAll} and {@code removeAll} are executed as JDBC batch updates.</li>
+ *     <li>{@code loadAll} for keys selects values with {@code IN} list of keys.</li>
+ *     <li>
+ *         Initial loading with {@link GridCache#loadCache(GridPredicate2, long, Object...)}
+ *         splits numeric key range into {@link #setLoadRangeCount(int) ranges} which are
+ *         loaded in parallel (see {@link GridCacheRangeLoadStore}).
+ *     </li>
+ * </ul>
+ * All operations within one cache transaction share the same connection which is committed
+ * or rolled back once in {@link #txEnd(String, GridCacheTx, boolean)}. Connections are taken
+ * from provided {@link DataSource}, or, if it is not set, from internal pool of connections
+ * opened with {@link DriverManager}. Pooled connections are closed when cache is stopped
+ * (see {@link #close()}).
+ * <h1>Configuration</h1>
+ * <h2>Mandatory</h2>
+ * <ul>
+ *     <li>Table name (see {@link #setTableName(String)})</li>
+ *     <li>Key column name (see {@link #setKeyColumn(String)})</li>
+ *     <li>Value class (see {@link #setValueType(Class)})</li>
+ * </ul>
+ * <h2>Optional</h2>
+ * <ul>
+ *     <li>Data source (see {@link #setDataSource(DataSource)})</li>
+ *     <li>Connection URL (see {@link #setConnectionUrl(String)})</li>
+ *     <li>User name (see {@link #setUser(String)})</li>
+ *     <li>Password (see {@link #setPassword(String)})</li>
+ *     <li>Maximum number of idle pooled connections (see {@link #setMaxIdleConnections(int)})</li>
+ *     <li>Create table query (see {@link #setCreateTableQuery(String)})</li>
+ *     <li>Field to column mapping (see {@link #setFieldMapping(Map)})</li>
+ *     <li>Batch size (see {@link #setBatchSize(int)})</li>
+ *     <li>Load range count (see {@link #setLoadRangeCount(int)})</li>
+ * </ul>
+ * <h2>Java Example</h2>
+ * <pre name="code" class="java">
+ *     ...
+ *     GridCacheJdbcPojoStore&lt;Long, Person&gt; store = new GridCacheJdbcPojoStore&lt;Long, Person&gt;();
+ *
+ *     store.setTableName("PERSONS");
+ *     store.setKeyColumn("id");
+ *     store.setValueType(Person.class);
+ *     ...
+ * </pre>
+ * <h2>Spring Example</h2>
+ * <pre name="code" class="xml">
+ *     ...
+ *     &lt;bean id=&quot;cache.jdbc.store1&quot; class=&quot;org.gridgain.grid.cache.store.jdbc.GridCacheJdbcPojoStore&quot;&gt;
+ *         &lt;property name=&quot;connectionUrl&quot; value=&quot;jdbc:h2:mem:&quot;/&gt;
+ *         &lt;property name=&quot;tableName&quot; value=&quot;PERSONS&quot;/&gt;
+ *         &lt;property name=&quot;keyColumn&quot; value=&quot;id&quot;/&gt;
+ *         &lt;property name=&quot;valueType&quot; value=&quot;com.mycompany.Person&quot;/&gt;
+ *     &lt;/bean&gt;
+ *     ...
+ * </pre>
+ * <p>
+ * <img src="http://www.gridgain.com/images/spring-small.png">
+ * <br>
+ * For information about Spring framework visit <a href="http://www.springframework.org/">www.springframework.org</a>
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCacheJdbcPojoStore<K, V> extends GridCacheStoreAdapter<K, V>
+    implements GridCacheRangeLoadStore<K, V>, Closeable {
+    /** Default connection URL (value is <tt>jdbc:h2:mem:jdbcCacheStore;DB_CLOSE_DELAY=-1</tt>). */
+    public static final String DFLT_CONN_URL = "jdbc:h2:mem:jdbcCacheStore;DB_CLOSE_DELAY=-1";
+
+    /** Default maximum number of idle pooled connections (value is <tt>16</tt>). */
+    public static final int DFLT_MAX_IDLE_CONN = 16;
+
+    /** Default batch size for bulk operations (value is <tt>512</tt>). */
+    public static final int DFLT_BATCH_SIZE = 512;
+
+    /** Default number of ranges for initial loading (value is number of available processors). */
+    public static final int DFLT_LOAD_RANGE_CNT = Runtime.getRuntime().availableProcessors();
+
+    /** Connection attribute name. */
+    private static final String ATTR_CONN = "JDBC_POJO_STORE_CONNECTION";
+
+    /** Data source. */
+    private DataSource dataSrc;
+
+    /** Connection URL. */
+    private String connUrl = DFLT_CONN_URL;
+
+    /** User name for database access. */
+    private String user;
+
+    /** Password for database access. */
+    @GridToStringExclude
+    private String passwd;
+
+    /** Maximum number of idle pooled connections. */
+    private int maxIdleConn = DFLT_MAX_IDLE_CONN;
+
+    /** Query to create table. */
+    private String createTblQry;
+
+    /** Table name. */
+    private String tblName;
+
+    /** Key column name. */
+    private String keyCol;
+
+    /** Value class. */
+    private Class<V> valType;
+
+    /** Field to column mapping. */
+    private Map<String, String> fieldMapping;
+
+    /** Batch size. */
+    private int batchSize = DFLT_BATCH_SIZE;
+
+    /** Number of ranges for initial loading. */
+    private int loadRangeCnt = DFLT_LOAD_RANGE_CNT;
+
+    /** Log. */
+    @GridLoggerResource
+    private GridLogger log;
+
+    /** Idle pooled connections. */
+    @GridToStringExclude
+    private final Queue<Connection> idle = new ConcurrentLinkedQueue<Connection>();
+
+    /** Number of idle pooled connections. */
+    private final AtomicInteger idleCnt = new AtomicInteger();
+
+    /** Init guard. */
+    @GridToStringExclude
+    private final AtomicBoolean initGuard = new AtomicBoolean();
+
+    /** Init latch. */
+    @GridToStringExclude
+    private final CountDownLatch initLatch = new CountDownLatch(1);
+
+    /** Successful initialization flag. */
+    private boolean initOk;
+
+    /** Value constructor. */
+    @GridToStringExclude
+    private Constructor<V> valCtor;
+
+    /** Mapped value fields. */
+    @GridToStringExclude
+    private Field[] fields;
+
+    /** Comma-separated list of key column and mapped columns. */
+    @GridToStringExclude
+    private String selCols;
+
+    /** Query to load entry. */
+    @GridToStringExclude
+    private String loadQry;
+
+    /** Query to load all entries. */
+    @GridToStringExclude
+    private String loadAllQry;
+
+    /** Query to update entry. */
+    @GridToStringExclude
+    private String updateQry;
+
+    /** Query to insert entry. */
+    @GridToStringExclude
+    private String insertQry;
+
+    /** Query to delete entry. */
+    @GridToStringExclude
+    private String delQry;
+
+    /** {@inheritDoc} */
+    @Override public void txEnd(@Nullable String cacheName, GridCacheTx tx, boolean commit) throws GridException {
+        init();
+
+        Connection conn = tx.removeMeta(ATTR_CONN);
+
+        if (conn != null) {
+            boolean ok = false;
+
+            try {
+                if (commit)
+                    conn.commit();
+                else
+                    conn.rollback();
+
+                ok = true;
+
+                if (log.isDebugEnabled())
+                    log.debug("Transaction ended [xid=" + tx.xid() + ", commit=" + commit + ']');
+            }
+            catch (SQLException e) {
+                throw new GridException("Failed to end transaction [xid=" + tx.xid() + ", commit=" + commit + ']', e);
+            }
+            finally {
+                release(conn, ok);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public V load(@Nullable String cacheName, @Nullable GridCacheTx tx, K key) throws GridException {
+        init();
+
+        if (log.isDebugEnabled())
+            log.debug("Store load [key=" + key + ", tx=" + tx + ']');
+
+        Connection conn = null;
+
+        PreparedStatement stmt = null;
+
+        boolean ok = false;
+
+        try {
+            conn = connection(tx);
+
+            stmt = conn.prepareStatement(loadQry);
+
+            stmt.setObject(1, key);
+
+            ResultSet rs = stmt.executeQuery();
+
+            V val = rs.next() ? value(rs) : null;
+
+            ok = true;
+
+            return val;
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to load object: " + key, e);
+        }
+        finally {
+            end(tx, conn, stmt, ok);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void loadAll(@Nullable String cacheName, @Nullable GridCacheTx tx,
+        @Nullable Collection<? extends K> keys, GridInClosure2<K, V> c) throws GridException {
+        init();
+
+        if (F.isEmpty(keys))
+            return;
+
+        if (log.isDebugEnabled())
+            log.debug("Store load all [keys=" + keys + ", tx=" + tx + ']');
+
+        Connection conn = null;
+
+        PreparedStatement stmt = null;
+
+        boolean ok = false;
+
+        try {
+            conn = connection(tx);
+
+            Iterator<? extends K> it = keys.iterator();
+
+            int left = keys.size();
+
+            int stmtSize = 0;
+
+            while (left > 0) {
+                int size = Math.min(batchSize, left);
+
+                // Reuse statement for all full chunks of keys.
+                if (stmt == null || size != stmtSize) {
+                    U.closeQuiet(stmt);
+
+                    stmt = conn.prepareStatement(loadAllQuery(size));
+
+                    stmtSize = size;
+                }
+
+                for (int i = 0; i < size; i++)
+                    stmt.setObject(i + 1, it.next());
+
+                left -= size;
+
+                ResultSet rs = stmt.executeQuery();
+
+                while (rs.next())
+                    c.apply(key(rs), value(rs));
+
+                rs.close();
+            }
+
+            ok = true;
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to load objects: " + keys, e);
+        }
+        finally {
+            end(tx, conn, stmt, ok);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void loadAll(@Nullable String cacheName, GridInClosure2<K, V> c, @Nullable Object... args)
+        throws GridException {
+        init();
+
+        load(loadAllQry, null, null, c);
+    }
+
+    /**
+     * Splits numeric key range into {@link #setLoadRangeCount(int)} ranges. If key column
+     * is not numeric or table is empty, then the whole table is loaded as one range.
+     *
+     * @param cacheName {@inheritDoc}
+     * @param args {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws GridException {@inheritDoc}
+     */
+    @Override public Collection<?> loadRanges(@Nullable String cacheName, @Nullable Object... args)
+        throws GridException {
+        init();
+
+        Connection conn = null;
+
+        Statement stmt = null;
+
+        boolean ok = false;
+
+        try {
+            conn = connection(null);
+
+            stmt = conn.createStatement();
+
+            ResultSet rs = stmt.executeQuery("select min(" + keyCol + "), max(" + keyCol + ") from " + tblName);
+
+            Object min = null;
+            Object max = null;
+
+            if (rs.next()) {
+                min = rs.getObject(1);
+                max = rs.getObject(2);
+            }
+
+            ok = true;
+
+            if (!(min instanceof Number) || !(max instanceof Number) || min instanceof BigDecimal ||
+                min instanceof BigInteger || min instanceof Double || min instanceof Float)
+                return Collections.singletonList(new Range(null, null));
+
+            long lo = ((Number)min).longValue();
+            long hi = ((Number)max).longValue();
+
+            // Key range may be wider than Long.MAX_VALUE, so compute step without overflow.
+            BigInteger span = BigInteger.valueOf(hi).subtract(BigInteger.valueOf(lo));
+
+            long step = span.divide(BigInteger.valueOf(loadRangeCnt)).add(BigInteger.ONE).
+                min(BigInteger.valueOf(Long.MAX_VALUE)).longValue();
+
+            Collection<Range> ranges = new ArrayList<Range>(loadRangeCnt);
+
+            for (long from = lo; from <= hi; from += step) {
+                long to = from + step;
+
+                // Last range includes maximum key.
+                ranges.add(new Range(from, to > hi || to < from ? null : to));
+
+                if (to > hi || to < from)
+                    break;
+            }
+
+            return ranges;
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to split loading into ranges: " + tblName, e);
+        }
+        finally {
+            end(null, conn, stmt, ok);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void loadRange(@Nullable String cacheName, Object range, GridInClosure2<K, V> c,
+        @Nullable Object... args) throws GridException {
+        init();
+
+        Range r = (Range)range;
+
+        if (r.from == null)
+            load(loadAllQry, null, null, c);
+        else if (r.to == null)
+            load(loadAllQry + " where " + keyCol + " >= ?", r.from, null, c);
+        else
+            load(loadAllQry + " where " + keyCol + " >= ? and " + keyCol + " < ?", r.from, r.to, c);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void put(@Nullable String cacheName, @Nullable GridCacheTx tx, K key, V val)
+        throws GridException {
+        putAll(cacheName, tx, Collections.singletonMap(key, val));
+    }
+
+    /** {@inheritDoc} */
+    @Override public void putAll(@Nullable String cacheName, @Nullable GridCacheTx tx,
+        Map<? extends K, ? extends V> map) throws GridException {
+        init();
+
+        if (map.isEmpty())
+            return;
+
+        if (log.isDebugEnabled())
+            log.debug("Store put all [map=" + map + ", tx=" + tx + ']');
+
+        Connection conn = null;
+
+        PreparedStatement upd = null;
+        PreparedStatement ins = null;
+
+        boolean ok = false;
+
+        try {
+            conn = connection(tx);
+
+            upd = conn.prepareStatement(updateQry);
+
+            List<Map.Entry<? extends K, ? extends V>> batch =
+                new ArrayList<Map.Entry<? extends K, ? extends V>>(Math.min(batchSize, map.size()));
+
+            Collection<Map.Entry<? extends K, ? extends V>> missing = null;
+
+            for (Iterator<? extends Map.Entry<? extends K, ? extends V>> it = map.entrySet().iterator();
+                it.hasNext();) {
+                Map.Entry<? extends K, ? extends V> e = it.next();
+
+                bindValue(upd, e.getValue(), 1);
+
+                upd.setObject(fields.length + 1, e.getKey());
+
+                upd.addBatch();
+
+                batch.add(e);
+
+                if (batch.size() == batchSize || !it.hasNext()) {
+                    int[] cnts = upd.executeBatch();
+
+                    // Entries which were not updated have to be inserted.
+                    for (int i = 0; i < batch.size(); i++) {
+                        Map.Entry<? extends K, ? extends V> be = batch.get(i);
+
+                        int cnt = i < cnts.length ? cnts[i] : Statement.EXECUTE_FAILED;
+
+                        // Driver did not report count, so update entry separately to find out.
+                        if (cnt == Statement.SUCCESS_NO_INFO || cnt == Statement.EXECUTE_FAILED)
+                            cnt = update(upd, be);
+
+                        if (cnt == 0) {
+                            if (missing == null)
+                                missing = new ArrayList<Map.Entry<? extends K, ? extends V>>();
+
+                            missing.add(be);
+                        }
+                    }
+
+                    batch.clear();
+                }
+            }
+
+            if (missing != null) {
+                ins = conn.prepareStatement(insertQry);
+
+                List<Map.Entry<? extends K, ? extends V>> insBatch =
+                    new ArrayList<Map.Entry<? extends K, ? extends V>>(Math.min(batchSize, missing.size()));
+
+                for (Iterator<Map.Entry<? extends K, ? extends V>> it = missing.iterator(); it.hasNext();) {
+                    Map.Entry<? extends K, ? extends V> e = it.next();
+
+                    bindInsert(ins, e);
+
+                    ins.addBatch();
+
+                    insBatch.add(e);
+
+                    if (insBatch.size() == batchSize || !it.hasNext()) {
+                        Savepoint sp = savepoint(conn);
+
+                        try {
+                            ins.executeBatch();
+
+                            releaseSavepoint(conn, sp);
+                        }
+                        catch (SQLException ex) {
+                            if (!duplicateKey(ex))
+                                throw ex;
+
+                            // Failed statement aborts whole transaction on some databases,
+                            // so undo the batch before retrying it.
+                            rollback(conn, sp);
+
+                            // Some keys were inserted concurrently, so write batch entry by entry.
+                            ins.clearBatch();
+
+                            for (Map.Entry<? extends K, ? extends V> be : insBatch)
+                                upsert(conn, upd, ins, be);
+                        }
+
+                        insBatch.clear();
+                    }
+                }
+            }
+
+            ok = true;
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to put objects: " + map, e);
+        }
+        finally {
+            U.closeQuiet(ins);
+
+            end(tx, conn, upd, ok);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void remove(@Nullable String cacheName, @Nullable GridCacheTx tx, K key) throws GridException {
+        removeAll(cacheName, tx, Collections.singleton(key));
+    }
+
+    /** {@inheritDoc} */
+    @Override public void removeAll(@Nullable String cacheName, @Nullable GridCacheTx tx,
+        Collection<? extends K> keys) throws GridException {
+        init();
+
+        if (keys.isEmpty())
+            return;
+
+        if (log.isDebugEnabled())
+            log.debug("Store remove all [keys=" + keys + ", tx=" + tx + ']');
+
+        Connection conn = null;
+
+        PreparedStatement stmt = null;
+
+        boolean ok = false;
+
+        try {
+            conn = connection(tx);
+
+            stmt = conn.prepareStatement(delQry);
+
+            int size = 0;
+
+            for (K key : keys) {
+                stmt.setObject(1, key);
+
+                stmt.addBatch();
+
+                if (++size == batchSize) {
+                    stmt.executeBatch();
+
+                    size = 0;
+                }
+            }
+
+            if (size > 0)
+                stmt.executeBatch();
+
+            ok = true;
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to remove objects: " + keys, e);
+        }
+        finally {
+            end(tx, conn, stmt, ok);
+        }
+    }
+
+    /**
+     * Closes idle pooled connections. Called when cache is stopped.
+     */
+    @Override public void close() {
+        for (Connection conn = idle.poll(); conn != null; conn = idle.poll()) {
+            idleCnt.decrementAndGet();
+
+            U.closeQuiet(conn);
+        }
+    }
+
+    /**
+     * Updates single entry.
+     *
+     * @param upd Update statement.
+     * @param e Entry.
+     * @return Number of updated rows.
+     * @throws SQLException If failed.
+     */
+    private int update(PreparedStatement upd, Map.Entry<? extends K, ? extends V> e) throws SQLException {
+        bindValue(upd, e.getValue(), 1);
+
+        upd.setObject(fields.length + 1, e.getKey());
+
+        return upd.executeUpdate();
+    }
+
+    /**
+     * Binds entry to insert statement.
+     *
+     * @param ins Insert statement.
+     * @param e Entry.
+     * @throws SQLException If failed.
+     */
+    private void bindInsert(PreparedStatement ins, Map.Entry<? extends K, ? extends V> e) throws SQLException {
+        ins.setObject(1, e.getKey());
+
+        bindValue(ins, e.getValue(), 2);
+    }
+
+    /**
+     * Inserts single entry, or updates it if it was inserted concurrently.
+     *
+     * @param conn Connection.
+     * @param upd Update statement.
+     * @param ins Insert statement.
+     * @param e Entry.
+     * @throws SQLException If failed.
+     */
+    private void upsert(Connection conn, PreparedStatement upd, PreparedStatement ins,
+        Map.Entry<? extends K, ? extends V> e) throws SQLException {
+        bindInsert(ins, e);
+
+        Savepoint sp = savepoint(conn);
+
+        try {
+            ins.executeUpdate();
+
+            releaseSavepoint(conn, sp);
+        }
+        catch (SQLException ex) {
+            if (!duplicateKey(ex))
+                throw ex;
+
+            rollback(conn, sp);
+
+            if (update(upd, e) == 0)
+                throw new SQLException("Failed to update or insert entry (row was concurrently removed): " +
+                    e.getKey(), ex);
+        }
+    }
+
+    /**
+     * Sets savepoint to roll back to if statement fails. Only needed within transaction,
+     * since in auto-commit mode failed statement does not affect other ones.
+     *
+     * @param conn Connection.
+     * @return Savepoint or {@code null} if connection is in auto-commit mode.
+     * @throws SQLException If failed.
+     */
+    @Nullable private static Savepoint savepoint(Connection conn) throws SQLException {
+        return conn.getAutoCommit() ? null : conn.setSavepoint();
+    }
+
+    /**
+     * Rolls back to savepoint, if any.
+     *
+     * @param conn Connection.
+     * @param sp Savepoint.
+     * @throws SQLException If failed.
+     */
+    private static void rollback(Connection conn, @Nullable Savepoint sp) throws SQLException {
+        if (sp != null)
+            conn.rollback(sp);
+    }
+
+    /**
+     * Releases savepoint, if any. Not all drivers support releasing savepoints, and
+     * they are released on commit anyway, so failures are ignored.
+     *
+     * @param conn Connection.
+     * @param sp Savepoint.
+     */
+    private static void releaseSavepoint(Connection conn, @Nullable Savepoint sp) {
+        if (sp != null) {
+            try {
+                conn.releaseSavepoint(sp);
+            }
+            catch (SQLException ignored) {
+                // No-op.
+            }
+        }
+    }
+
+    /**
+     * @param e SQL exception.
+     * @return {@code True} if exception is caused by duplicate key.
+     */
+    private static boolean duplicateKey(SQLException e) {
+        for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
+            // SQL state class 23 is integrity constraint violation.
+            if (ex instanceof SQLIntegrityConstraintViolationException ||
+                (ex.getSQLState() != null && ex.getSQLState().startsWith("23")))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Loads all values returned by given query.
+     *
+     * @param qry Query.
+     * @param from First query argument.
+     * @param to Second query argument.
+     * @param c Closure for loaded values.
+     * @throws GridException If failed.
+     */
+    private void load(String qry, @Nullable Object from, @Nullable Object to, GridInClosure2<K, V> c)
+        throws GridException {
+        if (log.isDebugEnabled())
+            log.debug("Store load [qry=" + qry + ", from=" + from + ", to=" + to + ']');
+
+        Connection conn = null;
+
+        PreparedStatement stmt = null;
+
+        boolean ok = false;
+
+        try {
+            conn = connection(null);
+
+            stmt = conn.prepareStatement(qry);
+
+            stmt.setFetchSize(batchSize);
+
+            if (from != null)
+                stmt.setObject(1, from);
+
+            if (to != null)
+                stmt.setObject(2, to);
+
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next())
+                c.apply(key(rs), value(rs));
+
+            ok = true;
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to load objects [qry=" + qry + ", from=" + from + ", to=" + to + ']', e);
+        }
+        finally {
+            end(null, conn, stmt, ok);
+        }
+    }
+
+    /**
+     * @param size Number of keys.
+     * @return Query to load given number of keys.
+     */
+    private String loadAllQuery(int size) {
+        SB sb = new SB(loadAllQry);
+
+        sb.a(" where ").a(keyCol).a(" in (");
+
+        for (int i = 0; i < size; i++)
+            sb.a(i == 0 ? "?" : ",?");
+
+        return sb.a(')').toString();
+    }
+
+    /**
+     * @param rs Result set positioned at a row.
+     * @return Key.
+     * @throws SQLException If failed.
+     */
+    @SuppressWarnings({"unchecked"})
+    private K key(ResultSet rs) throws SQLException {
+        return (K)rs.getObject(1);
+    }
+
+    /**
+     * @param rs Result set positioned at a row.
+     * @return Value.
+     * @throws SQLException If failed.
+     * @throws GridRuntimeException If failed to create value.
+     */
+    private V value(ResultSet rs) throws SQLException {
+        try {
+            V val = valCtor.newInstance();
+
+            for (int i = 0; i < fields.length; i++) {
+                Field f = fields[i];
+
+                Object col = convert(rs.getObject(i + 2), f.getType());
+
+                if (col != null || !f.getType().isPrimitive())
+                    f.set(val, col);
+            }
+
+            return val;
+        }
+        catch (InstantiationException e) {
+            throw new GridRuntimeException("Failed to create value of class: " + valType.getName(), e);
+        }
+        catch (IllegalAccessException e) {
+            throw new GridRuntimeException("Failed to create value of class: " + valType.getName(), e);
+        }
+        catch (InvocationTargetException e) {
+            throw new GridRuntimeException("Failed to create value of class: " + valType.getName(), e);
+        }
+    }
+
+    /**
+     * @param stmt Statement.
+     * @param val Value.
+     * @param idx Index of first parameter.
+     * @throws SQLException If failed.
+     */
+    private void bindValue(PreparedStatement stmt, V val, int idx) throws SQLException {
+        try {
+            for (Field f : fields)
+                stmt.setObject(idx++, f.get(val));
+        }
+        catch (IllegalAccessException e) {
+            throw new GridRuntimeException("Failed to read value fields: " + val, e);
+        }
+    }
+
+    /**
+     * Converts value returned by JDBC driver to field type.
+     *
+     * @param val Column value.
+     * @param cls Field type.
+     * @return Converted value.
+     */
+    @Nullable private static Object convert(@Nullable Object val, Class<?> cls) {
+        if (val == null || cls.isInstance(val))
+            return val;
+
+        if (val instanceof Number) {
+            Number n = (Number)val;
+
+            if (cls == int.class || cls == Integer.class)
+                return n.intValue();
+
+            if (cls == long.class || cls == Long.class)
+                return n.longValue();
+
+            if (cls == double.class || cls == Double.class)
+                return n.doubleValue();
+
+            if (cls == float.class || cls == Float.class)
+                return n.floatValue();
+
+            if (cls == short.class || cls == Short.class)
+                return n.shortValue();
+
+            if (cls == byte.class || cls == Byte.class)
+                return n.byteValue();
+
+            if (cls == boolean.class || cls == Boolean.class)
+                return n.intValue() != 0;
+        }
+
+        if (val instanceof Boolean && (cls == boolean.class))
+            return val;
+
+        if ((cls == char.class || cls == Character.class) && val instanceof String && ((String)val).length() == 1)
+            return ((String)val).charAt(0);
+
+        if (cls == String.class)
+            return val.toString();
+
+        return val;
+    }
+
+    /**
+     * @param tx Cache transaction.
+     * @return Connection.
+     * @throws SQLException In case of error.
+     */
+    private Connection connection(@Nullable GridCacheTx tx) throws SQLException  {
+        if (tx != null) {
+            Connection conn = tx.meta(ATTR_CONN);
+
+            if (conn == null) {
+                conn = acquire(false);
+
+                // Store connection in transaction metadata, so it can be accessed
+                // for other operations on the same transaction.
+                tx.addMeta(ATTR_CONN, conn);
+            }
+
+            return conn;
+        }
+        // Transaction can be null in case of simple load operation.
+        else
+            return acquire(true);
+    }
+
+    /**
+     * Closes allocated resources depending on transaction status.
+     *
+     * @param tx Active transaction, if any.
+     * @param conn Allocated connection.
+     * @param st Created statement.
+     * @param ok {@code False} if operation failed.
+     */
+    private void end(@Nullable GridCacheTx tx, @Nullable Connection conn, @Nullable Statement st, boolean ok) {
+        U.closeQuiet(st);
+
+        if (tx == null && conn != null)
+            // Release connection right away if there is no transaction.
+            release(conn, ok);
+    }
+
+    /**
+     * Gets connection from data source or from internal pool.
+     *
+     * @param autocommit {@code true} If connection should use autocommit mode.
+     * @return Pooled connection.
+     * @throws SQLException In case of error.
+     */
+    private Connection acquire(boolean autocommit) throws SQLException {
+        Connection conn = null;
+
+        if (dataSrc != null)
+            conn = dataSrc.getConnection();
+        else {
+            conn = idle.poll();
+
+            if (conn != null)
+                idleCnt.decrementAndGet();
+            else
+                conn = DriverManager.getConnection(connUrl, user, passwd);
+        }
+
+        if (conn.getAutoCommit() != autocommit)
+            conn.setAutoCommit(autocommit);
+
+        return conn;
+    }
+
+    /**
+     * Returns connection to internal pool or closes it.
+     *
+     * @param conn Connection.
+     * @param reuse {@code False} if connection should not be reused, e.g. after error.
+     */
+    private void release(Connection conn, boolean reuse) {
+        if (dataSrc == null && reuse && idleCnt.incrementAndGet() <= maxIdleConn) {
+            idle.add(conn);
+
+            return;
+        }
+
+        if (dataSrc == null && reuse)
+            idleCnt.decrementAndGet();
+
+        // Return connection to data source pool.
+        U.closeQuiet(conn);
+    }
+
+    /**
+     * Initializes store.
+     *
+     * @throws GridException If failed to initialize.
+     */
+    private void init() throws GridException {
+        if (initGuard.compareAndSet(false, true)) {
+            if (log.isDebugEnabled())
+                log.debug("Initializing cache store.");
+
+            try {
+                if (dataSrc == null && F.isEmpty(connUrl))
+                    throw new GridException("Failed to initialize cache store (neither data source nor " +
+                        "connection URL is provided).");
+
+                if (F.isEmpty(tblName))
+                    throw new GridException("Failed to initialize cache store (table name is not provided).");
+
+                if (F.isEmpty(keyCol))
+                    throw new GridException("Failed to initialize cache store (key column is not provided).");
+
+                if (valType == null)
+                    throw new GridException("Failed to initialize cache store (value type is not provided).");
+
+                initMapping();
+
+                if (!F.isEmpty(createTblQry))
+                    createTable();
+
+                initOk = true;
+            }
+            finally {
+                initLatch.countDown();
+            }
+        }
+        else {
+            try {
+                initLatch.await();
+            }
+            catch (InterruptedException ignored) {
+                throw new GridException("Thread has been interrupted.");
+            }
+
+            if (!initOk)
+                throw new GridException("Cache store was not properly initialized.");
+        }
+    }
+
+    /**
+     * Resolves mapped fields and builds queries.
+     *
+     * @throws GridException If failed.
+     */
+    private void initMapping() throws GridException {
+        try {
+            valCtor = valType.getDeclaredConstructor();
+
+            valCtor.setAccessible(true);
+        }
+        catch (NoSuchMethodException e) {
+            throw new GridException("Value class does not have no-arg constructor: " + valType.getName(), e);
+        }
+
+        List<Field> flds = new ArrayList<Field>();
+        List<String> cols = new ArrayList<String>();
+
+        for (Class<?> c = valType; c != Object.class; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                int mod = f.getModifiers();
+
+                if (Modifier.isStatic(mod) || Modifier.isTransient(mod))
+                    continue;
+
+                String col = fieldMapping == null ? f.getName() : fieldMapping.get(f.getName());
+
+                if (col == null)
+                    continue;
+
+                f.setAccessible(true);
+
+                flds.add(f);
+                cols.add(col);
+            }
+        }
+
+        if (fieldMapping != null && flds.size() != fieldMapping.size())
+            throw new GridException("Failed to map all fields to columns [valType=" + valType.getName() +
+                ", fieldMapping=" + fieldMapping + ']');
+
+        if (flds.isEmpty())
+            throw new GridException("Value class has no fields to store: " + valType.getName());
+
+        fields = flds.toArray(new Field[flds.size()]);
+
+        SB sel = new SB(keyCol);
+        SB set = new SB();
+        SB ins = new SB("?");
+
+        for (String col : cols) {
+            sel.a(", ").a(col);
+            set.a(set.length() == 0 ? "" : ", ").a(col).a("=?");
+            ins.a(", ?");
+        }
+
+        selCols = sel.toString();
+
+        loadAllQry = "select " + selCols + " from " + tblName;
+        loadQry = loadAllQry + " where " + keyCol + "=?";
+        updateQry = "update " + tblName + " set " + set + " where " + keyCol + "=?";
+        insertQry = "insert into " + tblName + " (" + selCols + ") values (" + ins + ')';
+        delQry = "delete from " + tblName + " where " + keyCol + "=?";
+
+        if (log.isDebugEnabled())
+            log.debug("Initialized value mapping [valType=" + valType.getName() + ", cols=" + selCols + ']');
+    }
+
+    /**
+     * Executes create table query.
+     *
+     * @throws GridException If failed.
+     */
+    private void createTable() throws GridException {
+        Connection conn = null;
+
+        Statement stmt = null;
+
+        boolean ok = false;
+
+        try {
+            conn = acquire(false);
+
+            stmt = conn.createStatement();
+
+            stmt.execute(createTblQry);
+
+            conn.commit();
+
+            ok = true;
+        }
+        catch (SQLException e) {
+            throw new GridException("Failed to create database table.", e);
+        }
+        finally {
+            end(null, conn, stmt, ok);
+        }
+    }
+
+    /**
+     * Sets data source. If data source is set, connection URL, user name and password
+     * are ignored and connections are obtained from data source, which is expected to
+     * pool them.
+     *
+     * @param dataSrc Data source.
+     */
+    public void setDataSource(DataSource dataSrc) {
+        this.dataSrc = dataSrc;
+    }
+
+    /**
+     * Sets connection URL.
+     *
+     * @param connUrl Connection URL.
+     */
+    public void setConnectionUrl(String connUrl) {
+        this.connUrl = connUrl;
+    }
+
+    /**
+     * Sets user name for database access.
+     *
+     * @param user User name.
+     */
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    /**
+     * Sets password for database access.
+     *
+     * @param passwd Password.
+     */
+    public void setPassword(String passwd) {
+        this.passwd = passwd;
+    }
+
+    /**
+     * Sets maximum number of idle connections kept in internal pool. Not used
+     * if data source is set.
+     *
+     * @param maxIdleConn Maximum number of idle connections.
+     */
+    public void setMaxIdleConnections(int maxIdleConn) {
+        this.maxIdleConn = maxIdleConn;
+    }
+
+    /**
+     * Sets create table query executed on store initialization. If not set, table is
+     * expected to exist.
+     *
+     * @param createTblQry Create table query.
+     */
+    public void setCreateTableQuery(String createTblQry) {
+        this.createTblQry = createTblQry;
+    }
+
+    /**
+     * Sets table name.
+     *
+     * @param tblName Table name.
+     */
+    public void setTableName(String tblName) {
+        this.tblName = tblName;
+    }
+
+    /**
+     * Sets key column name.
+     *
+     * @param keyCol Key column name.
+     */
+    public void setKeyColumn(String keyCol) {
+        this.keyCol = keyCol;
+    }
+
+    /**
+     * Sets value class.
+     *
+     * @param valType Value class.
+     */
+    public void setValueType(Class<V> valType) {
+        this.valType = valType;
+    }
+
+    /**
+     * Sets field to column mapping. If set, only mapped fields of value class are stored,
+     * otherwise all non-static non-transient fields are stored in columns with the same names.
+     *
+     * @param fieldMapping Field name to column name mapping.
+     */
+    public void setFieldMapping(Map<String, String> fieldMapping) {
+        this.fieldMapping = fieldMapping;
+    }
+
+    /**
+     * Sets maximum number of rows in one JDBC batch update and maximum number of
+     * keys in one {@code IN} list.
+     *
+     * @param batchSize Batch size.
+     */
+    public void setBatchSize(int batchSize) {
+        A.ensure(batchSize > 0, "batchSize > 0");
+
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets number of ranges numeric key range is split into for parallel initial loading.
+     *
+     * @param loadRangeCnt Number of ranges.
+     */
+    public void setLoadRangeCount(int loadRangeCnt) {
+        A.ensure(loadRangeCnt > 0, "loadRangeCnt > 0");
+
+        this.loadRangeCnt = loadRangeCnt;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheJdbcPojoStore.class, this, "passwd", passwd != null ? "*" : null);
+    }
+
+    /**
+     * Key range for initial loading.
+     */
+    private static class Range {
+        /** Inclusive lower bound, {@code null} for the whole table. */
+        private final Long from;
+
+        /** Exclusive upper bound, {@code null} for no upper bound. */
+        private final Long to;
+
+        /**
+         * @param from Inclusive lower bound, {@code null} for the whole table.
+         * @param to Exclusive upper bound, {@code null} for no upper bound.
+         */
+        Range(@Nullable Long from, @Nullable Long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(Range.class, this);
+        }
+    }
+}
@@ -10,6 +10,7 @@
 package org.gridgain.grid.kernal;
 
 import org.gridgain.grid.*;
+import org.gridgain.grid.thread.*;
 import java.util.concurrent.*;
 
 /**
@@ -37,6 +38,9 @@ public class GridExecutorServiceMBeanAdapter implements GridExecutorServiceMBean
     @Override public int getActiveCount() {
         assert exec != null;
 
+        if (exec instanceof GridWorkStealingExecutor)
+            return ((GridWorkStealingExecutor)exec).getActiveCount();
+
         return exec instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor)exec).getActiveCount() : -1;
     }
 
@@ -44,6 +48,9 @@ public class GridExecutorServiceMBeanAdapter implements GridExecutorServiceMBean
     @Override public long getCompletedTaskCount() {
         assert exec != null;
 
+        if (exec instanceof GridWorkStealingExecutor)
+            return ((GridWorkStealingExecutor)exec).getCompletedTaskCount();
+
         return exec instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor)exec).getCompletedTaskCount() : -1;
     }
 
@@ -51,6 +58,9 @@ public class GridExecutorServiceMBeanAdapter implements GridExecutorServiceMBean
     @Override public int getCorePoolSize() {
         assert exec != null;
 
+        if (exec instanceof GridWorkStealingExecutor)
+            return ((GridWorkStealingExecutor)exec).getParallelism();
+
         return exec instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor)exec).getCorePoolSize() : -1;
     }
 
@@ -58,6 +68,9 @@ public class GridExecutorServiceMBeanAdapter implements GridExecutorServiceMBean
     @Override public int getLargestPoolSize() {
         assert exec != null;
 
+        if (exec instanceof GridWorkStealingExecutor)
+            return ((GridWorkStealingExecutor)exec).getLargestPoolSize();
+
         return exec instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor)exec).getLargestPoolSize() : -1;
     }
 
@@ -65,6 +78,9 @@ public class GridExecutorServiceMBeanAdapter implements GridExecutorServiceMBean
     @Override public int getMaximumPoolSize() {
         assert exec != null;
 
+        if (exec instanceof GridWorkStealingExecutor)
+            return ((GridWorkStealingExecutor)exec).getMaximumPoolSize();
+
         return exec instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor)exec).getMaximumPoolSize() : -1;
     }
 
@@ -72,6 +88,9 @@ public class GridExecutorServiceMBeanAdapter implements GridExecutorServiceMBean
     @Override public int getPoolSize() {
         assert exec != null;
 
+        if (exec instanceof GridWorkStealingExecutor)
+            return ((GridWorkStealingExecutor)exec).getPoolSize();
+
         return exec instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor)exec).getPoolSize() : -1;
     }
 
@@ -86,6 +105,9 @@ public class GridExecutorServiceMBeanAdapter implements GridExecutorServiceMBean
     @Override public int getQueueSize() {
         assert exec != null;
 
+        if (exec instanceof GridWorkStealingExecutor)
+            return ((GridWorkStealingExecutor)exec).getQueueSize();
+
         return exec instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor)exec).getQueue().size() : -1;
     }
 
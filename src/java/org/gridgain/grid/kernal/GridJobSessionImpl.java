@@ -252,6 +252,23 @@ public class GridJobSessionImpl extends GridMetadataAwareAdapter implements Grid
         ctx.checkpoint().storeCheckpoint(this, key, state, scope, timeout, overwrite);
     }
 
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> saveCheckpointAsync(String key, Object state) throws GridException {
+        return saveCheckpointAsync(key, state, GridTaskSessionScope.SESSION_SCOPE, 0, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> saveCheckpointAsync(String key, Object state, GridTaskSessionScope scope,
+        long timeout, boolean overwrite) throws GridException {
+        A.notNull(key, "key");
+        A.ensure(timeout >= 0, "timeout >= 0");
+
+        if (ses.isClosed())
+            throw new GridException("Failed to save checkpoint (session closed): " + this);
+
+        return ctx.checkpoint().storeCheckpointAsync(this, key, state, scope, timeout, overwrite);
+    }
+
     /** {@inheritDoc} */
     @SuppressWarnings({"unchecked"})
     @Override public <T> T loadCheckpoint(String key) throws GridException {
@@ -13,6 +13,8 @@ import org.gridgain.grid.*;
 import org.gridgain.grid.lang.*;
 import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.typedef.internal.*;
+import org.jetbrains.annotations.*;
+
 import java.io.*;
 import java.util.*;
 
@@ -45,6 +47,9 @@ public class GridJobSiblingImpl extends GridMetadataAwareAdapter implements Grid
     /** */
     private transient boolean isJobDone;
 
+    /** Keys of session attributes job is interested in, {@code null} for all. */
+    private transient Set<String> attrKeys;
+
     /** */
     private transient GridKernalContext ctx;
 
@@ -108,6 +113,20 @@ public class GridJobSiblingImpl extends GridMetadataAwareAdapter implements Grid
         isJobDone = true;
     }
 
+    /**
+     * @return Keys of session attributes job is interested in, {@code null} for all.
+     */
+    @Nullable public Set<String> attributeKeys() {
+        return attrKeys;
+    }
+
+    /**
+     * @param attrKeys Keys of session attributes job is interested in, {@code null} for all.
+     */
+    public void attributeKeys(@Nullable Set<String> attrKeys) {
+        this.attrKeys = attrKeys;
+    }
+
     /**
      * @return Communication topic for receiving.
      */
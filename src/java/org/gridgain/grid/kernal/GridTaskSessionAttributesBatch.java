@@ -0,0 +1,105 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal;
+
+import org.gridgain.grid.kernal.processors.timeout.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+
+import java.util.*;
+
+/**
+ * Batch of session attribute updates collected within a time window. Later updates
+ * of the same key replace earlier ones, so only the latest value of every changed
+ * key is sent once batch is flushed. Batch is flushed either when window expires
+ * (batch must be registered with timeout processor), or explicitly via {@link #flush()}.
+ * Once flushed, batch does not accept updates anymore and a new batch must be started.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public abstract class GridTaskSessionAttributesBatch implements GridTimeoutObject {
+    /** */
+    private final GridUuid timeoutId = GridUuid.randomUuid();
+
+    /** */
+    private final long endTime;
+
+    /** Collected attributes. */
+    private final Map<Object, Object> attrs = new HashMap<Object, Object>();
+
+    /** Flushed flag. */
+    private boolean flushed;
+
+    /**
+     * @param window Time window in milliseconds.
+     */
+    protected GridTaskSessionAttributesBatch(long window) {
+        assert window > 0;
+
+        endTime = System.currentTimeMillis() + window;
+    }
+
+    /**
+     * @param attrs Attributes to add.
+     * @return {@code False} if batch was already flushed and attributes were not added.
+     */
+    public synchronized boolean add(Map<?, ?> attrs) {
+        if (flushed)
+            return false;
+
+        this.attrs.putAll(attrs);
+
+        return true;
+    }
+
+    /**
+     * Flushes batch if it was not flushed yet. Send callback is invoked under batch lock,
+     * so that concurrent {@code flush()} returns only after batch is sent, and subsequent
+     * batch (which must only be started after callback completes) is always sent after
+     * this one.
+     */
+    public synchronized void flush() {
+        if (flushed)
+            return;
+
+        flushed = true;
+
+        onFlush(attrs);
+    }
+
+    /**
+     * Callback to send collected attributes. Invoked exactly once, even if batch
+     * is empty, so that implementation can release the batch.
+     *
+     * @param attrs Collected attributes (possibly empty).
+     */
+    protected abstract void onFlush(Map<Object, Object> attrs);
+
+    /** {@inheritDoc} */
+    @Override public GridUuid timeoutId() {
+        return timeoutId;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long endTime() {
+        return endTime;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onTimeout() {
+        flush();
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized String toString() {
+        return S.toString(GridTaskSessionAttributesBatch.class, this, "size", attrs.size());
+    }
+}
@@ -567,6 +567,25 @@ public class GridTaskSessionImpl extends GridMetadataAwareAdapter implements Gri
         ctx.checkpoint().storeCheckpoint(this, key, state, scope, timeout, overwrite);
     }
 
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> saveCheckpointAsync(String key, Object state) throws GridException {
+        return saveCheckpointAsync(key, state, GridTaskSessionScope.SESSION_SCOPE, 0, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override public GridFuture<Boolean> saveCheckpointAsync(String key, Object state, GridTaskSessionScope scope,
+        long timeout, boolean overwrite) throws GridException {
+        A.notNull(key, "key");
+        A.ensure(timeout >= 0, "timeout >= 0");
+
+        synchronized (mux) {
+            if (closed)
+                throw new GridException("Failed to save checkpoint (session closed): " + this);
+        }
+
+        return ctx.checkpoint().storeCheckpointAsync(this, key, state, scope, timeout, overwrite);
+    }
+
     /** {@inheritDoc} */
     @SuppressWarnings("unchecked")
     @Override public <T> T loadCheckpoint(String key) throws GridException {
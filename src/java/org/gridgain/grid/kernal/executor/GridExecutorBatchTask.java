@@ -0,0 +1,268 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.executor;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.*;
+import org.gridgain.grid.resources.*;
+import org.gridgain.grid.util.future.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.gridgain.grid.GridJobResultPolicy.*;
+
+/**
+ * Grid task used by {@link GridExecutorService#invokeAll(Collection)} and
+ * {@link GridExecutorService#invokeAny(Collection)} to execute whole batch of
+ * commands within a single task session. Every command becomes a separate
+ * {@link GridJob} assigned by load balancer, and its outcome is reported to
+ * a per-command future as soon as job result is received.
+ * <p>
+ * If task is created in "any" mode, it reduces as soon as first job succeeds,
+ * so that all remaining jobs get cancelled.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ * @param <T> Return type of {@link Callable}.
+ */
+@SuppressWarnings({"TransientFieldNotInitialized"})
+class GridExecutorBatchTask<T> extends GridTaskAdapter<List<Callable<T>>, T> {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Deploy class. */
+    private final transient Class<?> p2pCls;
+
+    /** Futures for commands, in the same order as commands. */
+    private final transient List<CommandFuture<T>> futs;
+
+    /** Whether task should reduce on first successful job. */
+    private final transient boolean any;
+
+    /** Positions of commands by jobs. */
+    private final transient Map<GridJob, Integer> idxs = new IdentityHashMap<GridJob, Integer>();
+
+    /** Load balancer. */
+    @GridLoadBalancerResource
+    private GridLoadBalancer balancer;
+
+    /**
+     * Creates batch task.
+     *
+     * @param cls Deployment class for peer-deployment.
+     * @param futs Futures for commands, in the same order as commands.
+     * @param any Whether task should reduce on first successful job.
+     */
+    GridExecutorBatchTask(Class<?> cls, List<CommandFuture<T>> futs, boolean any) {
+        assert cls != null;
+        assert futs != null;
+
+        p2pCls = cls;
+
+        this.futs = futs;
+        this.any = any;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Class<?> deployClass() {
+        return p2pCls;
+    }
+
+    /** {@inheritDoc} */
+    @Override public ClassLoader classLoader() {
+        return p2pCls.getClassLoader();
+    }
+
+    /** {@inheritDoc} */
+    @Override public Map<? extends GridJob, GridNode> map(List<GridNode> subgrid, List<Callable<T>> arg)
+        throws GridException {
+        assert subgrid != null;
+        assert !subgrid.isEmpty();
+        assert arg.size() == futs.size();
+
+        Map<GridJob, GridNode> map = new HashMap<GridJob, GridNode>(arg.size() * 2, 1.0f);
+
+        int idx = 0;
+
+        for (Callable<T> call : arg) {
+            GridJob job = new GridExecutorCallableJob<T>(call);
+
+            map.put(job, balancer.getBalancedNode(job, null));
+
+            idxs.put(job, idx++);
+        }
+
+        return map;
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings({"unchecked"})
+    @Override public GridJobResultPolicy result(GridJobResult res, List<GridJobResult> rcvd) throws GridException {
+        GridException e = res.getException();
+
+        if (e instanceof GridExecutionRejectedException || e instanceof GridTopologyException)
+            return FAILOVER;
+
+        Integer idx = idxs.get(res.getJob());
+
+        assert idx != null;
+
+        CommandFuture<T> fut = futs.get(idx);
+
+        if (e != null) {
+            fut.onDone(e);
+
+            return WAIT;
+        }
+
+        fut.onDone((T)res.getData());
+
+        // Remaining jobs will be cancelled once task reduces.
+        return any ? REDUCE : WAIT;
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings({"unchecked"})
+    @Override public T reduce(List<GridJobResult> results) throws GridException {
+        if (any) {
+            for (GridJobResult res : results)
+                if (res.getException() == null && !res.isCancelled())
+                    return (T)res.getData();
+
+            throw new GridException("Failed to get any task completion.");
+        }
+
+        return null;
+    }
+
+    /**
+     * Finishes futures of commands whose results were not received by the time task completed.
+     *
+     * @param taskFut Completed task future.
+     */
+    void onTaskFinished(GridFuture<T> taskFut) {
+        assert taskFut.isDone();
+
+        GridException err = null;
+
+        if (!taskFut.isCancelled()) {
+            try {
+                taskFut.get();
+            }
+            catch (GridException e) {
+                err = e;
+            }
+        }
+
+        for (CommandFuture<T> fut : futs) {
+            if (!fut.isDone()) {
+                if (err != null)
+                    fut.onDone(err);
+                else
+                    fut.onCancelled();
+            }
+        }
+    }
+
+    /**
+     * Future for a single command of the batch. Cancelling it discards command result,
+     * but does not interrupt the job, which is cancelled only with the whole task.
+     *
+     * @author 2012 Copyright (C) GridGain Systems
+     * @version 3.6.0c.09012012
+     * @param <T> Return type of {@link Callable}.
+     */
+    static class CommandFuture<T> extends GridFutureAdapter<T> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Future completed with the first successful command result, if any. */
+        private final AnyFuture<T> anyFut;
+
+        /**
+         * @param ctx Kernal context.
+         * @param anyFut Future completed with the first successful command result, if any.
+         */
+        CommandFuture(GridKernalContext ctx, @Nullable AnyFuture<T> anyFut) {
+            super(ctx);
+
+            this.anyFut = anyFut;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean cancel() {
+            return onCancelled();
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean onDone(@Nullable T res, @Nullable Throwable err) {
+            if (super.onDone(res, err)) {
+                if (anyFut != null)
+                    anyFut.onCommandDone(res, err);
+
+                return true;
+            }
+
+            return false;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean onCancelled() {
+            if (super.onCancelled()) {
+                if (anyFut != null)
+                    anyFut.onCommandDone(null, new GridFutureCancelledException("Command was cancelled."));
+
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Future completed with the first successful command result, or with
+     * an error once all commands have failed.
+     *
+     * @author 2012 Copyright (C) GridGain Systems
+     * @version 3.6.0c.09012012
+     * @param <T> Return type of {@link Callable}.
+     */
+    static class AnyFuture<T> extends GridFutureAdapter<T> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Number of commands which have not failed yet. */
+        private final AtomicInteger cnt;
+
+        /**
+         * @param ctx Kernal context.
+         * @param cnt Number of commands.
+         */
+        AnyFuture(GridKernalContext ctx, int cnt) {
+            super(ctx);
+
+            this.cnt = new AtomicInteger(cnt);
+        }
+
+        /**
+         * @param res Command result.
+         * @param err Command error.
+         */
+        void onCommandDone(@Nullable T res, @Nullable Throwable err) {
+            if (err == null)
+                onDone(res);
+            else if (cnt.decrementAndGet() == 0)
+                onDone(new GridException("Failed to get any task completion.", err));
+        }
+    }
+}
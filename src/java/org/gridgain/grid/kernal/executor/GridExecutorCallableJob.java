@@ -0,0 +1,68 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.executor;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.*;
+import org.gridgain.grid.resources.*;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+/**
+ * Job which executes {@link Callable} submitted to {@link GridExecutorService}.
+ * Resources are injected into the callable before execution.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ * @param <T> Return type of {@link Callable}.
+ */
+class GridExecutorCallableJob<T> extends GridJobAdapterEx {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** */
+    @GridInstanceResource
+    private Grid grid;
+
+    /**
+     * Creates job for given callable.
+     *
+     * @param call Callable to execute.
+     */
+    GridExecutorCallableJob(Callable<T> call) {
+        super((Serializable)call);
+    }
+
+    /*
+     * Simply execute command passed into the job and
+     * returns result.
+     */
+    @SuppressWarnings("unchecked")
+    @Override public Object execute() throws GridException {
+        Callable<T> call = (Callable<T>)argument(0);
+
+        if (call != null) {
+            GridKernalContext ctx = ((GridKernal)grid).context();
+
+            ctx.resource().inject(ctx.deploy().getDeployment(call.getClass().getName()), call.getClass(), call);
+
+            // Execute command.
+            try {
+                return call.call();
+            }
+            catch (Exception e) {
+                throw new GridException("Failed to execute command.", e);
+            }
+        }
+
+        return null;
+    }
+}
@@ -10,10 +10,8 @@
 package org.gridgain.grid.kernal.executor;
 
 import org.gridgain.grid.*;
-import org.gridgain.grid.kernal.*;
 import org.gridgain.grid.resources.*;
 
-import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
 
@@ -58,51 +56,12 @@ public class GridExecutorCallableTask<T> extends GridTaskAdapter<Callable<T>, T>
         return p2pCls.getClassLoader();
     }
 
-    /**
-     * Create job.
-     *
-     * @param arg Callable argument.
-     * @return Grid job.
-     */
-    private GridJob createJob(Callable<T> arg) {
-        return new GridJobAdapterEx((Serializable)arg) {
-            /** */
-            @GridInstanceResource
-            private Grid grid;
-
-            /*
-            * Simply execute command passed into the job and
-            * returns result.
-            */
-            @SuppressWarnings("unchecked")
-            @Override public Object execute() throws GridException {
-                Callable<T> call = (Callable<T>)argument(0);
-
-                if (call != null) {
-                    GridKernalContext ctx = ((GridKernal)grid).context();
-
-                    ctx.resource().inject(ctx.deploy().getDeployment(call.getClass().getName()), call.getClass(), call);
-
-                    // Execute command.
-                    try {
-                        return call.call();
-                    }
-                    catch (Exception e) {
-                        throw new GridException("Failed to execute command.", e);
-                    }
-                }
-
-                return null;
-            }
-        };
-    }
-
     /** {@inheritDoc} */
     @Override public final Map<? extends GridJob, GridNode> map(List<GridNode> subgrid, Callable<T> arg) throws GridException {
         assert subgrid != null;
         assert !subgrid.isEmpty();
 
-        GridJob job = createJob(arg);
+        GridJob job = new GridExecutorCallableJob<T>(arg);
 
         return Collections.singletonMap(job, balancer.getBalancedNode(job, null));
     }
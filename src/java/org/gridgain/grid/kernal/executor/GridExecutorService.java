@@ -10,6 +10,8 @@
 package org.gridgain.grid.kernal.executor;
 
 import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.*;
+import org.gridgain.grid.kernal.executor.GridExecutorBatchTask.*;
 import org.gridgain.grid.lang.*;
 import org.gridgain.grid.logger.*;
 import org.gridgain.grid.typedef.*;
@@ -325,66 +327,129 @@ public class GridExecutorService extends GridMetadataAwareAdapter implements Exe
 
         checkShutdown();
 
-        Collection<GridTaskFuture<T>> taskFuts = new ArrayList<GridTaskFuture<T>>();
+        List<CommandFuture<T>> cmdFuts = new ArrayList<CommandFuture<T>>(tasks.size());
 
-        for (Callable<T> task : tasks) {
-            deployTask(GridExecutorCallableTask.class, task);
-
-            // Execute task without predefined timeout.
-            // GridFuture.cancel() will be called if timeout elapsed.
-            GridTaskFuture<T> fut = grid.execute(new GridExecutorCallableTask<T>(task.getClass()), task);
+        // All commands are executed within as few tasks as possible. Every task is
+        // executed without predefined timeout, GridFuture.cancel() will be called
+        // if timeout elapsed.
+        Collection<GridTaskFuture<T>> taskFuts = executeBatch(tasks, cmdFuts, null);
 
-            taskFuts.add(fut);
+        boolean isInterrupted = false;
 
+        for (CommandFuture<T> fut : cmdFuts) {
             now = System.currentTimeMillis();
-        }
 
-        boolean isInterrupted = false;
+            if (now >= end)
+                break;
 
-        for (GridTaskFuture<T> fut : taskFuts) {
-            if (!isInterrupted && now < end) {
-                try {
-                    fut.get(end - now);
-                }
-                catch (GridTaskTimeoutException ignore) {
-                    if (log.isDebugEnabled())
-                        log.debug("Timeout occurred during getting task result: " + fut);
+            try {
+                fut.get(end - now);
+            }
+            catch (GridFutureTimeoutException ignore) {
+                if (log.isDebugEnabled())
+                    log.debug("Timeout occurred during getting task result: " + fut);
 
-                    cancelFuture(fut);
-                }
-                catch (GridException e) {
-                    if (e.getCause() instanceof InterruptedException) {
-                        // This invokeAll() method was interrupted (therefore, need to cancel all tasks).
-                        // Note: that execution may be interrupted on remote node. Possible bug.
-                        isInterrupted = true;
-
-                        cancelFuture(fut);
-                    }
-                }
+                break;
             }
+            catch (GridException e) {
+                if (e.getCause() instanceof InterruptedException) {
+                    // This invokeAll() method was interrupted (therefore, need to cancel all tasks).
+                    // Note: that execution may be interrupted on remote node. Possible bug.
+                    isInterrupted = true;
 
-            now = System.currentTimeMillis();
+                    break;
+                }
+            }
         }
 
+        // Per executor service contract any task that was not completed
+        // should be cancelled upon return.
+        for (GridTaskFuture<T> fut : taskFuts)
+            if (!fut.isDone())
+                cancelFuture(fut);
+
+        for (CommandFuture<T> fut : cmdFuts)
+            if (!fut.isDone())
+                fut.onCancelled();
+
         // Throw exception if any task wait was interrupted.
         if (isInterrupted)
             throw new InterruptedException("Got interrupted while waiting for tasks invocation.");
 
-        List<Future<T>> futs = new ArrayList<Future<T>>(taskFuts.size());
+        List<Future<T>> futs = new ArrayList<Future<T>>(cmdFuts.size());
 
         // Convert futures.
-        for (GridTaskFuture<T> fut : taskFuts) {
-            // Per executor service contract any task that was not completed
-            // should be cancelled upon return.
-            if (!fut.isDone())
-                cancelFuture(fut);
-
+        for (CommandFuture<T> fut : cmdFuts)
             futs.add(new TaskFutureWrapper<T>(fut));
-        }
 
         return futs;
     }
 
+    /**
+     * Executes commands in grid. Instead of starting a task per command, commands are
+     * grouped by their class loaders and every group is executed as a single
+     * {@link GridExecutorBatchTask} with a job per command.
+     *
+     * @param tasks Commands to execute.
+     * @param cmdFuts Collection to add futures of commands to, in the same order as commands,
+     *      or {@code null} if command futures are not needed.
+     * @param anyFut If not {@code null}, then tasks reduce on first successful job
+     *      and this future gets completed with its result.
+     * @return Task futures.
+     */
+    private <T> Collection<GridTaskFuture<T>> executeBatch(Collection<? extends Callable<T>> tasks,
+        @Nullable Collection<CommandFuture<T>> cmdFuts, @Nullable AnyFuture<T> anyFut) {
+        GridKernalContext ctx = ((GridKernal)grid).context();
+
+        Map<ClassLoader, GridTuple2<List<Callable<T>>, List<CommandFuture<T>>>> grps =
+            new LinkedHashMap<ClassLoader, GridTuple2<List<Callable<T>>, List<CommandFuture<T>>>>();
+
+        for (Callable<T> task : tasks) {
+            A.notNull(task, "task != null");
+
+            ClassLoader ldr = task.getClass().getClassLoader();
+
+            GridTuple2<List<Callable<T>>, List<CommandFuture<T>>> grp = grps.get(ldr);
+
+            if (grp == null)
+                grps.put(ldr, grp = F.<List<Callable<T>>, List<CommandFuture<T>>>t(
+                    new ArrayList<Callable<T>>(), new ArrayList<CommandFuture<T>>()));
+
+            CommandFuture<T> fut = new CommandFuture<T>(ctx, anyFut);
+
+            grp.get1().add(task);
+            grp.get2().add(fut);
+
+            if (cmdFuts != null)
+                cmdFuts.add(fut);
+        }
+
+        Collection<GridTaskFuture<T>> taskFuts = new ArrayList<GridTaskFuture<T>>(grps.size());
+
+        for (GridTuple2<List<Callable<T>>, List<CommandFuture<T>>> grp : grps.values()) {
+            Callable<T> first = grp.get1().get(0);
+
+            deployTask(GridExecutorBatchTask.class, first);
+
+            final GridExecutorBatchTask<T> task = new GridExecutorBatchTask<T>(first.getClass(), grp.get2(),
+                anyFut != null);
+
+            GridTaskFuture<T> fut = grid.execute(task, grp.get1(), lsnr, p);
+
+            trackFuture(fut);
+
+            fut.listenAsync(new CI1<GridFuture<T>>() {
+                @Override public void apply(GridFuture<T> f) {
+                    task.onTaskFinished(f);
+                }
+            });
+
+            taskFuts.add(fut);
+        }
+
+        return taskFuts;
+    }
+
     /**
      * Cancels given future.
      *
@@ -455,78 +520,36 @@ public class GridExecutorService extends GridMetadataAwareAdapter implements Exe
 
         checkShutdown();
 
-        Collection<GridTaskFuture<T>> taskFuts = new ArrayList<GridTaskFuture<T>>();
-
-        for (Callable<T> cmd : tasks) {
-            // Execute task with predefined timeout.
-            GridTaskFuture<T> fut = grid.execute(new GridExecutorCallableTask<T>(cmd.getClass()), cmd);
+        AnyFuture<T> anyFut = new AnyFuture<T>(((GridKernal)grid).context(), tasks.size());
 
-            taskFuts.add(fut);
-
-            now = System.currentTimeMillis();
-        }
-
-        T res = null;
-
-        boolean isInterrupted = false;
-        boolean isResRcvd = false;
+        // Task reduces as soon as any of its jobs succeeds, cancelling the remaining ones.
+        Collection<GridTaskFuture<T>> taskFuts = executeBatch(tasks, null, anyFut);
 
-        int errCnt = 0;
-
-        for (GridTaskFuture<T> fut : taskFuts) {
-            boolean cancel = false;
-
-            if (!isInterrupted && !isResRcvd && now < end) {
-                try {
-                    res = fut.get(end - now);
-
-                    isResRcvd = true;
-
-                    now = System.currentTimeMillis();
-
-                    // Cancel next tasks (avoid current task cancellation below in loop).
-                    continue;
-                }
-                catch (GridTaskTimeoutException ignored) {
-                    if (log.isDebugEnabled())
-                        log.debug("Timeout occurred during getting task result: " + fut);
-
-                    errCnt++;
-
-                    cancel = true;
-                }
-                catch (GridException e) {
-                    // This invokeAll() method was interrupted (therefore, need to cancel all tasks).
-                    // Note: that execution may be interrupted on remote node. Possible bug.
-                    if (e.getCause() instanceof InterruptedException)
-                        isInterrupted = true;
-                    else
-                        errCnt++;
-                }
-            }
-
-            // Cancel active task if any task interrupted, timeout elapsed or received task result before.
-            if ((isInterrupted || isResRcvd || cancel) && !fut.isDone())
-                cancelFuture(fut);
-
-            now = System.currentTimeMillis();
+        try {
+            return anyFut.get(Math.max(0, end - System.currentTimeMillis()));
         }
+        catch (GridFutureTimeoutException e) {
+            if (log.isDebugEnabled())
+                log.debug("Timeout occurred during getting task result: " + e.getMessage());
 
-        // Throw exception if any task wait was interrupted.
-        if (isInterrupted)
-            throw new InterruptedException("Got interrupted while waiting for tasks invocation.");
-
-        // If every task failed - throw execution exception
-        // per executor service contract.
-        if (!isResRcvd && taskFuts.size() == errCnt)
-            throw new ExecutionException("Failed to get any task completion.", null);
-
-        // In all other cases with no results received by the time timeout elapsed -
-        // throw timeout exception per executor service contract.
-        if (!isResRcvd)
+            // No results received by the time timeout elapsed -
+            // throw timeout exception per executor service contract.
             throw new TimeoutException("Timeout occurred during tasks invocation.");
+        }
+        catch (GridException e) {
+            // Note: that execution may be interrupted on remote node. Possible bug.
+            if (e.getCause() instanceof InterruptedException)
+                throw new InterruptedException("Got interrupted while waiting for tasks invocation.");
 
-        return res;
+            // Every task failed - throw execution exception per executor service contract.
+            throw new ExecutionException("Failed to get any task completion.", e);
+        }
+        finally {
+            // Cancel tasks which are still active, e.g. tasks of other class loaders or timed out ones.
+            for (GridTaskFuture<T> fut : taskFuts)
+                if (!fut.isDone())
+                    cancelFuture(fut);
+        }
     }
 
     /** {@inheritDoc} */
@@ -556,11 +579,20 @@ public class GridExecutorService extends GridMetadataAwareAdapter implements Exe
      * @return Future for command.
      */
     private <T> Future<T> addFuture(GridTaskFuture<T> fut) {
+        trackFuture(fut);
+
+        return new TaskFutureWrapper<T>(fut);
+    }
+
+    /**
+     * Adds future to the list of executing tasks.
+     *
+     * @param fut Future to add.
+     */
+    private void trackFuture(GridTaskFuture<?> fut) {
         synchronized (mux) {
             if (!fut.isDone())
                 futs.add(fut);
-
-            return new TaskFutureWrapper<T>(fut);
         }
     }
 
@@ -595,7 +627,7 @@ public class GridExecutorService extends GridMetadataAwareAdapter implements Exe
     }
 
     /**
-     * Wrapper for {@link GridTaskFuture}.
+     * Wrapper for {@link GridTaskFuture} or future of a single command executed in batch.
      * Used for compatibility {@link Future} interface.
      *
      * @author 2012 Copyright (C) GridGain Systems
@@ -603,14 +635,14 @@ public class GridExecutorService extends GridMetadataAwareAdapter implements Exe
      */
     private class TaskFutureWrapper<T> implements Future<T> {
         /** */
-        private final GridTaskFuture<T> fut;
+        private final GridFuture<T> fut;
 
         /**
          * Creates wrapper.
          *
          * @param fut Grid future.
          */
-        TaskFutureWrapper(GridTaskFuture<T> fut) {
+        TaskFutureWrapper(GridFuture<T> fut) {
             assert fut != null;
 
             this.fut = fut;
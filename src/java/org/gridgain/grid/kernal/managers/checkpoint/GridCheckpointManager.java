@@ -14,12 +14,14 @@ import org.gridgain.grid.events.*;
 import org.gridgain.grid.kernal.*;
 import org.gridgain.grid.kernal.managers.*;
 import org.gridgain.grid.kernal.managers.communication.*;
+import org.gridgain.grid.lang.*;
 import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.marshaller.*;
 import org.gridgain.grid.spi.*;
 import org.gridgain.grid.spi.checkpoint.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.future.*;
 import org.gridgain.grid.util.tostring.*;
 import org.jetbrains.annotations.*;
 
@@ -28,6 +30,7 @@ import java.util.*;
 import java.util.concurrent.*;
 
 import static org.gridgain.grid.GridEventType.*;
+import static org.gridgain.grid.GridTaskSessionScope.*;
 import static org.gridgain.grid.kernal.GridTopic.*;
 
 /**
@@ -38,12 +41,26 @@ import static org.gridgain.grid.kernal.GridTopic.*;
  */
 @SuppressWarnings({"SynchronizationOnLocalVariableOrMethodParameter", "deprecation"})
 public class GridCheckpointManager extends GridManagerAdapter<GridCheckpointSpi> {
+    /** Maximum time to wait on stop for pending asynchronous checkpoints to be written. */
+    private static final long STOP_WAIT_TIMEOUT = 10000;
+
     /** */
     private final GridMessageListener lsnr = new CheckpointRequestListener();
 
     /** */
     private final ConcurrentMap<GridUuid, CheckpointSet> keyMap = new ConcurrentHashMap<GridUuid, CheckpointSet>();
 
+    /** Asynchronous checkpoints waiting to be written, by session ID, SPI name and key. */
+    private final ConcurrentMap<GridTuple3<GridUuid, String, String>, AsyncCheckpoint> pending =
+        new ConcurrentHashMap<GridTuple3<GridUuid, String, String>, AsyncCheckpoint>();
+
+    /** Asynchronous checkpoints saved by jobs, by job ID. */
+    private final ConcurrentMap<GridUuid, Collection<GridFuture<Boolean>>> jobCps =
+        new ConcurrentHashMap<GridUuid, Collection<GridFuture<Boolean>>>();
+
+    /** Checkpoint metrics by SPI name. */
+    private final Map<String, GridCheckpointMetrics> metrics = new LinkedHashMap<String, GridCheckpointMetrics>();
+
     /** Grid marshaller. */
     private final GridMarshaller marshaller;
 
@@ -54,6 +71,9 @@ public class GridCheckpointManager extends GridManagerAdapter<GridCheckpointSpi>
         super(GridCheckpointSpi.class, ctx, ctx.config().getCheckpointSpi());
 
         marshaller = ctx.config().getMarshaller();
+
+        for (GridCheckpointSpi spi : getSpis())
+            metrics.put(spi.getName(), new GridCheckpointMetrics(spi.getName()));
     }
 
     /** {@inheritDoc} */
@@ -81,6 +101,37 @@ public class GridCheckpointManager extends GridManagerAdapter<GridCheckpointSpi>
         if (comm != null)
             comm.removeMessageListener(TOPIC_CHECKPOINT, lsnr);
 
+        // Let pending asynchronous checkpoints reach SPI.
+        long endTime = System.currentTimeMillis() + STOP_WAIT_TIMEOUT;
+
+        for (AsyncCheckpoint cp : pending.values()) {
+            long left = endTime - System.currentTimeMillis();
+
+            if (left <= 0)
+                break;
+
+            try {
+                cp.future().get(left);
+            }
+            catch (GridFutureTimeoutException ignored) {
+                break;
+            }
+            catch (GridException ignored) {
+                // Already logged.
+            }
+        }
+
+        // Fail checkpoints which did not make it in time, so that nobody waits for them.
+        for (Iterator<AsyncCheckpoint> it = pending.values().iterator(); it.hasNext();) {
+            AsyncCheckpoint cp = it.next();
+
+            it.remove();
+
+            U.warn(log, "Asynchronous checkpoint was not saved before grid stop: " + cp);
+
+            cp.onStopped();
+        }
+
         stopSpi();
 
         if (log.isDebugEnabled())
@@ -111,84 +162,308 @@ public class GridCheckpointManager extends GridManagerAdapter<GridCheckpointSpi>
 
         long now = System.currentTimeMillis();
 
-        boolean saved = false;
+        if (scope == SESSION_SCOPE) {
+            if (now > ses.getEndTime()) {
+                U.warn(log, "Checkpoint will not be saved due to session timeout [key=" + key +
+                    ", val=" + state + ", ses=" + ses + ']',
+                    "Checkpoint will not be saved due to session timeout.");
+
+                return false;
+            }
+
+            if (now + timeout > ses.getEndTime() || now + timeout < 0)
+                timeout = ses.getEndTime() - now;
+        }
+
+        // Save it first to avoid getting null value on another node.
+        byte[] data = state == null ? null : U.marshal(marshaller, state).getEntireArray();
 
         try {
-            switch (scope) {
-                case GLOBAL_SCOPE: {
-                    byte[] data = state == null ? null : U.marshal(marshaller, state).getArray();
+            return writeCheckpoint(ses, key, data, scope, timeout, override);
+        }
+        catch (GridSpiException e) {
+            throw new GridException("Failed to save checkpoint [key=" + key + ", val=" + state + ", scope=" +
+                scope + ", timeout=" + timeout + ']', e);
+        }
+    }
 
-                    saved = getSpi(ses.getCheckpointSpi()).saveCheckpoint(key, data, timeout, override);
+    /**
+     * Saves checkpoint asynchronously. State is marshalled right away, so later changes
+     * to it are not reflected in checkpoint, but writing to SPI is done in system pool.
+     * If a checkpoint with the same key is still waiting to be written for the same session,
+     * then its state is replaced with the new one and future of pending checkpoint is returned,
+     * so only the latest state is written. Writes of the same key are never reordered.
+     * <p>
+     * Result of a job is not sent until all asynchronous checkpoints saved by the job
+     * are written (see {@link #awaitCheckpoints(GridUuid)}).
+     *
+     * @param ses Task session.
+     * @param key Checkpoint key.
+     * @param state Checkpoint state to save.
+     * @param scope Checkpoint scope.
+     * @param timeout Checkpoint timeout.
+     * @param override Whether or not override checkpoint if it already exists.
+     * @return Future which completes with {@code true} if checkpoint has been actually saved.
+     * @throws GridException If failed to marshal checkpoint state.
+     */
+    public GridFuture<Boolean> storeCheckpointAsync(GridTaskSessionInternal ses, String key, Object state,
+        GridTaskSessionScope scope, long timeout, boolean override) throws GridException {
+        assert ses != null;
+        assert key != null;
 
-                    if (saved)
-                        record(EVT_CHECKPOINT_SAVED, key);
+        long now = System.currentTimeMillis();
+
+        if (scope == SESSION_SCOPE) {
+            if (now > ses.getEndTime()) {
+                U.warn(log, "Checkpoint will not be saved due to session timeout [key=" + key +
+                    ", val=" + state + ", ses=" + ses + ']',
+                    "Checkpoint will not be saved due to session timeout.");
+
+                return new GridFinishedFuture<Boolean>(ctx, false);
+            }
+
+            if (now + timeout > ses.getEndTime() || now + timeout < 0)
+                timeout = ses.getEndTime() - now;
+        }
+
+        byte[] data = state == null ? null : U.marshal(marshaller, state).getEntireArray();
+
+        GridTuple3<GridUuid, String, String> cpKey = F.t(ses.getId(), spiName(ses.getCheckpointSpi()), key);
+
+        GridFuture<Boolean> fut;
+
+        while (true) {
+            AsyncCheckpoint cp = pending.get(cpKey);
+
+            if (cp == null) {
+                cp = new AsyncCheckpoint(cpKey, ses, data, scope, timeout, override);
+
+                if (pending.putIfAbsent(cpKey, cp) == null) {
+                    metrics(cpKey.get2()).onEnqueued();
+
+                    submit(cp);
+
+                    fut = cp.future();
 
                     break;
                 }
+            }
+            else {
+                fut = cp.offer(ses, data, scope, timeout, override);
+
+                // Null means that pending checkpoint has just been written.
+                if (fut != null)
+                    break;
+            }
+        }
 
-                case SESSION_SCOPE: {
-                    if (now > ses.getEndTime()) {
-                        U.warn(log, "Checkpoint will not be saved due to session timeout [key=" + key +
-                            ", val=" + state + ", ses=" + ses + ']',
-                            "Checkpoint will not be saved due to session timeout.");
+        if (ses.getJobId() != null)
+            trackJobCheckpoint(ses.getJobId(), fut);
 
-                        break;
-                    }
+        return fut;
+    }
+
+    /**
+     * Submits asynchronous checkpoint to system pool, writing it in the current
+     * thread if pool rejects it, so that checkpoint future always completes.
+     *
+     * @param cp Checkpoint to write.
+     */
+    private void submit(AsyncCheckpoint cp) {
+        try {
+            ctx.config().getSystemExecutorService().execute(cp);
+        }
+        catch (RejectedExecutionException ignored) {
+            cp.run();
+        }
+    }
+
+    /**
+     * Waits for all asynchronous checkpoints saved by given job to be written.
+     *
+     * @param jobId Job ID.
+     * @throws GridException If any of the checkpoints failed to be written.
+     */
+    public void awaitCheckpoints(GridUuid jobId) throws GridException {
+        Collection<GridFuture<Boolean>> futs = jobCps.remove(jobId);
+
+        if (futs != null)
+            for (GridFuture<Boolean> fut : futs)
+                fut.get();
+    }
+
+    /**
+     * Stops tracking asynchronous checkpoints of given job without waiting for them.
+     *
+     * @param jobId Job ID.
+     */
+    public void forgetCheckpoints(GridUuid jobId) {
+        jobCps.remove(jobId);
+    }
+
+    /**
+     * @param name SPI name.
+     * @return Checkpoint metrics of SPI with given name. If {@code null} or empty,
+     *      then metrics of the 1st SPI on the list are returned.
+     */
+    public GridCheckpointMetrics metrics(@Nullable String name) {
+        GridCheckpointMetrics m = metrics.get(spiName(name));
+
+        assert m != null : "Failed to find checkpoint metrics for SPI: " + name;
+
+        return m;
+    }
+
+    /**
+     * @return Checkpoint metrics of all SPIs.
+     */
+    public Collection<GridCheckpointMetrics> metrics() {
+        return metrics.values();
+    }
+
+    /**
+     * @param jobId Job ID.
+     * @param fut Checkpoint future.
+     */
+    private void trackJobCheckpoint(GridUuid jobId, GridFuture<Boolean> fut) {
+        Collection<GridFuture<Boolean>> futs = jobCps.get(jobId);
+
+        if (futs == null) {
+            Collection<GridFuture<Boolean>> old = jobCps.putIfAbsent(jobId,
+                futs = new GridConcurrentHashSet<GridFuture<Boolean>>());
+
+            if (old != null)
+                futs = old;
+        }
+
+        if (!futs.add(fut))
+            return;
+
+        final Collection<GridFuture<Boolean>> futs0 = futs;
+
+        // Keep only failed futures once they are done, so that long running
+        // jobs with many checkpoints do not accumulate them.
+        fut.listenAsync(new CI1<GridFuture<Boolean>>() {
+            @Override public void apply(GridFuture<Boolean> f) {
+                try {
+                    f.get();
+
+                    futs0.remove(f);
+                }
+                catch (GridException ignored) {
+                    // No-op.
+                }
+            }
+        });
+    }
+
+    /**
+     * @param name SPI name.
+     * @return Name of SPI, which is used for given name.
+     */
+    private String spiName(@Nullable String name) {
+        return F.isEmpty(name) ? getSpis()[0].getName() : name;
+    }
 
-                    if (now + timeout > ses.getEndTime() || now + timeout < 0)
-                        timeout = ses.getEndTime() - now;
+    /**
+     * Writes marshalled checkpoint to SPI.
+     *
+     * @param ses Task session.
+     * @param key Checkpoint key.
+     * @param data Marshalled checkpoint state.
+     * @param scope Checkpoint scope.
+     * @param timeout Checkpoint timeout.
+     * @param override Whether or not override checkpoint if it already exists.
+     * @return {@code true} if checkpoint has been actually saved, {@code false} otherwise.
+     * @throws GridException Thrown in case of any errors.
+     */
+    private boolean writeCheckpoint(GridTaskSessionInternal ses, String key, @Nullable byte[] data,
+        GridTaskSessionScope scope, long timeout, boolean override) throws GridException {
+        boolean saved = false;
 
-                    // Save it first to avoid getting null value on another node.
-                    byte[] data = state == null ? null : U.marshal(marshaller, state).getArray();
+        switch (scope) {
+            case GLOBAL_SCOPE: {
+                saved = saveToSpi(ses.getCheckpointSpi(), key, data, timeout, override);
 
-                    Set<String> keys = keyMap.get(ses.getId());
+                if (saved)
+                    record(EVT_CHECKPOINT_SAVED, key);
 
-                    if (log.isDebugEnabled())
-                        log.debug("Resolved keys for session [keys=" + keys + ", ses=" + ses +
-                            ", keyMap=" + keyMap + ']');
+                break;
+            }
 
-                    // Note: Check that keys exists because session may be invalidated during saving
-                    // checkpoint from GridFuture.
-                    if (keys != null) {
-                        saved = getSpi(ses.getCheckpointSpi()).saveCheckpoint(key, data, timeout, override);
+            case SESSION_SCOPE: {
+                Set<String> keys = keyMap.get(ses.getId());
 
-                        if (saved) {
-                            keys.add(key);
+                if (log.isDebugEnabled())
+                    log.debug("Resolved keys for session [keys=" + keys + ", ses=" + ses +
+                        ", keyMap=" + keyMap + ']');
 
-                            if (ses.getJobId() != null) {
-                                GridNode node = ctx.discovery().node(ses.getTaskNodeId());
+                // Note: Check that keys exists because session may be invalidated during saving
+                // checkpoint from GridFuture.
+                if (keys != null) {
+                    saved = saveToSpi(ses.getCheckpointSpi(), key, data, timeout, override);
 
-                                if (node != null)
-                                    ctx.io().send(
-                                        node,
-                                        TOPIC_CHECKPOINT,
-                                        new GridCheckpointRequest(ses.getId(), key, ses.getCheckpointSpi()),
-                                        GridIoPolicy.PUBLIC_POOL);
-                            }
+                    if (saved) {
+                        keys.add(key);
 
-                            record(EVT_CHECKPOINT_SAVED, key);
+                        if (ses.getJobId() != null) {
+                            GridNode node = ctx.discovery().node(ses.getTaskNodeId());
+
+                            if (node != null)
+                                ctx.io().send(
+                                    node,
+                                    TOPIC_CHECKPOINT,
+                                    new GridCheckpointRequest(ses.getId(), key, ses.getCheckpointSpi()),
+                                    GridIoPolicy.PUBLIC_POOL);
                         }
-                    }
-                    else
-                        U.warn(log, "Checkpoint will not be saved due to session invalidation [key=" + key +
-                            ", val=" + state + ", ses=" + ses + ']',
-                            "Checkpoint will not be saved due to session invalidation.");
 
-                    break;
+                        record(EVT_CHECKPOINT_SAVED, key);
+                    }
                 }
+                else
+                    U.warn(log, "Checkpoint will not be saved due to session invalidation [key=" + key +
+                        ", ses=" + ses + ']',
+                        "Checkpoint will not be saved due to session invalidation.");
 
-                default:
-                    assert false : "Unknown checkpoint scope: " + scope;
+                break;
             }
-        }
-        catch (GridSpiException e) {
-            throw new GridException("Failed to save checkpoint [key=" + key + ", val=" + state + ", scope=" +
-                scope + ", timeout=" + timeout + ']', e);
+
+            default:
+                assert false : "Unknown checkpoint scope: " + scope;
         }
 
         return saved;
     }
 
+    /**
+     * @param spiName SPI name.
+     * @param key Checkpoint key.
+     * @param data Marshalled checkpoint state.
+     * @param timeout Checkpoint timeout.
+     * @param override Whether or not override checkpoint if it already exists.
+     * @return {@code true} if checkpoint has been actually saved, {@code false} otherwise.
+     * @throws GridSpiException If SPI failed to save checkpoint.
+     */
+    private boolean saveToSpi(@Nullable String spiName, String key, @Nullable byte[] data, long timeout,
+        boolean override) throws GridSpiException {
+        GridCheckpointMetrics m = metrics(spiName);
+
+        long start = System.nanoTime();
+
+        boolean ok = false;
+
+        try {
+            boolean saved = getSpi(spiName).saveCheckpoint(key, data, timeout, override);
+
+            ok = true;
+
+            return saved;
+        }
+        finally {
+            m.onWrite(data == null ? 0 : data.length, System.nanoTime() - start, ok);
+        }
+    }
+
     /**
      * @param key Checkpoint key.
      * @return Whether or not checkpoint was removed.
@@ -335,6 +610,11 @@ public class GridCheckpointManager extends GridManagerAdapter<GridCheckpointSpi>
         X.println(">>>");
         X.println(">>> Checkpoint manager memory stats [grid=" + ctx.gridName() + ']');
         X.println(">>>  keyMap: " + keyMap.size());
+        X.println(">>>  pending: " + pending.size());
+        X.println(">>>  jobCps: " + jobCps.size());
+
+        for (GridCheckpointMetrics m : metrics.values())
+            X.println(">>>  metrics: " + m);
     }
 
     /**
@@ -365,6 +645,196 @@ public class GridCheckpointManager extends GridManagerAdapter<GridCheckpointSpi>
         }
     }
 
+    /**
+     * Asynchronous checkpoint waiting to be written. Saves of the same key are collapsed
+     * into it until it is taken for writing, saves made while it is being written go
+     * to the next checkpoint, which is written only after this one.
+     */
+    private class AsyncCheckpoint implements GridPlainRunnable {
+        /** Key in pending map. */
+        private final GridTuple3<GridUuid, String, String> cpKey;
+
+        /** Future. */
+        private final GridFutureAdapter<Boolean> fut = new GridFutureAdapter<Boolean>(ctx);
+
+        /** Time of the first save. */
+        private final long enqueueTime = System.currentTimeMillis();
+
+        /** Metrics. */
+        private final GridCheckpointMetrics m;
+
+        /** Task session. */
+        private GridTaskSessionInternal ses;
+
+        /** Marshalled state. */
+        private byte[] data;
+
+        /** Checkpoint scope. */
+        private GridTaskSessionScope scope;
+
+        /** Checkpoint timeout. */
+        private long timeout;
+
+        /** Whether or not override checkpoint if it already exists. */
+        private boolean override;
+
+        /** {@code True} once taken for writing. */
+        private boolean writing;
+
+        /** {@code True} once written. */
+        private boolean done;
+
+        /** Checkpoint to write after this one. */
+        private AsyncCheckpoint next;
+
+        /**
+         * @param cpKey Key in pending map.
+         * @param ses Task session.
+         * @param data Marshalled state.
+         * @param scope Checkpoint scope.
+         * @param timeout Checkpoint timeout.
+         * @param override Whether or not override checkpoint if it already exists.
+         */
+        AsyncCheckpoint(GridTuple3<GridUuid, String, String> cpKey, GridTaskSessionInternal ses,
+            @Nullable byte[] data, GridTaskSessionScope scope, long timeout, boolean override) {
+            this.cpKey = cpKey;
+            this.ses = ses;
+            this.data = data;
+            this.scope = scope;
+            this.timeout = timeout;
+            this.override = override;
+
+            m = metrics(cpKey.get2());
+        }
+
+        /**
+         * @return Future.
+         */
+        GridFuture<Boolean> future() {
+            return fut;
+        }
+
+        /**
+         * Collapses new state into this checkpoint, or into the next one if this
+         * one is being written.
+         *
+         * @param ses Task session.
+         * @param data Marshalled state.
+         * @param scope Checkpoint scope.
+         * @param timeout Checkpoint timeout.
+         * @param override Whether or not override checkpoint if it already exists.
+         * @return Future of checkpoint which will write given state or {@code null}
+         *      if this checkpoint has already been written.
+         */
+        synchronized GridFuture<Boolean> offer(GridTaskSessionInternal ses, @Nullable byte[] data,
+            GridTaskSessionScope scope, long timeout, boolean override) {
+            if (done)
+                return null;
+
+            if (writing) {
+                if (next == null) {
+                    next = new AsyncCheckpoint(cpKey, ses, data, scope, timeout, override);
+
+                    m.onEnqueued();
+
+                    return next.fut;
+                }
+
+                return next.offer(ses, data, scope, timeout, override);
+            }
+
+            this.ses = ses;
+            this.data = data;
+            this.scope = scope;
+            this.timeout = timeout;
+            this.override = override;
+
+            m.onCollapsed();
+
+            return fut;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void run() {
+            GridTaskSessionInternal ses;
+            byte[] data;
+            GridTaskSessionScope scope;
+            long timeout;
+            boolean override;
+
+            synchronized (this) {
+                writing = true;
+
+                ses = this.ses;
+                data = this.data;
+                scope = this.scope;
+                timeout = this.timeout;
+                override = this.override;
+            }
+
+            boolean saved = false;
+            Throwable err = null;
+
+            try {
+                saved = writeCheckpoint(ses, cpKey.get3(), data, scope, timeout, override);
+            }
+            catch (Throwable e) {
+                U.error(log, "Failed to save checkpoint asynchronously [key=" + cpKey.get3() + ", scope=" + scope +
+                    ", timeout=" + timeout + ", ses=" + ses + ']', e);
+
+                err = e;
+            }
+
+            m.onAsyncWrite(System.currentTimeMillis() - enqueueTime);
+
+            AsyncCheckpoint next;
+
+            synchronized (this) {
+                done = true;
+
+                next = this.next;
+            }
+
+            if (next != null) {
+                // Not replaced if checkpoint was failed on grid stop.
+                if (pending.replace(cpKey, this, next))
+                    submit(next);
+            }
+            else
+                pending.remove(cpKey, this);
+
+            if (err != null)
+                fut.onDone(new GridException("Failed to save checkpoint [key=" + cpKey.get3() + ", scope=" +
+                    scope + ", timeout=" + timeout + ']', err));
+            else
+                fut.onDone(saved);
+        }
+
+        /**
+         * Fails this checkpoint and checkpoints queued after it on grid stop.
+         */
+        void onStopped() {
+            AsyncCheckpoint next;
+
+            synchronized (this) {
+                done = true;
+
+                next = this.next;
+            }
+
+            fut.onDone(new GridException("Failed to save checkpoint (grid is stopping) [key=" +
+                cpKey.get3() + ']'));
+
+            if (next != null)
+                next.onStopped();
+        }
+
+        /** {@inheritDoc} */
+        @Override public synchronized String toString() {
+            return S.toString(AsyncCheckpoint.class, this, "key", cpKey.get3());
+        }
+    }
+
     /** */
     private class CheckpointRequestListener implements GridMessageListener {
         /**
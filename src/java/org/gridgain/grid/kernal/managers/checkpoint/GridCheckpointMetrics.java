@@ -0,0 +1,207 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.managers.checkpoint;
+
+import org.gridgain.grid.typedef.internal.*;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * Checkpoint metrics of a single checkpoint SPI. Write metrics cover both synchronous
+ * and asynchronous saves, lag metrics cover asynchronous saves only. Lag is the time
+ * between the first save of a pending checkpoint state and the moment its latest
+ * state became durable.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCheckpointMetrics {
+    /** SPI name. */
+    private final String spiName;
+
+    /** Number of writes to SPI. */
+    private final AtomicLong writes = new AtomicLong();
+
+    /** Number of failed writes to SPI. */
+    private final AtomicLong writeFailures = new AtomicLong();
+
+    /** Number of bytes written to SPI. */
+    private final AtomicLong writeBytes = new AtomicLong();
+
+    /** Total time spent writing to SPI in nanoseconds. */
+    private final AtomicLong writeTime = new AtomicLong();
+
+    /** Number of asynchronous checkpoints waiting to be written. */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /** Number of asynchronous saves collapsed into a pending checkpoint. */
+    private final AtomicLong collapsed = new AtomicLong();
+
+    /** Number of asynchronous checkpoints written. */
+    private final AtomicLong asyncWrites = new AtomicLong();
+
+    /** Total lag of asynchronous checkpoints. */
+    private final AtomicLong totalLag = new AtomicLong();
+
+    /** Maximum lag of asynchronous checkpoints. */
+    private final AtomicLong maxLag = new AtomicLong();
+
+    /** Lag of last asynchronous checkpoint. */
+    private volatile long lastLag;
+
+    /**
+     * @param spiName SPI name.
+     */
+    GridCheckpointMetrics(String spiName) {
+        this.spiName = spiName;
+    }
+
+    /**
+     * @return SPI name.
+     */
+    public String getSpiName() {
+        return spiName;
+    }
+
+    /**
+     * @return Number of writes to SPI.
+     */
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    /**
+     * @return Number of failed writes to SPI.
+     */
+    public long getWriteFailureCount() {
+        return writeFailures.get();
+    }
+
+    /**
+     * @return Number of bytes written to SPI.
+     */
+    public long getWriteBytes() {
+        return writeBytes.get();
+    }
+
+    /**
+     * @return Total time spent writing to SPI in milliseconds.
+     */
+    public long getTotalWriteTime() {
+        return writeTime.get() / 1000000;
+    }
+
+    /**
+     * @return Average time of a single write to SPI in milliseconds.
+     */
+    public double getAverageWriteTime() {
+        long cnt = writes.get();
+
+        return cnt == 0 ? 0 : (double)writeTime.get() / 1000000 / cnt;
+    }
+
+    /**
+     * @return Write throughput in bytes per second of time spent writing to SPI.
+     */
+    public double getWriteThroughput() {
+        long time = writeTime.get();
+
+        return time == 0 ? 0 : (double)writeBytes.get() * 1000000000 / time;
+    }
+
+    /**
+     * @return Number of asynchronous checkpoints waiting to be written.
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * @return Number of asynchronous saves collapsed into already pending checkpoint.
+     */
+    public long getCollapsedCount() {
+        return collapsed.get();
+    }
+
+    /**
+     * @return Lag of last asynchronous checkpoint in milliseconds.
+     */
+    public long getLastLag() {
+        return lastLag;
+    }
+
+    /**
+     * @return Maximum lag of asynchronous checkpoints in milliseconds.
+     */
+    public long getMaximumLag() {
+        return maxLag.get();
+    }
+
+    /**
+     * @return Average lag of asynchronous checkpoints in milliseconds.
+     */
+    public double getAverageLag() {
+        long cnt = asyncWrites.get();
+
+        return cnt == 0 ? 0 : (double)totalLag.get() / cnt;
+    }
+
+    /**
+     * @param bytes Number of bytes written.
+     * @param nanos Write time in nanoseconds.
+     * @param ok {@code True} if write succeeded.
+     */
+    void onWrite(int bytes, long nanos, boolean ok) {
+        writes.incrementAndGet();
+        writeTime.addAndGet(nanos);
+
+        if (ok)
+            writeBytes.addAndGet(bytes);
+        else
+            writeFailures.incrementAndGet();
+    }
+
+    /**
+     * Callback for new pending asynchronous checkpoint.
+     */
+    void onEnqueued() {
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Callback for asynchronous save collapsed into pending checkpoint.
+     */
+    void onCollapsed() {
+        collapsed.incrementAndGet();
+    }
+
+    /**
+     * @param lag Lag of written asynchronous checkpoint.
+     */
+    void onAsyncWrite(long lag) {
+        pending.decrementAndGet();
+        asyncWrites.incrementAndGet();
+        totalLag.addAndGet(lag);
+
+        lastLag = lag;
+
+        while (true) {
+            long max = maxLag.get();
+
+            if (lag <= max || maxLag.compareAndSet(max, lag))
+                break;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCheckpointMetrics.class, this);
+    }
+}
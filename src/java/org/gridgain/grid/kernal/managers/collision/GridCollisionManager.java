@@ -83,6 +83,61 @@ public class GridCollisionManager extends GridManagerAdapter<GridCollisionSpi> {
     }
 
     /**
+     * @return {@code True} if configured SPI resolves collisions incrementally.
+     */
+    public boolean isIncremental() {
+        return getSpi() instanceof GridIncrementalCollisionSpi;
+    }
+
+    /**
+     * @param ctx Collision context of arrived job.
+     */
+    public void onJobArrived(GridCollisionJobContext ctx) {
+        assert isIncremental();
+
+        ((GridIncrementalCollisionSpi)getSpi()).onJobArrived(ctx);
+    }
+
+    /**
+     * @param ctx Collision context of finished job.
+     */
+    public void onJobFinished(GridCollisionJobContext ctx) {
+        assert isIncremental();
+
+        ((GridIncrementalCollisionSpi)getSpi()).onJobFinished(ctx);
+    }
+
+    /**
+     * @param ctx Collision context of cancelled job.
+     */
+    public void onJobCancelled(GridCollisionJobContext ctx) {
+        assert isIncremental();
+
+        ((GridIncrementalCollisionSpi)getSpi()).onJobCancelled(ctx);
+    }
+
+    /**
+     * @param ctx Collision context of held job.
+     */
+    public void onJobHeld(GridCollisionJobContext ctx) {
+        assert isIncremental();
+
+        ((GridIncrementalCollisionSpi)getSpi()).onJobHeld(ctx);
+    }
+
+    /**
+     * @param ctx Collision context of resumed job.
+     */
+    public void onJobResumed(GridCollisionJobContext ctx) {
+        assert isIncremental();
+
+        ((GridIncrementalCollisionSpi)getSpi()).onJobResumed(ctx);
+    }
+
+    /**
+     * Resolves collisions for SPIs which are not {@link GridIncrementalCollisionSpi incremental}
+     * by passing snapshot of all job lists.
+     *
      * @param waitJobs List of waiting jobs.
      * @param activeJobs List of active jobs.
      * @param heldJobs List of held jobs.
@@ -208,9 +208,8 @@ public class GridDeployment extends GridMetadataAwareAdapter implements GridDepl
      * @return Property undeployed.
      */
     public boolean isUndeployed() {
-        synchronized (mux) {
-            return undeployed;
-        }
+        // Volatile read, no need to lock.
+        return undeployed;
     }
 
     /**
@@ -228,9 +227,8 @@ public class GridDeployment extends GridMetadataAwareAdapter implements GridDepl
      * @return Property pendingUndeploy.
      */
     public boolean isPendingUndeploy() {
-        synchronized (mux) {
-            return pendingUndeploy;
-        }
+        // Volatile read, no need to lock.
+        return pendingUndeploy;
     }
 
     /**
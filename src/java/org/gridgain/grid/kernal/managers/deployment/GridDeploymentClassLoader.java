@@ -76,6 +76,10 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
     @GridToStringExclude
     private final ConcurrentMap<String, byte[]> byteMap;
 
+    /** Byte code of classes received along with classes they are referenced from, but not defined yet. */
+    @GridToStringExclude
+    private final ConcurrentMap<String, byte[]> prefetched = new ConcurrentHashMap<String, byte[]>();
+
     /** User version. */
     private final String usrVer;
 
@@ -461,7 +465,11 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
 
         String path = U.classNameToResourceName(name);
 
-        GridByteArrayList byteSrc = sendClassRequest(name, path);
+        // Class could have been received along with another class it is referenced from.
+        byte[] bytes = prefetched.remove(path);
+
+        GridByteArrayList byteSrc = bytes != null ? new GridByteArrayList(bytes, bytes.length) :
+            sendClassRequest(name, path);
 
         synchronized (this) {
             Class<?> cls = findLoadedClass(name);
@@ -556,7 +564,7 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
             }
 
             try {
-                GridDeploymentResponse res = comm.sendResourceRequest(path, ldrId, node, endTime);
+                GridDeploymentResponse res = comm.sendResourceRequest(path, ldrId, node, endTime, true);
 
                 if (res == null) {
                     String msg = "Failed to send class-loading node request to node (is node alive?) [node=" +
@@ -570,8 +578,16 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
                     continue;
                 }
 
-                if (res.isSuccess())
+                if (res.isSuccess()) {
+                    for (Map.Entry<String, byte[]> e : res.dependencies().entrySet())
+                        prefetched.putIfAbsent(e.getKey(), e.getValue());
+
+                    if (log.isDebugEnabled() && !res.dependencies().isEmpty())
+                        log.debug("Received class dependencies along with class [cls=" + name + ", deps=" +
+                            res.dependencies().keySet() + ']');
+
                     return res.getByteSource();
+                }
 
                 // In case of shared resources/classes all nodes should have it.
                 if (log.isDebugEnabled())
@@ -627,8 +643,12 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
         if (in == null)
             in = super.getResourceAsStream(name);
 
-        if (in == null)
-            in = sendResourceRequest(name);
+        if (in == null) {
+            // Class could have been received along with another class it is referenced from.
+            byte[] bytes = prefetched.get(name);
+
+            in = bytes != null ? new ByteArrayInputStream(bytes) : sendResourceRequest(name);
+        }
 
         return in;
     }
@@ -679,7 +699,7 @@ class GridDeploymentClassLoader extends ClassLoader implements GridDeploymentInf
 
             try {
                 // Request is sent with timeout that is why we can use synchronization here.
-                GridDeploymentResponse res = comm.sendResourceRequest(name, ldrId, node, endTime);
+                GridDeploymentResponse res = comm.sendResourceRequest(name, ldrId, node, endTime, false);
 
                 if (res == null) {
                     U.warn(log, "Failed to get resource from node (is node alive?) [nodeId=" +
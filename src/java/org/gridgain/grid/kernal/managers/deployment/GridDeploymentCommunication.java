@@ -19,6 +19,7 @@ import org.gridgain.grid.logger.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
@@ -35,6 +36,19 @@ import static org.gridgain.grid.kernal.GridTopic.*;
  */
 @SuppressWarnings({"deprecation"})
 @GridToStringExclude class GridDeploymentCommunication {
+    /** Maximum number of dependency classes sent along with requested class. */
+    private static final int MAX_DEPS = 128;
+
+    /** Maximum total size of dependency classes sent along with requested class. */
+    private static final int MAX_DEPS_SIZE = 1024 * 1024;
+
+    /** Packages which are never sent as dependencies since they are available on every node. */
+    private static final String[] DEPS_EXCLUDE = {"java.", "javax.", "sun.", "com.sun.", "org.gridgain.grid."};
+
+    /** Constant pool descriptor of {@link GridNotPeerDeployable} annotation. */
+    private static final String NOT_PEER_DEPLOYABLE_DESC =
+        'L' + GridNotPeerDeployable.class.getName().replace('.', '/') + ';';
+
     /** */
     private final GridLogger log;
 
@@ -162,6 +176,11 @@ import static org.gridgain.grid.kernal.GridTopic.*;
 
                             res.setSuccess(true);
                             res.setByteSource(bytes);
+
+                            // Send classes this class depends on along with it, so that
+                            // requesting node does not have to ask for them one by one.
+                            if (req.dependencies() && !(ldr instanceof GridDeploymentClassLoader))
+                                addDependencies(ldr, req.getResourceName(), bytes, res);
                         }
                         catch (IOException e) {
                             String errMsg = "Failed to read resource due to IO failure: " + req.getResourceName();
@@ -228,12 +247,222 @@ import static org.gridgain.grid.kernal.GridTopic.*;
         ctx.io().removeMessageListener(TOPIC_CLASSLOAD, peerLsnr);
     }
 
+    /**
+     * Adds to response byte code of classes requested class references, directly or
+     * transitively, which are defined by the same class loader (i.e. not available
+     * from its parent).
+     *
+     * @param ldr Class loader.
+     * @param path Resource name of requested class.
+     * @param bytes Byte code of requested class.
+     * @param res Response.
+     */
+    private void addDependencies(ClassLoader ldr, String path, GridByteArrayList bytes, GridDeploymentResponse res) {
+        if (!path.endsWith(".class"))
+            return;
+
+        ClassLoader parent = ldr.getParent();
+
+        Collection<String> seen = new HashSet<String>();
+
+        seen.add(path);
+
+        Collection<String> refs = referencedClasses(bytes.getEntireArray());
+
+        if (refs == null)
+            return;
+
+        Queue<Collection<String>> queue = new LinkedList<Collection<String>>();
+
+        queue.add(refs);
+
+        int cnt = 0;
+        int size = 0;
+
+        while (!queue.isEmpty()) {
+            for (String clsName : queue.poll()) {
+                if (cnt >= MAX_DEPS || size >= MAX_DEPS_SIZE)
+                    return;
+
+                String depPath = U.classNameToResourceName(clsName);
+
+                if (!seen.add(depPath) || isExcluded(clsName))
+                    continue;
+
+                // Only send classes of the same class loader.
+                if (ldr.getResource(depPath) == null || (parent != null && parent.getResource(depPath) != null))
+                    continue;
+
+                InputStream in = ldr.getResourceAsStream(depPath);
+
+                if (in == null)
+                    continue;
+
+                try {
+                    GridByteArrayList depBytes = new GridByteArrayList(1024);
+
+                    depBytes.readAll(in);
+
+                    byte[] arr = depBytes.getEntireArray();
+
+                    Collection<String> depRefs = referencedClasses(arr);
+
+                    // Let requesting node get the error when (and if) it needs the class.
+                    if (depRefs == null)
+                        continue;
+
+                    res.addDependency(depPath, arr);
+
+                    queue.add(depRefs);
+
+                    cnt++;
+                    size += arr.length;
+                }
+                catch (IOException e) {
+                    if (log.isDebugEnabled())
+                        log.debug("Failed to read class dependency (will skip) [rsrc=" + depPath + ", err=" + e + ']');
+                }
+                finally {
+                    U.close(in, log);
+                }
+            }
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("Added class dependencies to response [rsrc=" + path + ", cnt=" + cnt + ", size=" + size + ']');
+    }
+
+    /**
+     * @param clsName Class name.
+     * @return {@code True} if class is never sent as dependency.
+     */
+    private static boolean isExcluded(String clsName) {
+        for (String pkg : DEPS_EXCLUDE)
+            if (clsName.startsWith(pkg))
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Gets names of classes referenced from class constant pool. Class is never
+     * loaded here, so {@link GridNotPeerDeployable} annotation is detected by its
+     * descriptor in the constant pool.
+     *
+     * @param bytes Class byte code.
+     * @return Referenced class names (empty if byte code could not be parsed) or
+     *      {@code null} if class has {@link GridNotPeerDeployable} annotation.
+     */
+    @Nullable private static Collection<String> referencedClasses(byte[] bytes) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        try {
+            if (in.readInt() != 0xCAFEBABE)
+                return Collections.emptyList();
+
+            in.readUnsignedShort(); // Minor version.
+            in.readUnsignedShort(); // Major version.
+
+            int cnt = in.readUnsignedShort();
+
+            String[] utf = new String[cnt];
+            int[] clsIdxs = new int[cnt];
+
+            int clsCnt = 0;
+
+            for (int i = 1; i < cnt; i++) {
+                int tag = in.readUnsignedByte();
+
+                switch (tag) {
+                    case 1: // Utf8.
+                        utf[i] = in.readUTF();
+
+                        if (NOT_PEER_DEPLOYABLE_DESC.equals(utf[i]))
+                            return null;
+
+                        break;
+
+                    case 7: // Class.
+                        clsIdxs[clsCnt++] = in.readUnsignedShort();
+
+                        break;
+
+                    case 5: // Long.
+                    case 6: // Double.
+                        in.skipBytes(8);
+
+                        // Takes two entries.
+                        i++;
+
+                        break;
+
+                    case 3: // Integer.
+                    case 4: // Float.
+                    case 9: // Field reference.
+                    case 10: // Method reference.
+                    case 11: // Interface method reference.
+                    case 12: // Name and type.
+                    case 17: // Dynamic.
+                    case 18: // Invoke dynamic.
+                        in.skipBytes(4);
+
+                        break;
+
+                    case 15: // Method handle.
+                        in.skipBytes(3);
+
+                        break;
+
+                    case 8: // String.
+                    case 16: // Method type.
+                    case 19: // Module.
+                    case 20: // Package.
+                        in.skipBytes(2);
+
+                        break;
+
+                    default:
+                        return Collections.emptyList();
+                }
+            }
+
+            Collection<String> names = new ArrayList<String>(clsCnt);
+
+            for (int i = 0; i < clsCnt; i++) {
+                String name = utf[clsIdxs[i]];
+
+                if (name == null)
+                    continue;
+
+                // Array descriptor, e.g. "[[Lcom/acme/Foo;".
+                if (name.startsWith("[")) {
+                    int idx = name.indexOf('L');
+
+                    if (idx < 0 || !name.endsWith(";"))
+                        continue;
+
+                    name = name.substring(idx + 1, name.length() - 1);
+                }
+
+                names.add(name.replace('/', '.'));
+            }
+
+            return names;
+        }
+        catch (IOException ignore) {
+            return Collections.emptyList();
+        }
+        catch (ArrayIndexOutOfBoundsException ignore) {
+            return Collections.emptyList();
+        }
+    }
+
     /**
      * @param rsrcName Resource to undeploy.
      * @throws GridException If request could not be sent.
      */
     void sendUndeployRequest(String rsrcName) throws GridException {
-        Serializable req = new GridDeploymentRequest(null, rsrcName, true);
+        Serializable req = new GridDeploymentRequest(null, rsrcName, true, false);
 
         Collection<GridNode> rmtNodes = ctx.discovery().remoteNodes();
 
@@ -257,19 +486,20 @@ import static org.gridgain.grid.kernal.GridTopic.*;
      * @param dstNode Remote node request should be sent to.
      * @param threshold Time in milliseconds when request is decided to
      *      be obsolete.
+     * @param deps Whether dependencies of requested class may be sent along with it.
      * @return Either response value or {@code null} if timeout occurred.
      * @throws GridException Thrown if there is no connection with remote node.
      */
     @SuppressWarnings({"SynchronizationOnLocalVariableOrMethodParameter"})
     GridDeploymentResponse sendResourceRequest(final String rsrcName, GridUuid clsLdrId,
-        final GridNode dstNode, long threshold) throws GridException {
+        final GridNode dstNode, long threshold, boolean deps) throws GridException {
         assert rsrcName != null;
         assert dstNode != null;
         assert clsLdrId != null;
 
         String resTopic = TOPIC_CLASSLOAD.name(GridUuid.randomUuid());
 
-        GridDeploymentRequest req = new GridDeploymentRequest(clsLdrId, rsrcName, false);
+        GridDeploymentRequest req = new GridDeploymentRequest(clsLdrId, rsrcName, false, deps);
 
         req.setResponseTopic(resTopic);
 
@@ -21,6 +21,7 @@ import org.jetbrains.annotations.*;
 
 import java.util.*;
 import java.util.Map.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
 import static org.gridgain.grid.GridEventType.*;
@@ -39,6 +40,9 @@ class GridDeploymentLocalStore extends GridDeploymentStoreAdapter {
     private final Map<String, LinkedList<GridDeployment>> cache =
         new HashMap<String, LinkedList<GridDeployment>>();
 
+    /** Deployments by class loader ID, read without locking. Updated together with {@link #cache}. */
+    private final ConcurrentMap<GridUuid, GridDeployment> ldrIdx = new ConcurrentHashMap<GridUuid, GridDeployment>();
+
     /** Context class loader. */
     @SuppressWarnings({"FieldAccessedSynchronizedAndUnsynchronized"})
     private ClassLoader ctxLdr;
@@ -112,16 +116,32 @@ class GridDeploymentLocalStore extends GridDeploymentStoreAdapter {
 
     /** {@inheritDoc} */
     @Nullable @Override public GridDeployment getDeployment(GridUuid ldrId) {
-        synchronized (mux) {
-            for (List<GridDeployment> deps : cache.values()) {
-                for (GridDeployment dep : deps) {
-                    if (dep.classLoaderId().equals(ldrId)) {
-                        return dep;
-                    }
-                }
-            }
+        GridDeployment dep = cachedDeployment(ldrId);
+
+        if (dep != null) {
+            return dep;
         }
 
+        return usedDeployment(ldrId);
+    }
+
+    /**
+     * Gets cached deployment for given class loader ID without locking.
+     *
+     * @param ldrId Class loader ID.
+     * @return Cached deployment or {@code null} if not found.
+     */
+    @Nullable GridDeployment cachedDeployment(GridUuid ldrId) {
+        return ldrIdx.get(ldrId);
+    }
+
+    /**
+     * Gets deployment used by currently executing task.
+     *
+     * @param ldrId Class loader ID.
+     * @return Deployment or {@code null} if not found.
+     */
+    @Nullable GridDeployment usedDeployment(GridUuid ldrId) {
         for (GridDeployment dep : ctx.task().getUsedDeployments()) {
             if (dep.classLoaderId().equals(ldrId)) {
                 return dep;
@@ -335,6 +355,8 @@ class GridDeploymentLocalStore extends GridDeploymentStoreAdapter {
         // Add at the beginning of the list for future fast access.
         deps.addFirst(dep);
 
+        ldrIdx.put(ldrId, dep);
+
         if (!cls.getName().equals(alias)) {
             // Cache by class name as well.
             cache.put(cls.getName(), deps);
@@ -547,6 +569,8 @@ class GridDeploymentLocalStore extends GridDeploymentStoreAdapter {
 
                         i2.remove();
 
+                        ldrIdx.remove(dep.classLoaderId(), dep);
+
                         doomed.add(dep);
 
                         if (log.isInfoEnabled()) {
@@ -30,7 +30,7 @@ import java.util.*;
  */
 public class GridDeploymentManager extends GridManagerAdapter<GridDeploymentSpi> {
     /** Local deployment storage. */
-    private GridDeploymentStore locStore;
+    private GridDeploymentLocalStore locStore;
 
     /** Isolated mode storage. */
     private GridDeploymentStore ldrStore;
@@ -223,13 +223,19 @@ public class GridDeploymentManager extends GridManagerAdapter<GridDeploymentSpi>
      * @return Deployment for given ID.
      */
     @Nullable public GridDeployment getDeployment(GridUuid ldrId) {
-        GridDeployment dep = locStore.getDeployment(ldrId);
+        // All stores are checked without locking first, deployments
+        // used by running tasks are checked only if nothing was found.
+        GridDeployment dep = locStore.cachedDeployment(ldrId);
 
         if (dep == null) {
             dep = ldrStore.getDeployment(ldrId);
 
-            if (dep == null)
+            if (dep == null) {
                 dep = verStore.getDeployment(ldrId);
+
+                if (dep == null)
+                    dep = locStore.usedDeployment(ldrId);
+            }
         }
 
         return dep;
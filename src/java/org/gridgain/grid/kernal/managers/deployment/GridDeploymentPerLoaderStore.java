@@ -20,6 +20,7 @@ import org.gridgain.grid.typedef.internal.*;
 import org.jetbrains.annotations.*;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.gridgain.grid.GridEventType.*;
 
@@ -31,8 +32,8 @@ import static org.gridgain.grid.GridEventType.*;
  * @version 3.6.0c.09012012
  */
 public class GridDeploymentPerLoaderStore extends GridDeploymentStoreAdapter {
-    /** Cache keyed by class loader ID. */
-    private Map<GridUuid, IsolatedDeployment> cache = new HashMap<GridUuid, IsolatedDeployment>();
+    /** Cache keyed by class loader ID. Modified under {@link #mux}, but read without locking on lookups. */
+    private ConcurrentMap<GridUuid, IsolatedDeployment> cache = new ConcurrentHashMap<GridUuid, IsolatedDeployment>();
 
     /** Discovery listener. */
     private GridLocalEventListener discoLsnr;
@@ -166,9 +167,7 @@ public class GridDeploymentPerLoaderStore extends GridDeploymentStoreAdapter {
 
     /** {@inheritDoc} */
     @Override public GridDeployment getDeployment(GridUuid ldrId) {
-        synchronized (mux) {
-            return cache.get(ldrId);
-        }
+        return cache.get(ldrId);
     }
 
     /** {@inheritDoc} */
@@ -193,112 +192,123 @@ public class GridDeploymentPerLoaderStore extends GridDeploymentStoreAdapter {
             return null;
         }
 
-        IsolatedDeployment dep;
-
-        synchronized (mux) {
-            dep = cache.get(meta.classLoaderId());
+        // Lock-free check for existing deployment first.
+        IsolatedDeployment dep = cache.get(meta.classLoaderId());
 
-            if (dep != null) {
-                if (!dep.getSenderNodeId().equals(meta.senderNodeId())) {
-                    U.error(log, "Sender node ID does not match for Private or Isolated deployment [expected=" +
-                        meta.senderNodeId() + ", dep=" + dep + ']');
+        if (dep != null) {
+            if (!dep.getSenderNodeId().equals(meta.senderNodeId())) {
+                U.error(log, "Sender node ID does not match for Private or Isolated deployment [expected=" +
+                    meta.senderNodeId() + ", dep=" + dep + ']');
 
-                    return null;
-                }
+                return null;
             }
-            else {
-                long undeployTimeout = 0;
-
-                // If could not find deployment, make sure to perform clean up.
-                // Check if any deployments must be undeployed.
-                for (IsolatedDeployment d : cache.values()) {
-                    if (d.getSenderNodeId().equals(meta.senderNodeId()) &&
-                        !d.isUndeployed() && !d.isPendingUndeploy()) {
-                        if (d.sequenceNumber() < meta.sequenceNumber()) {
-                            // Undeploy previous class deployments.
-                            if (d.existingDeployedClass(meta.className()) != null) {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Received request for a class with newer sequence number " +
-                                        "(will schedule current class for undeployment) [cls=" +
-                                        meta.className() + ", newSeq=" +
-                                        meta.sequenceNumber() + ", oldSeq=" + d.sequenceNumber() +
-                                        ", senderNodeId=" + meta.senderNodeId() + ", curClsLdrId=" +
-                                        d.classLoaderId() + ", newClsLdrId=" +
-                                        meta.classLoaderId() + ']');
-                                }
-
-                                scheduleUndeploy(d, ctx.config().getNetworkTimeout());
-                            }
-                        }
-                        // If we received execution request even after we waited for P2P
-                        // timeout period, we simply ignore it.
-                        else if (d.sequenceNumber() > meta.sequenceNumber()) {
-                            if (d.deployedClass(meta.className()) != null) {
-                                long time = System.currentTimeMillis() - d.timestamp();
+        }
+        else {
+            synchronized (mux) {
+                dep = cache.get(meta.classLoaderId());
 
-                                if (time < ctx.config().getNetworkTimeout()) {
-                                    // Set undeployTimeout, so the class will be scheduled
-                                    // for undeployment.
-                                    undeployTimeout = ctx.config().getNetworkTimeout() - time;
+                if (dep != null) {
+                    if (!dep.getSenderNodeId().equals(meta.senderNodeId())) {
+                        U.error(log, "Sender node ID does not match for Private or Isolated deployment [expected=" +
+                            meta.senderNodeId() + ", dep=" + dep + ']');
 
+                        return null;
+                    }
+                }
+                else {
+                    long undeployTimeout = 0;
+
+                    // If could not find deployment, make sure to perform clean up.
+                    // Check if any deployments must be undeployed.
+                    for (IsolatedDeployment d : cache.values()) {
+                        if (d.getSenderNodeId().equals(meta.senderNodeId()) &&
+                            !d.isUndeployed() && !d.isPendingUndeploy()) {
+                            if (d.sequenceNumber() < meta.sequenceNumber()) {
+                                // Undeploy previous class deployments.
+                                if (d.existingDeployedClass(meta.className()) != null) {
                                     if (log.isDebugEnabled()) {
-                                        log.debug("Received execution request for a stale class (will deploy and " +
-                                            "schedule undeployment in " + undeployTimeout + "ms) " +
-                                            "[cls=" + meta.className() + ", curSeq=" + d.sequenceNumber() +
-                                            ", rcvdSeq=" + meta.sequenceNumber() + ", senderNodeId=" +
-                                            meta.senderNodeId() + ", curClsLdrId=" + d.classLoaderId() +
-                                            ", rcvdClsLdrId=" + meta.classLoaderId() + ']');
+                                        log.debug("Received request for a class with newer sequence number " +
+                                            "(will schedule current class for undeployment) [cls=" +
+                                            meta.className() + ", newSeq=" +
+                                            meta.sequenceNumber() + ", oldSeq=" + d.sequenceNumber() +
+                                            ", senderNodeId=" + meta.senderNodeId() + ", curClsLdrId=" +
+                                            d.classLoaderId() + ", newClsLdrId=" +
+                                            meta.classLoaderId() + ']');
                                     }
+
+                                    scheduleUndeploy(d, ctx.config().getNetworkTimeout());
                                 }
-                                else {
-                                    U.warn(log, "Received execution request for a class that has been redeployed " +
-                                        "(will ignore): " + meta.alias());
+                            }
+                            // If we received execution request even after we waited for P2P
+                            // timeout period, we simply ignore it.
+                            else if (d.sequenceNumber() > meta.sequenceNumber()) {
+                                if (d.deployedClass(meta.className()) != null) {
+                                    long time = System.currentTimeMillis() - d.timestamp();
+
+                                    if (time < ctx.config().getNetworkTimeout()) {
+                                        // Set undeployTimeout, so the class will be scheduled
+                                        // for undeployment.
+                                        undeployTimeout = ctx.config().getNetworkTimeout() - time;
+
+                                        if (log.isDebugEnabled()) {
+                                            log.debug("Received execution request for a stale class (will deploy and " +
+                                                "schedule undeployment in " + undeployTimeout + "ms) " +
+                                                "[cls=" + meta.className() + ", curSeq=" + d.sequenceNumber() +
+                                                ", rcvdSeq=" + meta.sequenceNumber() + ", senderNodeId=" +
+                                                meta.senderNodeId() + ", curClsLdrId=" + d.classLoaderId() +
+                                                ", rcvdClsLdrId=" + meta.classLoaderId() + ']');
+                                        }
+                                    }
+                                    else {
+                                        U.warn(log, "Received execution request for a class that has been redeployed " +
+                                            "(will ignore): " + meta.alias());
 
-                                    return null;
+                                        return null;
+                                    }
                                 }
                             }
-                        }
-                        else {
-                            U.error(log, "Sequence number does not correspond to class loader ID [seqNum=" +
-                                meta.sequenceNumber() + ", dep=" + d + ']');
+                            else {
+                                U.error(log, "Sequence number does not correspond to class loader ID [seqNum=" +
+                                    meta.sequenceNumber() + ", dep=" + d + ']');
 
-                            return null;
+                                return null;
+                            }
                         }
                     }
-                }
 
-                ClassLoader parent = meta.parentLoader() == null ? ctxLdr : meta.parentLoader();
-
-                // Safety.
-                if (parent == null)
-                    parent = getClass().getClassLoader();
-
-                // Create peer class loader.
-                ClassLoader clsLdr = new GridDeploymentClassLoader(
-                    meta.classLoaderId(),
-                    meta.userVersion(),
-                    meta.deploymentMode(),
-                    true,
-                    ctx,
-                    parent,
-                    meta.classLoaderId(),
-                    meta.senderNodeId(),
-                    meta.sequenceNumber(),
-                    comm,
-                    ctx.config().getNetworkTimeout(),
-                    log,
-                    ctx.config().getPeerClassLoadingClassPathExclude(),
-                    ctx.config().getPeerClassLoadingMissedResourcesCacheSize(),
-                    false);
-
-                dep = new IsolatedDeployment(meta.deploymentMode(), clsLdr, meta.classLoaderId(),
-                    meta.sequenceNumber(), meta.userVersion(), meta.senderNodeId(), meta.className());
-
-                cache.put(meta.classLoaderId(), dep);
-
-                // In case if deploying stale class.
-                if (undeployTimeout > 0)
-                    scheduleUndeploy(dep, undeployTimeout);
+                    ClassLoader parent = meta.parentLoader() == null ? ctxLdr : meta.parentLoader();
+
+                    // Safety.
+                    if (parent == null)
+                        parent = getClass().getClassLoader();
+
+                    // Create peer class loader.
+                    ClassLoader clsLdr = new GridDeploymentClassLoader(
+                        meta.classLoaderId(),
+                        meta.userVersion(),
+                        meta.deploymentMode(),
+                        true,
+                        ctx,
+                        parent,
+                        meta.classLoaderId(),
+                        meta.senderNodeId(),
+                        meta.sequenceNumber(),
+                        comm,
+                        ctx.config().getNetworkTimeout(),
+                        log,
+                        ctx.config().getPeerClassLoadingClassPathExclude(),
+                        ctx.config().getPeerClassLoadingMissedResourcesCacheSize(),
+                        false);
+
+                    dep = new IsolatedDeployment(meta.deploymentMode(), clsLdr, meta.classLoaderId(),
+                        meta.sequenceNumber(), meta.userVersion(), meta.senderNodeId(), meta.className());
+
+                    cache.put(meta.classLoaderId(), dep);
+
+                    // In case if deploying stale class.
+                    if (undeployTimeout > 0)
+                        scheduleUndeploy(dep, undeployTimeout);
+                }
             }
         }
 
@@ -22,6 +22,7 @@ import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.gridgain.grid.GridDeploymentMode.*;
 import static org.gridgain.grid.GridEventType.*;
@@ -40,6 +41,21 @@ public class GridDeploymentPerVersionStore extends GridDeploymentStoreAdapter {
     /** Set of obsolete class loaders. */
     private Collection<GridUuid> deadClsLdrs = new GridBoundedLinkedHashSet<GridUuid>(1000);
 
+    /**
+     * Cached deployments keyed by their own class loader ID. Modified under {@link #mux}
+     * together with {@link #cache}, but read without locking.
+     */
+    private final ConcurrentMap<GridUuid, SharedDeployment> depsById =
+        new ConcurrentHashMap<GridUuid, SharedDeployment>();
+
+    /**
+     * Deployments keyed by class loader ID of remote participant, for lock-free lookup of
+     * deployments remote class loader is known to participate in. Modified under {@link #mux},
+     * entries are removed once participant class loader is registered as dead.
+     */
+    private final ConcurrentMap<GridUuid, SharedDeployment> rmtLdrs =
+        new ConcurrentHashMap<GridUuid, SharedDeployment>();
+
     /** Discovery listener. */
     private GridLocalEventListener discoLsnr;
 
@@ -81,6 +97,9 @@ public class GridDeploymentPerVersionStore extends GridDeploymentStoreAdapter {
                 }
 
             cache.clear();
+
+            depsById.clear();
+            rmtLdrs.clear();
         }
 
         for (SharedDeployment dep : copy)
@@ -143,6 +162,8 @@ public class GridDeploymentPerVersionStore extends GridDeploymentStoreAdapter {
                         if (deps.isEmpty())
                             i1.remove();
                     }
+
+                    evictParticipantLoaders();
                 }
 
                 recordUndeployed(discoEvt.eventNodeId(), undeployed);
@@ -190,6 +211,8 @@ public class GridDeploymentPerVersionStore extends GridDeploymentStoreAdapter {
                 if (deps.isEmpty())
                     i1.remove();
             }
+
+            evictParticipantLoaders();
         }
 
         recordUndeployed(null, undeployed);
@@ -222,14 +245,8 @@ public class GridDeploymentPerVersionStore extends GridDeploymentStoreAdapter {
     }
 
     /** {@inheritDoc} */
-    @Override public GridDeployment getDeployment(final GridUuid ldrId) {
-        synchronized (mux) {
-            return F.find(F.flat(cache.values()), null, new P1<SharedDeployment>() {
-                @Override public boolean apply(SharedDeployment d) {
-                    return d.classLoaderId().equals(ldrId);
-                }
-            });
-        }
+    @Override public GridDeployment getDeployment(GridUuid ldrId) {
+        return depsById.get(ldrId);
     }
 
     /** {@inheritDoc} */
@@ -244,6 +261,52 @@ public class GridDeploymentPerVersionStore extends GridDeploymentStoreAdapter {
         assert meta.sequenceNumber() >= -1;
         assert meta.parentLoader() == null;
 
+        // Lock-free check whether sender class loader is already known to participate in deployment.
+        if (!meta.senderNodeId().equals(ctx.localNodeId())) {
+            SharedDeployment dep = rmtLdrs.get(meta.classLoaderId());
+
+            if (dep != null) {
+                // Class loader keeps its own lock, so participant and its sequence
+                // number are verified without entering store mutex.
+                GridTuple2<GridUuid, Long> ldr = dep.loader().registeredClassLoaderId(meta.senderNodeId());
+
+                if (ldr == null || !ldr.get1().equals(meta.classLoaderId()) ||
+                    ldr.get2() != meta.sequenceNumber()) {
+                    // Stale entry, regular lookup will perform redeploy checks.
+                    rmtLdrs.remove(meta.classLoaderId(), dep);
+                }
+                else if (!dep.isUndeployed() && !dep.isPendingUndeploy() &&
+                    F.eq(dep.userVersion(), meta.userVersion()) && dep.deployMode() == meta.deploymentMode()) {
+                    Class<?> cls = dep.deployedClass(meta.className(), meta.alias());
+
+                    if (cls != null) {
+                        if (log.isDebugEnabled())
+                            log.debug("Found SHARED or CONTINUOUS deployment by participant class loader ID: " + dep);
+
+                        return dep;
+                    }
+                }
+            }
+        }
+
+        SharedDeployment dep = findDeployment(meta);
+
+        if (dep != null && !meta.senderNodeId().equals(ctx.localNodeId())) {
+            synchronized (mux) {
+                // Remember participant class loader for lock-free lookups.
+                if (!dep.isRemoved() && dep.hasParticipant(meta.senderNodeId(), meta.classLoaderId()))
+                    rmtLdrs.put(meta.classLoaderId(), dep);
+            }
+        }
+
+        return dep;
+    }
+
+    /**
+     * @param meta Deployment metadata.
+     * @return Found or created deployment or {@code null} if class could not be deployed.
+     */
+    @Nullable private SharedDeployment findDeployment(GridDeploymentMetadata meta) {
         if (log.isDebugEnabled())
             log.debug("Starting to peer-load class based on deployment metadata: " + meta);
 
@@ -535,6 +598,24 @@ public class GridDeploymentPerVersionStore extends GridDeploymentStoreAdapter {
                 d.recordUndeployed(nodeId);
     }
 
+    /**
+     * Removes participant class loader IDs which are no longer registered with
+     * their deployments (e.g. participant node left, but deployment is preserved
+     * in {@code CONTINUOUS} mode).
+     */
+    private void evictParticipantLoaders() {
+        assert Thread.holdsLock(mux);
+
+        for (Iterator<Map.Entry<GridUuid, SharedDeployment>> it = rmtLdrs.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<GridUuid, SharedDeployment> e = it.next();
+
+            SharedDeployment dep = e.getValue();
+
+            if (dep.isRemoved() || !dep.getClassLoaderIds().contains(e.getKey()))
+                it.remove();
+        }
+    }
+
     /**
      * @param meta Request metadata.
      * @return {@code True} if class loader is obsolete.
@@ -898,6 +979,9 @@ public class GridDeploymentPerVersionStore extends GridDeploymentStoreAdapter {
         SharedDeployment dep = new SharedDeployment(meta.deploymentMode(), clsLdr, ldrId, -1,
             meta.userVersion(), meta.alias());
 
+        // Every created deployment gets into cache (either here or by caller).
+        depsById.put(ldrId, dep);
+
         if (log.isDebugEnabled())
             log.debug("Created new deployment: " + dep);
 
@@ -986,6 +1070,9 @@ public class GridDeploymentPerVersionStore extends GridDeploymentStoreAdapter {
 
             synchronized (mux) {
                 deadClsLdrs.add(ldrId);
+
+                if (ldrId != null)
+                    rmtLdrs.remove(ldrId, this);
             }
         }
 
@@ -1073,6 +1160,11 @@ public class GridDeploymentPerVersionStore extends GridDeploymentStoreAdapter {
 
             synchronized (mux) {
                 deadClsLdrs.addAll(deadIds);
+
+                for (GridUuid ldrId : deadIds)
+                    rmtLdrs.remove(ldrId, this);
+
+                depsById.remove(classLoaderId(), this);
             }
         }
 
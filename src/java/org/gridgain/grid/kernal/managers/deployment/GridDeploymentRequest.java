@@ -33,6 +33,9 @@ class GridDeploymentRequest implements Externalizable {
     /** Undeploy flag. */
     private boolean isUndeploy;
 
+    /** Whether dependencies of requested class may be sent along with it. */
+    private boolean deps;
+
     /**
      * No-op constructor to support {@link Externalizable} interface.
      * This constructor is not meant to be used for other purposes.
@@ -47,14 +50,16 @@ class GridDeploymentRequest implements Externalizable {
      * @param ldrId Class loader ID.
      * @param rsrcName Resource name that should be found and sent back.
      * @param isUndeploy Undeploy property.
+     * @param deps Whether dependencies of requested class may be sent along with it.
      */
-    GridDeploymentRequest(GridUuid ldrId, String rsrcName, boolean isUndeploy) {
+    GridDeploymentRequest(GridUuid ldrId, String rsrcName, boolean isUndeploy, boolean deps) {
         assert isUndeploy || ldrId != null;
         assert rsrcName != null;
 
         this.ldrId = ldrId;
         this.rsrcName = rsrcName;
         this.isUndeploy = isUndeploy;
+        this.deps = deps;
     }
 
     /**
@@ -102,9 +107,17 @@ class GridDeploymentRequest implements Externalizable {
         return isUndeploy;
     }
 
+    /**
+     * @return Whether dependencies of requested class may be sent along with it.
+     */
+    boolean dependencies() {
+        return deps;
+    }
+
     /** {@inheritDoc} */
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         out.writeBoolean(isUndeploy);
+        out.writeBoolean(deps);
         U.writeString(out, resTopic);
         U.writeString(out, rsrcName);
         U.writeGridUuid(out, ldrId);
@@ -113,6 +126,7 @@ class GridDeploymentRequest implements Externalizable {
     /** {@inheritDoc} */
     @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         isUndeploy = in.readBoolean();
+        deps = in.readBoolean();
         resTopic = U.readString(in);
         rsrcName = U.readString(in);
         ldrId = U.readGridUuid(in);
@@ -11,7 +11,9 @@ package org.gridgain.grid.kernal.managers.deployment;
 
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.util.tostring.*;
 import java.io.*;
+import java.util.*;
 
 /**
  * Grid deployment response containing requested resource bytes.
@@ -29,6 +31,10 @@ public class GridDeploymentResponse implements Externalizable {
     /** Raw class/resource/task. */
     private GridByteArrayList byteSrc;
 
+    /** Byte code of classes requested class depends on, keyed by resource name. */
+    @GridToStringExclude
+    private Map<String, byte[]> deps;
+
     /**
      * No-op constructor to support {@link Externalizable} interface.
      * This constructor is not meant to be used for other purposes.
@@ -55,6 +61,24 @@ public class GridDeploymentResponse implements Externalizable {
         return byteSrc;
     }
 
+    /**
+     * @param path Resource name of class requested class depends on.
+     * @param bytes Class byte code.
+     */
+    void addDependency(String path, byte[] bytes) {
+        if (deps == null)
+            deps = new HashMap<String, byte[]>();
+
+        deps.put(path, bytes);
+    }
+
+    /**
+     * @return Byte code of classes requested class depends on, keyed by resource name.
+     */
+    Map<String, byte[]> dependencies() {
+        return deps == null ? Collections.<String, byte[]>emptyMap() : deps;
+    }
+
     /**
      * Tests whether corresponding request was processed successful of not.
      *
@@ -100,6 +124,15 @@ public class GridDeploymentResponse implements Externalizable {
         out.writeBoolean(success);
 
         U.writeString(out, errMsg);
+
+        out.writeInt(deps == null ? 0 : deps.size());
+
+        if (deps != null) {
+            for (Map.Entry<String, byte[]> e : deps.entrySet()) {
+                U.writeString(out, e.getKey());
+                U.writeByteArray(out, e.getValue());
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -108,10 +141,15 @@ public class GridDeploymentResponse implements Externalizable {
         success = in.readBoolean();
 
         errMsg = U.readString(in);
+
+        int size = in.readInt();
+
+        for (int i = 0; i < size; i++)
+            addDependency(U.readString(in), U.readByteArray(in));
     }
 
     /** {@inheritDoc} */
     @Override public String toString() {
-        return S.toString(GridDeploymentResponse.class, this);
+        return S.toString(GridDeploymentResponse.class, this, "deps", deps == null ? 0 : deps.size());
     }
 }
@@ -48,6 +48,12 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
     /** Events that are never passed into SPI, i.e. hidden from system. */
     private static final int[] HIDDEN_EVTS;
 
+    /**
+     * Number of event types covered by precomputed bitsets. Covers all types reserved
+     * for GridGain events, other types are checked against configured arrays.
+     */
+    private static final int BITS_TYPES = 1024;
+
     /**
      * Initialize internally used and hidden events.
      * <p>
@@ -94,6 +100,18 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
     /** Is local node daemon? */
     private boolean isDaemon;
 
+    /** Types of events passed to SPI. */
+    private long[] spiBits;
+
+    /** Types of events local listeners can be notified about. */
+    private long[] notifyBits;
+
+    /**
+     * Types of events which have to be created at all, i.e. passed to SPI or having
+     * listeners. Refreshed whenever listeners are added or removed.
+     */
+    private volatile long[] recordBits;
+
     /**
      * Constructs manager.
      *
@@ -142,6 +160,8 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
         msgLsnr = null;
 
         lsnrs.clear();
+
+        refreshRecordBits();
     }
 
     /** {@inheritDoc} */
@@ -163,6 +183,19 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
             throw new GridException("Both 'include' event types and 'exclude' event types cannot be provided " +
                 "in configuration.");
 
+        spiBits = new long[BITS_TYPES >>> 6];
+        notifyBits = new long[BITS_TYPES >>> 6];
+
+        for (int type = 0; type < BITS_TYPES; type++) {
+            if (isSpiRecordable(type))
+                set(spiBits, type);
+
+            if (isInternalEvent(type) || isUserRecordable(type))
+                set(notifyBits, type);
+        }
+
+        refreshRecordBits();
+
         Map<GridLocalEventListener, int[]> evtLsnrs = ctx.config().getLocalEventListeners();
 
         if (evtLsnrs != null) {
@@ -194,8 +227,7 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
         try {
             int type = evt.type();
 
-            // Override user recordable settings for daemon node.
-            if ((isDaemon || isUserRecordable(type)) && !isHiddenEvent(type))
+            if (type >= 0 && type < BITS_TYPES ? get(spiBits, type) : isSpiRecordable(type))
                 try {
                     getSpi().record(evt);
                 }
@@ -203,7 +235,8 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
                     U.error(log, "Failed to record event: " + evt, e);
                 }
 
-            if (isRecordable(type))
+            if (type >= 0 && type < BITS_TYPES ? get(notifyBits, type) :
+                isInternalEvent(type) || isUserRecordable(type))
                 notifyListeners(evt);
         }
         finally {
@@ -231,6 +264,17 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
             exclEvtTypes == null || !ArrayUtils.contains(exclEvtTypes, type);
     }
 
+    /**
+     * Checks if the event type should be passed to SPI.
+     *
+     * @param type Event type to check.
+     * @return {@code true} if passed event should be stored in SPI.
+     */
+    private boolean isSpiRecordable(int type) {
+        // Override user recordable settings for daemon node.
+        return (isDaemon || isUserRecordable(type)) && !isHiddenEvent(type);
+    }
+
     /**
      * Checks whether or not this event is a hidden system event.
      *
@@ -245,12 +289,71 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
      * Checks whether this event type should be recorded. Note that internal event types are
      * always recordable for notification purposes but may not be sent down to SPI level for
      * storage and subsequent querying.
+     * <p>
+     * Event type is recordable only if event would be stored in SPI or there are local
+     * listeners for it, so event producers should call this method before creating an
+     * event. Check is a single lookup in precomputed bitset.
      *
      * @param type Event type to check.
      * @return Whether or not this event type should be recorded.
      */
     public boolean isRecordable(int type) {
-        return isInternalEvent(type) || isUserRecordable(type);
+        long[] bits = recordBits;
+
+        if (bits != null && type >= 0 && type < BITS_TYPES)
+            return get(bits, type);
+
+        return isSpiRecordable(type) || ((isInternalEvent(type) || isUserRecordable(type)) && hasListeners(type));
+    }
+
+    /**
+     * @param type Event type.
+     * @return {@code True} if there are local listeners for given event type.
+     */
+    private boolean hasListeners(int type) {
+        Set<GridLocalEventListener> set = lsnrs.get(type);
+
+        return set != null && !set.isEmpty();
+    }
+
+    /**
+     * Recalculates types of events which have to be recorded. Called whenever
+     * listeners are added or removed.
+     */
+    private void refreshRecordBits() {
+        if (spiBits == null)
+            // Not started yet.
+            return;
+
+        synchronized (lsnrs) {
+            long[] bits = spiBits.clone();
+
+            for (Map.Entry<Integer, Set<GridLocalEventListener>> e : lsnrs.entrySet()) {
+                int type = e.getKey();
+
+                if (type >= 0 && type < BITS_TYPES && get(notifyBits, type) && !e.getValue().isEmpty())
+                    set(bits, type);
+            }
+
+            recordBits = bits;
+        }
+    }
+
+    /**
+     * @param bits Bitset.
+     * @param type Event type.
+     */
+    private static void set(long[] bits, int type) {
+        bits[type >>> 6] |= 1L << type;
+    }
+
+    /**
+     * @param bits Bitset.
+     * @param type Event type.
+     * @return {@code True} if bit for given event type is set.
+     */
+    private static boolean get(long[] bits, int type) {
+        return (bits[type >>> 6] & (1L << type)) != 0;
     }
 
     /**
@@ -270,6 +373,8 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
             try {
                 for (int t : types)
                     getOrCreate(t).add(lsnr);
+
+                refreshRecordBits();
             }
             finally {
                 leaveBusy();
@@ -286,6 +391,8 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
 
                 for (int t : types)
                     getOrCreate(t).add(lsnr);
+
+                refreshRecordBits();
             }
             finally {
                 leaveBusy();
@@ -342,6 +449,9 @@ public class GridEventStorageManager extends GridManagerAdapter<GridEventStorage
             }
         }
 
+        if (found)
+            refreshRecordBits();
+
         return found;
     }
 
@@ -105,19 +105,27 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
      * @param ctx Cache registry.
      * @param startSize Start size.
      */
-    @SuppressWarnings({"OverriddenMethodCallDuringObjectConstruction"})
     protected GridCacheAdapter(GridCacheContext<K, V> ctx, int startSize) {
+        this(ctx, new GridCacheConcurrentMap<K, V>(ctx, startSize, 0.75F));
+    }
+
+    /**
+     * @param ctx Cache registry.
+     * @param map Concurrent map.
+     */
+    @SuppressWarnings({"OverriddenMethodCallDuringObjectConstruction"})
+    protected GridCacheAdapter(GridCacheContext<K, V> ctx, GridCacheConcurrentMap<K, V> map) {
         assert ctx != null;
+        assert map != null;
 
         this.ctx = ctx;
+        this.map = map;
 
         gridCfg = ctx.gridConfig();
         cacheCfg = ctx.config();
 
         locNodeId = ctx.gridConfig().getNodeId();
 
-        map = new GridCacheConcurrentMap<K, V>(ctx, startSize, 0.75F);
-
         log = ctx.gridConfig().getGridLogger().getLogger(getClass());
 
         init();
@@ -2919,26 +2927,31 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
 
     /** {@inheritDoc} */
     @Override public void loadCache(final GridPredicate2<K, V> p, long ttl, Object[] args) throws GridException {
-        CU.loadCache(ctx, log, new CI2<K, V>() {
+        CU.loadCache(ctx, log, new CI2<List<K>, List<V>>() {
             // Version for all loaded entries.
             private GridCacheVersion ver = ctx.versions().next();
 
-            @Override public void apply(K key, V val) {
-                if (p != null && !p.apply(key, val)) {
-                    return;
-                }
+            @Override public void apply(List<K> keys, List<V> vals) {
+                for (int i = 0; i < keys.size(); i++) {
+                    K key = keys.get(i);
+                    V val = vals.get(i);
 
-                GridCacheEntryEx<K, V> entry = entryEx(key);
+                    if (p != null && !p.apply(key, val)) {
+                        continue;
+                    }
 
-                try {
-                    entry.versionedValue(val, null, ver);
-                }
-                catch (GridException e) {
-                    throw new GridRuntimeException("Failed to put cache value: " + entry, e);
-                }
-                catch (GridCacheEntryRemovedException ignore) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Got removed entry during loadCache (will ignore): " + entry);
+                    GridCacheEntryEx<K, V> entry = entryEx(key);
+
+                    try {
+                        entry.versionedValue(val, null, ver);
+                    }
+                    catch (GridException e) {
+                        throw new GridRuntimeException("Failed to put cache value: " + entry, e);
+                    }
+                    catch (GridCacheEntryRemovedException ignore) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Got removed entry during loadCache (will ignore): " + entry);
+                        }
                     }
                 }
             }
@@ -3086,6 +3099,11 @@ public abstract class GridCacheAdapter<K, V> extends GridMetadataAwareAdapter im
         return qryMgr.createReduceQuery(type, clsName, clause, null, flags());
     }
 
+    /** {@inheritDoc} */
+    @Override public GridCacheContinuousQuery<K, V> createContinuousQuery() {
+        return ctx.continuousQueries().createQuery();
+    }
+
     /** {@inheritDoc} */
     @Override public String toString() {
         return S.toString(GridCacheAdapter.class, this, "name", name(), "size", size());
@@ -66,6 +66,9 @@ public class GridCacheConcurrentMap<K, V> {
     /** The segments, each of which is a specialized hash table. */
     private final Segment[] segs;
 
+    /** If {@code true}, then there is one segment per partition chosen by key partition rather than hash. */
+    private final boolean partitioned;
+
     /** */
     private GridCacheMapEntryFactory<K, V> factory;
 
@@ -122,11 +125,13 @@ public class GridCacheConcurrentMap<K, V> {
     /**
      * Returns the segment that should be used for key with given hash
      *
+     * @param key Key.
      * @param hash The hash code for the key.
      * @return The segment.
      */
-    private Segment segmentFor(int hash) {
-        return segs[(hash >>> segShift) & segMask];
+    @SuppressWarnings({"unchecked"})
+    private Segment segmentFor(Object key, int hash) {
+        return partitioned ? segs[ctx.partition((K)key)] : segs[(hash >>> segShift) & segMask];
     }
 
     /**
@@ -142,32 +147,45 @@ public class GridCacheConcurrentMap<K, V> {
      * @param concurrencyLevel the estimated number of concurrently
      *      updating threads. The implementation performs internal sizing
      *      to try to accommodate this many threads.
+     * @param partitioned If {@code true}, then map will have exactly one segment per
+     *      cache partition and {@code concurrencyLevel} is ignored.
      * @throws IllegalArgumentException if the initial capacity is
      *      negative or the load factor or concurrencyLevel are
      *      non-positive.
      */
     @SuppressWarnings({"unchecked"})
     private GridCacheConcurrentMap(GridCacheContext<K, V> ctx, int initialCapacity, float loadFactor,
-        int concurrencyLevel) {
+        int concurrencyLevel, boolean partitioned) {
         this.ctx = ctx;
+        this.partitioned = partitioned;
 
         if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0)
             throw new IllegalArgumentException();
 
-        if (concurrencyLevel > MAX_SEGS)
-            concurrencyLevel = MAX_SEGS;
-
-        // Find power-of-two sizes best matching arguments
-        int sshift = 0;
         int ssize = 1;
 
-        while (ssize < concurrencyLevel) {
-            ++sshift;
-            ssize <<= 1;
+        if (partitioned) {
+            ssize = ctx.partitions();
+
+            segShift = 0;
+            segMask = 0;
+        }
+        else {
+            if (concurrencyLevel > MAX_SEGS)
+                concurrencyLevel = MAX_SEGS;
+
+            // Find power-of-two sizes best matching arguments
+            int sshift = 0;
+
+            while (ssize < concurrencyLevel) {
+                ++sshift;
+                ssize <<= 1;
+            }
+
+            segShift = 32 - sshift;
+            segMask = ssize - 1;
         }
 
-        segShift = 32 - sshift;
-        segMask = ssize - 1;
         segs = (Segment[])Array.newInstance(Segment.class, ssize);
 
         if (initialCapacity > MAX_CAP)
@@ -204,7 +222,22 @@ public class GridCacheConcurrentMap<K, V> {
      *      elements is negative or the load factor is non-positive.
      */
     public GridCacheConcurrentMap(GridCacheContext<K, V> ctx, int initialCapacity, float loadFactor) {
-        this(ctx, initialCapacity, loadFactor, DFLT_CONCUR_LEVEL);
+        this(ctx, initialCapacity, loadFactor, DFLT_CONCUR_LEVEL, false);
+    }
+
+    /**
+     * Creates a new, empty map segmented by cache partitions: all entries of a partition
+     * are kept in the same segment, so that partition size and iteration over partition
+     * entries do not involve other partitions.
+     *
+     * @param ctx Cache context.
+     * @param initialCapacity The implementation performs internal
+     *      sizing to accommodate this many elements.
+     * @param partitioned If {@code true}, then map is segmented by partitions,
+     *      otherwise by key hash.
+     */
+    public GridCacheConcurrentMap(GridCacheContext<K, V> ctx, int initialCapacity, boolean partitioned) {
+        this(ctx, initialCapacity, DFLT_LOAD_FACTOR, DFLT_CONCUR_LEVEL, partitioned);
     }
 
     /**
@@ -218,7 +251,7 @@ public class GridCacheConcurrentMap<K, V> {
      *      elements is negative.
      */
     public GridCacheConcurrentMap(GridCacheContext<K, V> ctx, int initialCapacity) {
-        this(ctx, initialCapacity, DFLT_LOAD_FACTOR, DFLT_CONCUR_LEVEL);
+        this(ctx, initialCapacity, DFLT_LOAD_FACTOR, DFLT_CONCUR_LEVEL, false);
     }
 
     /**
@@ -255,6 +288,36 @@ public class GridCacheConcurrentMap<K, V> {
         return mapSize.get() == 0;
     }
 
+    /**
+     * @return {@code True} if map is segmented by partitions.
+     */
+    public boolean partitioned() {
+        return partitioned;
+    }
+
+    /**
+     * @param p Partition.
+     * @return Number of entries in given partition (including obsolete ones not yet removed).
+     */
+    public int partitionSize(int p) {
+        assert partitioned;
+
+        return segs[p].size();
+    }
+
+    /**
+     * Gets weakly consistent iterator over entries of given partition. Iterator does not
+     * touch segments of other partitions and does not support removal.
+     *
+     * @param p Partition.
+     * @return Iterator over partition entries.
+     */
+    public Iterator<GridCacheMapEntry<K, V>> partitionIterator(int p) {
+        assert partitioned;
+
+        return new PartitionIterator(segs[p]);
+    }
+
     /**
      * Returns the number of key-value mappings in this map.
      *
@@ -278,7 +341,7 @@ public class GridCacheConcurrentMap<K, V> {
     public boolean containsKey(Object key) {
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).containsKey(key, hash);
+        return segmentFor(key, hash).containsKey(key, hash);
     }
 
     /**
@@ -342,7 +405,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).get(key, hash);
+        return segmentFor(key, hash).get(key, hash);
     }
 
     /**
@@ -357,7 +420,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).put(key, hash, val, topVer, ttl);
+        return segmentFor(key, hash).put(key, hash, val, topVer, ttl);
     }
 
     /**
@@ -375,7 +438,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).putIfObsolete(key, hash, val, topVer, ttl, create);
+        return segmentFor(key, hash).putIfObsolete(key, hash, val, topVer, ttl, create);
     }
 
     /**
@@ -405,7 +468,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).remove(key, hash, null);
+        return segmentFor(key, hash).remove(key, hash, null);
     }
 
     /**
@@ -421,7 +484,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).remove(key, hash, same(e)) != null;
+        return segmentFor(key, hash).remove(key, hash, same(e)) != null;
     }
 
     /**
@@ -450,7 +513,7 @@ public class GridCacheConcurrentMap<K, V> {
 
         int hash = hash(key.hashCode());
 
-        return segmentFor(hash).remove(key, hash, obsolete);
+        return segmentFor(key, hash).remove(key, hash, obsolete);
     }
 
     /**
@@ -541,7 +604,8 @@ public class GridCacheConcurrentMap<K, V> {
 
     /** {@inheritDoc} */
     @Override public String toString() {
-        return S.toString(GridCacheConcurrentMap.class, this, "size", mapSize, "pubSize", mapPubSize);
+        return S.toString(GridCacheConcurrentMap.class, this, "size", mapSize, "pubSize", mapPubSize,
+            "partitioned", partitioned);
     }
 
     /**
@@ -1365,6 +1429,67 @@ public class GridCacheConcurrentMap<K, V> {
         }
     }
 
+    /**
+     * Iterator over entries of single segment.
+     */
+    private class PartitionIterator implements Iterator<GridCacheMapEntry<K, V>> {
+        /** Table snapshot. */
+        private final Bucket<K, V>[] tab;
+
+        /** Next bucket index. */
+        private int nextIdx;
+
+        /** Next entry. */
+        private HashEntry<K, V> next;
+
+        /**
+         * @param seg Segment.
+         */
+        PartitionIterator(Segment seg) {
+            // Read segment size first, as it is a volatile guarding table state.
+            tab = seg.size() == 0 ? Bucket.<K, V>newArray(0) : seg.table;
+
+            advance();
+        }
+
+        /**
+         * Moves to next entry.
+         */
+        private void advance() {
+            if (next != null)
+                next = next.next;
+
+            while (next == null && nextIdx < tab.length) {
+                Bucket<K, V> b = tab[nextIdx++];
+
+                if (b != null)
+                    next = b.entry();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean hasNext() {
+            return next != null;
+        }
+
+        /** {@inheritDoc} */
+        @Override public GridCacheMapEntry<K, V> next() {
+            if (next == null)
+                throw new NoSuchElementException();
+
+            GridCacheMapEntry<K, V> e = next.val;
+
+            advance();
+
+            return e;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     /**
      * Iterator over {@link GridCacheEntryEx} elements.
      *
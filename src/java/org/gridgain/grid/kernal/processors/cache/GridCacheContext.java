@@ -111,9 +111,15 @@ public class GridCacheContext<K, V> implements Externalizable {
     /** Data structures manager. */
     private GridCacheDataStructuresManager<K, V> dataStructuresMgr;
 
+    /** Continuous queries manager. */
+    private GridCacheContinuousQueryManager<K, V> contQryMgr;
+
     /** Managers. */
     private List<GridCacheManager<K, V>> mgrs = new LinkedList<GridCacheManager<K, V>>();
 
+    /** Read-through loader. */
+    private GridCacheReadThroughLoader<K, V> readThroughLdr;
+
     /** Cache gateway. */
     private GridCacheGateway<K, V> gate;
 
@@ -178,6 +184,7 @@ public class GridCacheContext<K, V> implements Externalizable {
      * @param dgcMgr Distributed garbage collector manager.
      * @param txMgr Cache transaction manager.
      * @param dataStructuresMgr Cache dataStructures manager.
+     * @param contQryMgr Continuous queries manager.
      */
     @SuppressWarnings({"unchecked"})
     public GridCacheContext(
@@ -200,7 +207,8 @@ public class GridCacheContext<K, V> implements Externalizable {
         GridCacheQueryManager<K, V> qryMgr,
         GridCacheDgcManager<K, V> dgcMgr,
         GridCacheTxManager<K, V> txMgr,
-        GridCacheDataStructuresManager<K, V> dataStructuresMgr) {
+        GridCacheDataStructuresManager<K, V> dataStructuresMgr,
+        GridCacheContinuousQueryManager<K, V> contQryMgr) {
         assert ctx != null;
         assert cacheCfg != null;
 
@@ -214,6 +222,7 @@ public class GridCacheContext<K, V> implements Externalizable {
         assert dgcMgr != null;
         assert txMgr != null;
         assert dataStructuresMgr != null;
+        assert contQryMgr != null;
 
         this.ctx = ctx;
         this.cacheCfg = cacheCfg;
@@ -234,6 +243,7 @@ public class GridCacheContext<K, V> implements Externalizable {
         this.dgcMgr = add(dgcMgr);
         this.txMgr = add(txMgr);
         this.dataStructuresMgr = add(dataStructuresMgr);
+        this.contQryMgr = add(contQryMgr);
 
         log = ctx.log(getClass());
 
@@ -244,6 +254,8 @@ public class GridCacheContext<K, V> implements Externalizable {
         trueArr = new GridPredicate[]{F.alwaysTrue()};
 
         gate = new GridCacheGateway<K, V>(this);
+
+        readThroughLdr = new GridCacheReadThroughLoader<K, V>(this);
     }
 
     /**
@@ -688,6 +700,13 @@ public class GridCacheContext<K, V> implements Externalizable {
         return (GridCacheStore<K, V>)cacheStore;
     }
 
+    /**
+     * @return Loader coalescing read-through misses outside of transactions.
+     */
+    public GridCacheReadThroughLoader<K, V> readThroughLoader() {
+        return readThroughLdr;
+    }
+
     /**
      * @return Cache transaction manager.
      */
@@ -723,6 +742,13 @@ public class GridCacheContext<K, V> implements Externalizable {
         return qryMgr;
     }
 
+    /**
+     * @return Continuous queries manager.
+     */
+    public GridCacheContinuousQueryManager<K, V> continuousQueries() {
+        return contQryMgr;
+    }
+
     /**
      * @return Swap manager.
      */
@@ -329,6 +329,15 @@ public interface GridCacheEntryEx<K, V> extends GridMetadataAware {
      */
     public byte[] getOrMarshalKeyBytes() throws GridException;
 
+    /**
+     * Gets estimated size of this entry in bytes based on serialized key and value.
+     * Note that this method does not check whether entry is obsolete.
+     *
+     * @return Estimated entry size in bytes.
+     * @throws GridException If marshalling failed.
+     */
+    public long memorySize() throws GridException;
+
     /**
      * @return Version.
      * @throws GridCacheEntryRemovedException If entry has been removed.
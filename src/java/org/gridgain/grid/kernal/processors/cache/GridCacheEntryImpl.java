@@ -203,6 +203,11 @@ public class GridCacheEntryImpl<K, V> implements GridCacheEntry<K, V>, Externali
         return unwrap().partition();
     }
 
+    /** {@inheritDoc} */
+    @Override public long memorySize() throws GridException {
+        return unwrap().memorySize();
+    }
+
     /** {@inheritDoc} */
     @Override public V peek() {
         try {
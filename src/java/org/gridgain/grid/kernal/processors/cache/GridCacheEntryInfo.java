@@ -186,10 +186,10 @@ public class GridCacheEntryInfo<K, V> implements Externalizable {
      */
     public void marshal(GridCacheContext<K, V> ctx) throws GridException {
         if (keyBytes == null)
-            keyBytes = CU.marshal(ctx, key).getArray();
+            keyBytes = CU.marshal(ctx, key).getEntireArray();
 
         if (valBytes == null && val != null)
-            valBytes = CU.marshal(ctx, val).getArray();
+            valBytes = CU.marshal(ctx, val).getEntireArray();
     }
 
     /**
@@ -163,6 +163,11 @@ public class GridCacheEntryWrapper<K, V> implements GridCacheEntry<K, V> {
         return e.partition();
     }
 
+    /** {@inheritDoc} */
+    @Override public long memorySize() throws GridException {
+        return e.memorySize();
+    }
+
     /** {@inheritDoc} */
     @Override public GridProjection gridProjection() {
         return e.gridProjection();
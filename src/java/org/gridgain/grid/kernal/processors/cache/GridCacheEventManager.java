@@ -63,6 +63,9 @@ public class GridCacheEventManager<K, V> extends GridCacheManager<K, V> {
      */
     public void addEvent(int part, K key, GridCacheTx tx, @Nullable GridCacheMvccCandidate<K> owner,
         int type, @Nullable V newVal, @Nullable V oldVal) {
+        if (!isRecordable(type))
+            return;
+
         addEvent(part, key, locNodeId, tx, owner, type, newVal, oldVal);
     }
 
@@ -78,6 +81,9 @@ public class GridCacheEventManager<K, V> extends GridCacheManager<K, V> {
      */
     public void addEvent(int part, K key, UUID nodeId, GridCacheTx tx, GridCacheMvccCandidate<K> owner,
         int type, V newVal, V oldVal) {
+        if (!isRecordable(type))
+            return;
+
         addEvent(part, key, nodeId, tx == null ? null : tx.xid(), owner == null ? null : owner.id(), type,
             newVal, oldVal);
     }
@@ -93,6 +99,9 @@ public class GridCacheEventManager<K, V> extends GridCacheManager<K, V> {
      */
     public void addEvent(int part, K key, UUID evtNodeId, GridCacheMvccCandidate<K> owner,
         int type, V newVal, V oldVal) {
+        if (!isRecordable(type))
+            return;
+
         GridCacheTx tx = owner == null ? null : cctx.tm().tx(owner.version());
 
         addEvent(part, key, evtNodeId, tx == null ? null : tx.xid(), owner == null ? null : owner.id(), type,
@@ -113,6 +122,9 @@ public class GridCacheEventManager<K, V> extends GridCacheManager<K, V> {
         @Nullable V newVal, @Nullable V oldVal) {
         assert key != null;
 
+        if (!isRecordable(type))
+            return;
+
         // Events are not made for internal entry.
         if (!(key instanceof GridCacheInternal))
             cctx.gridEvents().record(new GridCacheEvent(cctx.name(), cctx.nodeId(), evtNodeId,
@@ -134,10 +146,24 @@ public class GridCacheEventManager<K, V> extends GridCacheManager<K, V> {
         assert discoType > 0;
         assert discoTimestamp > 0;
 
+        if (!isRecordable(type))
+            return;
+
         cctx.gridEvents().record(new GridCachePreloadEvent(cctx.name(), locNodeId, "Cache preloading event.",
             type, part, discoNode, discoType, discoTimestamp));
     }
 
+    /**
+     * Checks whether events of given type have to be created. Callers should check it
+     * before computing event arguments.
+     *
+     * @param type Event type.
+     * @return {@code True} if event of given type would be recorded or listened to.
+     */
+    public boolean isRecordable(int type) {
+        return cctx.gridEvents().isRecordable(type);
+    }
+
     /** {@inheritDoc} */
     @Override protected void printMemoryStats() {
         X.println(">>> ");
@@ -129,6 +129,11 @@ public class GridCacheEvictionEntry<K, V> implements GridCacheEntry<K, V>, Exter
         return cached.partition();
     }
 
+    /** {@inheritDoc} */
+    @Override public long memorySize() throws GridException {
+        return cached.memorySize();
+    }
+
     /** {@inheritDoc} */
     @Override public V peek() {
         try {
@@ -753,6 +753,9 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
                     EVT_CACHE_OBJECT_PUT,
                     val,
                     old);
+
+            if (newVer != null && !cctx.isNear())
+                cctx.continuousQueries().onEntryUpdate(key, val);
         }
     }
 
@@ -851,6 +854,9 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
             if (evt && newVer != null)
                 cctx.events().addEvent(partition(), key, evtNodeId, tx == null ? null : tx.xid(), newVer.id(),
                     EVT_CACHE_OBJECT_REMOVED, null, old);
+
+            if (newVer != null && !cctx.isNear())
+                cctx.continuousQueries().onEntryUpdate(key, null);
         }
     }
 
@@ -1181,12 +1187,24 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
 
             if (metrics != null)
                 this.metrics = metrics;
+
+            // Obsolete entry is cleared, not removed.
+            onUpdated(val == null && obsoleteVer == null);
         }
         finally {
             unlock();
         }
     }
 
+    /**
+     * Callback invoked under entry lock after entry value and version were changed.
+     *
+     * @param rmv {@code True} if value was removed.
+     */
+    protected void onUpdated(boolean rmv) {
+        // No-op.
+    }
+
     /**
      * @return {@code true} If value bytes should be stored.
      */
@@ -2046,6 +2064,36 @@ public abstract class GridCacheMapEntry<K, V> extends GridMetadataAwareLockAdapt
         return bytes;
     }
 
+    /** {@inheritDoc} */
+    @Override public long memorySize() throws GridException {
+        byte[] keyBytes;
+        byte[] valBytes;
+        V val;
+
+        lock();
+
+        try {
+            keyBytes = this.keyBytes;
+            valBytes = this.valBytes;
+            val = this.val;
+        }
+        finally {
+            unlock();
+        }
+
+        if (keyBytes == null)
+            keyBytes = getOrMarshalKeyBytes();
+
+        long size = keyBytes.length;
+
+        if (valBytes != null)
+            size += valBytes.length;
+        else if (val != null)
+            size += CU.marshal(cctx, val).getSize();
+
+        return size;
+    }
+
     /** {@inheritDoc} */
     @Override public byte[] valueBytes() throws GridCacheEntryRemovedException {
         lock();
@@ -31,6 +31,7 @@ import org.gridgain.grid.typedef.internal.*;
 import org.jetbrains.annotations.*;
 
 import javax.management.*;
+import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
 
@@ -190,6 +191,10 @@ public class GridCacheProcessor extends GridProcessorAdapter {
                 throw new GridException("Cannot set both 'writeFromBehindFlushFrequency' and " +
                     "'writeFromBehindFlushSize' parameters to 0: cacheName=" + cfg.getName());
         }
+
+        assertParameter(cfg.getStoreLoadThreadCount() > 0, "storeLoadThreadCount > 0");
+        assertParameter(cfg.getStoreLoadBatchSize() > 0, "storeLoadBatchSize > 0");
+        assertParameter(cfg.getReadThroughBatchWindow() >= 0, "readThroughBatchWindow >= 0");
     }
 
     /**
@@ -200,8 +205,10 @@ public class GridCacheProcessor extends GridProcessorAdapter {
         GridCacheQueryManager qryMgr = ctx.queries();
 
         return qryMgr != null ?
-            F.asList(ctx.mvcc(), ctx.events(), ctx.tm(), ctx.swap(), ctx.dgc(), ctx.evicts(), qryMgr) :
-            F.asList(ctx.mvcc(), ctx.events(), ctx.tm(), ctx.swap(), ctx.dgc(), ctx.evicts());
+            F.asList(ctx.mvcc(), ctx.events(), ctx.tm(), ctx.swap(), ctx.dgc(), ctx.evicts(), qryMgr,
+                ctx.continuousQueries()) :
+            F.asList(ctx.mvcc(), ctx.events(), ctx.tm(), ctx.swap(), ctx.dgc(), ctx.evicts(),
+                ctx.continuousQueries());
     }
 
     /**
@@ -212,7 +219,8 @@ public class GridCacheProcessor extends GridProcessorAdapter {
         GridCacheQueryManager qryMgr = ctx.queries();
 
         return ctx.config().getCacheMode() != PARTITIONED ? Collections.<GridCacheManager>emptyList() :
-            qryMgr != null ? F.asList(ctx.dgc(), qryMgr) : F.<GridCacheManager>asList(ctx.dgc());
+            qryMgr != null ? F.asList(ctx.dgc(), qryMgr, ctx.continuousQueries()) :
+            F.<GridCacheManager>asList(ctx.dgc(), ctx.continuousQueries());
     }
 
     /**
@@ -254,6 +262,10 @@ public class GridCacheProcessor extends GridProcessorAdapter {
         cleanup(cfg, cfg.getTransactionManagerLookup(), false);
         cleanup(cfg, cfg.getCloner(), false);
         cleanup(cfg, cfg.getStore(), false);
+
+        // Let store release resources it holds, e.g. pooled connections.
+        if (cfg.getStore() instanceof Closeable)
+            U.closeQuiet((Closeable)cfg.getStore());
     }
 
     /**
@@ -308,6 +320,7 @@ public class GridCacheProcessor extends GridProcessorAdapter {
             GridCacheQueryManager qryMgr = queryManager(cfg);
             GridCacheIoManager ioMgr = new GridCacheIoManager();
             GridCacheDataStructuresManager dataStructuresMgr = dataStructuresManager();
+            GridCacheContinuousQueryManager<?, ?> contQryMgr = new GridCacheContinuousQueryManager<Object, Object>();
 
             GridCacheStore store = cacheStore(ctx.gridName(), cfg);
 
@@ -330,7 +343,8 @@ public class GridCacheProcessor extends GridProcessorAdapter {
                 qryMgr,
                 dgcMgr,
                 tm,
-                dataStructuresMgr);
+                dataStructuresMgr,
+                contQryMgr);
 
             GridCacheAdapter cache = null;
 
@@ -388,6 +402,7 @@ public class GridCacheProcessor extends GridProcessorAdapter {
                  * 3. GridCacheDeploymentManager
                  * 4. GridCacheQueryManager (note, that we start it for DHT cache though).
                  * 5. GridCacheDgcManager
+                 * 6. GridCacheContinuousQueryManager (started for DHT cache as well).
                  * ===============================================
                  */
                 mvccMgr = new GridCacheMvccManager();
@@ -415,7 +430,8 @@ public class GridCacheProcessor extends GridProcessorAdapter {
                     qryMgr,
                     dgcMgr,
                     tm,
-                    dataStructuresMgr);
+                    dataStructuresMgr,
+                    contQryMgr);
 
                 assert cache instanceof GridNearCache;
 
@@ -1862,6 +1862,11 @@ public class GridCacheProjectionImpl<K, V> extends GridMetadataAwareAdapter impl
         return qryMgr.createReduceQuery(type, clsName, clause, noNullEntryFilter, flags);
     }
 
+    /** {@inheritDoc} */
+    @Override public GridCacheContinuousQuery<K, V> createContinuousQuery() {
+        return cache.createContinuousQuery();
+    }
+
     /** {@inheritDoc} */
     @Override public GridCacheTx txStart() throws IllegalStateException {
         return cache.txStart();
@@ -1723,6 +1723,18 @@ public class GridCacheProxyImpl<K, V> implements GridCacheProxy<K, V>, Externali
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public GridCacheContinuousQuery<K, V> createContinuousQuery() {
+        GridCacheProjectionImpl<K, V> prev = gate.enter(prj);
+
+        try {
+            return cache.createContinuousQuery();
+        }
+        finally {
+            gate.leave(prev);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public GridCacheTx txStart() throws IllegalStateException {
         GridCacheProjectionImpl<K, V> prev = gate.enter(prj);
@@ -0,0 +1,261 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.store.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.future.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Loads values missing in cache from persistent store outside of transactions.
+ * <p>
+ * Concurrent loads of the same key are coalesced into one in-flight future, so store
+ * is queried only once no matter how many threads missed the key. If
+ * {@link GridCacheConfiguration#getReadThroughBatchWindow()} is positive, then misses
+ * of single keys arriving within that window are grouped and loaded with one
+ * {@link GridCacheStore#loadAll(String, GridCacheTx, Collection, GridInClosure2)} call.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCacheReadThroughLoader<K, V> {
+    /** Cache context. */
+    private final GridCacheContext<K, V> ctx;
+
+    /** Logger. */
+    private final GridLogger log;
+
+    /** Loads in progress. */
+    private final ConcurrentMap<K, GridFutureAdapter<V>> futs = new ConcurrentHashMap<K, GridFutureAdapter<V>>();
+
+    /** Mutex guarding pending batch. */
+    private final Object mux = new Object();
+
+    /** Batch collecting misses within current window, {@code null} if there is no open batch. */
+    private Map<K, GridFutureAdapter<V>> pending;
+
+    /**
+     * @param ctx Cache context.
+     */
+    public GridCacheReadThroughLoader(GridCacheContext<K, V> ctx) {
+        assert ctx != null;
+
+        this.ctx = ctx;
+
+        log = ctx.logger(getClass());
+    }
+
+    /**
+     * Loads value for given key, joining load of the same key already in progress if any.
+     *
+     * @param key Key.
+     * @return Loaded value.
+     * @throws GridException If load failed.
+     */
+    @Nullable public V load(K key) throws GridException {
+        GridFutureAdapter<V> fut = new GridFutureAdapter<V>(ctx.kernalContext());
+
+        GridFutureAdapter<V> old = futs.putIfAbsent(key, fut);
+
+        if (old != null) {
+            if (log.isDebugEnabled())
+                log.debug("Joining store load in progress for key: " + key);
+
+            return old.get();
+        }
+
+        if (ctx.config().getReadThroughBatchWindow() > 0)
+            loadInWindow(key, fut);
+        else
+            loadFromStore(Collections.singletonMap(key, fut));
+
+        return fut.get();
+    }
+
+    /**
+     * Loads values for given keys with one store call, joining loads of the same keys
+     * already in progress. Keys passed together are loaded right away without waiting
+     * for batch window.
+     *
+     * @param keys Keys.
+     * @param vis Closure for loaded values.
+     * @throws GridException If load failed.
+     */
+    public void loadAll(Collection<? extends K> keys, GridInClosure2<K, V> vis) throws GridException {
+        Map<K, GridFutureAdapter<V>> all = new LinkedHashMap<K, GridFutureAdapter<V>>(keys.size(), 1.0f);
+        Map<K, GridFutureAdapter<V>> batch = new HashMap<K, GridFutureAdapter<V>>(keys.size(), 1.0f);
+
+        for (K key : keys) {
+            if (all.containsKey(key))
+                continue;
+
+            GridFutureAdapter<V> fut = new GridFutureAdapter<V>(ctx.kernalContext());
+
+            GridFutureAdapter<V> old = futs.putIfAbsent(key, fut);
+
+            if (old == null) {
+                batch.put(key, fut);
+
+                all.put(key, fut);
+            }
+            else
+                all.put(key, old);
+        }
+
+        if (!batch.isEmpty())
+            loadFromStore(batch);
+
+        for (Map.Entry<K, GridFutureAdapter<V>> e : all.entrySet())
+            vis.apply(e.getKey(), e.getValue().get());
+    }
+
+    /**
+     * Adds key to the open batch or opens new one. Thread which opened the batch waits for
+     * batch window to expire or batch to fill up and loads the whole batch.
+     *
+     * @param key Key.
+     * @param fut Load future.
+     */
+    private void loadInWindow(K key, GridFutureAdapter<V> fut) {
+        Map<K, GridFutureAdapter<V>> batch;
+
+        synchronized (mux) {
+            if (pending != null) {
+                pending.put(key, fut);
+
+                // Close full batch and wake up its owner.
+                if (pending.size() >= ctx.config().getStoreLoadBatchSize()) {
+                    pending = null;
+
+                    mux.notifyAll();
+                }
+
+                return;
+            }
+
+            batch = pending = new HashMap<K, GridFutureAdapter<V>>();
+
+            batch.put(key, fut);
+        }
+
+        boolean interrupted = false;
+
+        synchronized (mux) {
+            long end = System.currentTimeMillis() + ctx.config().getReadThroughBatchWindow();
+
+            try {
+                for (long left = end - System.currentTimeMillis(); pending == batch && left > 0;
+                    left = end - System.currentTimeMillis())
+                    mux.wait(left);
+            }
+            catch (InterruptedException ignored) {
+                // Other threads wait for this batch, so load it anyway.
+                interrupted = true;
+            }
+
+            if (pending == batch)
+                pending = null;
+        }
+
+        try {
+            loadFromStore(batch);
+        }
+        finally {
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads batch from store and completes its futures.
+     *
+     * @param batch Keys to load mapped to their futures.
+     */
+    @SuppressWarnings({"unchecked"})
+    private void loadFromStore(final Map<K, GridFutureAdapter<V>> batch) {
+        GridCacheStore<K, V> store = ctx.cacheStore();
+
+        assert store != null;
+
+        String cacheName = ctx.cache().name();
+
+        try {
+            if (batch.size() == 1) {
+                Map.Entry<K, GridFutureAdapter<V>> e = F.first(batch.entrySet());
+
+                if (log.isDebugEnabled())
+                    log.debug("Loading value from store for key: " + e.getKey());
+
+                V val = store.load(cacheName, null, e.getKey());
+
+                if (log.isDebugEnabled())
+                    log.debug("Loaded value from store [key=" + e.getKey() + ", val=" + val + ']');
+
+                onLoaded(e.getKey(), e.getValue(), val, null);
+            }
+            else {
+                if (log.isDebugEnabled())
+                    log.debug("Loading values from store for keys: " + batch.keySet());
+
+                store.loadAll(cacheName, null, batch.keySet(), new CI2<K, V>() {
+                    @Override public void apply(K key, V val) {
+                        GridFutureAdapter<V> fut = batch.get(key);
+
+                        if (fut != null)
+                            onLoaded(key, fut, val, null);
+                        else if (log.isDebugEnabled())
+                            log.debug("Value from storage was never asked for [key=" + key + ", val=" + val + ']');
+                    }
+                });
+
+                if (log.isDebugEnabled())
+                    log.debug("Loaded values from store for keys: " + batch.keySet());
+
+                // Store does not have to pass keys which were not found.
+                for (Map.Entry<K, GridFutureAdapter<V>> e : batch.entrySet())
+                    onLoaded(e.getKey(), e.getValue(), null, null);
+            }
+        }
+        catch (Throwable e) {
+            for (Map.Entry<K, GridFutureAdapter<V>> e0 : batch.entrySet())
+                onLoaded(e0.getKey(), e0.getValue(), null, e);
+        }
+    }
+
+    /**
+     * @param key Key.
+     * @param fut Load future.
+     * @param val Loaded value.
+     * @param err Error.
+     */
+    private void onLoaded(K key, GridFutureAdapter<V> fut, @Nullable V val, @Nullable Throwable err) {
+        if (fut.isDone())
+            return;
+
+        // Remove future before completing it, so subsequent misses go to store.
+        futs.remove(key, fut);
+
+        fut.onDone(val, err);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheReadThroughLoader.class, this, "inFlight", futs.size());
+    }
+}
@@ -0,0 +1,366 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.store.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.thread.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Loads cache from persistent store on {@link GridCache#loadCache(GridPredicate2, long, Object...)}.
+ * <p>
+ * If configured store implements {@link GridCachePartitionLoadStore}, then only partitions
+ * owned by local node are loaded, each partition in a separate task. If store implements
+ * {@link GridCacheRangeLoadStore}, then every range is loaded in a separate task and keys
+ * which do not belong to local node are skipped. Otherwise, store loads all values in
+ * calling thread and loaded values are put into cache by loader threads.
+ * <p>
+ * In all cases loaded values are passed to cache visitor in batches of
+ * {@link GridCacheConfiguration#getStoreLoadBatchSize()} size.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCacheStoreLoader<K, V> {
+    /** Cache context. */
+    private final GridCacheContext<K, V> ctx;
+
+    /** Logger. */
+    private final GridLogger log;
+
+    /** Cache visitor. */
+    private final GridInClosure2<List<K>, List<V>> vis;
+
+    /** Batch size. */
+    private final int batchSize;
+
+    /** First error occurred in loader threads. */
+    private final AtomicReference<Throwable> err = new AtomicReference<Throwable>();
+
+    /** Number of tasks allowed to run in parallel. */
+    private int threadCnt;
+
+    /** Limits number of tasks submitted to loader pool at a time. */
+    private Semaphore permits;
+
+    /** Loader pool. */
+    private ExecutorService pool;
+
+    /** Partitions for which local node is primary or backup. */
+    private boolean[] owned;
+
+    /**
+     * @param ctx Cache context.
+     * @param log Logger.
+     * @param vis Visitor which puts batch of loaded values into cache, must be thread-safe.
+     */
+    public GridCacheStoreLoader(GridCacheContext<K, V> ctx, GridLogger log, GridInClosure2<List<K>, List<V>> vis) {
+        assert ctx != null;
+        assert log != null;
+        assert vis != null;
+
+        this.ctx = ctx;
+        this.log = log;
+        this.vis = vis;
+
+        batchSize = ctx.config().getStoreLoadBatchSize();
+    }
+
+    /**
+     * Loads cache from persistent store.
+     *
+     * @param args User arguments.
+     * @return {@code True} if there is a persistent storage.
+     * @throws GridException If data loading failed.
+     */
+    @SuppressWarnings({"unchecked"})
+    public boolean load(@Nullable final Object[] args) throws GridException {
+        GridCacheStore<K, V> store = ctx.cacheStore();
+
+        if (store == null)
+            return false;
+
+        // Write-from-behind store wraps user store, so check configured store for extensions.
+        GridCacheStore<K, V> usrStore = ctx.config().getStore();
+
+        final String cacheName = ctx.cache().name();
+
+        owned = ownedPartitions();
+
+        threadCnt = ctx.config().getStoreLoadThreadCount();
+
+        // Tasks run in dedicated pool rather than in system pool, since loading may be
+        // started from system pool thread itself (e.g. by loadCacheAsync()), and no more than
+        // configured number of tasks are submitted at a time, which also throttles store if
+        // cache cannot keep up.
+        permits = new Semaphore(threadCnt);
+
+        pool = new GridThreadPoolExecutor(ctx.gridName(), threadCnt, threadCnt, 0,
+            new LinkedBlockingQueue<Runnable>());
+
+        boolean done = false;
+
+        try {
+            if (usrStore instanceof GridCachePartitionLoadStore) {
+                final GridCachePartitionLoadStore<K, V> partStore = (GridCachePartitionLoadStore<K, V>)usrStore;
+
+                for (int p = 0; p < owned.length && err.get() == null; p++) {
+                    if (!owned[p])
+                        continue;
+
+                    final int part = p;
+
+                    submit(new LoadTask() {
+                        @Override protected void load(Batch batch) throws GridException {
+                            partStore.loadPartition(cacheName, part, batch, args);
+                        }
+                    });
+                }
+            }
+            else if (usrStore instanceof GridCacheRangeLoadStore) {
+                final GridCacheRangeLoadStore<K, V> rangeStore = (GridCacheRangeLoadStore<K, V>)usrStore;
+
+                Collection<?> ranges = rangeStore.loadRanges(cacheName, args);
+
+                if (log.isDebugEnabled())
+                    log.debug("Loading cache by ranges [cacheName=" + cacheName + ", ranges=" + ranges + ']');
+
+                for (final Object range : ranges) {
+                    if (err.get() != null)
+                        break;
+
+                    submit(new LoadTask() {
+                        @Override protected void load(Batch batch) throws GridException {
+                            rangeStore.loadRange(cacheName, range, batch, args);
+                        }
+                    });
+                }
+            }
+            else {
+                Batch batch = new Batch(true);
+
+                store.loadAll(cacheName, batch, args);
+
+                batch.flush();
+            }
+
+            // Wait for all submitted tasks.
+            permits.acquire(threadCnt);
+
+            done = true;
+        }
+        catch (InterruptedException e) {
+            throw new GridInterruptedException(e);
+        }
+        catch (GridRuntimeException e) {
+            throw U.cast(e);
+        }
+        finally {
+            if (!done) {
+                // Make submitted tasks stop at their next batch.
+                err.compareAndSet(null, new GridException("Cache loading failed: " + ctx.namex()));
+
+                // Tasks must not outlive loading even if it failed in this thread.
+                permits.acquireUninterruptibly(threadCnt);
+            }
+
+            pool.shutdown();
+        }
+
+        checkError();
+
+        return true;
+    }
+
+    /**
+     * Submits task to loader pool once one of the permits is available.
+     * If pool rejects task, then it is run in the calling thread.
+     *
+     * @param task Task.
+     * @throws InterruptedException If interrupted.
+     */
+    private void submit(final Runnable task) throws InterruptedException {
+        permits.acquire();
+
+        Runnable r = new Runnable() {
+            @Override public void run() {
+                try {
+                    task.run();
+                }
+                finally {
+                    permits.release();
+                }
+            }
+        };
+
+        try {
+            pool.execute(r);
+        }
+        catch (RejectedExecutionException ignored) {
+            r.run();
+        }
+    }
+
+    /**
+     * @return Partitions for which local node is primary or backup.
+     */
+    private boolean[] ownedPartitions() {
+        boolean[] owned = new boolean[ctx.partitions()];
+
+        if (ctx.isLocal())
+            Arrays.fill(owned, true);
+        else {
+            Collection<GridRichNode> nodes = CU.allNodes(ctx);
+
+            GridRichNode loc = ctx.localNode();
+
+            for (int p = 0; p < owned.length; p++)
+                owned[p] = ctx.belongs(p, loc, nodes);
+        }
+
+        return owned;
+    }
+
+    /**
+     * Rethrows first error occurred in loader threads, if any.
+     *
+     * @throws GridException If loading failed.
+     */
+    private void checkError() throws GridException {
+        Throwable e = err.get();
+
+        if (e != null) {
+            if (e instanceof GridException)
+                throw (GridException)e;
+
+            if (e instanceof GridRuntimeException)
+                throw U.cast((GridRuntimeException)e);
+
+            throw new GridException("Failed to load cache from store: " + ctx.namex(), e);
+        }
+    }
+
+    /**
+     * Task loading single partition or range.
+     */
+    private abstract class LoadTask implements Runnable {
+        /** {@inheritDoc} */
+        @Override public void run() {
+            // Skip remaining tasks if loading already failed.
+            if (err.get() != null)
+                return;
+
+            try {
+                Batch batch = new Batch(false);
+
+                load(batch);
+
+                batch.flush();
+            }
+            catch (Throwable e) {
+                err.compareAndSet(null, e);
+            }
+        }
+
+        /**
+         * @param batch Closure for loaded values.
+         * @throws GridException If loading failed.
+         */
+        protected abstract void load(Batch batch) throws GridException;
+    }
+
+    /**
+     * Closure which accumulates loaded values owned by local node and passes them to
+     * cache visitor in batches.
+     */
+    private class Batch extends CI2<K, V> {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Whether to put batches into cache in loader pool rather than in loading thread. */
+        private final boolean async;
+
+        /** Keys. */
+        private List<K> keys = new ArrayList<K>(batchSize);
+
+        /** Values. */
+        private List<V> vals = new ArrayList<V>(batchSize);
+
+        /**
+         * @param async Whether to put batches into cache in loader pool rather than in loading thread.
+         */
+        Batch(boolean async) {
+            this.async = async;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void apply(K key, V val) {
+            if (!owned[ctx.partition(key)])
+                return;
+
+            keys.add(key);
+            vals.add(val);
+
+            if (keys.size() >= batchSize)
+                flush();
+        }
+
+        /**
+         * Passes accumulated values to cache visitor.
+         */
+        void flush() {
+            if (keys.isEmpty())
+                return;
+
+            Throwable e = err.get();
+
+            // Interrupt store loading on first error.
+            if (e != null)
+                throw e instanceof GridRuntimeException ? (GridRuntimeException)e :
+                    new GridRuntimeException("Failed to load cache from store: " + ctx.namex(), e);
+
+            final List<K> keys0 = keys;
+            final List<V> vals0 = vals;
+
+            keys = new ArrayList<K>(batchSize);
+            vals = new ArrayList<V>(batchSize);
+
+            if (!async)
+                vis.apply(keys0, vals0);
+            else {
+                try {
+                    submit(new Runnable() {
+                        @Override public void run() {
+                            try {
+                                vis.apply(keys0, vals0);
+                            }
+                            catch (Throwable e) {
+                                err.compareAndSet(null, e);
+                            }
+                        }
+                    });
+                }
+                catch (InterruptedException ex) {
+                    throw new GridRuntimeException(new GridInterruptedException(ex));
+                }
+            }
+        }
+    }
+}
@@ -473,13 +473,13 @@ public class GridCacheTxEntry<K, V> implements GridPeerDeployAware, Externalizab
         if (op == READ || op == NOOP)
             valBytes = null;
         else if (valBytes == null && val != null)
-            valBytes = CU.marshal(ctx, val).getArray();
+            valBytes = CU.marshal(ctx, val).getEntireArray();
 
         // Do not serialize filters if they are null.
         if (F.isEmpty(filters))
             filterBytes = null;
         else if (filterBytes == null)
-            filterBytes = CU.marshal(ctx, filterBytes).getArray();
+            filterBytes = CU.marshal(ctx, filterBytes).getEntireArray();
     }
 
     /** {@inheritDoc} */
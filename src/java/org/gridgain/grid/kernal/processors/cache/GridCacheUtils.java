@@ -427,6 +427,10 @@ public class GridCacheUtils {
                     return null;
             }
 
+            // Coalesce concurrent misses outside of transactions.
+            if (tx == null)
+                return (V)ctx.readThroughLoader().load(key);
+
             GridCacheStore<K, V> store = ctx.cacheStore();
 
             V val = store.load(ctx.cache().name(), tx, key);
@@ -471,7 +475,10 @@ public class GridCacheUtils {
                 }
 
                 try {
-                    store.loadAll(ctx.cache().name(), tx, keys, vis);
+                    if (tx == null && !F.exist(keys, F.instanceOf(GridCacheInternal.class)))
+                        ctx.readThroughLoader().loadAll(keys, vis);
+                    else
+                        store.loadAll(ctx.cache().name(), tx, keys, vis);
                 }
                 catch (GridRuntimeException e) {
                     throw U.cast(e);
@@ -488,18 +495,19 @@ public class GridCacheUtils {
     }
 
     /**
-     * Loads data from persistent store.
+     * Loads data from persistent store. Partitions or ranges are loaded in parallel
+     * if store supports it (see {@link GridCacheStoreLoader}).
      *
      * @param ctx Cache registry.
      * @param log Logger.
-     * @param vis Closer to cache loaded elements.
+     * @param vis Thread-safe closure to cache batches of loaded elements.
      * @param args User arguments.
      * @return {@code True} if there is a persistent storage.
      * @throws GridException If data loading failed.
      */
     @SuppressWarnings({"ErrorNotRethrown", "unchecked"})
-    public static <K, V> boolean loadCache(GridCacheContext ctx, GridLogger log, GridInClosure2<K, V> vis,
-        Object[] args) throws GridException {
+    public static <K, V> boolean loadCache(GridCacheContext ctx, GridLogger log,
+        GridInClosure2<List<K>, List<V>> vis, Object[] args) throws GridException {
         GridCacheStore<K, V> store = ctx.cacheStore();
 
         if (store != null) {
@@ -507,10 +515,7 @@ public class GridCacheUtils {
                 log.debug("Loading all values from store.");
 
             try {
-                store.loadAll(ctx.cache().name(), vis, args);
-            }
-            catch (GridRuntimeException e) {
-                throw U.cast(e);
+                new GridCacheStoreLoader<K, V>(ctx, log, vis).load(args);
             }
             catch (AssertionError e) {
                 throw new GridException(e);
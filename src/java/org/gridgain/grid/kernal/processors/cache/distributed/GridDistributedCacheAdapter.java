@@ -41,6 +41,14 @@ public abstract class GridDistributedCacheAdapter<K, V> extends GridCacheAdapter
         super(ctx, startSize);
     }
 
+    /**
+     * @param ctx Cache registry.
+     * @param map Cache map.
+     */
+    protected GridDistributedCacheAdapter(GridCacheContext<K, V> ctx, GridCacheConcurrentMap<K, V> map) {
+        super(ctx, map);
+    }
+
     /** {@inheritDoc} */
     @Override public abstract GridCacheTxLocalAdapter<K, V> newTx(
         boolean implicit,
@@ -99,6 +99,13 @@ public class GridDistributedTxPrepareRequest<K, V> extends GridDistributedBaseMe
      */
     public GridCacheVersion commitVersion() { return commitVer; }
 
+    /**
+     * @param commitVer Commit version.
+     */
+    protected void commitVersion(GridCacheVersion commitVer) {
+        this.commitVer = commitVer;
+    }
+
     /**
      * @return Invalidate flag.
      */
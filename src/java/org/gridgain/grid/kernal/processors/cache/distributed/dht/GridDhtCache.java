@@ -57,7 +57,8 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
      * @param ctx Context.
      */
     public GridDhtCache(GridCacheContext<K, V> ctx) {
-        super(ctx, ctx.config().getStartSize());
+        // Segment map by partitions, so that local partitions do not need to index entries again.
+        super(ctx, new GridCacheConcurrentMap<K, V>(ctx, ctx.config().getStartSize(), true));
 
         top = new GridDhtPartitionTopologyImpl<K, V>(ctx);
     }
@@ -214,6 +215,14 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
         return top;
     }
 
+    /**
+     * @param p Partition.
+     * @return Iterator over entries kept in partition segment of cache map.
+     */
+    Iterator<GridCacheMapEntry<K, V>> partitionIterator(int p) {
+        return map.partitionIterator(p);
+    }
+
     /** {@inheritDoc} */
     @Override public GridCachePreloader<K, V> preloader() {
         return preldr;
@@ -360,6 +369,15 @@ public class GridDhtCache<K, V> extends GridDistributedCacheAdapter<K, V> {
                         try {
                             tx.topologyVersion(req.topologyVersion());
 
+                            if (req.onePhaseCommit()) {
+                                tx.onePhaseCommit(true);
+
+                                boolean set = tx.commitVersion(req.commitVersion());
+
+                                assert set : "Failed to set commit version on transaction [req=" + req +
+                                    ", tx=" + tx + ']';
+                            }
+
                             GridCompoundFuture<Boolean, GridCacheTxEx<K, V>> txFut = null;
 
                             if (req.reads() != null)
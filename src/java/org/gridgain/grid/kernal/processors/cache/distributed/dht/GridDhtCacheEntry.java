@@ -20,6 +20,7 @@ import org.gridgain.grid.util.tostring.*;
 import org.jetbrains.annotations.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 /**
  * Replicated cache entry.
@@ -35,13 +36,29 @@ import java.util.*;
         }
     };
 
-    /** Reader clients. */
+    /** Empty readers array. */
+    private static final ReaderId<?, ?>[] NO_READERS = new ReaderId<?, ?>[0];
+
+    /** Partition removal flag updater. */
+    @SuppressWarnings({"unchecked"})
+    private static final AtomicIntegerFieldUpdater<GridDhtCacheEntry<?, ?>> partRmvUpdater =
+        AtomicIntegerFieldUpdater.newUpdater((Class<GridDhtCacheEntry<?, ?>>)(Class<?>)GridDhtCacheEntry.class,
+            "partRmv");
+
+    /** Reader clients sorted by node ID, array is never modified once published. */
     @GridToStringInclude
-    private volatile List<ReaderId<K, V>> readers = Collections.emptyList();
+    private volatile ReaderId<K, V>[] readers = noReaders();
 
     /** Local partition. */
     private final GridDhtLocalPartition<K, V> locPart;
 
+    /** Flag set once entry was removed from local partition (accessed via {@link #partRmvUpdater}). */
+    @GridToStringExclude
+    private volatile int partRmv;
+
+    /** Update counter of local partition assigned to the latest change of this entry. */
+    private volatile long updCntr;
+
     /**
      * @param ctx Cache context.
      * @param topVer Topology version at the time of creation (if negative, then latest topology is assumed).
@@ -58,6 +75,8 @@ import java.util.*;
 
         // Record this entry with partition.
         locPart = ctx.dht().topology().onAdded(topVer, this);
+
+        updCntr = locPart.nextUpdateCounter();
     }
 
     /** {@inheritDoc} */
@@ -71,12 +90,29 @@ import java.util.*;
     }
 
     /** {@inheritDoc} */
-    @Override public boolean markObsolete(GridCacheVersion ver) {
-        boolean rmv = super.markObsolete(ver);
+    @Override protected void onUpdated(boolean rmv) {
+        long cntr = locPart.nextUpdateCounter();
+
+        updCntr = cntr;
 
-        // Remove this entry from partition mapping.
         if (rmv)
-            cctx.dht().topology().onRemoved(this);
+            locPart.onValueRemoved(key, ver, cntr);
+    }
+
+    /**
+     * @return Update counter of local partition assigned to the latest change of this entry.
+     */
+    long updateCounter() {
+        return updCntr;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean markObsolete(GridCacheVersion ver, boolean clear) {
+        boolean rmv = super.markObsolete(ver, clear);
+
+        // Remove this entry from partition mapping (only once, as obsolete entry can be marked again).
+        if (rmv && partRmvUpdater.compareAndSet(this, 0, 1))
+            locPart.onRemoved(this);
 
         return rmv;
     }
@@ -249,14 +285,28 @@ import java.util.*;
 
     /**
      * @param nodeId Node ID.
-     * @return reader ID.
+     * @return Index of reader in readers array if found, or {@code -(insertion point + 1)} otherwise.
      */
-    @Nullable private ReaderId<K, V> readerId(UUID nodeId) {
-        for (ReaderId<K, V> reader : readers)
-            if (reader.nodeId().equals(nodeId))
-                return reader;
+    private int readerIndex(UUID nodeId) {
+        ReaderId<K, V>[] readers = this.readers;
+
+        int low = 0;
+        int high = readers.length - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
 
-        return null;
+            int cmp = readers[mid].nodeId().compareTo(nodeId);
+
+            if (cmp < 0)
+                low = mid + 1;
+            else if (cmp > 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+
+        return -(low + 1);
     }
 
     /**
@@ -305,17 +355,23 @@ import java.util.*;
         try {
             checkObsolete();
 
-            reader = readerId(nodeId);
+            int idx = readerIndex(nodeId);
 
-            if (reader == null) {
+            if (idx < 0) {
                 reader = new ReaderId<K, V>(nodeId, msgId);
 
-                readers = new LinkedList<ReaderId<K, V>>(readers);
+                idx = -(idx + 1);
+
+                ReaderId<K, V>[] old = readers;
+
+                ReaderId<K, V>[] upd = newReaders(old.length + 1);
 
-                readers.add(reader);
+                System.arraycopy(old, 0, upd, 0, idx);
+                System.arraycopy(old, idx, upd, idx + 1, old.length - idx);
 
-                // Seal.
-                readers = Collections.unmodifiableList(readers);
+                upd[idx] = reader;
+
+                readers = upd;
 
                 txFut = reader.getOrCreateTxFuture(cctx);
 
@@ -324,6 +380,8 @@ import java.util.*;
                 ret = true;
             }
             else {
+                reader = readers[idx];
+
                 txFut = reader.txFuture();
 
                 long id = reader.messageId();
@@ -400,17 +458,23 @@ import java.util.*;
         try {
             checkObsolete();
 
-            ReaderId reader = readerId(nodeId);
+            int idx = readerIndex(nodeId);
 
-            if (reader == null || reader.messageId() > msgId)
+            if (idx < 0 || readers[idx].messageId() > msgId)
                 return false;
 
-            readers = new LinkedList<ReaderId<K, V>>(readers);
+            ReaderId<K, V>[] old = readers;
 
-            readers.remove(reader);
+            if (old.length == 1)
+                readers = noReaders();
+            else {
+                ReaderId<K, V>[] upd = newReaders(old.length - 1);
 
-            // Seal.
-            readers = Collections.unmodifiableList(readers);
+                System.arraycopy(old, 0, upd, 0, idx);
+                System.arraycopy(old, idx + 1, upd, idx, old.length - idx - 1);
+
+                readers = upd;
+            }
 
             return true;
         }
@@ -426,7 +490,7 @@ import java.util.*;
         lock();
 
         try {
-            readers = Collections.emptyList();
+            readers = noReaders();
         }
         finally {
             unlock();
@@ -443,29 +507,35 @@ import java.util.*;
         try {
             checkObsolete();
 
-            if (!readers.isEmpty()) {
-                List<ReaderId> rmv = null;
+            ReaderId<K, V>[] readers = this.readers;
 
-                for (ReaderId reader : readers) {
-                    if (!cctx.discovery().alive(reader.nodeId())) {
-                        if (rmv == null)
-                            rmv = new LinkedList<ReaderId>();
+            ReaderId<K, V>[] alive = null;
 
-                        rmv.add(reader);
-                    }
-                }
+            int cnt = 0;
 
-                if (rmv != null) {
-                    readers = new LinkedList<ReaderId<K, V>>(readers);
+            for (int i = 0; i < readers.length; i++) {
+                if (cctx.discovery().alive(readers[i].nodeId())) {
+                    if (alive != null)
+                        alive[cnt] = readers[i];
 
-                    for (ReaderId rdr : rmv)
-                        readers.remove(rdr);
+                    cnt++;
+                }
+                else if (alive == null) {
+                    // Copy alive readers lazily, preserving order.
+                    alive = newReaders(readers.length - 1);
 
-                    readers = Collections.unmodifiableList(readers);
+                    System.arraycopy(readers, 0, alive, 0, i);
                 }
             }
 
-            return readers;
+            if (alive != null) {
+                if (cnt < alive.length)
+                    alive = cnt == 0 ? noReaders() : Arrays.copyOf(alive, cnt);
+
+                this.readers = readers = alive;
+            }
+
+            return Collections.unmodifiableList(Arrays.asList(readers));
         }
         finally {
             unlock();
@@ -477,15 +547,30 @@ import java.util.*;
         lock();
 
         try {
-            checkReaders();
-
-            return !readers.isEmpty();
+            return !checkReaders().isEmpty();
         }
         finally {
             unlock();
         }
     }
 
+    /**
+     * @param size Array size.
+     * @return New readers array.
+     */
+    @SuppressWarnings({"unchecked"})
+    private ReaderId<K, V>[] newReaders(int size) {
+        return (ReaderId<K, V>[])new ReaderId<?, ?>[size];
+    }
+
+    /**
+     * @return Shared empty readers array.
+     */
+    @SuppressWarnings({"unchecked"})
+    private ReaderId<K, V>[] noReaders() {
+        return (ReaderId<K, V>[])NO_READERS;
+    }
+
     /**
      * Sets mappings into entry.
      *
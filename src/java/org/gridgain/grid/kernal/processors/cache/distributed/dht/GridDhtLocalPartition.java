@@ -12,16 +12,19 @@ package org.gridgain.grid.kernal.processors.cache.distributed.dht;
 import org.gridgain.grid.*;
 import org.gridgain.grid.kernal.processors.cache.*;
 import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.*;
 import org.gridgain.grid.util.future.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 import java.util.concurrent.locks.*;
 
+import static org.gridgain.grid.GridSystemProperties.*;
 import static org.gridgain.grid.kernal.processors.cache.distributed.dht.GridDhtPartitionState.*;
 
 /**
@@ -34,6 +37,43 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     /** Static logger to avoid re-creation. */
     private static final AtomicReference<GridLogger> logRef = new AtomicReference<GridLogger>();
 
+    /** Default number of recent removals kept in removal history. */
+    private static final int DFLT_RMV_HIST_SIZE = 128;
+
+    /** Number of recent removals kept in removal history. */
+    private static final int RMV_HIST_SIZE;
+
+    /**
+     * Initializes removal history size.
+     */
+    static {
+        String s = X.getSystemOrEnv(GG_DHT_PART_RMV_HISTORY_SIZE, Integer.toString(DFLT_RMV_HIST_SIZE));
+
+        int size;
+
+        try {
+            size = Integer.parseInt(s);
+        }
+        catch (NumberFormatException ignore) {
+            size = DFLT_RMV_HIST_SIZE;
+        }
+
+        RMV_HIST_SIZE = size;
+    }
+
+    /**
+     * Initial update counter of last created partition. Every partition instance counts from its
+     * own range, so counter of evicted and re-created partition is never mistaken for a valid one.
+     */
+    private static final AtomicLong cntrBase = new AtomicLong();
+
+    /** Orders entries by update counter. */
+    private static final Comparator<T2<Long, ?>> CNTR_CMP = new Comparator<T2<Long, ?>>() {
+        @Override public int compare(T2<Long, ?> o1, T2<Long, ?> o2) {
+            return o1.get1().compareTo(o2.get1());
+        }
+    };
+
     /** Partition ID. */
     private final int id;
 
@@ -46,8 +86,8 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     @GridToStringExclude
     private final GridFutureAdapter<?> rent;
 
-    /** */
-    private final ConcurrentMap<K, GridDhtCacheEntry<K, V>> map = new ConcurrentHashMap<K, GridDhtCacheEntry<K,V>>();
+    /** Number of non-obsolete entries (entries themselves are kept in partition segment of cache map). */
+    private final AtomicInteger size = new AtomicInteger();
 
     /** */
     private final GridCacheContext<K, V> cctx;
@@ -65,6 +105,26 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     /** Lock. */
     private final Lock lock = new ReentrantLock();
 
+    /** Initial update counter. */
+    private final long initCntr = cntrBase.addAndGet(1L << 32);
+
+    /** Update counter, incremented on every entry update. */
+    private final AtomicLong updCntr = new AtomicLong(initCntr);
+
+    /** Recent removals keyed by update counter (key and version of removed entry). */
+    @GridToStringExclude
+    private final ConcurrentNavigableMap<Long, T2<K, GridCacheVersion>> rmvHist =
+        new ConcurrentSkipListMap<Long, T2<K, GridCacheVersion>>();
+
+    /** Removal history size. */
+    private final AtomicInteger rmvHistSize = new AtomicInteger();
+
+    /** Counter of latest removal which is no longer in history. */
+    private final AtomicLong rmvHistFloor = new AtomicLong(initCntr);
+
+    /** ID of node partition is being preloaded from and update counter on that node local data is in sync with. */
+    private volatile T2<UUID, Long> sync;
+
     /**
      * @param cctx Context.
      * @param id Partition ID.
@@ -109,26 +169,35 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     }
 
     /**
-     * @return Entries belonging to partition.
+     * Gets entries belonging to partition. Entries are read directly from partition
+     * segment of cache map, so other partitions are not touched.
+     *
+     * @return Entries belonging to partition (weakly consistent view).
      */
     public Collection<GridDhtCacheEntry<K, V>> entries() {
-        return map.values();
+        return new AbstractCollection<GridDhtCacheEntry<K, V>>() {
+            @Override public Iterator<GridDhtCacheEntry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override public int size() {
+                return size.get();
+            }
+        };
     }
 
     /**
      * @return {@code True} if partition is empty.
      */
     public boolean isEmpty() {
-        return map.isEmpty();
+        return size.get() == 0;
     }
 
     /**
-     * Note that this method has O(N) complexity.
-     *
-     * @return Number of entries in thsis partition.
+     * @return Number of entries in this partition.
      */
     public int size() {
-        return map.size();
+        return size.get();
     }
 
     /**
@@ -147,23 +216,154 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
         GridDhtPartitionState state = state();
 
         assert state != EVICTED : "Adding entry to invalid partition: " + this;
+        assert entry.partition() == id;
 
-        map.put(entry.key(), entry);
+        size.incrementAndGet();
     }
 
     /**
+     * Must be called exactly once per entry after it was marked obsolete.
+     *
      * @param entry Entry to remove.
      */
     void onRemoved(GridDhtCacheEntry<K, V> entry) {
         assert entry.obsolete();
+        assert entry.partition() == id;
 
-        // Make sure to remove exactly this entry.
-        map.remove(entry.key(), entry);
+        size.decrementAndGet();
 
         // Attempt to evict.
         tryEvict();
     }
 
+    /**
+     * Callback invoked under entry lock whenever entry value is changed.
+     *
+     * @return Update counter assigned to the change.
+     */
+    long nextUpdateCounter() {
+        return updCntr.incrementAndGet();
+    }
+
+    /**
+     * Callback invoked under entry lock after entry value was removed.
+     *
+     * @param key Removed key.
+     * @param ver Version of removal.
+     * @param cntr Update counter assigned to removal.
+     */
+    void onValueRemoved(K key, GridCacheVersion ver, long cntr) {
+        if (RMV_HIST_SIZE <= 0) {
+            raiseFloor(cntr);
+
+            return;
+        }
+
+        rmvHist.put(cntr, new T2<K, GridCacheVersion>(key, ver));
+
+        if (rmvHistSize.incrementAndGet() > RMV_HIST_SIZE) {
+            Map.Entry<Long, T2<K, GridCacheVersion>> e = rmvHist.pollFirstEntry();
+
+            if (e != null) {
+                rmvHistSize.decrementAndGet();
+
+                raiseFloor(e.getKey());
+            }
+        }
+    }
+
+    /**
+     * @param cntr Counter of removal dropped from history.
+     */
+    private void raiseFloor(long cntr) {
+        while (true) {
+            long floor = rmvHistFloor.get();
+
+            if (floor >= cntr || rmvHistFloor.compareAndSet(floor, cntr))
+                return;
+        }
+    }
+
+    /**
+     * @return Update counter.
+     */
+    public long updateCounter() {
+        return updCntr.get();
+    }
+
+    /**
+     * Gets keys removed after given counter together with versions of removals.
+     *
+     * @param from Counter to get removals after (exclusive).
+     * @return Removed keys mapped to versions of removals or {@code null} if given counter
+     *      does not belong to this partition or history no longer has all removals made after it.
+     */
+    @Nullable public Map<K, GridCacheVersion> removals(long from) {
+        if (from < rmvHistFloor.get() || from > updCntr.get())
+            return null;
+
+        Map<K, GridCacheVersion> res = new LinkedHashMap<K, GridCacheVersion>();
+
+        for (T2<K, GridCacheVersion> t : rmvHist.tailMap(from, false).values())
+            res.put(t.get1(), t.get2());
+
+        // History could have been trimmed while being copied.
+        return from < rmvHistFloor.get() ? null : res;
+    }
+
+    /**
+     * Gets entries updated after given counter in order of their update counters. Receiver of
+     * the first entries only is in sync with counter of the last received one, as every entry
+     * updated later gets greater counter.
+     *
+     * @param from Counter to get entries updated after (exclusive) or {@code -1} for all entries.
+     * @return Entries together with their update counters, ordered by counter.
+     */
+    public List<T2<Long, GridDhtCacheEntry<K, V>>> entries(long from) {
+        List<T2<Long, GridDhtCacheEntry<K, V>>> res = new ArrayList<T2<Long, GridDhtCacheEntry<K, V>>>(size());
+
+        for (GridDhtCacheEntry<K, V> e : entries()) {
+            // Counter is read once, so that concurrent updates do not break ordering.
+            long cntr = e.updateCounter();
+
+            if (cntr > from)
+                res.add(new T2<Long, GridDhtCacheEntry<K, V>>(cntr, e));
+        }
+
+        Collections.sort(res, CNTR_CMP);
+
+        return res;
+    }
+
+    /**
+     * Records that local data of this moving partition has all entries of given
+     * node partition up to given update counter.
+     *
+     * @param nodeId Supplier node ID.
+     * @param cntr Update counter of partition on supplier node or {@code -1} if
+     *      entries were preloaded without new sync point.
+     */
+    public void onPreloaded(UUID nodeId, long cntr) {
+        assert nodeId != null;
+
+        if (cntr >= 0)
+            sync = new T2<UUID, Long>(nodeId, cntr);
+        else if (syncCounter(nodeId) < 0)
+            // Sync point with other node does not account for entries from this one.
+            sync = null;
+    }
+
+    /**
+     * @param nodeId Supplier node ID.
+     * @return Update counter of partition on given node local data is in sync with
+     *      or {@code -1} if partition was not preloaded from given node.
+     */
+    public long syncCounter(UUID nodeId) {
+        T2<UUID, Long> sync = this.sync;
+
+        return sync != null && sync.get1().equals(nodeId) ? sync.get2() : -1;
+    }
+
     /**
      * Locks partition.
      */
@@ -319,7 +519,7 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
      * @return Future for evict attempt.
      */
     private GridFuture<Boolean> tryEvictAsync() {
-        if (map.isEmpty() && state.compareAndSet(RENTING, EVICTED, 0, 0)) {
+        if (isEmpty() && state.compareAndSet(RENTING, EVICTED, 0, 0)) {
             if (log.isDebugEnabled())
                 log.debug("Evicted partition: " + this);
 
@@ -343,7 +543,7 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
         if (state.getReference() == RENTING && state.getStamp() == 0)
             clearAll();
 
-        if (map.isEmpty() && state.compareAndSet(RENTING, EVICTED, 0, 0)) {
+        if (isEmpty() && state.compareAndSet(RENTING, EVICTED, 0, 0)) {
             if (log.isDebugEnabled())
                 log.debug("Evicted partition: " + this);
 
@@ -375,12 +575,12 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
     private void clearAll() {
         GridCacheVersion clearVer = cctx.versions().next();
 
-        for (Iterator<GridDhtCacheEntry<K, V>> it = map.values().iterator(); it.hasNext();) {
+        for (Iterator<GridDhtCacheEntry<K, V>> it = new EntryIterator(); it.hasNext();) {
             GridDhtCacheEntry<K, V> cached = it.next();
 
             try {
-                if (cached.clear(clearVer, cctx.isSwapEnabled(), true, CU.<K, V>empty()))
-                    it.remove();
+                // Cleared entry gets removed from partition once it is marked obsolete.
+                cached.clear(clearVer, cctx.isSwapEnabled(), true, CU.<K, V>empty());
             }
             catch (GridException e) {
                 U.error(log, "Failed to clear cache entry for evicted partition: " + cached, e);
@@ -412,7 +612,62 @@ public class GridDhtLocalPartition<K, V> implements Comparable<GridDhtLocalParti
         return S.toString(GridDhtLocalPartition.class, this,
             "state", state(),
             "reservations", reservations(),
-            "empty", map.isEmpty(),
+            "size", size.get(),
+            "updCntr", updCntr.get(),
             "createTime", U.format(createTime));
     }
+
+    /**
+     * Iterator over non-obsolete entries of partition segment of cache map.
+     */
+    private class EntryIterator implements Iterator<GridDhtCacheEntry<K, V>> {
+        /** Segment iterator. */
+        private final Iterator<GridCacheMapEntry<K, V>> it = cctx.dht().partitionIterator(id);
+
+        /** Next entry. */
+        private GridDhtCacheEntry<K, V> next;
+
+        /**
+         *
+         */
+        EntryIterator() {
+            advance();
+        }
+
+        /**
+         * Moves to next non-obsolete entry.
+         */
+        private void advance() {
+            next = null;
+
+            while (next == null && it.hasNext()) {
+                GridDhtCacheEntry<K, V> e = (GridDhtCacheEntry<K, V>)it.next();
+
+                if (!e.obsolete())
+                    next = e;
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean hasNext() {
+            return next != null;
+        }
+
+        /** {@inheritDoc} */
+        @Override public GridDhtCacheEntry<K, V> next() {
+            if (next == null)
+                throw new NoSuchElementException();
+
+            GridDhtCacheEntry<K, V> e = next;
+
+            advance();
+
+            return e;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
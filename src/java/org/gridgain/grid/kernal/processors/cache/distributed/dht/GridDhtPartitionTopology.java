@@ -133,6 +133,11 @@ public interface GridDhtPartitionTopology<K, V> {
      */
     public GridDhtPartitionFullMap partitionMap(boolean onlyActive);
 
+    /**
+     * @return Update sequences of node partition maps known to local node.
+     */
+    public Map<UUID, Long> partitionMapSequences();
+
     /**
      * @param topVer Topology version.
      * @param e Entry added to cache.
@@ -140,11 +145,6 @@ public interface GridDhtPartitionTopology<K, V> {
      */
     public GridDhtLocalPartition<K, V> onAdded(long topVer, GridDhtCacheEntry<K, V> e);
 
-    /**
-     * @param e Entry removed from cache.
-     */
-    public void onRemoved(GridDhtCacheEntry<K, V> e);
-
     /**
      * @param exchId Exchange ID.
      * @param partMap Update partition map.
@@ -53,7 +53,7 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
     private GridDhtPartitionFullMap node2part;
 
     /** Partition to node map. */
-    private Map<Integer, Set<UUID>> part2node = new HashMap<Integer, Set<UUID>>();
+    private GridIntMap<Set<UUID>> part2node = new GridIntMap<Set<UUID>>();
 
     /** */
     private GridDhtPartitionExchangeId lastExchangeId;
@@ -495,20 +495,6 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
         return loc;
     }
 
-    /** {@inheritDoc} */
-    @Override public void onRemoved(GridDhtCacheEntry<K, V> e) {
-        /*
-         * Make sure not to acquire any locks here as this method
-         * may be called from sensitive synchronization blocks.
-         * ===================================================
-         */
-
-        GridDhtLocalPartition<K, V> loc = localPartition(e.key(), false);
-
-        if (loc != null)
-            loc.onRemoved(e);
-    }
-
     /** {@inheritDoc} */
     @Override public GridDhtPartitionMap localPartitionMap() {
         lock.readLock().lock();
@@ -641,6 +627,26 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
         return updateSeq.get();
     }
 
+    /** {@inheritDoc} */
+    @Override public Map<UUID, Long> partitionMapSequences() {
+        lock.readLock().lock();
+
+        try {
+            if (node2part == null || !node2part.valid())
+                return Collections.emptyMap();
+
+            Map<UUID, Long> seqs = new HashMap<UUID, Long>(node2part.size(), 1.0f);
+
+            for (Map.Entry<UUID, GridDhtPartitionMap> e : node2part.entrySet())
+                seqs.put(e.getKey(), e.getValue().updateSequence());
+
+            return seqs;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public GridDhtPartitionFullMap partitionMap(boolean onlyActive) {
         lock.readLock().lock();
@@ -689,6 +695,22 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
             if (exchId != null)
                 lastExchangeId = exchId;
 
+            if (!partMap.unchanged().isEmpty()) {
+                // Put back node maps omitted by sender as already known to local node.
+                if (node2part != null) {
+                    for (UUID nodeId : partMap.unchanged()) {
+                        GridDhtPartitionMap cur = node2part.get(nodeId);
+
+                        if (cur != null)
+                            partMap.put(nodeId, cur);
+                    }
+                }
+
+                partMap.restored();
+            }
+
+            GridDhtPartitionFullMap old = node2part;
+
             if (node2part != null) {
                 for (GridDhtPartitionMap part : node2part.values()) {
                     GridDhtPartitionMap newPart = partMap.get(part.nodeId());
@@ -719,23 +741,40 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
 
             node2part = partMap;
 
-            Map<Integer, Set<UUID>> p2n = new HashMap<Integer, Set<UUID>>(cctx.partitions(), 1.0f);
+            if (old == null || !old.valid())
+                part2node = partitionToNodes(partMap);
+            else {
+                // Only apply differences, so that merge cost depends on number of changed node maps.
+                for (Map.Entry<UUID, GridDhtPartitionMap> e : old.entrySet()) {
+                    if (!partMap.containsKey(e.getKey()))
+                        removeMappings(e.getKey(), e.getValue().keySet());
+                }
+
+                for (Map.Entry<UUID, GridDhtPartitionMap> e : partMap.entrySet()) {
+                    UUID nodeId = e.getKey();
 
-            for (Map.Entry<UUID, GridDhtPartitionMap> e : partMap.entrySet()) {
-                for (Integer p : e.getValue().keySet()) {
-                    Set<UUID> ids = p2n.get(p);
+                    GridDhtPartitionMap cur = old.get(nodeId);
+                    GridDhtPartitionMap parts = e.getValue();
+
+                    if (cur == parts)
+                        continue;
+
+                    for (Integer p : parts.keySet()) {
+                        Set<UUID> ids = part2node.get(p);
 
-                    if (ids == null)
-                        // Initialize HashSet to size 3 in anticipation that there won't be
-                        // more than 3 nodes per partitions.
-                        p2n.put(p, ids = new HashSet<UUID>(3));
+                        if (ids == null)
+                            // Initialize HashSet to size 3 in anticipation that there won't be
+                            // more than 3 nodes per partitions.
+                            part2node.put(p, ids = new HashSet<UUID>(3));
+
+                        ids.add(nodeId);
+                    }
 
-                    ids.add(e.getKey());
+                    if (cur != null)
+                        removeMappings(nodeId, F.view(cur.keySet(), F.notIn(parts.keySet())));
                 }
             }
 
-            part2node = p2n;
-
             boolean changed = checkEvictions(updateSeq);
 
             consistencyCheck();
@@ -804,7 +843,7 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
 
             node2part.put(parts.nodeId(), parts);
 
-            part2node = new HashMap<Integer, Set<UUID>>(part2node);
+            part2node = new GridIntMap<Set<UUID>>(part2node);
 
             // Add new mappings.
             for (Integer p : parts.keySet()) {
@@ -842,6 +881,46 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
         }
     }
 
+    /**
+     * @param partMap Full partition map.
+     * @return Partition to node mappings built from scratch.
+     */
+    private GridIntMap<Set<UUID>> partitionToNodes(GridDhtPartitionFullMap partMap) {
+        GridIntMap<Set<UUID>> p2n = new GridIntMap<Set<UUID>>(cctx.partitions());
+
+        for (Map.Entry<UUID, GridDhtPartitionMap> e : partMap.entrySet()) {
+            for (Integer p : e.getValue().keySet()) {
+                Set<UUID> ids = p2n.get(p);
+
+                if (ids == null)
+                    // Initialize HashSet to size 3 in anticipation that there won't be
+                    // more than 3 nodes per partitions.
+                    p2n.put(p, ids = new HashSet<UUID>(3));
+
+                ids.add(e.getKey());
+            }
+        }
+
+        return p2n;
+    }
+
+    /**
+     * @param nodeId Node ID.
+     * @param parts Partitions to remove node mappings for.
+     */
+    private void removeMappings(UUID nodeId, Iterable<Integer> parts) {
+        for (Integer p : parts) {
+            Set<UUID> ids = part2node.get(p);
+
+            if (ids != null) {
+                ids.remove(nodeId);
+
+                if (ids.isEmpty())
+                    part2node.remove(p);
+            }
+        }
+    }
+
     /**
      * @param updateSeq Update sequence.
      * @return Checks if any of the local partitions need to be evicted.
@@ -995,7 +1074,7 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
             else
                 node2part = new GridDhtPartitionFullMap(node2part, node2part.updateSequence());
 
-            part2node = new HashMap<Integer, Set<UUID>>(part2node);
+            part2node = new GridIntMap<Set<UUID>>(part2node);
 
             GridDhtPartitionMap parts = node2part.remove(nodeId);
 
@@ -1114,13 +1193,14 @@ class GridDhtPartitionTopologyImpl<K, V> implements GridDhtPartitionTopology<K,
                 }
             }
 
-            for (Map.Entry<Integer, Set<UUID>> e : part2node.entrySet()) {
-                for (UUID nodeId : e.getValue()) {
+            for (GridIntIterator it = part2node.keys(); it.hasNext();) {
+                int p = it.next();
+
+                for (UUID nodeId : part2node.get(p)) {
                     GridDhtPartitionMap map = node2part.get(nodeId);
 
-                    assert map != null : "Failed consistency check [part=" + e.getKey() + ", nodeId=" + nodeId + ']';
-                    assert map.containsKey(e.getKey()) : "Failed consistency check [part=" + e.getKey() +
-                        ", nodeId=" + nodeId + ']';
+                    assert map != null : "Failed consistency check [part=" + p + ", nodeId=" + nodeId + ']';
+                    assert map.containsKey(p) : "Failed consistency check [part=" + p + ", nodeId=" + nodeId + ']';
                 }
             }
         }
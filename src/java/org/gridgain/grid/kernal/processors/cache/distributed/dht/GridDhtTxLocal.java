@@ -86,6 +86,9 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
     /** Initialize to {@code true} to be safe. */
     private boolean needsCompletedVers = true;
 
+    /** Flag indicating that near node requested to commit on prepare. */
+    private boolean onePhaseCommit;
+
     /**
      * Empty constructor required for {@link Externalizable}.
      */
@@ -203,6 +206,20 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
         return explicitLock;
     }
 
+    /**
+     * @return {@code True} if near node requested to commit on prepare.
+     */
+    boolean onePhaseCommit() {
+        return onePhaseCommit;
+    }
+
+    /**
+     * @param onePhaseCommit {@code True} if near node requested to commit on prepare.
+     */
+    void onePhaseCommit(boolean onePhaseCommit) {
+        this.onePhaseCommit = onePhaseCommit;
+    }
+
     /**
      * @return DHT thread ID.
      */
@@ -772,7 +789,7 @@ public class GridDhtTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> implemen
     /** {@inheritDoc} */
     @SuppressWarnings({"CatchGenericClass", "ThrowableInstanceNeverThrown"})
     @Override public void finish(boolean commit) throws GridException {
-        assert nearFinFutId != null || isInvalidate() || !commit || isSystemInvalidate();
+        assert nearFinFutId != null || onePhaseCommit || isInvalidate() || !commit || isSystemInvalidate();
         assert nearMiniId != null;
 
         if (log.isDebugEnabled())
@@ -10,6 +10,7 @@
 package org.gridgain.grid.kernal.processors.cache.distributed.dht;
 
 import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
 import org.gridgain.grid.kernal.processors.cache.*;
 import org.gridgain.grid.kernal.processors.cache.distributed.*;
 import org.gridgain.grid.kernal.processors.cache.distributed.near.*;
@@ -348,9 +349,15 @@ public final class GridDhtTxPrepareFuture<K, V> extends GridCompoundIdentityFutu
 
         this.err.compareAndSet(null, err);
 
+        // Commit right away if near node asked for it and there are no other nodes to prepare.
+        boolean onePhase = this.err.get() == null && tx.onePhaseCommit() && !tx.isRollbackOnly() &&
+            dhtMap.isEmpty() && nearMap.isEmpty() && F.isEmpty(tx.invalidPartitions()) &&
+            !tx.nearNodeId().equals(cctx.nodeId());
+
         if (replied.compareAndSet(false, true)) {
             try {
-                if (!tx.nearNodeId().equals(cctx.nodeId())) {
+                // In one-phase case reply is sent once transaction is committed.
+                if (!onePhase && !tx.nearNodeId().equals(cctx.nodeId())) {
                     // Send reply back to originating near node.
                     GridDistributedBaseMessage<K, V> res = new GridNearTxPrepareResponse<K, V>(tx.nearXidVersion(),
                         tx.nearFutureId(), tx.nearMiniId(), tx.xidVersion(), tx.invalidPartitions(), this.err.get());
@@ -380,9 +387,62 @@ public final class GridDhtTxPrepareFuture<K, V> extends GridCompoundIdentityFutu
             }
         }
 
+        if (onePhase) {
+            boolean ret = onComplete();
+
+            if (ret)
+                commitOnePhase();
+
+            return ret;
+        }
+
         return onComplete();
     }
 
+    /**
+     * Commits prepared transaction without waiting for finish request and replies
+     * to near node once commit is done.
+     */
+    private void commitOnePhase() {
+        if (log.isDebugEnabled())
+            log.debug("Committing transaction on prepare: " + tx);
+
+        tx.commitAsync().listenAsync(new CI1<GridFuture<GridCacheTx>>() {
+            @Override public void apply(GridFuture<GridCacheTx> f) {
+                Throwable err = null;
+
+                try {
+                    f.get();
+                }
+                catch (GridException e) {
+                    U.error(log, "Failed to commit transaction on prepare: " + tx, e);
+
+                    err = e;
+                }
+
+                GridNearTxPrepareResponse<K, V> res = new GridNearTxPrepareResponse<K, V>(tx.nearXidVersion(),
+                    tx.nearFutureId(), tx.nearMiniId(), tx.xidVersion(), tx.invalidPartitions(), err);
+
+                res.onePhaseCommitted(err == null);
+
+                GridCacheVersion min = tx.minVersion();
+
+                res.completedVersions(cctx.tm().committedVersions(min), cctx.tm().rolledbackVersions(min));
+
+                try {
+                    cctx.io().send(tx.nearNodeId(), res);
+                }
+                catch (GridTopologyException ignored) {
+                    if (log.isDebugEnabled())
+                        log.debug("Near node left grid before one-phase commit reply was sent: " + tx.nearNodeId());
+                }
+                catch (GridException e) {
+                    U.error(log, "Failed to send one-phase commit reply to near node: " + tx.nearNodeId(), e);
+                }
+            }
+        });
+    }
+
     /**
      * @param f Future.
      * @return {@code True} if mini-future.
@@ -10,9 +10,11 @@
 package org.gridgain.grid.kernal.processors.cache.distributed.dht.preloader;
 
 import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
@@ -29,7 +31,11 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
 
     /** Partition. */
     @GridToStringInclude
-    private Set<Integer> parts;
+    private GridIntSet parts;
+
+    /** Update counters of supplier partitions local data is in sync with, for partially preloaded partitions. */
+    @GridToStringInclude
+    private Map<Integer, Long> cntrs;
 
     /** Topic. */
     private String topic;
@@ -55,6 +61,7 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
     GridDhtPartitionDemandMessage(GridDhtPartitionDemandMessage<K, V> copy) {
         updateSeq = copy.updateSeq;
         parts = copy.parts;
+        cntrs = copy.cntrs;
         topic = copy.topic;
         timeout = copy.timeout;
         workerId = copy.workerId;
@@ -77,16 +84,30 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
      */
     void addPartition(int p) {
         if (parts == null)
-            parts = new HashSet<Integer>();
+            parts = new GridIntSet();
 
         parts.add(p);
     }
 
+    /**
+     * @param cntrs Update counters of supplier partitions local data is in sync with,
+     *      so that supplier may send only entries changed after.
+     */
+    void counters(@Nullable Map<Integer, Long> cntrs) {
+        this.cntrs = cntrs;
+    }
+
+    /**
+     * @return Update counters of supplier partitions local data is in sync with.
+     */
+    Map<Integer, Long> counters() {
+        return cntrs == null ? Collections.<Integer, Long>emptyMap() : cntrs;
+    }
 
     /**
      * @return Partition.
      */
-    Set<Integer> partitions() {
+    GridIntSet partitions() {
         return parts;
     }
 
@@ -143,7 +164,7 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         super.writeExternal(out);
 
-        assert !F.isEmpty(parts);
+        assert parts != null && !parts.isEmpty();
         assert !F.isEmpty(topic);
         assert workerId >= 0;
 
@@ -151,7 +172,8 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
         out.writeLong(updateSeq);
         out.writeLong(timeout);
 
-        U.writeCollection(out, parts);
+        U.writeGridIntSet(out, parts);
+        U.writeIntKeyMap(out, cntrs);
         U.writeString(out, topic);
     }
 
@@ -163,10 +185,11 @@ class GridDhtPartitionDemandMessage<K, V> extends GridCacheMessage<K, V> {
         updateSeq = in.readLong();
         timeout = in.readLong();
 
-        parts = U.readSet(in);
+        parts = U.readGridIntSet(in);
+        cntrs = U.readIntKeyMap(in);
         topic = U.readString(in);
 
-        assert !F.isEmpty(parts);
+        assert parts != null && !parts.isEmpty();
         assert !F.isEmpty(topic);
         assert workerId >= 0;
     }
@@ -516,21 +516,49 @@ public class GridDhtPartitionDemandPool<K, V> {
          * @param pick Node picked for preloading.
          * @param p Partition.
          * @param entry Preloaded entry.
+         * @param delta {@code True} if entry is a part of partition delta.
          * @return {@code False} if partition has become invalid during preloading.
          * @throws GridInterruptedException If interrupted.
          */
-        private boolean preloadEntry(GridNode pick, int p, GridCacheEntryInfo<K, V> entry)
+        private boolean preloadEntry(GridNode pick, int p, GridCacheEntryInfo<K, V> entry, boolean delta)
             throws GridException, GridInterruptedException {
             try {
                 GridCacheEntryEx<K, V> cached = null;
 
                 try {
+                    if (delta && entry.value() == null) {
+                        cached = cctx.dht().peekEx(entry.key());
+
+                        // Remove only if local entry is older than removed one.
+                        if (cached != null && cached.version().isLess(entry.version())) {
+                            if (log.isDebugEnabled())
+                                log.debug("Preloading removal [key=" + entry.key() + ", part=" + p + ", node=" +
+                                    pick.id() + ']');
+
+                            cached.innerRemove(null, cctx.nodeId(), cctx.nodeId(), false, true, CU.<K, V>empty());
+                        }
+
+                        return true;
+                    }
+
                     cached = cctx.dht().entryEx(entry.key());
 
                     if (log.isDebugEnabled())
                         log.debug("Preloading key [key=" + entry.key() + ", part=" + p + ", node=" + pick.id() + ']');
 
-                    if (cached.initialValue(
+                    GridCacheVersion curVer = cached.version();
+
+                    // Delta may bring newer value of entry preloaded before.
+                    if (delta && !cached.isNew()) {
+                        if (curVer.isLess(entry.version()) && cached.versionedValue(entry.value(), curVer,
+                            entry.version())) {
+                            cctx.evicts().touch(cached);
+                        }
+                        else if (log.isDebugEnabled())
+                            log.debug("Preloading entry is already up to date (will ignore) [key=" + cached.key() +
+                                ", part=" + p + ']');
+                    }
+                    else if (cached.initialValue(
                         entry.value(),
                         entry.valueBytes(),
                         entry.version(),
@@ -566,6 +594,35 @@ public class GridDhtPartitionDemandPool<K, V> {
             return true;
         }
 
+        /**
+         * @param node Supplier node.
+         * @param parts Demanded partitions.
+         * @return Update counters of supplier partitions local data is in sync with
+         *      or {@code null} if there are none.
+         */
+        @Nullable private Map<Integer, Long> syncCounters(GridNode node, GridIntSet parts) {
+            Map<Integer, Long> cntrs = null;
+
+            for (GridIntIterator it = parts.iterator(); it.hasNext();) {
+                int p = it.next();
+
+                GridDhtLocalPartition<K, V> part = top.localPartition(p, -1, false);
+
+                if (part != null && part.state() == MOVING) {
+                    long cntr = part.syncCounter(node.id());
+
+                    if (cntr >= 0) {
+                        if (cntrs == null)
+                            cntrs = new HashMap<Integer, Long>();
+
+                        cntrs.put(p, cntr);
+                    }
+                }
+            }
+
+            return cntrs;
+        }
+
         /**
          * @param idx Unique index for this topic.
          * @return Topic name for partition.
@@ -584,7 +641,7 @@ public class GridDhtPartitionDemandPool<K, V> {
          * @throws GridTopologyException If node left.
          * @throws GridException If failed to send message.
          */
-        private Set<Integer> demandFromNode(GridNode node, long topVer,  GridDhtPartitionDemandMessage<K, V> d,
+        private GridIntSet demandFromNode(GridNode node, long topVer,  GridDhtPartitionDemandMessage<K, V> d,
             GridDhtPartitionsExchangeFuture<K, V> exchFut) throws InterruptedException, GridException {
             GridRichNode loc = cctx.localNode();
 
@@ -593,10 +650,10 @@ public class GridDhtPartitionDemandPool<K, V> {
             d.topic(topic(cntr));
             d.workerId(id);
 
-            Set<Integer> missed = new HashSet<Integer>();
+            GridIntSet missed = new GridIntSet();
 
             // Get the same collection that will be sent in the message.
-            Collection<Integer> remaining = d.partitions();
+            GridIntSet remaining = d.partitions();
 
             // Drain queue before processing a new node.
             drainQueue();
@@ -623,6 +680,8 @@ public class GridDhtPartitionDemandPool<K, V> {
                     // Create copy.
                     d = new GridDhtPartitionDemandMessage<K, V>(d);
 
+                    d.counters(syncCounters(node, d.partitions()));
+
                     long timeout = GridDhtPartitionDemandPool.this.timeout.get();
 
                     d.timeout(timeout);
@@ -708,8 +767,8 @@ public class GridDhtPartitionDemandPool<K, V> {
                         }
 
                         // Preload.
-                        for (Map.Entry<Integer, Collection<GridCacheEntryInfo<K, V>>> e : supply.infos().entrySet()) {
-                            int p = e.getKey();
+                        for (GridIntIterator it = supply.infos().keys(); it.hasNext();) {
+                            int p = it.next();
 
                             if (cctx.belongs(p, topVer, loc)) {
                                 GridDhtLocalPartition<K, V> part = top.localPartition(p, topVer, true);
@@ -727,8 +786,10 @@ public class GridDhtPartitionDemandPool<K, V> {
                                     try {
                                         Collection<Integer> invalidParts = new GridLeanSet<Integer>();
 
+                                        boolean delta = supply.isDelta(p);
+
                                         // Loop through all received entries and try to preload them.
-                                        for (GridCacheEntryInfo<K, V> entry : e.getValue()) {
+                                        for (GridCacheEntryInfo<K, V> entry : supply.infos().get(p)) {
                                             if (!invalidParts.contains(p)) {
                                                 if (!part.preloadingPermitted(entry.key(), entry.version())) {
                                                     if (log.isDebugEnabled())
@@ -739,7 +800,7 @@ public class GridDhtPartitionDemandPool<K, V> {
                                                     continue;
                                                 }
 
-                                                if (!preloadEntry(node, p, entry)) {
+                                                if (!preloadEntry(node, p, entry, delta)) {
                                                     invalidParts.add(p);
 
                                                     if (log.isDebugEnabled())
@@ -751,7 +812,12 @@ public class GridDhtPartitionDemandPool<K, V> {
 
                                         watch.step("PRELOADED_ENTRIES");
 
-                                        boolean last = supply.last().contains(p);
+                                        // Remember how far local data is in sync with supplier
+                                        // to demand only delta if preloading gets interrupted.
+                                        if (!invalidParts.contains(p))
+                                            part.onPreloaded(node.id(), supply.counter(p));
+
+                                        boolean last = supply.isLast(p);
 
                                         // If message was last for this partition,
                                         // then we take ownership.
@@ -788,14 +854,19 @@ public class GridDhtPartitionDemandPool<K, V> {
                             }
                         }
 
-                        remaining.removeAll(s.supply().missed());
+                        GridIntSet supplyMissed = s.supply().missed();
 
-                        // Only request partitions based on latest topology version.
-                        missed.addAll(F.view(s.supply().missed(), new P1<Integer>() {
-                            @Override public boolean apply(Integer p) {
-                                return cctx.belongs(p, cctx.localNode());
+                        if (supplyMissed != null) {
+                            remaining.removeAll(supplyMissed);
+
+                            // Only request partitions based on latest topology version.
+                            for (GridIntIterator it = supplyMissed.iterator(); it.hasNext();) {
+                                int p = it.next();
+
+                                if (cctx.belongs(p, cctx.localNode()))
+                                    missed.add(p);
                             }
-                        }));
+                        }
 
                         if (remaining.isEmpty())
                             break; // While.
@@ -881,7 +952,7 @@ public class GridDhtPartitionDemandPool<K, V> {
                         // While.
                         // =====
                         while (!isCancelled() && !topologyChanged() && !resync) {
-                            Collection<Integer> missed = new HashSet<Integer>();
+                            GridIntList missed = new GridIntList();
 
                             // For.
                             // ===
@@ -897,14 +968,14 @@ public class GridDhtPartitionDemandPool<K, V> {
                                     continue; // For.
 
                                 try {
-                                    Set<Integer> set = demandFromNode(node, assigns.topologyVersion(), d, exchFut);
+                                    GridIntSet set = demandFromNode(node, assigns.topologyVersion(), d, exchFut);
 
                                     if (!set.isEmpty()) {
                                         if (log.isDebugEnabled())
                                             log.debug("Missed partitions from node [nodeId=" + node.id() + ", missed=" +
                                                 set + ']');
 
-                                        missed.addAll(set);
+                                        missed.addAll(set.iterator());
                                     }
                                 }
                                 catch (GridInterruptedException e) {
@@ -16,6 +16,10 @@ import java.util.*;
 
 /**
  * Full partition map.
+ * <p>
+ * Map may be a delta built for particular receiver (see {@link #delta(Map)}): node maps which
+ * receiver is known to have with the same update sequence are omitted and only their node IDs
+ * are sent. Receiver restores such maps from its own copy before merging.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.09012012
@@ -31,6 +35,9 @@ public class GridDhtPartitionFullMap extends HashMap<UUID, GridDhtPartitionMap>
     /** Update sequence number. */
     private long updateSeq;
 
+    /** IDs of nodes whose maps were omitted as unchanged for receiver. */
+    private Collection<UUID> unchanged;
+
     /**
      * @param nodeId Node ID.
      * @param nodeOrder Node order.
@@ -92,6 +99,45 @@ public class GridDhtPartitionFullMap extends HashMap<UUID, GridDhtPartitionMap>
         // No-op.
     }
 
+    /**
+     * Creates delta of this map for receiver which has node maps with given update sequences.
+     *
+     * @param known Update sequences of node maps known to receiver.
+     * @return Map with unchanged node maps omitted.
+     */
+    public GridDhtPartitionFullMap delta(Map<UUID, Long> known) {
+        GridDhtPartitionFullMap m = new GridDhtPartitionFullMap(nodeId, nodeOrder, updateSeq);
+
+        for (Map.Entry<UUID, GridDhtPartitionMap> e : entrySet()) {
+            Long seq = known.get(e.getKey());
+
+            if (seq != null && seq == e.getValue().updateSequence()) {
+                if (m.unchanged == null)
+                    m.unchanged = new ArrayList<UUID>();
+
+                m.unchanged.add(e.getKey());
+            }
+            else
+                m.put(e.getKey(), e.getValue());
+        }
+
+        return m;
+    }
+
+    /**
+     * @return IDs of nodes whose maps were omitted as unchanged, or empty collection if this is not a delta.
+     */
+    public Collection<UUID> unchanged() {
+        return unchanged == null ? Collections.<UUID>emptyList() : unchanged;
+    }
+
+    /**
+     * Clears unchanged node IDs once omitted node maps were put back by receiver.
+     */
+    public void restored() {
+        unchanged = null;
+    }
+
     /**
      * @return {@code True} if properly initialized.
      */
@@ -159,7 +205,12 @@ public class GridDhtPartitionFullMap extends HashMap<UUID, GridDhtPartitionMap>
         out.writeLong(nodeOrder);
         out.writeLong(updateSeq);
 
-        U.writeMap(out, this);
+        out.writeInt(size());
+
+        for (GridDhtPartitionMap m : values())
+            m.writeCompact(out);
+
+        U.writeUuids(out, unchanged);
     }
 
     /** {@inheritDoc} */
@@ -169,7 +220,17 @@ public class GridDhtPartitionFullMap extends HashMap<UUID, GridDhtPartitionMap>
         nodeOrder = in.readLong();
         updateSeq = in.readLong();
 
-        putAll(U.<UUID, GridDhtPartitionMap>readMap(in));
+        int size = in.readInt();
+
+        for (int i = 0; i < size; i++) {
+            GridDhtPartitionMap m = new GridDhtPartitionMap();
+
+            m.readCompact(in);
+
+            put(m.nodeId(), m);
+        }
+
+        unchanged = U.readUuids(in);
     }
 
     /** {@inheritDoc} */
@@ -225,6 +286,6 @@ public class GridDhtPartitionFullMap extends HashMap<UUID, GridDhtPartitionMap>
 
     /** {@inheritDoc} */
     @Override public String toString() {
-        return S.toString(GridDhtPartitionFullMap.class, this, "size", size());
+        return S.toString(GridDhtPartitionFullMap.class, this, "size", size(), "unchangedCnt", unchanged().size());
     }
 }
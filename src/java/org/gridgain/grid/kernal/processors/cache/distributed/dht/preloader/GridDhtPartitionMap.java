@@ -17,6 +17,11 @@ import java.util.*;
 
 /**
  * Partition map.
+ * <p>
+ * Map is serialized in compact form: states are laid out in array indexed by partition
+ * number (with {@code 0} standing for absent partition) which is then run-length encoded,
+ * so that message size depends on number of state changes along partition range rather
+ * than on number of boxed map entries.
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.09012012
@@ -106,20 +111,120 @@ public class GridDhtPartitionMap extends HashMap<Integer, GridDhtPartitionState>
 
     /** {@inheritDoc} */
     @Override public void writeExternal(ObjectOutput out) throws IOException {
+        writeCompact(out);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException {
+        readCompact(in);
+    }
+
+    /**
+     * Writes map in run-length encoded form.
+     *
+     * @param out Output.
+     * @throws IOException If failed.
+     */
+    void writeCompact(DataOutput out) throws IOException {
         U.writeUuid(out, nodeId);
 
         out.writeLong(updateSeq);
 
-        U.writeMap(out, this);
+        int len = 0;
+
+        for (Integer p : keySet())
+            len = Math.max(len, p + 1);
+
+        byte[] states = new byte[len];
+
+        for (Map.Entry<Integer, GridDhtPartitionState> e : entrySet())
+            states[e.getKey()] = (byte)(e.getValue().ordinal() + 1);
+
+        writeVarInt(out, len);
+
+        for (int i = 0; i < len;) {
+            byte state = states[i];
+
+            int run = 1;
+
+            while (i + run < len && states[i + run] == state)
+                run++;
+
+            out.writeByte(state);
+
+            writeVarInt(out, run);
+
+            i += run;
+        }
     }
 
-    /** {@inheritDoc} */
-    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+    /**
+     * Reads map written by {@link #writeCompact(DataOutput)}.
+     *
+     * @param in Input.
+     * @throws IOException If failed.
+     */
+    void readCompact(DataInput in) throws IOException {
         nodeId = U.readUuid(in);
 
         updateSeq = in.readLong();
 
-        putAll(U.<Integer, GridDhtPartitionState>readMap(in));
+        int len = readVarInt(in);
+
+        for (int i = 0; i < len;) {
+            int code = in.readByte();
+
+            int run = readVarInt(in);
+
+            if (code != 0) {
+                GridDhtPartitionState state = GridDhtPartitionState.fromOrdinal(code - 1);
+
+                if (state == null)
+                    throw new IOException("Invalid partition state code: " + code);
+
+                for (int p = i; p < i + run; p++)
+                    put(p, state);
+            }
+
+            i += run;
+        }
+    }
+
+    /**
+     * @param out Output.
+     * @param val Non-negative value to write.
+     * @throws IOException If failed.
+     */
+    private static void writeVarInt(DataOutput out, int val) throws IOException {
+        assert val >= 0;
+
+        while ((val & ~0x7F) != 0) {
+            out.writeByte((val & 0x7F) | 0x80);
+
+            val >>>= 7;
+        }
+
+        out.writeByte(val);
+    }
+
+    /**
+     * @param in Input.
+     * @return Value written by {@link #writeVarInt(DataOutput, int)}.
+     * @throws IOException If failed.
+     */
+    private static int readVarInt(DataInput in) throws IOException {
+        int val = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readByte();
+
+            val |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+                return val;
+        }
+
+        throw new IOException("Malformed variable length integer.");
     }
 
     /** {@inheritDoc} */
@@ -11,8 +11,10 @@ package org.gridgain.grid.kernal.processors.cache.distributed.dht.preloader;
 
 import org.gridgain.grid.*;
 import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
@@ -35,19 +37,28 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
 
     /** Partitions that have been fully sent. */
     @GridToStringInclude
-    private Set<Integer> last;
+    private GridIntSet last;
 
     /** Partitions which were not found. */
     @GridToStringInclude
-    private Set<Integer> missed;
+    private GridIntSet missed;
+
+    /** Partitions sent as entries changed after counter known to demander, including removals. */
+    @GridToStringInclude
+    private GridIntSet delta;
+
+    /** Update counters of partitions demander is in sync with once this message is preloaded. */
+    @GridToStringInclude
+    private Map<Integer, Long> cntrs;
 
     /** Entries. */
-    private Map<Integer, Collection<GridCacheEntryInfo<K, V>>> infos =
-        new HashMap<Integer, Collection<GridCacheEntryInfo<K,V>>>();
+    @GridToStringExclude
+    private GridIntMap<Collection<GridCacheEntryInfo<K, V>>> infos =
+        new GridIntMap<Collection<GridCacheEntryInfo<K, V>>>();
 
     /** Cache entries in serialized form. */
     @GridToStringExclude
-    private Map<Integer, Collection<byte[]>> infoBytes = new HashMap<Integer, Collection<byte[]>>();
+    private GridIntMap<Collection<byte[]>> infoBytes = new GridIntMap<Collection<byte[]>>();
 
     /** Message size. */
     private transient int msgSize;
@@ -110,10 +121,11 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
     }
 
     /**
-     * @return Flag to indicate last message for partition.
+     * @param p Partition.
+     * @return {@code True} if this message is last for given partition.
      */
-    Set<Integer> last() {
-        return last == null ? Collections.<Integer>emptySet() : last;
+    boolean isLast(int p) {
+        return last != null && last.contains(p);
     }
 
     /**
@@ -121,7 +133,7 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
      */
     void last(int p) {
         if (last == null)
-            last = new HashSet<Integer>();
+            last = new GridIntSet();
 
         if (last.add(p)) {
             msgSize += 4;
@@ -139,23 +151,66 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
      */
     void missed(int p) {
         if (missed == null)
-            missed = new HashSet<Integer>();
+            missed = new GridIntSet();
 
         if (missed.add(p))
             msgSize += 4;
     }
 
     /**
-     * @return Missed partitions.
+     * @return Missed partitions or {@code null} if there are none.
+     */
+    @Nullable GridIntSet missed() {
+        return missed;
+    }
+
+    /**
+     * @param p Partition sent as delta.
+     */
+    void delta(int p) {
+        if (delta == null)
+            delta = new GridIntSet();
+
+        if (delta.add(p))
+            msgSize += 4;
+    }
+
+    /**
+     * @param p Partition.
+     * @return {@code True} if partition is sent as delta.
      */
-    Set<Integer> missed() {
-        return missed == null ? Collections.<Integer>emptySet() : missed;
+    boolean isDelta(int p) {
+        return delta != null && delta.contains(p);
+    }
+
+    /**
+     * @param p Partition.
+     * @param cntr Update counter of partition on supplier demander is in sync with once this message is preloaded.
+     */
+    void counter(int p, long cntr) {
+        assert cntr >= 0;
+
+        if (cntrs == null)
+            cntrs = new HashMap<Integer, Long>();
+
+        if (cntrs.put(p, cntr) == null)
+            msgSize += 12;
+    }
+
+    /**
+     * @param p Partition.
+     * @return Update counter of partition on supplier or {@code -1} if not known.
+     */
+    long counter(int p) {
+        Long cntr = cntrs == null ? null : cntrs.get(p);
+
+        return cntr == null ? -1 : cntr;
     }
 
     /**
      * @return Entries.
      */
-    Map<Integer, Collection<GridCacheEntryInfo<K, V>>> infos() {
+    GridIntMap<Collection<GridCacheEntryInfo<K, V>>> infos() {
         return infos;
     }
 
@@ -202,12 +257,14 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
     @Override public void p2pUnmarshal(GridCacheContext<K, V> ctx, ClassLoader ldr) throws GridException {
         super.p2pUnmarshal(ctx, ldr);
 
-        for (Map.Entry<Integer, Collection<byte[]>> e : infoBytes.entrySet()) {
-            Collection<GridCacheEntryInfo<K, V>> entries = unmarshalCollection(e.getValue(), ctx, ldr);
+        for (GridIntIterator it = infoBytes.keys(); it.hasNext();) {
+            int p = it.next();
+
+            Collection<GridCacheEntryInfo<K, V>> entries = unmarshalCollection(infoBytes.get(p), ctx, ldr);
 
             unmarshalInfos(entries, ctx, ldr);
 
-            infos.put(e.getKey(), entries);
+            infos.put(p, entries);
         }
     }
 
@@ -219,10 +276,13 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
         out.writeLong(updateSeq);
         out.writeBoolean(ack);
 
-        U.writeIntCollection(out, last);
-        U.writeIntCollection(out, missed);
+        U.writeGridIntSet(out, last);
+        U.writeGridIntSet(out, missed);
+        U.writeGridIntSet(out, delta);
 
-        U.writeIntKeyMap(out, infoBytes);
+        U.writeIntKeyMap(out, cntrs);
+
+        infoBytes.writeExternal(out);
     }
 
     /** {@inheritDoc} */
@@ -233,10 +293,13 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
         updateSeq = in.readLong();
         ack = in.readBoolean();
 
-        last = U.readIntSet(in);
-        missed = U.readIntSet(in);
+        last = U.readGridIntSet(in);
+        missed = U.readGridIntSet(in);
+        delta = U.readGridIntSet(in);
+
+        cntrs = U.readIntKeyMap(in);
 
-        infoBytes = U.readIntKeyMap(in);
+        infoBytes.readExternal(in);
 
         assert workerId >= 0;
         assert updateSeq > 0;
@@ -253,7 +316,7 @@ class GridDhtPartitionSupplyMessage<K, V> extends GridCacheMessage<K, V> {
     @Override public String toString() {
         return S.toString(GridDhtPartitionSupplyMessage.class, this,
             "size", size(),
-            "parts", infos.keySet(),
+            "parts", infos.isEmpty() ? infoBytes.keySet() : infos.keySet(),
             "super", super.toString());
     }
 }
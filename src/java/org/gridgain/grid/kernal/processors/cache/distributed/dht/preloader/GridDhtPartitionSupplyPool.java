@@ -13,6 +13,7 @@ import org.gridgain.grid.*;
 import org.gridgain.grid.kernal.processors.cache.*;
 import org.gridgain.grid.kernal.processors.cache.distributed.dht.*;
 import org.gridgain.grid.lang.*;
+import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.logger.*;
 import org.gridgain.grid.thread.*;
 import org.gridgain.grid.typedef.*;
@@ -228,7 +229,9 @@ public class GridDhtPartitionSupplyPool<K, V> {
                 try {
                     boolean ack = false;
 
-                    for (Integer part : d.partitions()) {
+                    for (GridIntIterator it = d.partitions().iterator(); it.hasNext();) {
+                        int part = it.next();
+
                         GridDhtLocalPartition<K, V> loc = top.localPartition(part, -1, false);
 
                         if (loc == null || loc.state() != OWNING || !loc.reserve()) {
@@ -244,7 +247,54 @@ public class GridDhtPartitionSupplyPool<K, V> {
                         }
 
                         try {
-                            for (GridCacheEntryEx<K, V> e : loc.entries()) {
+                            // Take counter before reading entries, so that every entry changed
+                            // after it is sent again on next delta preloading.
+                            long cntr = loc.updateCounter();
+
+                            Long from = d.counters().get(part);
+
+                            // If demander already has entries up to some counter, send only entries
+                            // changed after it, as long as all removals made since are in history.
+                            Map<K, GridCacheVersion> rmvs = from == null ? null : loc.removals(from);
+
+                            // Counter demander is in sync with once entries sent so far are preloaded.
+                            long synced = rmvs == null ? -1 : from;
+
+                            if (rmvs != null) {
+                                s.delta(part);
+
+                                if (log.isDebugEnabled())
+                                    log.debug("Supplying partition delta [part=" + part + ", from=" + from +
+                                        ", to=" + cntr + ", rmvs=" + rmvs.size() + ", demander=" +
+                                        msg.senderId() + ']');
+
+                                for (Map.Entry<K, GridCacheVersion> rmv : rmvs.entrySet()) {
+                                    if (s.messageSize() >= cctx.config().getPreloadBatchSize()) {
+                                        ack = true;
+
+                                        if (!reply(node, d, s))
+                                            // Demander left grid.
+                                            break;
+
+                                        watch.step("SUPPLY_SENT");
+
+                                        s = new GridDhtPartitionSupplyMessage<K, V>(d.workerId(),
+                                            d.updateSequence());
+
+                                        s.delta(part);
+                                    }
+
+                                    // Entry without value is a removal.
+                                    GridCacheEntryInfo<K, V> info = new GridCacheEntryInfo<K, V>();
+
+                                    info.key(rmv.getKey());
+                                    info.version(rmv.getValue());
+
+                                    s.addEntry(part, info, cctx);
+                                }
+                            }
+
+                            for (T2<Long, GridDhtCacheEntry<K, V>> t : loc.entries(synced)) {
                                 if (!cctx.belongs(part, node)) {
                                     // Demander no longer needs this partition, so we send '-1' partition and move on.
                                     s.missed(part);
@@ -261,6 +311,9 @@ public class GridDhtPartitionSupplyPool<K, V> {
                                 if (s.messageSize() >= cctx.config().getPreloadBatchSize()) {
                                     ack = true;
 
+                                    if (synced >= 0)
+                                        s.counter(part, synced);
+
                                     if (!reply(node, d, s))
                                         // Demander left grid.
                                         break;
@@ -268,16 +321,24 @@ public class GridDhtPartitionSupplyPool<K, V> {
                                     watch.step("SUPPLY_SENT");
 
                                     s = new GridDhtPartitionSupplyMessage<K, V>(d.workerId(), d.updateSequence());
+
+                                    if (rmvs != null)
+                                        s.delta(part);
                                 }
 
-                                GridCacheEntryInfo<K, V> info = e.info();
+                                GridCacheEntryInfo<K, V> info = t.get2().info();
 
                                 if (info != null && info.value() != null)
                                     s.addEntry(part, info, cctx);
+
+                                // Entries go in order of counters, so every entry changed up to
+                                // this one (but not after sending started) has been sent.
+                                synced = Math.min(t.get1(), cntr);
                             }
 
                             // Mark as last supply message.
                             s.last(part);
+                            s.counter(part, cntr);
 
                             if (ack) {
                                 s.markAck();
@@ -432,6 +432,9 @@ public class GridDhtPartitionsExchangeFuture<K, V> extends GridFutureAdapter<Obj
     private void sendLocalPartitions(GridNode node, @Nullable GridDhtPartitionExchangeId id) throws GridException {
         GridDhtPartitionsSingleMessage<K, V> m = new GridDhtPartitionsSingleMessage<K, V>(id, top.localPartitionMap());
 
+        // Let oldest node know which maps we already have, so it can reply with delta.
+        m.knownSequences(top.partitionMapSequences());
+
         if (log.isDebugEnabled())
             log.debug("Sending local partitions [nodeId=" + node.id() + ", exchId=" + exchId + ", msg=" + m + ']');
 
@@ -446,13 +449,38 @@ public class GridDhtPartitionsExchangeFuture<K, V> extends GridFutureAdapter<Obj
      */
     private void sendAllPartitions(Collection<? extends GridNode> nodes, GridDhtPartitionExchangeId id,
         GridDhtPartitionFullMap partMap) throws GridException {
+        Collection<GridNode> full = new ArrayList<GridNode>(nodes.size());
+
+        for (GridNode n : nodes) {
+            GridDhtPartitionsSingleMessage<K, V> single = msgs.get(n.id());
+
+            Map<UUID, Long> known = single != null ? single.knownSequences() : null;
+
+            if (known == null || known.isEmpty()) {
+                full.add(n);
+
+                continue;
+            }
+
+            // Send only node maps which changed since receiver reported its state.
+            GridDhtPartitionsFullMessage<K, V> m = new GridDhtPartitionsFullMessage<K, V>(id, partMap.delta(known));
+
+            if (log.isDebugEnabled())
+                log.debug("Sending delta partition map [nodeId=" + n.id() + ", exchId=" + exchId + ", msg=" + m + ']');
+
+            cctx.io().safeSend(F.asList(n), m, null);
+        }
+
+        if (full.isEmpty())
+            return;
+
         GridDhtPartitionsFullMessage<K, V> m = new GridDhtPartitionsFullMessage<K, V>(id, partMap);
 
         if (log.isDebugEnabled())
-            log.debug("Sending full partition map [nodeIds=" + F.viewReadOnly(nodes, F.node2id()) +
+            log.debug("Sending full partition map [nodeIds=" + F.viewReadOnly(full, F.node2id()) +
                 ", exchId=" + exchId + ", msg=" + m + ']');
 
-        cctx.io().safeSend(nodes, m, null);
+        cctx.io().safeSend(full, m, null);
     }
 
     /**
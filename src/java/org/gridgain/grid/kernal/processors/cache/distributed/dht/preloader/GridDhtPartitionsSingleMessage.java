@@ -11,8 +11,10 @@ package org.gridgain.grid.kernal.processors.cache.distributed.dht.preloader;
 
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
+import java.util.*;
 
 /**
  * Information about partitions of a single node.
@@ -25,6 +27,10 @@ public class GridDhtPartitionsSingleMessage<K, V> extends GridDhtPartitionsAbstr
     @GridToStringInclude
     private GridDhtPartitionMap parts;
 
+    /** Update sequences of node maps known to sender, used to send it delta of full map. */
+    @GridToStringExclude
+    private Map<UUID, Long> knownSeqs;
+
     /**
      * Required by {@link Externalizable}.
      */
@@ -49,11 +55,35 @@ public class GridDhtPartitionsSingleMessage<K, V> extends GridDhtPartitionsAbstr
         return parts;
     }
 
+    /**
+     * @return Update sequences of node maps known to sender or {@code null} if not provided.
+     */
+    @Nullable public Map<UUID, Long> knownSequences() {
+        return knownSeqs;
+    }
+
+    /**
+     * @param knownSeqs Update sequences of node maps known to sender.
+     */
+    public void knownSequences(Map<UUID, Long> knownSeqs) {
+        this.knownSeqs = knownSeqs;
+    }
+
     /** {@inheritDoc} */
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         super.writeExternal(out);
 
         out.writeObject(parts);
+
+        out.writeInt(knownSeqs == null ? -1 : knownSeqs.size());
+
+        if (knownSeqs != null) {
+            for (Map.Entry<UUID, Long> e : knownSeqs.entrySet()) {
+                U.writeUuid(out, e.getKey());
+
+                out.writeLong(e.getValue());
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -61,6 +91,15 @@ public class GridDhtPartitionsSingleMessage<K, V> extends GridDhtPartitionsAbstr
         super.readExternal(in);
 
         parts = (GridDhtPartitionMap)in.readObject();
+
+        int size = in.readInt();
+
+        if (size >= 0) {
+            knownSeqs = new HashMap<UUID, Long>(size, 1.0f);
+
+            for (int i = 0; i < size; i++)
+                knownSeqs.put(U.readUuid(in), in.readLong());
+        }
     }
 
     /** {@inheritDoc} */
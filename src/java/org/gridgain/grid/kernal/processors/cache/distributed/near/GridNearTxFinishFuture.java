@@ -236,7 +236,15 @@ public final class GridNearTxFinishFuture<K, V> extends GridCompoundIdentityFutu
      */
     @SuppressWarnings({"unchecked"})
     void finish() {
-        if (mappings != null) {
+        if (commit && tx.onePhaseCommitted()) {
+            if (log.isDebugEnabled())
+                log.debug("Transaction was committed on prepare, will not send finish request: " + tx);
+
+            markInitialized();
+
+            onComplete();
+        }
+        else if (mappings != null) {
             finish(mappings.values());
 
             markInitialized();
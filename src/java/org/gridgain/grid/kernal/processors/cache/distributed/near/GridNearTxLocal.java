@@ -56,6 +56,12 @@ class GridNearTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
     private ConcurrentMap<UUID, GridDistributedTxMapping<K, V>> mappings =
         new ConcurrentHashMap<UUID, GridDistributedTxMapping<K, V>>(16, 0.75f, 1);
 
+    /** Flag indicating that prepare is initiated by commit, so commit decision can be sent with it. */
+    private volatile boolean commitOnPrepare;
+
+    /** Flag indicating that primary node committed transaction on prepare. */
+    private volatile boolean onePhaseCommitted;
+
     /**
      * Empty constructor required for {@link Externalizable}.
      */
@@ -124,6 +130,27 @@ class GridNearTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
         return mappings;
     }
 
+    /**
+     * @return {@code True} if prepare is initiated by commit.
+     */
+    boolean commitOnPrepare() {
+        return commitOnPrepare;
+    }
+
+    /**
+     * @return {@code True} if primary node committed transaction on prepare.
+     */
+    boolean onePhaseCommitted() {
+        return onePhaseCommitted;
+    }
+
+    /**
+     * Marks transaction as committed on primary node on prepare.
+     */
+    void onOnePhaseCommitted() {
+        onePhaseCommitted = true;
+    }
+
     /**
      * @param key Key.
      * @return Mapping for the key.
@@ -536,6 +563,10 @@ class GridNearTxLocal<K, V> extends GridCacheTxLocalAdapter<K, V> {
         if (log.isDebugEnabled())
             log.debug("Committing near local tx: " + this);
 
+        // If prepare was not called explicitly, primary may commit right on prepare.
+        if (prepFut.get() == null)
+            commitOnPrepare = true;
+
         prepareAsync();
 
         GridNearTxFinishFuture<K, V> fut = commitFut.get();
@@ -300,7 +300,7 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
     void prepare() {
         prepare(
             tx.optimistic() && tx.serializable() ? tx.readEntries() : Collections.<GridCacheTxEntry<K, V>>emptyList(),
-            tx.writeEntries(), Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap());
+            tx.writeEntries(), Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap(), tx.commitOnPrepare());
 
         markInitialized();
     }
@@ -309,10 +309,11 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
      * @param reads Read entries.
      * @param writes Write entries.
      * @param mapped Previous mappings.
+     * @param commit {@code True} if transaction may be committed on prepare.
      */
     @SuppressWarnings({"unchecked"})
     private void prepare(Iterable<GridCacheTxEntry<K, V>> reads, Iterable<GridCacheTxEntry<K, V>> writes,
-        Map<UUID, GridDistributedTxMapping<K, V>> mapped) {
+        Map<UUID, GridDistributedTxMapping<K, V>> mapped, boolean commit) {
         Collection<GridRichNode> nodes = CU.allNodes(cctx, tx.topologyVersion());
 
         ConcurrentMap<UUID, GridDistributedTxMapping<K, V>> mappings =
@@ -336,6 +337,10 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
 
         cctx.mvcc().recheckPendingLocks();
 
+        // If all keys are mapped to a single remote primary, it can commit right on
+        // prepare, provided it does not have to involve backups or readers.
+        boolean onePhase = commit && !tx.ec() && mappings.size() == 1;
+
         // Create mini futures.
         for (final GridDistributedTxMapping<K, V> m : mappings.values()) {
             if (isDone())
@@ -347,7 +352,7 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
 
             GridNearTxPrepareRequest<K, V> req = new GridNearTxPrepareRequest<K, V>(futId, tx.topologyVersion(), tx,
                 tx.optimistic() && tx.serializable() ? m.reads() : null, m.writes(), tx.syncCommit(),
-                tx.syncRollback());
+                tx.syncRollback(), onePhase && !n.isLocal() && !m.explicitLock());
 
             // If this is the primary node for the keys.
             if (n.isLocal()) {
@@ -388,7 +393,7 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
 
                                 // Remap.
                                 prepare(readRemaps, writeRemaps,
-                                    Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap());
+                                    Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap(), false);
                             }
 
                             if (!m.empty()) {
@@ -584,7 +589,8 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
                 tx.removeMapping(m.node().id());
 
                 // Remap.
-                prepare(m.reads(), m.writes(), new T2<UUID, GridDistributedTxMapping<K, V>>(m.node().id(), m));
+                prepare(m.reads(), m.writes(), new T2<UUID, GridDistributedTxMapping<K, V>>(m.node().id(), m),
+                    false);
 
                 onDone(tx);
             }
@@ -613,7 +619,8 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
                         addRemaps(m.node().id(), invalidParts, m.writes(), writeRemaps);
 
                         // Remap.
-                        prepare(readRemaps, writeRemaps, Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap());
+                        prepare(readRemaps, writeRemaps, Collections.<UUID, GridDistributedTxMapping<K,V>>emptyMap(),
+                            false);
                     }
 
                     if (!m.empty()) {
@@ -623,6 +630,13 @@ public final class GridNearTxPrepareFuture<K, V> extends GridCompoundIdentityFut
                         tx.orderCompleted(m, res.committedVersions(), res.rolledbackVersions());
                     }
 
+                    if (res.onePhaseCommitted()) {
+                        assert F.isEmpty(invalidParts) : "Transaction with invalid partitions was committed on " +
+                            "prepare [res=" + res + ", tx=" + tx + ']';
+
+                        tx.onOnePhaseCommitted();
+                    }
+
                     // Finish this mini future.
                     onDone(tx);
                 }
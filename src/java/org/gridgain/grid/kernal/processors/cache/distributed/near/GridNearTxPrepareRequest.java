@@ -40,6 +40,9 @@ public class GridNearTxPrepareRequest<K, V> extends GridDistributedTxPrepareRequ
     /** Topology version. */
     private long topVer;
 
+    /** Commit transaction on prepare if no other nodes are involved. */
+    private boolean onePhaseCommit;
+
     /**
      * Empty constructor required for {@link Externalizable}.
      */
@@ -55,10 +58,11 @@ public class GridNearTxPrepareRequest<K, V> extends GridDistributedTxPrepareRequ
      * @param writes Write entries.
      * @param syncCommit Synchronous commit.
      * @param syncRollback Synchronous rollback.
+     * @param onePhaseCommit Commit transaction on prepare if no other nodes are involved.
      */
     public GridNearTxPrepareRequest(GridUuid futId, long topVer, GridCacheTxEx<K, V> tx,
         Collection<GridCacheTxEntry<K, V>> reads, Collection<GridCacheTxEntry<K, V>> writes,
-        boolean syncCommit, boolean syncRollback) {
+        boolean syncCommit, boolean syncRollback, boolean onePhaseCommit) {
         super(tx, reads, writes);
 
         assert futId != null;
@@ -67,6 +71,11 @@ public class GridNearTxPrepareRequest<K, V> extends GridDistributedTxPrepareRequ
         this.topVer = topVer;
         this.syncCommit = syncCommit;
         this.syncRollback = syncRollback;
+        this.onePhaseCommit = onePhaseCommit;
+
+        // Finish request is not sent for one-phase commit, so pass commit version here.
+        if (onePhaseCommit)
+            commitVersion(tx.commitVersion());
     }
 
     /**
@@ -111,6 +120,14 @@ public class GridNearTxPrepareRequest<K, V> extends GridDistributedTxPrepareRequ
         return topVer;
     }
 
+    /**
+     * @return {@code True} if primary node should commit transaction right after prepare
+     *      if it does not need to involve backup or reader nodes.
+     */
+    public boolean onePhaseCommit() {
+        return onePhaseCommit;
+    }
+
     /**
      * @param ctx Cache context.
      */
@@ -150,6 +167,7 @@ public class GridNearTxPrepareRequest<K, V> extends GridDistributedTxPrepareRequ
         out.writeLong(topVer);
         out.writeBoolean(syncCommit);
         out.writeBoolean(syncRollback);
+        out.writeBoolean(onePhaseCommit);
     }
 
     /** {@inheritDoc} */
@@ -165,6 +183,7 @@ public class GridNearTxPrepareRequest<K, V> extends GridDistributedTxPrepareRequ
         topVer = in.readLong();
         syncCommit = in.readBoolean();
         syncRollback = in.readBoolean();
+        onePhaseCommit = in.readBoolean();
     }
 
     /** {@inheritDoc} */
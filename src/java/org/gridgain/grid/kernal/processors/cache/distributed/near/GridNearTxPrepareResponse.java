@@ -38,6 +38,9 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
     @GridToStringInclude
     private Collection<Integer> invalidParts;
 
+    /** Flag indicating that transaction was committed on prepare. */
+    private boolean onePhaseCommitted;
+
     /**
      * Empty constructor required by {@link Externalizable}.
      */
@@ -95,6 +98,21 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
         return invalidParts;
     }
 
+    /**
+     * @return {@code True} if transaction was committed on prepare and finish request
+     *      should not be sent.
+     */
+    public boolean onePhaseCommitted() {
+        return onePhaseCommitted;
+    }
+
+    /**
+     * @param onePhaseCommitted {@code True} if transaction was committed on prepare.
+     */
+    public void onePhaseCommitted(boolean onePhaseCommitted) {
+        this.onePhaseCommitted = onePhaseCommitted;
+    }
+
     /** {@inheritDoc} */
     @Override public void writeExternal(ObjectOutput out) throws IOException {
         super.writeExternal(out);
@@ -109,6 +127,8 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
         CU.writeVersion(out, dhtVer);
 
         U.writeIntCollection(out, invalidParts);
+
+        out.writeBoolean(onePhaseCommitted);
     }
 
     /** {@inheritDoc} */
@@ -123,6 +143,8 @@ public class GridNearTxPrepareResponse<K, V> extends GridDistributedTxPrepareRes
 
         invalidParts = U.readIntSet(in);
 
+        onePhaseCommitted = in.readBoolean();
+
         assert futId != null;
         assert miniId != null;
         assert dhtVer != null;
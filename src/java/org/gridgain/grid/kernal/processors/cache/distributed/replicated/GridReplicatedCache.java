@@ -37,6 +37,9 @@ public class GridReplicatedCache<K, V> extends GridDistributedCacheAdapter<K, V>
     /** Preloader. */
     private GridCachePreloader<K, V> preldr;
 
+    /** Entries grouped by partition. */
+    private GridReplicatedPartitionIndex<K, V> partIdx;
+
     /**
      * Empty constructor required by {@link Externalizable}.
      */
@@ -69,6 +72,8 @@ public class GridReplicatedCache<K, V> extends GridDistributedCacheAdapter<K, V>
 
     /** {@inheritDoc} */
     @Override protected void init() {
+        partIdx = new GridReplicatedPartitionIndex<K, V>(ctx.partitions());
+
         map.setEntryFactory(new GridCacheMapEntryFactory<K, V>() {
             /** {@inheritDoc} */
             @Override public GridCacheMapEntry<K, V> create(GridCacheContext<K, V> ctx, long topVer, K key, int hash,
@@ -155,6 +160,13 @@ public class GridReplicatedCache<K, V> extends GridDistributedCacheAdapter<K, V>
             preldr.onKernalStop();
     }
 
+    /**
+     * @return Entries grouped by partition.
+     */
+    public GridReplicatedPartitionIndex<K, V> partitionIndex() {
+        return partIdx;
+    }
+
     /** {@inheritDoc} */
     @Override protected GridCachePreloader<K, V> preloader() {
         return preldr;
@@ -30,10 +30,24 @@ public class GridReplicatedCacheEntry<K, V> extends GridDistributedCacheEntry<K,
     public GridReplicatedCacheEntry(GridCacheContext<K, V> ctx, K key, int hash, V val, GridCacheMapEntry<K, V> next,
         long ttl) {
         super(ctx, key, hash, val, next, ttl);
+
+        // Record this entry with partition index.
+        ctx.replicated().partitionIndex().onAdded(this);
     }
 
     /** {@inheritDoc} */
     @Override public boolean isReplicated() {
         return true;
     }
+
+    /** {@inheritDoc} */
+    @Override public boolean markObsolete(GridCacheVersion ver, boolean clear) {
+        boolean rmv = super.markObsolete(ver, clear);
+
+        // Remove this entry from partition index.
+        if (rmv)
+            cctx.replicated().partitionIndex().onRemoved(this);
+
+        return rmv;
+    }
 }
@@ -0,0 +1,93 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.distributed.replicated;
+
+import org.gridgain.grid.typedef.internal.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Index of replicated cache entries grouped by partition. Every entry registers itself
+ * on creation and unregisters once marked obsolete, the same way DHT entries are kept in
+ * their local partitions, so that preloader can iterate over single partition without
+ * scanning the whole cache.
+ * <p>
+ * Partition maps are created lazily on first entry added.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridReplicatedPartitionIndex<K, V> {
+    /** Partition maps. */
+    private final AtomicReferenceArray<ConcurrentMap<K, GridReplicatedCacheEntry<K, V>>> parts;
+
+    /**
+     * @param partCnt Number of partitions.
+     */
+    public GridReplicatedPartitionIndex(int partCnt) {
+        assert partCnt > 0;
+
+        parts = new AtomicReferenceArray<ConcurrentMap<K, GridReplicatedCacheEntry<K, V>>>(partCnt);
+    }
+
+    /**
+     * @return Number of partitions.
+     */
+    public int partitions() {
+        return parts.length();
+    }
+
+    /**
+     * @param entry Entry to add.
+     */
+    void onAdded(GridReplicatedCacheEntry<K, V> entry) {
+        int p = entry.partition();
+
+        ConcurrentMap<K, GridReplicatedCacheEntry<K, V>> map = parts.get(p);
+
+        if (map == null &&
+            !parts.compareAndSet(p, null, map = new ConcurrentHashMap<K, GridReplicatedCacheEntry<K, V>>()))
+            map = parts.get(p);
+
+        assert map != null;
+
+        map.put(entry.key(), entry);
+    }
+
+    /**
+     * @param entry Entry to remove.
+     */
+    void onRemoved(GridReplicatedCacheEntry<K, V> entry) {
+        assert entry.obsolete();
+
+        ConcurrentMap<K, GridReplicatedCacheEntry<K, V>> map = parts.get(entry.partition());
+
+        // Make sure to remove exactly this entry.
+        if (map != null)
+            map.remove(entry.key(), entry);
+    }
+
+    /**
+     * @param p Partition.
+     * @return Entries belonging to partition (weakly consistent view).
+     */
+    public Collection<GridReplicatedCacheEntry<K, V>> entries(int p) {
+        ConcurrentMap<K, GridReplicatedCacheEntry<K, V>> map = parts.get(p);
+
+        return map == null ? Collections.<GridReplicatedCacheEntry<K, V>>emptyList() : map.values();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridReplicatedPartitionIndex.class, this, "partitions", parts.length());
+    }
+}
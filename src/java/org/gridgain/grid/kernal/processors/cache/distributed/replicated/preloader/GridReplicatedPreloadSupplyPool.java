@@ -11,12 +11,14 @@ package org.gridgain.grid.kernal.processors.cache.distributed.replicated.preload
 
 import org.gridgain.grid.*;
 import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.kernal.processors.cache.distributed.replicated.*;
 import org.gridgain.grid.lang.*;
 import org.gridgain.grid.logger.*;
 import org.gridgain.grid.thread.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.worker.*;
+import org.jetbrains.annotations.*;
 
 import java.io.*;
 import java.util.*;
@@ -201,84 +203,161 @@ class GridReplicatedPreloadSupplyPool<K, V> {
             while (!isCancelled()) {
                 DemandMessage<K, V> msg = take(queue);
 
-                GridRichNode node = cctx.discovery().richNode(msg.senderId());
+                int part = msg.message().partition();
 
-                if (node == null) {
-                    if (log.isDebugEnabled())
-                        log.debug("Received message from non-existing node (will ignore): " + msg);
+                // Serve all demands for the same partition queued so far with single pass.
+                Collection<DemandMessage<K, V>> msgs = new LinkedList<DemandMessage<K, V>>();
 
-                    continue;
-                }
+                msgs.add(msg);
 
-                GridReplicatedPreloadDemandMessage<K, V> d = msg.message();
+                for (Iterator<DemandMessage<K, V>> it = queue.iterator(); it.hasNext();) {
+                    DemandMessage<K, V> m = it.next();
 
-                if (!preloadFinished.apply()) {
-                    // Local node has not finished preloading yet and cannot supply.
-                    GridReplicatedPreloadSupplyMessage<K, V> s = new GridReplicatedPreloadSupplyMessage<K, V>(
-                        d.workerId(), true);
+                    if (m.message().partition() == part && queue.remove(m))
+                        msgs.add(m);
+                }
 
-                    try {
-                        reply(node, d, s);
-                    }
-                    catch (GridException e) {
-                        U.error(log, "Failed to send supply message to node: " + node.id(), e);
-                    }
+                Collection<Demand> demands = new ArrayList<Demand>(msgs.size());
 
-                    continue;
+                for (DemandMessage<K, V> m : msgs) {
+                    Demand d = demand(m);
+
+                    if (d != null)
+                        demands.add(d);
                 }
 
-                GridFuture<?> fut = cctx.partitionReleaseFuture(Collections.singleton(d.partition()), node.order());
+                if (!demands.isEmpty())
+                    supply(part, demands);
+            }
+        }
+
+        /**
+         * Checks demanding node and waits until partition is released for it.
+         *
+         * @param msg Demand message.
+         * @return Demand to supply or {@code null} if demand was already answered or should be ignored.
+         * @throws GridInterruptedException If interrupted.
+         */
+        @Nullable private Demand demand(DemandMessage<K, V> msg) throws GridInterruptedException {
+            GridRichNode node = cctx.discovery().richNode(msg.senderId());
+
+            if (node == null) {
+                if (log.isDebugEnabled())
+                    log.debug("Received message from non-existing node (will ignore): " + msg);
+
+                return null;
+            }
+
+            GridReplicatedPreloadDemandMessage<K, V> d = msg.message();
+
+            if (!preloadFinished.apply()) {
+                // Local node has not finished preloading yet and cannot supply.
+                GridReplicatedPreloadSupplyMessage<K, V> s = new GridReplicatedPreloadSupplyMessage<K, V>(
+                    d.workerId(), true);
 
                 try {
-                    fut.get(d.timeout());
+                    reply(node, d, s);
+                }
+                catch (GridInterruptedException e) {
+                    throw e;
                 }
                 catch (GridException e) {
-                    U.error(log, "Failed to wait until partition is released: " + d.partition(), e);
-
-                    continue;
+                    U.error(log, "Failed to send supply message to node: " + node.id(), e);
                 }
 
-                GridReplicatedPreloadSupplyMessage<K, V> s = new GridReplicatedPreloadSupplyMessage<K, V>(d.workerId());
+                return null;
+            }
 
-                try {
-                    boolean nodeLeft = false;
+            GridFuture<?> fut = cctx.partitionReleaseFuture(Collections.singleton(d.partition()), node.order());
+
+            try {
+                fut.get(d.timeout());
+            }
+            catch (GridInterruptedException e) {
+                throw e;
+            }
+            catch (GridException e) {
+                U.error(log, "Failed to wait until partition is released: " + d.partition(), e);
+
+                return null;
+            }
+
+            return new Demand(node, d);
+        }
 
-                    for (GridCacheEntryEx<K, V> entry : cctx.cache().allEntries()) {
-                        // Mod entry hash to the number of nodes.
-                        if (Math.abs(entry.hashCode() % d.nodeCount()) != d.mod() ||
-                            cctx.partition(entry.key()) != d.partition())
-                            continue;
+        /**
+         * Iterates over partition entries once and streams them to all demanding nodes.
+         *
+         * @param part Partition.
+         * @param demands Demands for this partition.
+         * @throws GridInterruptedException If interrupted.
+         */
+        private void supply(int part, Collection<Demand> demands) throws GridInterruptedException {
+            int batchSize = cctx.config().getPreloadBatchSize();
+
+            int active = demands.size();
 
-                        GridCacheEntryInfo<K, V> info = entry.info();
+            for (GridReplicatedCacheEntry<K, V> entry : cctx.replicated().partitionIndex().entries(part)) {
+                GridCacheEntryInfo<K, V> info = null;
 
-                        if (info != null && info.value() != null)
-                            s.addEntry(info, cctx);
+                for (Demand d : demands) {
+                    // Mod entry hash to the number of nodes.
+                    if (d.done || Math.abs(entry.hashCode() % d.msg.nodeCount()) != d.msg.mod())
+                        continue;
 
-                        if (s.size() >= cctx.config().getPreloadBatchSize()) {
-                            if (!reply(node, d, s)) {
+                    if (info == null) {
+                        info = entry.info();
+
+                        if (info == null || info.value() == null)
+                            break;
+                    }
+
+                    try {
+                        d.supply.addEntry(info, cctx);
+
+                        if (d.supply.size() >= batchSize) {
+                            if (!reply(d.node, d.msg, d.supply)) {
                                 // Demander left grid.
-                                nodeLeft = true;
+                                d.done = true;
 
-                                break;
+                                active--;
                             }
-
-                            s = new GridReplicatedPreloadSupplyMessage<K, V>(d.workerId());
+                            else
+                                d.supply = new GridReplicatedPreloadSupplyMessage<K, V>(d.msg.workerId());
                         }
                     }
+                    catch (GridInterruptedException e) {
+                        throw e;
+                    }
+                    catch (GridException e) {
+                        log.error("Failed to send supply message to node: " + d.node.id(), e);
 
-                    // Do that only if node has not left yet.
-                    if (!nodeLeft) {
-                        // Cache entries are fully iterated at this point.
-                        s.last(true);
+                        d.done = true;
 
-                        reply(node, d, s);
+                        active--;
                     }
                 }
+
+                if (active == 0)
+                    return;
+            }
+
+            for (Demand d : demands) {
+                // Do that only if node has not left yet.
+                if (d.done)
+                    continue;
+
+                // Partition entries are fully iterated at this point.
+                d.supply.last(true);
+
+                try {
+                    reply(d.node, d.msg, d.supply);
+                }
                 catch (GridInterruptedException e) {
                     throw e;
                 }
                 catch (GridException e) {
-                    log.error("Failed to send supply message to node: " + node.id(), e);
+                    log.error("Failed to send supply message to node: " + d.node.id(), e);
                 }
             }
         }
@@ -309,6 +388,39 @@ class GridReplicatedPreloadSupplyPool<K, V> {
         }
     }
 
+    /**
+     * Demand being served by supply worker.
+     */
+    private class Demand {
+        /** Demanding node. */
+        private final GridNode node;
+
+        /** Demand message. */
+        private final GridReplicatedPreloadDemandMessage<K, V> msg;
+
+        /** Supply message being filled. */
+        private GridReplicatedPreloadSupplyMessage<K, V> supply;
+
+        /** Done flag (set if demander left or sending failed). */
+        private boolean done;
+
+        /**
+         * @param node Demanding node.
+         * @param msg Demand message.
+         */
+        private Demand(GridNode node, GridReplicatedPreloadDemandMessage<K, V> msg) {
+            this.node = node;
+            this.msg = msg;
+
+            supply = new GridReplicatedPreloadSupplyMessage<K, V>(msg.workerId());
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return "Demand [nodeId=" + node.id() + ", msg=" + msg + ", done=" + done + ']';
+        }
+    }
+
     /**
      * Demand message wrapper.
      */
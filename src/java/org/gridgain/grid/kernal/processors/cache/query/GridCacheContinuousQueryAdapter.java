@@ -0,0 +1,432 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.query;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.query.*;
+import org.gridgain.grid.events.*;
+import org.gridgain.grid.kernal.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.resources.*;
+import org.gridgain.grid.typedef.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.future.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+
+import static org.gridgain.grid.GridClosureCallMode.*;
+import static org.gridgain.grid.GridEventType.*;
+import static org.gridgain.grid.kernal.GridTopic.*;
+
+/**
+ * Adapter for continuous queries.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCacheContinuousQueryAdapter<K, V> implements GridCacheContinuousQuery<K, V> {
+    /** Cache context. */
+    private final GridCacheContext<K, V> cctx;
+
+    /** Logger. */
+    private final GridLogger log;
+
+    /** Mutex. */
+    private final Object mux = new Object();
+
+    /** Local callback. */
+    private volatile GridPredicate2<UUID, Collection<Map.Entry<K, V>>> cb;
+
+    /** Remote filter. */
+    private volatile GridPredicate2<K, V> filter;
+
+    /** Buffer size. */
+    private volatile int bufSize = DFLT_BUF_SIZE;
+
+    /** Time interval. */
+    private volatile long timeInterval = DFLT_TIME_INTERVAL;
+
+    /** Initial scan flag. */
+    private volatile boolean initialScan;
+
+    /** Query ID. */
+    private volatile UUID id;
+
+    /** Cancelled flag. */
+    private volatile boolean cancelled;
+
+    /** Notification listener. */
+    @SuppressWarnings({"deprecation"})
+    @GridToStringExclude
+    private GridMessageListener msgLsnr;
+
+    /** Discovery listener deploying query on joining nodes. */
+    @GridToStringExclude
+    private GridLocalEventListener discoLsnr;
+
+    /**
+     * @param cctx Cache context.
+     */
+    public GridCacheContinuousQueryAdapter(GridCacheContext<K, V> cctx) {
+        assert cctx != null;
+
+        this.cctx = cctx;
+
+        log = cctx.logger(getClass());
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public UUID id() {
+        return id;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void callback(GridPredicate2<UUID, Collection<Map.Entry<K, V>>> cb) {
+        A.notNull(cb, "cb");
+
+        checkNotExecuted();
+
+        this.cb = cb;
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public GridPredicate2<UUID, Collection<Map.Entry<K, V>>> callback() {
+        return cb;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void filter(@Nullable GridPredicate2<K, V> filter) {
+        checkNotExecuted();
+
+        this.filter = filter;
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override public GridPredicate2<K, V> filter() {
+        return filter;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void bufferSize(int bufSize) {
+        A.ensure(bufSize > 0, "bufSize > 0");
+
+        checkNotExecuted();
+
+        this.bufSize = bufSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int bufferSize() {
+        return bufSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void timeInterval(long timeInterval) {
+        A.ensure(timeInterval >= 0, "timeInterval >= 0");
+
+        checkNotExecuted();
+
+        this.timeInterval = timeInterval;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long timeInterval() {
+        return timeInterval;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void initialScan(boolean initialScan) {
+        checkNotExecuted();
+
+        this.initialScan = initialScan;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean initialScan() {
+        return initialScan;
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings({"deprecation", "unchecked"})
+    @Override public void execute() throws GridException {
+        if (cb == null)
+            throw new GridException("Continuous query callback must be set before execution.");
+
+        final UUID qryId = UUID.randomUUID();
+
+        synchronized (mux) {
+            if (id != null)
+                throw new IllegalStateException("Continuous query has already been executed: " + this);
+
+            id = qryId;
+        }
+
+        // Unmarshal notifications with callback class loader since they contain user classes.
+        final ClassLoader ldr = U.detectClassLoader(cb.getClass());
+
+        msgLsnr = new GridMessageListener() {
+            @Override public void onMessage(UUID nodeId, Object msg) {
+                if (!(msg instanceof GridCacheContinuousQueryBatch)) {
+                    U.warn(log, "Received unexpected continuous query message [nodeId=" + nodeId + ", msg=" +
+                        msg + ']');
+
+                    return;
+                }
+
+                onBatch(nodeId, (GridCacheContinuousQueryBatch)msg, ldr);
+            }
+        };
+
+        cctx.gridIO().addMessageListener(TOPIC_CACHE.name(qryId), msgLsnr);
+
+        discoLsnr = new GridLocalEventListener() {
+            @Override public void onEvent(GridEvent evt) {
+                final GridRichNode node = cctx.discovery().richNode(((GridDiscoveryEvent)evt).eventNodeId());
+
+                if (node != null && CU.cacheNode(cctx, node))
+                    start(Collections.singleton(node), false).listenAsync(new CI1<GridFuture<?>>() {
+                        @Override public void apply(GridFuture<?> f) {
+                            try {
+                                f.get();
+                            }
+                            catch (GridException e) {
+                                U.error(log, "Failed to start continuous query on joined node: " + node, e);
+                            }
+                        }
+                    });
+            }
+        };
+
+        cctx.gridEvents().addLocalEventListener(discoLsnr, EVT_NODE_JOINED);
+
+        try {
+            start(CU.allNodes(cctx), initialScan).get();
+        }
+        catch (GridException e) {
+            cancel0();
+
+            throw e;
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("Executed continuous query: " + this);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void cancel() throws GridException {
+        cancel0().get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() throws IOException {
+        try {
+            cancel();
+        }
+        catch (GridException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * @param nodes Nodes to start query on.
+     * @param initialScan Initial scan flag.
+     * @return Start future.
+     */
+    private GridFuture<?> start(Collection<? extends GridNode> nodes, boolean initialScan) {
+        return cctx.closures().runAsync(BROADCAST, new StartJob<K, V>(cctx.name(), id, cctx.nodeId(), filter,
+            bufSize, timeInterval, initialScan), nodes);
+    }
+
+    /**
+     * Stops query on all nodes.
+     *
+     * @return Stop future.
+     */
+    @SuppressWarnings({"deprecation"})
+    private GridFuture<?> cancel0() {
+        synchronized (mux) {
+            if (id == null || cancelled)
+                return new GridFinishedFuture<Object>(cctx.kernalContext());
+
+            cancelled = true;
+        }
+
+        cctx.gridEvents().removeLocalEventListener(discoLsnr);
+        cctx.gridIO().removeMessageListener(TOPIC_CACHE.name(id), msgLsnr);
+
+        if (log.isDebugEnabled())
+            log.debug("Cancelling continuous query: " + this);
+
+        return cctx.closures().runAsync(BROADCAST, new StopJob(cctx.name(), id), CU.allNodes(cctx));
+    }
+
+    /**
+     * @param nodeId Sender node ID.
+     * @param batch Batch of notifications.
+     * @param ldr Class loader.
+     */
+    private void onBatch(UUID nodeId, GridCacheContinuousQueryBatch batch, ClassLoader ldr) {
+        if (cancelled)
+            return;
+
+        Collection<Map.Entry<K, V>> entries;
+
+        try {
+            entries = U.unmarshal(cctx.marshaller(), new GridByteArrayList(batch.entriesBytes()), ldr);
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to unmarshal continuous query notification [nodeId=" + nodeId + ", qryId=" +
+                batch.queryId() + ']', e);
+
+            return;
+        }
+
+        boolean cont;
+
+        // Notify callback with one batch at a time.
+        synchronized (cb) {
+            if (cancelled)
+                return;
+
+            cont = cb.apply(nodeId, entries);
+        }
+
+        if (!cont)
+            cancel0().listenAsync(new CI1<GridFuture<?>>() {
+                @Override public void apply(GridFuture<?> f) {
+                    try {
+                        f.get();
+                    }
+                    catch (GridException e) {
+                        U.error(log, "Failed to cancel continuous query: " + GridCacheContinuousQueryAdapter.this, e);
+                    }
+                }
+            });
+    }
+
+    /**
+     * Ensures query parameters are not changed after execution.
+     */
+    private void checkNotExecuted() {
+        if (id != null)
+            throw new IllegalStateException("Continuous query parameters cannot be changed after execution: " +
+                this);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheContinuousQueryAdapter.class, this);
+    }
+
+    /**
+     * Job registering continuous query on remote node.
+     */
+    private static class StartJob<K, V> extends GridRunnable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** */
+        @GridInstanceResource
+        private Grid grid;
+
+        /** Cache name. */
+        private final String cacheName;
+
+        /** Query ID. */
+        private final UUID id;
+
+        /** ID of node that executed the query. */
+        private final UUID nodeId;
+
+        /** Remote filter. */
+        private final GridPredicate2<K, V> filter;
+
+        /** Buffer size. */
+        private final int bufSize;
+
+        /** Time interval. */
+        private final long timeInterval;
+
+        /** Initial scan flag. */
+        private final boolean initialScan;
+
+        /**
+         * @param cacheName Cache name.
+         * @param id Query ID.
+         * @param nodeId ID of node that executed the query.
+         * @param filter Remote filter.
+         * @param bufSize Buffer size.
+         * @param timeInterval Time interval.
+         * @param initialScan Initial scan flag.
+         */
+        StartJob(@Nullable String cacheName, UUID id, UUID nodeId, @Nullable GridPredicate2<K, V> filter,
+            int bufSize, long timeInterval, boolean initialScan) {
+            this.cacheName = cacheName;
+            this.id = id;
+            this.nodeId = nodeId;
+            this.filter = filter;
+            this.bufSize = bufSize;
+            this.timeInterval = timeInterval;
+            this.initialScan = initialScan;
+
+            if (filter != null)
+                peerDeployLike(filter);
+        }
+
+        /** {@inheritDoc} */
+        @Override public void run() {
+            GridCacheAdapter<K, V> cache = ((GridKernal)grid).context().cache().internalCache(cacheName);
+
+            if (cache != null)
+                cache.context().continuousQueries().register(id, nodeId, filter, bufSize, timeInterval, initialScan);
+        }
+    }
+
+    /**
+     * Job unregistering continuous query on remote node.
+     */
+    private static class StopJob extends GridRunnable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** */
+        @GridInstanceResource
+        private Grid grid;
+
+        /** Cache name. */
+        private final String cacheName;
+
+        /** Query ID. */
+        private final UUID id;
+
+        /**
+         * @param cacheName Cache name.
+         * @param id Query ID.
+         */
+        StopJob(@Nullable String cacheName, UUID id) {
+            this.cacheName = cacheName;
+            this.id = id;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void run() {
+            GridCacheAdapter<Object, Object> cache = ((GridKernal)grid).context().cache().internalCache(cacheName);
+
+            if (cache != null)
+                cache.context().continuousQueries().unregister(id);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.query;
+
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Batch of continuous query notifications sent from primary node to query node.
+ * Entries are kept marshalled, so that they can be unmarshalled with class loader
+ * of query callback.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCacheContinuousQueryBatch implements Externalizable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Query ID. */
+    private UUID qryId;
+
+    /** Marshalled entries. */
+    @GridToStringExclude
+    private byte[] entriesBytes;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public GridCacheContinuousQueryBatch() {
+        // No-op.
+    }
+
+    /**
+     * @param qryId Query ID.
+     * @param entriesBytes Marshalled entries.
+     */
+    public GridCacheContinuousQueryBatch(UUID qryId, byte[] entriesBytes) {
+        assert qryId != null;
+        assert entriesBytes != null;
+
+        this.qryId = qryId;
+        this.entriesBytes = entriesBytes;
+    }
+
+    /**
+     * @return Query ID.
+     */
+    public UUID queryId() {
+        return qryId;
+    }
+
+    /**
+     * @return Marshalled entries.
+     */
+    public byte[] entriesBytes() {
+        return entriesBytes;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        U.writeUuid(out, qryId);
+        U.writeByteArray(out, entriesBytes);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        qryId = U.readUuid(in);
+        entriesBytes = U.readByteArray(in);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheContinuousQueryBatch.class, this, "size", entriesBytes.length);
+    }
+}
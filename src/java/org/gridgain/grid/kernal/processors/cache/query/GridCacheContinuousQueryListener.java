@@ -0,0 +1,350 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.query;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.kernal.processors.timeout.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.logger.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.gridgain.grid.kernal.GridTopic.*;
+import static org.gridgain.grid.kernal.managers.communication.GridIoPolicy.*;
+
+/**
+ * Continuous query registered on primary node. Buffers updates until batch is full
+ * or time interval passes and then hands the batch over to system pool, where query
+ * filter is evaluated and matching entries are sent to query node. Batches are sent
+ * one at a time in the order they were buffered, so that cache update thread never
+ * runs user filter, marshalling or network I/O.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+class GridCacheContinuousQueryListener<K, V> {
+    /** Cache context. */
+    private final GridCacheContext<K, V> cctx;
+
+    /** Logger. */
+    private final GridLogger log;
+
+    /** Query ID. */
+    private final UUID id;
+
+    /** ID of node that executed the query. */
+    private final UUID nodeId;
+
+    /** Remote filter. */
+    @GridToStringInclude
+    private final GridPredicate2<K, V> filter;
+
+    /** Buffer size. */
+    private final int bufSize;
+
+    /** Time interval. */
+    private final long timeInterval;
+
+    /** Notification topic. */
+    private final String topic;
+
+    /** Buffered updates. */
+    @GridToStringExclude
+    private List<GridCacheQueryResponseEntry<K, V>> buf;
+
+    /** Full batches waiting to be filtered and sent. */
+    @GridToStringExclude
+    private final Queue<Collection<GridCacheQueryResponseEntry<K, V>>> batches =
+        new ConcurrentLinkedQueue<Collection<GridCacheQueryResponseEntry<K, V>>>();
+
+    /** Flag indicating that batches are being sent by system pool thread. */
+    @GridToStringExclude
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    /** Flush timeout, {@code null} if buffer is empty or time interval is not set. */
+    @GridToStringExclude
+    private GridTimeoutObject timeoutObj;
+
+    /** Stopped flag. */
+    private volatile boolean stopped;
+
+    /**
+     * @param cctx Cache context.
+     * @param id Query ID.
+     * @param nodeId ID of node that executed the query.
+     * @param filter Remote filter.
+     * @param bufSize Buffer size.
+     * @param timeInterval Time interval.
+     */
+    GridCacheContinuousQueryListener(GridCacheContext<K, V> cctx, UUID id, UUID nodeId,
+        @Nullable GridPredicate2<K, V> filter, int bufSize, long timeInterval) {
+        assert cctx != null;
+        assert id != null;
+        assert nodeId != null;
+        assert bufSize > 0;
+        assert timeInterval >= 0;
+
+        this.cctx = cctx;
+        this.id = id;
+        this.nodeId = nodeId;
+        this.filter = filter;
+        this.bufSize = bufSize;
+        this.timeInterval = timeInterval;
+
+        log = cctx.logger(getClass());
+
+        topic = TOPIC_CACHE.name(id);
+    }
+
+    /**
+     * @return Query ID.
+     */
+    UUID id() {
+        return id;
+    }
+
+    /**
+     * @return ID of node that executed the query.
+     */
+    UUID nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Callback for entry update on primary node.
+     *
+     * @param key Key.
+     * @param val New value, {@code null} for removal.
+     */
+    void onUpdate(K key, @Nullable V val) {
+        if (stopped)
+            return;
+
+        Collection<GridCacheQueryResponseEntry<K, V>> batch = null;
+
+        synchronized (this) {
+            if (stopped)
+                return;
+
+            if (buf == null)
+                buf = new ArrayList<GridCacheQueryResponseEntry<K, V>>(Math.min(bufSize, 128));
+
+            buf.add(new GridCacheQueryResponseEntry<K, V>(key, val));
+
+            if (buf.size() >= bufSize)
+                batch = drain();
+            else if (timeInterval > 0 && timeoutObj == null) {
+                timeoutObj = new FlushTimeout();
+
+                cctx.time().addTimeoutObject(timeoutObj);
+            }
+        }
+
+        if (batch != null)
+            enqueue(batch);
+    }
+
+    /**
+     * Sends buffered entries right away.
+     */
+    void flush() {
+        Collection<GridCacheQueryResponseEntry<K, V>> batch;
+
+        synchronized (this) {
+            batch = drain();
+        }
+
+        if (batch != null)
+            enqueue(batch);
+    }
+
+    /**
+     * Stops listener discarding buffered entries.
+     */
+    void stop() {
+        stopped = true;
+
+        synchronized (this) {
+            drain();
+        }
+
+        batches.clear();
+    }
+
+    /**
+     * Takes buffered entries and cancels flush timeout. Must be called under lock.
+     *
+     * @return Buffered entries or {@code null} if buffer is empty.
+     */
+    @Nullable private Collection<GridCacheQueryResponseEntry<K, V>> drain() {
+        assert Thread.holdsLock(this);
+
+        Collection<GridCacheQueryResponseEntry<K, V>> batch = buf;
+
+        buf = null;
+
+        if (timeoutObj != null) {
+            cctx.time().removeTimeoutObject(timeoutObj);
+
+            timeoutObj = null;
+        }
+
+        return batch;
+    }
+
+    /**
+     * Queues batch and makes sure that system pool thread is sending queued batches.
+     *
+     * @param batch Buffered updates.
+     */
+    private void enqueue(Collection<GridCacheQueryResponseEntry<K, V>> batch) {
+        if (stopped)
+            return;
+
+        batches.add(batch);
+
+        if (!sending.compareAndSet(false, true))
+            return;
+
+        Runnable r = new Runnable() {
+            @Override public void run() {
+                sendBatches();
+            }
+        };
+
+        try {
+            cctx.kernalContext().config().getSystemExecutorService().execute(r);
+        }
+        catch (RejectedExecutionException ignored) {
+            // Pool is shut down or overloaded, send in the current thread.
+            r.run();
+        }
+    }
+
+    /**
+     * Sends queued batches until queue is empty.
+     */
+    private void sendBatches() {
+        while (true) {
+            for (Collection<GridCacheQueryResponseEntry<K, V>> batch; (batch = batches.poll()) != null; ) {
+                Collection<GridCacheQueryResponseEntry<K, V>> entries = filter(batch);
+
+                if (entries != null)
+                    send(entries);
+            }
+
+            sending.set(false);
+
+            // Batch could have been queued after queue was drained, but before flag was cleared.
+            if (batches.isEmpty() || !sending.compareAndSet(false, true))
+                return;
+        }
+    }
+
+    /**
+     * @param batch Buffered updates.
+     * @return Updates accepted by query filter or {@code null} if there are none.
+     */
+    @Nullable private Collection<GridCacheQueryResponseEntry<K, V>> filter(
+        Collection<GridCacheQueryResponseEntry<K, V>> batch) {
+        if (stopped)
+            return null;
+
+        if (filter == null)
+            return batch;
+
+        Collection<GridCacheQueryResponseEntry<K, V>> res = new ArrayList<GridCacheQueryResponseEntry<K, V>>(
+            batch.size());
+
+        for (GridCacheQueryResponseEntry<K, V> e : batch) {
+            try {
+                if (filter.apply(e.getKey(), e.getValue()))
+                    res.add(e);
+            }
+            catch (RuntimeException ex) {
+                U.error(log, "Continuous query filter failed (entry will be skipped) [qryId=" + id + ", key=" +
+                    e.getKey() + ']', ex);
+            }
+        }
+
+        return res.isEmpty() ? null : res;
+    }
+
+    /**
+     * @param batch Entries to send.
+     */
+    private void send(Collection<GridCacheQueryResponseEntry<K, V>> batch) {
+        if (stopped)
+            return;
+
+        try {
+            byte[] bytes = U.marshal(cctx.marshaller(), batch).getEntireArray();
+
+            cctx.gridIO().send(nodeId, topic, new GridCacheContinuousQueryBatch(id, bytes), SYSTEM_POOL);
+        }
+        catch (GridTopologyException ignored) {
+            if (log.isDebugEnabled())
+                log.debug("Continuous query node left grid (will stop query) [qryId=" + id + ", nodeId=" +
+                    nodeId + ']');
+
+            cctx.continuousQueries().unregister(id);
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to send continuous query notification [qryId=" + id + ", nodeId=" + nodeId + ']', e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridCacheContinuousQueryListener.class, this);
+    }
+
+    /**
+     * Flushes buffer once time interval passes.
+     */
+    private class FlushTimeout implements GridTimeoutObject {
+        /** */
+        private final GridUuid timeoutId = GridUuid.randomUuid();
+
+        /** */
+        private final long endTime = System.currentTimeMillis() + timeInterval;
+
+        /** {@inheritDoc} */
+        @Override public GridUuid timeoutId() {
+            return timeoutId;
+        }
+
+        /** {@inheritDoc} */
+        @Override public long endTime() {
+            return endTime;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void onTimeout() {
+            Collection<GridCacheQueryResponseEntry<K, V>> batch = null;
+
+            synchronized (GridCacheContinuousQueryListener.this) {
+                // Buffer could have been sent and new timeout scheduled in the meantime.
+                if (timeoutObj == this)
+                    batch = drain();
+            }
+
+            if (batch != null)
+                enqueue(batch);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.kernal.processors.cache.query;
+
+import org.gridgain.grid.*;
+import org.gridgain.grid.cache.*;
+import org.gridgain.grid.cache.query.*;
+import org.gridgain.grid.events.*;
+import org.gridgain.grid.kernal.processors.cache.*;
+import org.gridgain.grid.lang.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.tostring.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.gridgain.grid.GridEventType.*;
+
+/**
+ * Continuous queries manager. Keeps continuous queries registered on local node and
+ * notifies them about updates of entries for which local node is primary.
+ * <p>
+ * Same manager instance is shared by near and DHT contexts of partitioned cache and
+ * is started with DHT context.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridCacheContinuousQueryManager<K, V> extends GridCacheManager<K, V> {
+    /** Registered listeners. */
+    private final ConcurrentMap<UUID, GridCacheContinuousQueryListener<K, V>> lsnrs =
+        new ConcurrentHashMap<UUID, GridCacheContinuousQueryListener<K, V>>();
+
+    /** Snapshot of registered listeners for update path. */
+    @GridToStringExclude
+    private volatile Collection<GridCacheContinuousQueryListener<K, V>> lsnrsSnapshot = Collections.emptyList();
+
+    /** Discovery listener stopping queries of nodes that left. */
+    @GridToStringExclude
+    private final GridLocalEventListener discoLsnr = new GridLocalEventListener() {
+        @Override public void onEvent(GridEvent evt) {
+            assert evt instanceof GridDiscoveryEvent;
+            assert evt.type() == EVT_NODE_FAILED || evt.type() == EVT_NODE_LEFT;
+
+            UUID nodeId = ((GridDiscoveryEvent)evt).eventNodeId();
+
+            for (GridCacheContinuousQueryListener<K, V> lsnr : lsnrs.values())
+                if (lsnr.nodeId().equals(nodeId))
+                    unregister(lsnr.id());
+        }
+    };
+
+    /** {@inheritDoc} */
+    @Override protected void onKernalStart0() throws GridException {
+        cctx.gridEvents().addLocalEventListener(discoLsnr, EVT_NODE_FAILED, EVT_NODE_LEFT);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void onKernalStop0() {
+        cctx.gridEvents().removeLocalEventListener(discoLsnr);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void stop0(boolean cancel, boolean wait) {
+        for (UUID id : lsnrs.keySet())
+            unregister(id);
+    }
+
+    /**
+     * @return New continuous query.
+     */
+    public GridCacheContinuousQuery<K, V> createQuery() {
+        return new GridCacheContinuousQueryAdapter<K, V>(cctx);
+    }
+
+    /**
+     * Registers continuous query on local node.
+     *
+     * @param id Query ID.
+     * @param nodeId ID of node that executed the query.
+     * @param filter Remote filter.
+     * @param bufSize Buffer size.
+     * @param timeInterval Time interval.
+     * @param initialScan Whether to send existing primary entries.
+     */
+    public void register(UUID id, UUID nodeId, @Nullable GridPredicate2<K, V> filter, int bufSize,
+        long timeInterval, boolean initialScan) {
+        GridCacheContinuousQueryListener<K, V> lsnr = new GridCacheContinuousQueryListener<K, V>(cctx, id, nodeId,
+            filter, bufSize, timeInterval);
+
+        synchronized (lsnrs) {
+            if (lsnrs.putIfAbsent(id, lsnr) != null) {
+                if (log.isDebugEnabled())
+                    log.debug("Continuous query is already registered: " + id);
+
+                return;
+            }
+
+            lsnrsSnapshot = new ArrayList<GridCacheContinuousQueryListener<K, V>>(lsnrs.values());
+        }
+
+        // Query node could leave before listener was registered.
+        if (cctx.discovery().node(nodeId) == null) {
+            unregister(id);
+
+            return;
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("Registered continuous query: " + lsnr);
+
+        if (initialScan) {
+            for (GridCacheEntry<K, V> e : cctx.cache().primaryEntrySet()) {
+                V val = e.peek();
+
+                if (val != null)
+                    lsnr.onUpdate(e.getKey(), val);
+            }
+
+            lsnr.flush();
+        }
+    }
+
+    /**
+     * Unregisters continuous query on local node.
+     *
+     * @param id Query ID.
+     */
+    public void unregister(UUID id) {
+        GridCacheContinuousQueryListener<K, V> lsnr;
+
+        synchronized (lsnrs) {
+            lsnr = lsnrs.remove(id);
+
+            if (lsnr == null)
+                return;
+
+            lsnrsSnapshot = new ArrayList<GridCacheContinuousQueryListener<K, V>>(lsnrs.values());
+        }
+
+        lsnr.stop();
+
+        if (log.isDebugEnabled())
+            log.debug("Unregistered continuous query: " + lsnr);
+    }
+
+    /**
+     * Callback invoked by cache entry after it was updated or removed.
+     *
+     * @param key Key.
+     * @param val New value, {@code null} for removal.
+     */
+    public void onEntryUpdate(K key, @Nullable V val) {
+        Collection<GridCacheContinuousQueryListener<K, V>> lsnrs = lsnrsSnapshot;
+
+        if (lsnrs.isEmpty())
+            return;
+
+        // Only primary node notifies about update.
+        if (!cctx.isLocal() && !cctx.primary(cctx.localNode(), key))
+            return;
+
+        for (GridCacheContinuousQueryListener<K, V> lsnr : lsnrs)
+            lsnr.onUpdate(key, val);
+    }
+}
@@ -27,4 +27,14 @@ interface GridJobEventListener extends EventListener {
      * @param worker Finished job worker.
      */
     public void onJobFinished(GridJobWorker worker);
+
+    /**
+     * @param worker Held job worker.
+     */
+    public void onJobHeld(GridJobWorker worker);
+
+    /**
+     * @param worker Resumed job worker.
+     */
+    public void onJobResumed(GridJobWorker worker);
 }
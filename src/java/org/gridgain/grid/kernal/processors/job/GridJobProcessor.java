@@ -23,6 +23,7 @@ import org.gridgain.grid.marshaller.*;
 import org.gridgain.grid.spi.collision.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
+import org.gridgain.grid.util.*;
 import org.jetbrains.annotations.*;
 
 import java.io.*;
@@ -31,6 +32,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
 import static org.gridgain.grid.GridEventType.*;
+import static org.gridgain.grid.GridSystemProperties.*;
 import static org.gridgain.grid.kernal.GridTopic.*;
 import static org.gridgain.grid.kernal.managers.communication.GridIoPolicy.*;
 
@@ -45,20 +47,57 @@ public class GridJobProcessor extends GridProcessorAdapter {
     /** */
     private static final int CANCEL_REQS_NUM = 1024;
 
+    /** Concurrency level of job maps. */
+    private static final int JOBS_CONCUR_LVL = 64;
+
+    /** Default time window to coalesce session attribute updates within. */
+    private static final long DFLT_SES_ATTR_WINDOW = 10;
+
+    /** Time window to coalesce session attribute updates within. */
+    private static final long SES_ATTR_WINDOW;
+
+    /**
+     * Initializes session attribute window.
+     */
+    static {
+        String s = X.getSystemOrEnv(GG_SES_ATTR_WINDOW, Long.toString(DFLT_SES_ATTR_WINDOW));
+
+        long window;
+
+        try {
+            window = Long.parseLong(s);
+        }
+        catch (NumberFormatException ignore) {
+            window = DFLT_SES_ATTR_WINDOW;
+        }
+
+        SES_ATTR_WINDOW = window;
+    }
+
     /** */
     private final GridMarshaller marsh;
 
-    /** */
-    private final Map<GridUuid, GridJobWorker> activeJobs = new LinkedHashMap<GridUuid, GridJobWorker>(1024);
+    /**
+     * Active jobs in order of activation. Job is moved between maps by removing it with
+     * {@link ConcurrentMap#remove(Object, Object)} first, so only one thread can move it.
+     */
+    private final GridConcurrentLinkedHashMap<GridUuid, GridJobWorker> activeJobs =
+        new GridConcurrentLinkedHashMap<GridUuid, GridJobWorker>(1024, 0.75f, JOBS_CONCUR_LVL);
 
-    /** */
-    private final Map<GridUuid, GridJobWorker> passiveJobs = new LinkedHashMap<GridUuid, GridJobWorker>(1024);
+    /** Passive jobs in order of arrival. */
+    private final GridConcurrentLinkedHashMap<GridUuid, GridJobWorker> passiveJobs =
+        new GridConcurrentLinkedHashMap<GridUuid, GridJobWorker>(1024, 0.75f, JOBS_CONCUR_LVL);
 
-    /** */
-    private final Map<GridUuid, GridJobWorker> cancelledJobs = new LinkedHashMap<GridUuid, GridJobWorker>(1024);
+    /** Cancelled jobs which are still running. */
+    private final ConcurrentMap<GridUuid, GridJobWorker> cancelledJobs =
+        new ConcurrentHashMap<GridUuid, GridJobWorker>(1024, 0.75f, JOBS_CONCUR_LVL);
+
+    /** Session attribute updates waiting to be sent to task node, by job ID. */
+    private final ConcurrentMap<GridUuid, GridTaskSessionAttributesBatch> sesAttrBatches =
+        new ConcurrentHashMap<GridUuid, GridTaskSessionAttributesBatch>();
 
     /** */
-    private final Collection<GridUuid> cancelReqs = new GridBoundedLinkedHashSet<GridUuid>(CANCEL_REQS_NUM);
+    private final Collection<GridUuid> cancelReqs = new GridBoundedConcurrentOrderedSet<GridUuid>(CANCEL_REQS_NUM);
 
     /** */
     private final GridJobEventListener evtLsnr;
@@ -75,8 +114,8 @@ public class GridJobProcessor extends GridProcessorAdapter {
     /** */
     private final GridCollisionExternalListener colLsnr;
 
-    /** */
-    private int callCnt;
+    /** Guards callbacks against processor stop. */
+    private final GridBusyLock busyLock = new GridBusyLock();
 
     /** Needed for statistics. */
     private final AtomicInteger finishedJobsCnt = new AtomicInteger(0);
@@ -87,16 +126,19 @@ public class GridJobProcessor extends GridProcessorAdapter {
     /** */
     private final AtomicReference<CollisionSnapshot> lastSnapshot = new AtomicReference<CollisionSnapshot>(null);
 
+    /** {@code True} if collision SPI is notified about every job state change instead of snapshots. */
+    private final boolean incCol;
+
+    /** Executions, rejections and cancellations requested by incremental collision SPI. */
+    private final Queue<CollisionAction> colActions = new ConcurrentLinkedQueue<CollisionAction>();
+
     /**
      * This flag is used a guard to prevent a new collision resolution when
      * there were no changes since last one.
      */
-    private boolean collisionsHandled;
+    private volatile boolean collisionsHandled;
 
-    /** */
-    private boolean stopping;
-
-    /** */
+    /** Mutex to keep collision snapshots in order. */
     private final Object mux = new Object();
 
     /**
@@ -112,6 +154,8 @@ public class GridJobProcessor extends GridProcessorAdapter {
         jobExecLsnr = new JobExecutionListener();
         discoLsnr = new JobDiscoveryListener();
         colLsnr = new CollisionExternalListener();
+
+        incCol = ctx.collision().isIncremental();
     }
 
     /** */
@@ -149,34 +193,23 @@ public class GridJobProcessor extends GridProcessorAdapter {
         List<GridJobWorker> jobsToCancel;
         List<GridJobWorker> jobsToReject;
 
-        synchronized (mux) {
-            jobsToReject = new ArrayList<GridJobWorker>();
+        jobsToReject = new ArrayList<GridJobWorker>();
 
-            for (Iterator<GridJobWorker> iter = passiveJobs.values().iterator(); iter.hasNext();) {
-                GridJobWorker job = iter.next();
+        for (GridJobWorker job : passiveJobs.values())
+            if (discoMgr.node(job.getTaskNodeId()) == null && passiveJobs.remove(job.getJobId(), job))
+                jobsToReject.add(job);
 
-                if (discoMgr.node(job.getTaskNodeId()) == null) {
-                    iter.remove();
+        jobsToCancel = new ArrayList<GridJobWorker>();
 
-                    jobsToReject.add(job);
-                }
-            }
+        for (GridJobWorker job : activeJobs.values())
+            if (discoMgr.node(job.getTaskNodeId()) == null && cancelActive(job))
+                jobsToCancel.add(job);
 
-            jobsToCancel = new ArrayList<GridJobWorker>();
-
-            for (Iterator<GridJobWorker> iter = activeJobs.values().iterator(); iter.hasNext();) {
-                GridJobWorker job = iter.next();
-
-                if (discoMgr.node(job.getTaskNodeId()) == null) {
-                    iter.remove();
-
-                    cancelledJobs.put(job.getJobId(), job);
-
-                    jobsToCancel.add(job);
-                }
-            }
+        collisionsHandled = false;
 
-            collisionsHandled = false;
+        if (incCol) {
+            onCancelled(jobsToReject);
+            onCancelled(jobsToCancel);
         }
 
         // Passive jobs.
@@ -200,11 +233,9 @@ public class GridJobProcessor extends GridProcessorAdapter {
     /** {@inheritDoc} */
     @Override public void stop(boolean cancel, boolean wait) {
         // Clear collections.
-        synchronized (mux) {
-            activeJobs.clear();
-            cancelledJobs.clear();
-            cancelReqs.clear();
-        }
+        activeJobs.clear();
+        cancelledJobs.clear();
+        cancelReqs.clear();
 
         if (log.isDebugEnabled())
             log.debug("Job processor stopped.");
@@ -225,42 +256,20 @@ public class GridJobProcessor extends GridProcessorAdapter {
         List<GridJobWorker> jobsToCancel;
         List<GridJobWorker> jobsToJoin;
 
-        synchronized (mux) {
-            // Set stopping flag first.
-            stopping = true;
-
-            // Wait for all listener callbacks to complete.
-            while (true) {
-                assert callCnt >= 0;
-
-                // This condition is taken out of the loop to avoid
-                // potentially wrong optimization by the compiler of
-                // moving field access out of the loop causing this loop
-                // to never exit.
-                if (callCnt == 0)
-                    break;
+        // Wait for all listener callbacks to complete and ignore new ones.
+        busyLock.block();
 
-                if (log.isDebugEnabled())
-                    log.debug("Waiting for job calls to finish: " + callCnt);
-
-                try {
-                    // Release mux.
-                    mux.wait(5000);
-                }
-                catch (InterruptedException e) {
-                    U.error(log, "Got interrupted while stopping (shutdown is incomplete)", e);
-                }
-            }
+        jobsToReject = new ArrayList<GridJobWorker>();
 
-            jobsToReject = new ArrayList<GridJobWorker>(passiveJobs.values());
+        // Jobs may still be activated by finishing jobs, so claim each passive job.
+        for (GridJobWorker job : passiveJobs.values())
+            if (passiveJobs.remove(job.getJobId(), job))
+                jobsToReject.add(job);
 
-            passiveJobs.clear();
+        jobsToCancel = new ArrayList<GridJobWorker>(activeJobs.values());
+        jobsToJoin = new ArrayList<GridJobWorker>(cancelledJobs.values());
 
-            jobsToCancel = new ArrayList<GridJobWorker>(activeJobs.values());
-            jobsToJoin = new ArrayList<GridJobWorker>(cancelledJobs.values());
-
-            jobsToJoin.addAll(jobsToCancel);
-        }
+        jobsToJoin.addAll(jobsToCancel);
 
         // Rejected jobs.
         for (GridJobWorker job : jobsToReject)
@@ -293,9 +302,49 @@ public class GridJobProcessor extends GridProcessorAdapter {
     public GridJobWorker activeJob(GridUuid jobId) {
         assert jobId != null;
 
-        synchronized (mux) {
-            return activeJobs.get(jobId);
-        }
+        return activeJobs.get(jobId);
+    }
+
+    /**
+     * Moves passive job to active jobs.
+     *
+     * @param job Passive job.
+     * @return {@code True} if job was activated, {@code false} if it is not passive anymore.
+     */
+    private boolean activatePassive(GridJobWorker job) {
+        if (!passiveJobs.remove(job.getJobId(), job))
+            return false;
+
+        activeJobs.put(job.getJobId(), job);
+
+        return true;
+    }
+
+    /**
+     * Moves active job to cancelled jobs. Job is put to cancelled jobs first, so that
+     * it is always found in one of the maps if it finishes concurrently.
+     *
+     * @param job Active job.
+     * @return {@code True} if job was cancelled, {@code false} if it is not active anymore.
+     */
+    private boolean cancelActive(GridJobWorker job) {
+        cancelledJobs.put(job.getJobId(), job);
+
+        if (activeJobs.remove(job.getJobId(), job))
+            return true;
+
+        cancelledJobs.remove(job.getJobId(), job);
+
+        return false;
+    }
+
+    /**
+     * @param jobId Job ID.
+     * @param sesId Session ID.
+     * @return {@code True} if job or its task was requested to be cancelled.
+     */
+    private boolean isCancelRequested(GridUuid jobId, GridUuid sesId) {
+        return cancelReqs.contains(jobId) || cancelReqs.contains(sesId);
     }
 
     /**
@@ -338,11 +387,14 @@ public class GridJobProcessor extends GridProcessorAdapter {
     }
 
     /**
+     * Sends attributes set by job to task node. Updates made within
+     * {@link GridSystemProperties#GG_SES_ATTR_WINDOW} are coalesced and sent together.
+     *
      * @param ses Session.
      * @param attrs Attributes.
      * @throws GridException If failed.
      */
-    public void setAttributes(GridTaskSessionInternal ses, Map<?, ?> attrs) throws GridException {
+    public void setAttributes(final GridTaskSessionInternal ses, Map<?, ?> attrs) throws GridException {
         long timeout = ses.getEndTime() - System.currentTimeMillis();
 
         if (timeout <= 0) {
@@ -360,6 +412,103 @@ public class GridJobProcessor extends GridProcessorAdapter {
             throw new GridException("Node that originated task execution has left grid: " +
                 ses.getTaskNodeId());
 
+        if (SES_ATTR_WINDOW <= 0) {
+            sendAttributes(ses, taskNode, attrs, timeout);
+
+            return;
+        }
+
+        final GridUuid jobId = ses.getJobId();
+
+        while (true) {
+            GridTaskSessionAttributesBatch batch = sesAttrBatches.get(jobId);
+
+            if (batch == null) {
+                batch = new GridTaskSessionAttributesBatch(SES_ATTR_WINDOW) {
+                    @Override protected void onFlush(Map<Object, Object> attrs) {
+                        ctx.timeout().removeTimeoutObject(this);
+
+                        if (!attrs.isEmpty())
+                            sendAttributesSafe(ses, attrs);
+
+                        // Batch is removed only once sent, so that flushAttributes(..)
+                        // waits for concurrent flush instead of missing it.
+                        sesAttrBatches.remove(jobId, this);
+                    }
+                };
+
+                GridTaskSessionAttributesBatch old = sesAttrBatches.putIfAbsent(jobId, batch);
+
+                if (old == null)
+                    ctx.timeout().addTimeoutObject(batch);
+                else
+                    batch = old;
+            }
+
+            if (batch.add(attrs))
+                return;
+
+            // Batch has been flushed concurrently.
+            sesAttrBatches.remove(jobId, batch);
+        }
+    }
+
+    /**
+     * Sends pending session attribute updates of the job to task node.
+     * Must be called before job response is sent, so that task receives
+     * all attributes set by job prior to its result.
+     *
+     * @param jobId Job ID.
+     */
+    public void flushAttributes(GridUuid jobId) {
+        GridTaskSessionAttributesBatch batch = sesAttrBatches.get(jobId);
+
+        // Waits for flush in progress, if any.
+        if (batch != null)
+            batch.flush();
+    }
+
+    /**
+     * Sends coalesced attributes, logging errors as there is no job call to propagate them to.
+     *
+     * @param ses Session.
+     * @param attrs Attributes.
+     */
+    private void sendAttributesSafe(GridTaskSessionInternal ses, Map<?, ?> attrs) {
+        long timeout = ses.getEndTime() - System.currentTimeMillis();
+
+        if (timeout <= 0) {
+            U.warn(log, "Task execution timed out (remote session attributes won't be set): " + ses);
+
+            return;
+        }
+
+        GridNode taskNode = ctx.discovery().node(ses.getTaskNodeId());
+
+        if (taskNode == null) {
+            U.warn(log, "Node that originated task execution has left grid (session attributes won't be set): " +
+                ses.getTaskNodeId());
+
+            return;
+        }
+
+        try {
+            sendAttributes(ses, taskNode, attrs, timeout);
+        }
+        catch (GridException e) {
+            U.error(log, "Failed to send session attributes to task node: " + ses, e);
+        }
+    }
+
+    /**
+     * @param ses Session.
+     * @param taskNode Task node.
+     * @param attrs Attributes.
+     * @param timeout Send timeout.
+     * @throws GridException If failed.
+     */
+    private void sendAttributes(GridTaskSessionInternal ses, GridNode taskNode, Map<?, ?> attrs, long timeout)
+        throws GridException {
         GridByteArrayList serAttrs = U.marshal(marsh, attrs);
 
         String topic = TOPIC_TASK.name(ses.getJobId(), ctx.discovery().localNode().id());
@@ -407,10 +556,30 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 res.getException());
     }
 
+    /**
+     * Notifies incremental collision SPI about jobs cancelled by kernal.
+     *
+     * @param jobs Rejected or cancelled jobs.
+     */
+    private void onCancelled(Iterable<GridJobWorker> jobs) {
+        assert incCol;
+
+        for (GridJobWorker job : jobs)
+            ctx.collision().onJobCancelled(new IncrementalJobContext(job));
+    }
+
     /** */
     private void handleCollisions() {
+        if (incCol) {
+            processCollisionActions();
+
+            return;
+        }
+
         CollisionSnapshot snapshot;
 
+        // Snapshots are only built for legacy collision SPIs,
+        // so this synchronization is not on incremental path.
         synchronized (mux) {
             // Don't do anything if collisions were handled by another thread.
             if (collisionsHandled)
@@ -447,34 +616,139 @@ public class GridJobProcessor extends GridProcessorAdapter {
     }
 
     /**
-     * Decrements call counter.
+     * Executes, rejects or cancels jobs as requested by incremental collision SPI.
      */
-    private void decrementCallCount() {
-        synchronized (mux) {
-            callCnt--;
+    private void processCollisionActions() {
+        assert incCol;
+
+        int startedCnt = 0;
+        int rejectCnt = 0;
+        int cancelCnt = 0;
+
+        long waitTime = 0;
+
+        for (CollisionAction act = colActions.poll(); act != null; act = colActions.poll()) {
+            GridJobWorker job = act.job;
+
+            switch (act.type) {
+                case CollisionAction.EXECUTE: {
+                    waitTime += job.getQueuedTime();
+
+                    if (execute(job))
+                        startedCnt++;
+
+                    break;
+                }
+
+                case CollisionAction.REJECT: {
+                    rejectJob(job);
+
+                    rejectCnt++;
+
+                    break;
+                }
+
+                case CollisionAction.CANCEL: {
+                    boolean isCancelled = job.isCancelled();
+
+                    cancelJob(job, false);
+
+                    if (!isCancelled)
+                        cancelCnt++;
+
+                    break;
+                }
 
-            if (callCnt == 0)
-                mux.notifyAll();
+                default:
+                    assert false : "Unknown collision action: " + act.type;
+            }
         }
+
+        // Both maps keep insertion order.
+        GridJobWorker oldestActive = F.first(activeJobs.values());
+        GridJobWorker oldestPassive = F.first(passiveJobs.values());
+
+        addMetricsSnapshot(activeJobs.sizex(), passiveJobs.sizex(), startedCnt, cancelCnt, rejectCnt, waitTime,
+            oldestActive == null ? 0 : oldestActive.getExecuteTime(),
+            oldestPassive == null ? 0 : oldestPassive.getQueuedTime());
     }
 
-    /** {@inheritDoc} */
-    @Override public void printMemoryStats() {
-        int activeJobsSize;
-        int passiveJobsSize;
-        int cancelledJobsSize;
+    /**
+     * Submits activated job to executor service.
+     *
+     * @param job Activated job.
+     * @return {@code True} if job was submitted, {@code false} if it was rejected by executor.
+     */
+    @SuppressWarnings({"ThrowableInstanceNeverThrown"})
+    private boolean execute(GridJobWorker job) {
+        // Cancel request could have missed job while it was moved from passive to active jobs.
+        if (isCancelRequested(job.getJobId(), job.getSession().getId()) && cancelActive(job)) {
+            if (log.isDebugEnabled())
+                log.debug("Activated job was cancelled concurrently: " + job);
 
-        synchronized (mux) {
-            activeJobsSize = activeJobs.size();
-            passiveJobsSize = passiveJobs.size();
-            cancelledJobsSize = cancelledJobs.size();
+            cancelJob(job, false);
         }
 
+        try {
+            // Execute in a different thread. If current thread is a worker of
+            // work-stealing pool (e.g. job of locally mapped task), then job
+            // goes to that worker's own deque.
+            ctx.config().getExecutorService().execute(job);
+
+            return true;
+        }
+        catch (RejectedExecutionException e) {
+            activeJobs.remove(job.getJobId(), job);
+
+            GridException e2 = new GridExecutionRejectedException("Job was cancelled before execution [jobSes=" +
+                job.getSession() + ", job=" + job.getJob() + ']', e);
+
+            finishJob(job, null, e2, true);
+
+            return false;
+        }
+    }
+
+    /**
+     * @param activeCnt Active jobs count.
+     * @param passiveCnt Passive jobs count.
+     * @param startedCnt Started jobs count.
+     * @param cancelCnt Cancelled jobs count.
+     * @param rejectCnt Rejected jobs count.
+     * @param waitTime Total wait time of started jobs.
+     * @param maxExecTime Execution time of oldest active job.
+     * @param maxWaitTime Wait time of oldest passive job.
+     */
+    private void addMetricsSnapshot(int activeCnt, int passiveCnt, int startedCnt, int cancelCnt, int rejectCnt,
+        long waitTime, long maxExecTime, long maxWaitTime) {
+        GridJobMetricsSnapshot m = new GridJobMetricsSnapshot();
+
+        m.setActiveJobs(activeCnt);
+        m.setCancelJobs(cancelCnt);
+        m.setMaximumExecutionTime(maxExecTime);
+        m.setMaximumWaitTime(maxWaitTime);
+        m.setPassiveJobs(passiveCnt);
+        m.setRejectJobs(rejectCnt);
+        m.setWaitTime(waitTime);
+        m.setStartedJobs(startedCnt);
+
+        // Get and reset finished jobs metrics.
+        m.setFinishedJobs(finishedJobsCnt.getAndSet(0));
+        m.setExecutionTime(finishedJobsTime.getAndSet(0));
+
+        // CPU load.
+        m.setCpuLoad(ctx.localMetric().metrics().getCurrentCpuLoad());
+
+        ctx.jobMetric().addSnapshot(m);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void printMemoryStats() {
         X.println(">>>");
         X.println(">>> Job processor memory stats [grid=" + ctx.gridName() + ']');
-        X.println(">>>   activeJobsSize: " + activeJobsSize);
-        X.println(">>>   passiveJobsSize: " + passiveJobsSize);
-        X.println(">>>   cancelledJobsSize: " + cancelledJobsSize);
+        X.println(">>>   activeJobsSize: " + activeJobs.sizex());
+        X.println(">>>   passiveJobsSize: " + passiveJobs.sizex());
+        X.println(">>>   cancelledJobsSize: " + cancelledJobs.size());
         X.println(">>>   cancelReqsSize: " + cancelReqs.size());
     }
 
@@ -571,25 +845,11 @@ public class GridJobProcessor extends GridProcessorAdapter {
                     if (jobCtx.isActivated()) {
                         totalWaitTime += jobCtx.getJobWorker().getQueuedTime();
 
-                        try {
-                            // Execute in a different thread.
-                            ctx.config().getExecutorService().execute(jobCtx.getJobWorker());
-
+                        if (execute(jobCtx.getJobWorker())) {
                             startedCtr++;
 
                             activeCtr++;
                         }
-                        catch (RejectedExecutionException e) {
-                            synchronized (mux) {
-                                activeJobs.remove(jobCtx.getJobWorker().getJobId());
-                            }
-
-                            GridException e2 = new GridExecutionRejectedException(
-                                "Job was cancelled before execution [jobSes=" + jobCtx.getJobWorker().getSession() +
-                                    ", job=" + jobCtx.getJobWorker().getJob() + ']', e);
-
-                            finishJob(jobCtx.getJobWorker(), null, e2, true);
-                        }
                     }
                     // Job remains on passive list.
                     else {
@@ -631,41 +891,29 @@ public class GridJobProcessor extends GridProcessorAdapter {
 
         /** */
         private void updateCollisionMetrics() {
-            int curCancelled = cancelCtr;
-
-            GridJobMetricsSnapshot m = new GridJobMetricsSnapshot();
-
-            m.setActiveJobs(activeCtr);
-            m.setCancelJobs(curCancelled);
-            m.setMaximumExecutionTime(oldestActive == null ? 0 : oldestActive.getJobWorker().getExecuteTime());
-            m.setMaximumWaitTime(oldestPassive == null ? 0 : oldestPassive.getJobWorker().getQueuedTime());
-            m.setPassiveJobs(passiveCtr);
-            m.setRejectJobs(rejectCtr);
-            m.setWaitTime(totalWaitTime);
-            m.setStartedJobs(startedCtr);
-
-            // Get and reset finished jobs metrics.
-            m.setFinishedJobs(finishedJobsCnt.getAndSet(0));
-            m.setExecutionTime(finishedJobsTime.getAndSet(0));
-
-            // CPU load.
-            m.setCpuLoad(ctx.localMetric().metrics().getCurrentCpuLoad());
-
-            ctx.jobMetric().addSnapshot(m);
+            addMetricsSnapshot(activeCtr, passiveCtr, startedCtr, cancelCtr, rejectCtr, totalWaitTime,
+                oldestActive == null ? 0 : oldestActive.getJobWorker().getExecuteTime(),
+                oldestPassive == null ? 0 : oldestPassive.getJobWorker().getQueuedTime());
         }
 
         /**
          *
          */
         private class CollisionJobContext extends GridCollisionJobContextAdapter {
-            /** */
-            private final boolean isPassive;
+            /** Initial state. */
+            private static final int INIT = 0;
 
-            /** */
-            private boolean isActivated;
+            /** Activated state. */
+            private static final int ACTIVATED = 1;
+
+            /** Cancelled state. */
+            private static final int CANCELLED = 2;
 
             /** */
-            private boolean isCancelled;
+            private final boolean isPassive;
+
+            /** Context state. */
+            private final AtomicInteger state = new AtomicInteger(INIT);
 
             /**
              * @param jobWorker Job Worker.
@@ -679,33 +927,24 @@ public class GridJobProcessor extends GridProcessorAdapter {
 
             /** {@inheritDoc} */
             @Override public boolean activate() {
-                synchronized (mux) {
-                    if (passiveJobs.remove(getJobWorker().getJobId()) != null) {
-                        activeJobs.put(getJobWorker().getJobId(), getJobWorker());
+                // Only one thread can remove job from passive jobs, so state CAS never races.
+                if (state.get() == INIT && activatePassive(getJobWorker()))
+                    state.compareAndSet(INIT, ACTIVATED);
 
-                        isActivated = true;
-                    }
-
-                    return isActivated;
-                }
+                return state.get() == ACTIVATED;
             }
 
             /** {@inheritDoc} */
             @Override public boolean cancel() {
-                synchronized (mux) {
-                    // If waiting job being rejected.
-                    if (isPassive) {
-                        isCancelled = passiveJobs.remove(getJobWorker().getJobId()) != null;
-                    }
-                    // If active job being cancelled.
-                    else if (activeJobs.remove(getJobWorker().getJobId()) != null) {
-                        cancelledJobs.put(getJobWorker().getJobId(), getJobWorker());
-
-                        isCancelled = true;
-                    }
+                if (state.get() == INIT) {
+                    GridJobWorker job = getJobWorker();
 
-                    return isCancelled;
+                    // If waiting job being rejected or active job being cancelled.
+                    if (isPassive ? passiveJobs.remove(job.getJobId(), job) : cancelActive(job))
+                        state.compareAndSet(INIT, CANCELLED);
                 }
+
+                return state.get() == CANCELLED;
             }
 
             /**
@@ -714,9 +953,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
              * @return {@code True} if context was activated.
              */
             public boolean isActivated() {
-                synchronized (mux) {
-                    return isActivated;
-                }
+                return state.get() == ACTIVATED;
             }
 
             /**
@@ -725,9 +962,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
              * @return {@code True} if context was cancelled.
              */
             public boolean isCancelled() {
-                synchronized (mux) {
-                    return isCancelled;
-                }
+                return state.get() == CANCELLED;
             }
 
             /** {@inheritDoc} */
@@ -737,6 +972,97 @@ public class GridJobProcessor extends GridProcessorAdapter {
         }
     }
 
+    /**
+     * Persistent collision context of a job passed to incremental collision SPI. Activation
+     * and cancellation update job lists right away, while job execution or rejection is
+     * deferred until SPI callback returns.
+     */
+    private class IncrementalJobContext extends GridCollisionJobContextAdapter {
+        /**
+         * @param jobWorker Job worker.
+         */
+        IncrementalJobContext(GridJobWorker jobWorker) {
+            super(jobWorker);
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean activate() {
+            GridJobWorker job = getJobWorker();
+
+            if (!activatePassive(job))
+                return false;
+
+            colActions.add(new CollisionAction(job, CollisionAction.EXECUTE));
+
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean cancel() {
+            GridJobWorker job = getJobWorker();
+
+            int type;
+
+            // If waiting job being rejected.
+            if (passiveJobs.remove(job.getJobId(), job))
+                type = CollisionAction.REJECT;
+            // If active job being cancelled.
+            else if (cancelActive(job))
+                type = CollisionAction.CANCEL;
+            else
+                return false;
+
+            colActions.add(new CollisionAction(job, type));
+
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean equals(Object obj) {
+            return obj == this || obj instanceof IncrementalJobContext &&
+                getJobWorker() == ((IncrementalJobContext)obj).getJobWorker();
+        }
+
+        /** {@inheritDoc} */
+        @Override public int hashCode() {
+            return getJobWorker().getJobId().hashCode();
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(IncrementalJobContext.class, this, "jobId", getJobWorker().getJobId());
+        }
+    }
+
+    /**
+     * Job execution, rejection or cancellation requested by incremental collision SPI.
+     */
+    private static class CollisionAction {
+        /** Execute activated job. */
+        static final int EXECUTE = 0;
+
+        /** Reject waiting job. */
+        static final int REJECT = 1;
+
+        /** Cancel active job. */
+        static final int CANCEL = 2;
+
+        /** */
+        private final GridJobWorker job;
+
+        /** */
+        private final int type;
+
+        /**
+         * @param job Job worker.
+         * @param type Action type.
+         */
+        CollisionAction(GridJobWorker job, int type) {
+            this.job = job;
+            this.type = type;
+        }
+    }
+
     /**
      *
      */
@@ -746,24 +1072,20 @@ public class GridJobProcessor extends GridProcessorAdapter {
             if (log.isDebugEnabled())
                 log.debug("Received external collision event.");
 
-            synchronized (mux) {
-                if (stopping) {
-                    if (log.isInfoEnabled())
-                        log.info("Received external collision notification while stopping grid (will ignore).");
-
-                    return;
-                }
-
-                collisionsHandled = false;
+            if (!busyLock.enterBusy()) {
+                if (log.isInfoEnabled())
+                    log.info("Received external collision notification while stopping grid (will ignore).");
 
-                callCnt++;
+                return;
             }
 
             try {
+                collisionsHandled = false;
+
                 handleCollisions();
             }
             finally {
-                decrementCallCount();
+                busyLock.leaveBusy();
             }
         }
     }
@@ -813,16 +1135,16 @@ public class GridJobProcessor extends GridProcessorAdapter {
 
             release(worker.getDeployment());
 
-            synchronized (mux) {
-                assert !passiveJobs.containsKey(worker.getJobId());
+            assert !passiveJobs.containsKey(worker.getJobId());
 
-                activeJobs.remove(worker.getJobId());
-                cancelledJobs.remove(worker.getJobId());
+            activeJobs.remove(worker.getJobId(), worker);
+            cancelledJobs.remove(worker.getJobId(), worker);
 
-                collisionsHandled = false;
+            collisionsHandled = false;
 
-                callCnt++;
-            }
+            // Jobs keep finishing while processor is stopping, so they are
+            // cleaned up even if busy state could not be entered.
+            boolean busy = busyLock.enterBusy();
 
             try {
                 // Increment job execution counter. This counter gets
@@ -833,10 +1155,46 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 // reset once this job will be accounted for in metrics.
                 finishedJobsTime.addAndGet(worker.getExecuteTime());
 
+                if (incCol)
+                    ctx.collision().onJobFinished(new IncrementalJobContext(worker));
+
                 handleCollisions();
             }
             finally {
-                decrementCallCount();
+                if (busy)
+                    busyLock.leaveBusy();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public void onJobHeld(GridJobWorker worker) {
+            // Legacy collision SPIs check held state in snapshots.
+            if (!incCol || !busyLock.enterBusy())
+                return;
+
+            try {
+                ctx.collision().onJobHeld(new IncrementalJobContext(worker));
+
+                // Held job frees execution slot.
+                handleCollisions();
+            }
+            finally {
+                busyLock.leaveBusy();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override public void onJobResumed(GridJobWorker worker) {
+            if (!incCol || !busyLock.enterBusy())
+                return;
+
+            try {
+                ctx.collision().onJobResumed(new IncrementalJobContext(worker));
+
+                handleCollisions();
+            }
+            finally {
+                busyLock.leaveBusy();
             }
         }
     }
@@ -859,78 +1217,56 @@ public class GridJobProcessor extends GridProcessorAdapter {
             Collection<GridJobWorker> jobsToCancel = new ArrayList<GridJobWorker>();
             Collection<GridJobWorker> jobsToReject = new ArrayList<GridJobWorker>();
 
-            synchronized (mux) {
-                if (stopping) {
-                    if (log.isDebugEnabled())
-                        log.debug("Received task cancellation request while stopping grid (will ignore): " + cancelMsg);
-
-                    return;
-                }
+            if (!busyLock.enterBusy()) {
+                if (log.isDebugEnabled())
+                    log.debug("Received task cancellation request while stopping grid (will ignore): " + cancelMsg);
 
-                callCnt++;
+                return;
+            }
 
-                // Put either job id or session id (they are unique).
+            try {
+                // Put either job id or session id (they are unique). Request is registered
+                // before jobs are looked up, so that jobs arriving or being activated
+                // concurrently will find it.
                 if (cancelMsg.getJobId() != null)
                     cancelReqs.add(cancelMsg.getJobId());
                 else
                     cancelReqs.add(cancelMsg.getSessionId());
 
-                // Passive jobs.
-                for (Iterator<GridJobWorker> iter = passiveJobs.values().iterator(); iter.hasNext();) {
-                    GridJobWorker job = iter.next();
+                if (cancelMsg.getJobId() != null) {
+                    GridJobWorker job = passiveJobs.get(cancelMsg.getJobId());
 
-                    if (job.getSession().getId().equals(cancelMsg.getSessionId())) {
-                        // If job session ID is provided, then match it too.
-                        if (cancelMsg.getJobId() != null) {
-                            if (job.getJobId().equals(cancelMsg.getJobId())) {
-                                iter.remove();
+                    if (job != null && job.getSession().getId().equals(cancelMsg.getSessionId()) &&
+                        passiveJobs.remove(job.getJobId(), job))
+                        jobsToReject.add(job);
 
-                                jobsToReject.add(job);
-
-                                collisionsHandled = false;
-                            }
-                        }
-                        else {
-                            iter.remove();
+                    job = activeJobs.get(cancelMsg.getJobId());
 
+                    if (job != null && job.getSession().getId().equals(cancelMsg.getSessionId()) &&
+                        cancelActive(job))
+                        jobsToCancel.add(job);
+                }
+                else {
+                    // Passive jobs.
+                    for (GridJobWorker job : passiveJobs.values())
+                        if (job.getSession().getId().equals(cancelMsg.getSessionId()) &&
+                            passiveJobs.remove(job.getJobId(), job))
                             jobsToReject.add(job);
 
-                            collisionsHandled = false;
-                        }
-                    }
+                    // Active jobs.
+                    for (GridJobWorker job : activeJobs.values())
+                        if (job.getSession().getId().equals(cancelMsg.getSessionId()) && cancelActive(job))
+                            jobsToCancel.add(job);
                 }
 
-                // Active jobs.
-                for (Iterator<GridJobWorker> iter = activeJobs.values().iterator(); iter.hasNext();) {
-                    GridJobWorker job = iter.next();
-
-                    if (job.getSession().getId().equals(cancelMsg.getSessionId())) {
-                        // If job session ID is provided, then match it too.
-                        if (cancelMsg.getJobId() != null) {
-                            if (job.getJobId().equals(cancelMsg.getJobId())) {
-                                iter.remove();
-
-                                cancelledJobs.put(job.getJobId(), job);
-
-                                jobsToCancel.add(job);
-
-                                collisionsHandled = false;
-                            }
-                        }
-                        else {
-                            iter.remove();
-
-                            cancelledJobs.put(job.getJobId(), job);
-
-                            jobsToCancel.add(job);
+                if (!jobsToReject.isEmpty() || !jobsToCancel.isEmpty())
+                    collisionsHandled = false;
 
-                            collisionsHandled = false;
-                        }
-                    }
+                if (incCol) {
+                    onCancelled(jobsToReject);
+                    onCancelled(jobsToCancel);
                 }
-            }
 
-            try {
                 for (GridJobWorker job : jobsToReject)
                     rejectJob(job);
 
@@ -940,7 +1276,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 handleCollisions();
             }
             finally {
-                decrementCallCount();
+                busyLock.leaveBusy();
             }
         }
     }
@@ -967,15 +1303,11 @@ public class GridJobProcessor extends GridProcessorAdapter {
             if (log.isDebugEnabled())
                 log.debug("Received job request message [msg=" + msg + ", nodeId=" + nodeId + ']');
 
-            synchronized (mux) {
-                if (stopping) {
-                    if (log.isInfoEnabled())
-                        log.info("Received job execution request while stopping this node (will ignore): " + msg);
-
-                    return;
-                }
+            if (!busyLock.enterBusy()) {
+                if (log.isInfoEnabled())
+                    log.info("Received job execution request while stopping this node (will ignore): " + msg);
 
-                callCnt++;
+                return;
             }
 
             try {
@@ -1068,41 +1400,54 @@ public class GridJobProcessor extends GridProcessorAdapter {
                     jobCtx.job(job);
 
                     if (job.initialize(dep, dep.deployedClass(req.getTaskClassName()))) {
-                        synchronized (mux) {
-                            // Check if job or task has already been canceled.
-                            if (cancelReqs.contains(req.getJobId()) ||
-                                cancelReqs.contains(req.getSessionId())) {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Received execution request for the cancelled job (will ignore) " +
-                                        "[srcNode=" + req.getTaskNodeId() + ", jobId=" + req.getJobId() +
-                                        ", sesId=" + req.getSessionId() + ']');
-                                }
-
-                                return;
-                            }
-                            else if (passiveJobs.containsKey(job.getJobId()) ||
-                                activeJobs.containsKey(job.getJobId()) ||
-                                cancelledJobs.containsKey(job.getJobId())) {
-                                U.error(log, "Received computation request with duplicate job ID " +
-                                    "(could be network malfunction, source node may hang if task timeout was not set) " +
-                                    "[srcNode=" + req.getTaskNodeId() +
-                                    ", jobId=" + req.getJobId() +
-                                    ", sesId=" + req.getSessionId() +
-                                    ", locNodeId=" + ctx.localNodeId() +
-                                    ", isActive=" + activeJobs.containsKey(job.getJobId()) +
-                                    ", isPassive=" + passiveJobs.containsKey(job.getJobId()) +
-                                    ", isCancelled=" + cancelledJobs.containsKey(job.getJobId()) +
-                                    ']');
-
-                                return;
+                        // Check if job or task has already been canceled.
+                        if (isCancelRequested(req.getJobId(), req.getSessionId())) {
+                            if (log.isDebugEnabled()) {
+                                log.debug("Received execution request for the cancelled job (will ignore) " +
+                                    "[srcNode=" + req.getTaskNodeId() + ", jobId=" + req.getJobId() +
+                                    ", sesId=" + req.getSessionId() + ']');
                             }
-                            else {
-                                passiveJobs.put(job.getJobId(), job);
 
-                                collisionsHandled = false;
+                            return;
+                        }
+
+                        if (passiveJobs.putIfAbsent(job.getJobId(), job) != null ||
+                            activeJobs.containsKey(job.getJobId()) ||
+                            cancelledJobs.containsKey(job.getJobId())) {
+                            passiveJobs.remove(job.getJobId(), job);
+
+                            U.error(log, "Received computation request with duplicate job ID " +
+                                "(could be network malfunction, source node may hang if task timeout was not set) " +
+                                "[srcNode=" + req.getTaskNodeId() +
+                                ", jobId=" + req.getJobId() +
+                                ", sesId=" + req.getSessionId() +
+                                ", locNodeId=" + ctx.localNodeId() +
+                                ", isActive=" + activeJobs.containsKey(job.getJobId()) +
+                                ", isPassive=" + passiveJobs.containsKey(job.getJobId()) +
+                                ", isCancelled=" + cancelledJobs.containsKey(job.getJobId()) +
+                                ']');
+
+                            return;
+                        }
+
+                        // Cancel request could have been registered after the check above
+                        // and missed the job while it was not yet passive.
+                        if (isCancelRequested(req.getJobId(), req.getSessionId()) &&
+                            passiveJobs.remove(job.getJobId(), job)) {
+                            if (log.isDebugEnabled()) {
+                                log.debug("Received execution request for the cancelled job (will ignore) " +
+                                    "[srcNode=" + req.getTaskNodeId() + ", jobId=" + req.getJobId() +
+                                    ", sesId=" + req.getSessionId() + ']');
                             }
+
+                            return;
                         }
 
+                        collisionsHandled = false;
+
+                        if (incCol)
+                            ctx.collision().onJobArrived(new IncrementalJobContext(job));
+
                         handleCollisions();
                     }
                 }
@@ -1119,7 +1464,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 }
             }
             finally {
-                decrementCallCount();
+                busyLock.leaveBusy();
             }
         }
 
@@ -1237,15 +1582,11 @@ public class GridJobProcessor extends GridProcessorAdapter {
 
             GridTaskSessionRequest req = (GridTaskSessionRequest)msg;
 
-            synchronized (mux) {
-                if (stopping) {
-                    if (log.isInfoEnabled())
-                        log.info("Received job session request while stopping grid (will ignore): " + req);
-
-                    return;
-                }
+            if (!busyLock.enterBusy()) {
+                if (log.isInfoEnabled())
+                    log.info("Received job session request while stopping grid (will ignore): " + req);
 
-                callCnt++;
+                return;
             }
 
             try {
@@ -1279,7 +1620,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 U.error(log, "Failed to deserialize session attributes.", e);
             }
             finally {
-                decrementCallCount();
+                busyLock.leaveBusy();
             }
         }
     }
@@ -1295,7 +1636,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
          * Counter used to determine whether all nodes updated metrics or not.
          * This counter is reset every time collisions are handled.
          */
-        private int metricsUpdateCntr;
+        private final AtomicInteger metricsUpdateCntr = new AtomicInteger();
 
         @SuppressWarnings({"ThrowableInstanceNeverThrown"})
         @Override public void onEvent(GridEvent evt) {
@@ -1306,55 +1647,37 @@ public class GridJobProcessor extends GridProcessorAdapter {
             Collection<GridJobWorker> jobsToReject = new ArrayList<GridJobWorker>();
             Collection<GridJobWorker> jobsToCancel = new ArrayList<GridJobWorker>();
 
-            synchronized (mux) {
-                callCnt++;
+            if (!busyLock.enterBusy()) {
+                if (log.isDebugEnabled())
+                    log.debug("Received discovery event while stopping (will ignore): " + evt);
+
+                return;
             }
 
             try {
                 switch (evt.type()) {
                     case EVT_NODE_LEFT:
                     case EVT_NODE_FAILED: {
-                        synchronized (mux) {
-                            if (stopping) {
-                                if (log.isDebugEnabled())
-                                    log.debug("Received discovery event while stopping (will ignore): " + evt);
-
-                                return;
-                            }
-
-                            for (Iterator<GridJobWorker> iter = passiveJobs.values().iterator();
-                                 iter.hasNext();) {
-                                GridJobWorker job = iter.next();
-
-                                if (job.getTaskNodeId().equals(nodeId)) {
-                                    // Remove from passive jobs.
-                                    iter.remove();
-
-                                    jobsToReject.add(job);
-
-                                    collisionsHandled = false;
-                                }
-                            }
-
-                            for (Iterator<GridJobWorker> iter = activeJobs.values().iterator();
-                                 iter.hasNext();) {
-                                GridJobWorker job = iter.next();
-
-                                if (job.getTaskNodeId().equals(nodeId) && !job.isFinishing()) {
-                                    // Remove from active jobs.
-                                    iter.remove();
+                        for (GridJobWorker job : passiveJobs.values()) {
+                            // Remove from passive jobs.
+                            if (job.getTaskNodeId().equals(nodeId) && passiveJobs.remove(job.getJobId(), job))
+                                jobsToReject.add(job);
+                        }
 
-                                    // Add to cancelled jobs.
-                                    cancelledJobs.put(job.getJobId(), job);
+                        for (GridJobWorker job : activeJobs.values()) {
+                            // Move from active to cancelled jobs.
+                            if (job.getTaskNodeId().equals(nodeId) && !job.isFinishing() && cancelActive(job))
+                                jobsToCancel.add(job);
+                        }
 
-                                    jobsToCancel.add(job);
+                        if (!jobsToReject.isEmpty() || !jobsToCancel.isEmpty())
+                            collisionsHandled = false;
 
-                                    collisionsHandled = false;
-                                }
-                            }
+                        if (incCol) {
+                            onCancelled(jobsToReject);
+                            onCancelled(jobsToCancel);
                         }
 
-                        // Outside of synchronization.
                         for (GridJobWorker job : jobsToReject) {
                             GridException e = new GridTopologyException("Task originating node left grid " +
                                 "(job will fail) [nodeId=" + nodeId + ", jobSes=" + job.getSession() +
@@ -1381,14 +1704,12 @@ public class GridJobProcessor extends GridProcessorAdapter {
                         // Update metrics for all nodes.
                         int gridSize = ctx.discovery().allNodes().size();
 
-                        synchronized (mux) {
-                            // Check for less-than-equal rather than just equal
-                            // in guard against topology changes.
-                            if (gridSize <= ++metricsUpdateCntr) {
-                                collisionsHandled = false;
+                        // Check for less-than-equal rather than just equal
+                        // in guard against topology changes.
+                        if (gridSize <= metricsUpdateCntr.incrementAndGet()) {
+                            collisionsHandled = false;
 
-                                metricsUpdateCntr = 0;
-                            }
+                            metricsUpdateCntr.set(0);
                         }
 
                         handleCollisions();
@@ -1406,7 +1727,7 @@ public class GridJobProcessor extends GridProcessorAdapter {
                 }
             }
             finally {
-                decrementCallCount();
+                busyLock.leaveBusy();
             }
         }
     }
@@ -314,7 +314,8 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
 
         cancel(true);
 
-        recordEvent(EVT_JOB_TIMEDOUT, "Job has timed out: " + job.get());
+        if (ctx.event().isRecordable(EVT_JOB_TIMEDOUT))
+            recordEvent(EVT_JOB_TIMEDOUT, "Job has timed out: " + job.get());
     }
 
     /**
@@ -330,9 +331,16 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
     private void unhold() {
         HOLD.set(false);
 
+        boolean resumed;
+
         synchronized (mux) {
+            resumed = held;
+
             held = false;
         }
+
+        if (resumed)
+            evtLsnr.onJobResumed(this);
     }
 
     /**
@@ -350,9 +358,16 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
     public void hold() {
         HOLD.set(true);
 
+        boolean wasHeld;
+
         synchronized (mux) {
+            wasHeld = held;
+
             held = true;
         }
+
+        if (!wasHeld)
+            evtLsnr.onJobHeld(this);
     }
 
     /**
@@ -549,7 +564,8 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
                 });
             }
 
-            recordEvent(EVT_JOB_CANCELLED, "Job was cancelled: " + job);
+            if (ctx.event().isRecordable(EVT_JOB_CANCELLED))
+                recordEvent(EVT_JOB_CANCELLED, "Job was cancelled: " + job);
         }
         // Catch throwable to protect against bad user code.
         catch (Throwable e) {
@@ -595,6 +611,21 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
             isFinishing = true;
         }
 
+        // Job result is held until checkpoints saved by job asynchronously are durable.
+        if (ex == null) {
+            try {
+                ctx.checkpoint().awaitCheckpoints(ses.getJobId());
+            }
+            catch (GridException e) {
+                ex = new GridException("Failed to save checkpoint for job [jobId=" + ses.getJobId() +
+                    ", ses=" + ses + ']', e);
+
+                res = null;
+            }
+        }
+        else
+            ctx.checkpoint().forgetCheckpoints(ses.getJobId());
+
         Collection<GridTuple2<Integer, String>> evts = new LinkedList<GridTuple2<Integer, String>>();
 
         try {
@@ -625,10 +656,13 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
                                         "exception [ex=" + ex + ", job=" + job.get() + ']'));
                                 }
                             }
-                            else {
+                            else if (ctx.event().isRecordable(EVT_JOB_FINISHED)) {
                                 evts.add(F.t(EVT_JOB_FINISHED, /*no message for success. */(String)null));
                             }
 
+                            // Attributes set by job must reach task prior to job result.
+                            ctx.job().flushAttributes(ses.getJobId());
+
                             Serializable jobRes = new GridJobExecuteResponse(
                                 ctx.localNodeId(),
                                 ses.getId(),
@@ -703,7 +737,7 @@ public class GridJobWorker extends GridWorker implements GridTimeoutObject {
                                 ex + ", job=" + job.get() + ']'));
                         }
                     }
-                    else {
+                    else if (ctx.event().isRecordable(EVT_JOB_FINISHED)) {
                         evts.add(F.t(EVT_JOB_FINISHED, /*no message for success. */(String)null));
                     }
                 }
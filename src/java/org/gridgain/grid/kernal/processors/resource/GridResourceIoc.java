@@ -52,9 +52,27 @@ class GridResourceIoc {
     private final ConcurrentMap<Class<? extends Annotation>, Set<Class<?>>> skipCache =
         new ConcurrentHashMap<Class<? extends Annotation>, Set<Class<?>>>();
 
+    /** Annotations injected together via {@link Injections}, in injection order. */
+    private final List<Class<? extends Annotation>> anns;
+
+    /** Compiled injection plans keyed by target class. */
+    private final ConcurrentMap<Class<?>, InjectionPlan> plans = new ConcurrentHashMap<Class<?>, InjectionPlan>();
+
     /** */
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
+    /** Number of undeployments, used to detect undeployment while injection plan is compiled. */
+    private volatile long undeployCnt;
+
+    /**
+     * @param anns Annotations injected together via {@link Injections}, in injection order.
+     */
+    GridResourceIoc(List<Class<? extends Annotation>> anns) {
+        assert anns != null && !anns.isEmpty();
+
+        this.anns = new ArrayList<Class<? extends Annotation>>(anns);
+    }
+
     /**
      * @param ldr Class loader.
      */
@@ -62,6 +80,8 @@ class GridResourceIoc {
         lock.writeLock().lock();
 
         try {
+            undeployCnt++;
+
             Set<Class<?>> clss = taskMap.remove(ldr);
 
             if (clss != null) {
@@ -75,6 +95,8 @@ class GridResourceIoc {
                         e.getValue().removeAll(clss);
                     }
                 }
+
+                plans.keySet().removeAll(clss);
             }
         }
         finally {
@@ -89,9 +111,12 @@ class GridResourceIoc {
         lock.writeLock().lock();
 
         try {
+            undeployCnt++;
+
             taskMap.clear();
             mtdCache.clear();
             fieldCache.clear();
+            plans.clear();
         }
         finally {
             lock.writeLock().unlock();
@@ -119,6 +144,165 @@ class GridResourceIoc {
         injectInternal(target, annCls, injector, dep, depCls, new GridIdentityHashSet<Object>(3));
     }
 
+    /**
+     * @return New empty set of injections.
+     */
+    Injections injections() {
+        return new Injections();
+    }
+
+    /**
+     * Injects resources for all given annotations using injection plan compiled once per
+     * target class. Classes without any of the annotations are skipped right away. Resources
+     * are injected in the same order as by calling {@link #inject(Object, Class, GridResourceInjector,
+     * GridDeployment, Class)} for every annotation in the order given to constructor.
+     *
+     * @param target Target object.
+     * @param injs Annotations paired with their injectors.
+     * @param dep Deployment.
+     * @param depCls Deployment class.
+     * @throws GridException Thrown in case of any errors during injection.
+     */
+    void inject(Object target, Injections injs, @Nullable GridDeployment dep, @Nullable Class<?> depCls)
+        throws GridException {
+        assert target != null;
+        assert injs != null;
+
+        InjectionPlan plan = plan(target.getClass(), dep);
+
+        if (plan.isEmpty())
+            return;
+
+        for (int i = 0; i < plan.steps.length; i++) {
+            GridResourceInjector injector = injs.injectors[i];
+
+            if (injector != null && plan.steps[i].length > 0)
+                injectInternal(target, plan, i, injector, dep, depCls, null);
+        }
+    }
+
+    /**
+     * @param target Target object.
+     * @param plan Injection plan of target class.
+     * @param annIdx Index of annotation to inject.
+     * @param injector Injector of annotation.
+     * @param dep Deployment.
+     * @param depCls Deployment class.
+     * @param checkedObjs Set of already inspected objects to avoid indefinite recursion,
+     *      {@code null} if no nested objects were inspected yet.
+     * @throws GridException Thrown in case of any errors during injection.
+     */
+    private void injectInternal(Object target, InjectionPlan plan, int annIdx, GridResourceInjector injector,
+        @Nullable GridDeployment dep, @Nullable Class<?> depCls, @Nullable Set<Object> checkedObjs)
+        throws GridException {
+        for (InjectionStep step : plan.steps[annIdx]) {
+            if (step.mtd != null)
+                injector.inject(step.mtd, target, depCls, dep);
+            else if (!step.nested)
+                injector.inject(step.field, target, depCls, dep);
+            else {
+                Field f = step.field.getField();
+
+                try {
+                    Object obj = f.get(target);
+
+                    if (obj == null)
+                        continue;
+
+                    if (checkedObjs == null) {
+                        // Use identity hash set to compare via referential equality.
+                        checkedObjs = new GridIdentityHashSet<Object>(3);
+
+                        checkedObjs.add(target);
+                    }
+
+                    // Check if already inspected to avoid indefinite recursion.
+                    if (!checkedObjs.add(obj))
+                        continue;
+
+                    InjectionPlan objPlan = plan(obj.getClass(), dep);
+
+                    if (objPlan.steps[annIdx].length > 0)
+                        // Recursion.
+                        injectInternal(obj, objPlan, annIdx, injector, dep, depCls, checkedObjs);
+                }
+                catch (IllegalAccessException e) {
+                    throw new GridException("Failed to inject resource [field=" + f.getName() +
+                        ", target=" + target + ']', e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets injection plan for given class, compiling it on first access.
+     *
+     * @param cls Target class.
+     * @param dep Deployment.
+     * @return Injection plan.
+     */
+    private InjectionPlan plan(Class<?> cls, @Nullable GridDeployment dep) {
+        InjectionPlan plan = plans.get(cls);
+
+        if (plan == null) {
+            long undeployCnt0 = undeployCnt;
+
+            InjectionStep[][] steps = new InjectionStep[anns.size()][];
+
+            // Keep injection order: annotation by annotation, then up class hierarchy.
+            for (int i = 0; i < steps.length; i++) {
+                List<InjectionStep> annSteps = new ArrayList<InjectionStep>();
+
+                for (Class<?> c = cls; !c.equals(Object.class); c = c.getSuperclass()) {
+                    for (GridResourceField field : getFieldsWithAnnotation(dep, c, anns.get(i))) {
+                        Field f = field.getField();
+
+                        boolean nested = GridResourceUtils.mayRequireResources(f);
+
+                        if (nested)
+                            f.setAccessible(true);
+
+                        annSteps.add(new InjectionStep(field, null, nested));
+                    }
+
+                    for (GridResourceMethod mtd : getMethodsWithAnnotation(dep, c, anns.get(i)))
+                        annSteps.add(new InjectionStep(null, mtd, false));
+                }
+
+                steps[i] = annSteps.toArray(new InjectionStep[annSteps.size()]);
+            }
+
+            plan = new InjectionPlan(steps);
+
+            lock.writeLock().lock();
+
+            try {
+                // Do not cache plan compiled concurrently with undeployment, since it would
+                // not be removed on undeployment and would hold undeployed class loader.
+                if (undeployCnt != undeployCnt0)
+                    return plan;
+
+                if (dep != null) {
+                    Set<Class<?>> classes = F.addIfAbsent(taskMap, dep.classLoader(), F.<Class<?>>newSet());
+
+                    assert classes != null;
+
+                    classes.add(cls);
+                }
+
+                InjectionPlan old = plans.putIfAbsent(cls, plan);
+
+                if (old != null)
+                    plan = old;
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        return plan;
+    }
+
     /**
      * @param target Target object.
      * @param annCls Setter annotation.
@@ -441,5 +625,94 @@ class GridResourceIoc {
         X.println(">>>   fieldCacheSize: " + fieldCache.size());
         X.println(">>>   mtdCacheSize: " + mtdCache.size());
         X.println(">>>   skipCacheSize: " + skipCache.size());
+        X.println(">>>   plansSize: " + plans.size());
+    }
+
+    /**
+     * Resource annotations paired with injectors providing their values. Annotations
+     * without injector are not injected.
+     */
+    class Injections {
+        /** Injectors indexed by position of their annotations in injection order. */
+        private final GridResourceInjector[] injectors = new GridResourceInjector[anns.size()];
+
+        /**
+         * @param annCls Annotation.
+         * @param injector Injector for given annotation.
+         * @return This for chaining.
+         */
+        Injections add(Class<? extends Annotation> annCls, GridResourceInjector injector) {
+            assert injector != null;
+
+            int idx = anns.indexOf(annCls);
+
+            assert idx >= 0 : "Annotation is not injected together with others: " + annCls;
+
+            injectors[idx] = injector;
+
+            return this;
+        }
+    }
+
+    /**
+     * Injection plan compiled for target class: for every annotation, annotated fields and
+     * methods of class and its super-classes and fields with nested objects that may require
+     * injection, in injection order.
+     */
+    private static class InjectionPlan {
+        /** Injection steps indexed by annotation. */
+        private final InjectionStep[][] steps;
+
+        /** Whether there is nothing to inject. */
+        private final boolean empty;
+
+        /**
+         * @param steps Injection steps indexed by annotation.
+         */
+        InjectionPlan(InjectionStep[][] steps) {
+            this.steps = steps;
+
+            boolean empty = true;
+
+            for (InjectionStep[] annSteps : steps)
+                if (annSteps.length > 0)
+                    empty = false;
+
+            this.empty = empty;
+        }
+
+        /**
+         * @return {@code True} if there is nothing to inject.
+         */
+        boolean isEmpty() {
+            return empty;
+        }
+    }
+
+    /**
+     * Single step of injection plan.
+     */
+    private static class InjectionStep {
+        /** Annotated field, {@code null} for method. */
+        private final GridResourceField field;
+
+        /** Annotated method, {@code null} for field. */
+        private final GridResourceMethod mtd;
+
+        /** Whether field holds nested object to inject recursively instead of resource. */
+        private final boolean nested;
+
+        /**
+         * @param field Annotated field.
+         * @param mtd Annotated method.
+         * @param nested Whether field holds nested object.
+         */
+        InjectionStep(@Nullable GridResourceField field, @Nullable GridResourceMethod mtd, boolean nested) {
+            assert field != null ^ mtd != null;
+
+            this.field = field;
+            this.mtd = mtd;
+            this.nested = nested;
+        }
     }
 }
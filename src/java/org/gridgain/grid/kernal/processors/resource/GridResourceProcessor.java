@@ -35,6 +35,32 @@ import java.util.concurrent.*;
  * @version 3.6.0c.09012012
  */
 public class GridResourceProcessor extends GridProcessorAdapter {
+    /**
+     * Annotations injected together into jobs, tasks and deployed objects, in injection order.
+     * Every kind of target is injected with a subset of these annotations.
+     */
+    private static final List<Class<? extends Annotation>> INJECTION_ORDER =
+        new ArrayList<Class<? extends Annotation>>();
+
+    static {
+        INJECTION_ORDER.add(GridLoggerResource.class);
+        INJECTION_ORDER.add(GridTaskSessionResource.class);
+        INJECTION_ORDER.add(GridJobContextResource.class);
+        INJECTION_ORDER.add(GridLoadBalancerResource.class);
+        INJECTION_ORDER.add(GridTaskContinuousMapperResource.class);
+        INJECTION_ORDER.add(GridInstanceResource.class);
+        INJECTION_ORDER.add(GridExecutorServiceResource.class);
+        INJECTION_ORDER.add(GridLocalNodeIdResource.class);
+        INJECTION_ORDER.add(GridLocalHostResource.class);
+        INJECTION_ORDER.add(GridMBeanServerResource.class);
+        INJECTION_ORDER.add(GridHomeResource.class);
+        INJECTION_ORDER.add(GridNameResource.class);
+        INJECTION_ORDER.add(GridMarshallerResource.class);
+        INJECTION_ORDER.add(GridSpringApplicationContextResource.class);
+        INJECTION_ORDER.add(GridSpringResource.class);
+        INJECTION_ORDER.add(GridUserResource.class);
+    }
+
     /** Grid instance injector. */
     private GridResourceBasicInjector<Grid> gridInjector;
 
@@ -75,7 +101,7 @@ public class GridResourceProcessor extends GridProcessorAdapter {
     private final GridResourceInjector nullInjector = new GridResourceBasicInjector<Object>(null);
 
     /** */
-    private final GridResourceIoc ioc = new GridResourceIoc();
+    private final GridResourceIoc ioc = new GridResourceIoc(INJECTION_ORDER);
 
     /**
      * Creates resources processor.
@@ -195,21 +221,20 @@ public class GridResourceProcessor extends GridProcessorAdapter {
         // Unwrap Proxy object.
         target = unwrapTarget(target);
 
-        injectBasicResource(target, GridLoggerResource.class, injectLog.getLogger(target.getClass()), dep, depCls);
-
-        ioc.inject(target, GridInstanceResource.class, gridInjector, dep, depCls);
-        ioc.inject(target, GridExecutorServiceResource.class, execInjector, dep, depCls);
-        ioc.inject(target, GridLocalNodeIdResource.class, nodeIdInjector, dep, depCls);
-        ioc.inject(target, GridLocalHostResource.class, locHostInjector, dep, depCls);
-        ioc.inject(target, GridMBeanServerResource.class, mbeanSrvInjector, dep, depCls);
-        ioc.inject(target, GridHomeResource.class, ggHomeInjector, dep, depCls);
-        ioc.inject(target, GridNameResource.class, ggNameInjector, dep, depCls);
-        ioc.inject(target, GridMarshallerResource.class, marshallerInjector, dep, depCls);
-        ioc.inject(target, GridSpringApplicationContextResource.class, springCtxInjector, dep, depCls);
-        ioc.inject(target, GridSpringResource.class, springBeanInjector, dep, depCls);
-
-        // Inject users resource.
-        ioc.inject(target, GridUserResource.class, customInjector, dep, depCls);
+        ioc.inject(target, ioc.injections()
+            .add(GridLoggerResource.class,
+                new GridResourceBasicInjector<GridLogger>(injectLog.getLogger(target.getClass())))
+            .add(GridInstanceResource.class, gridInjector)
+            .add(GridExecutorServiceResource.class, execInjector)
+            .add(GridLocalNodeIdResource.class, nodeIdInjector)
+            .add(GridLocalHostResource.class, locHostInjector)
+            .add(GridMBeanServerResource.class, mbeanSrvInjector)
+            .add(GridHomeResource.class, ggHomeInjector)
+            .add(GridNameResource.class, ggNameInjector)
+            .add(GridMarshallerResource.class, marshallerInjector)
+            .add(GridSpringApplicationContextResource.class, springCtxInjector)
+            .add(GridSpringResource.class, springBeanInjector)
+            .add(GridUserResource.class, customInjector), dep, depCls);
     }
 
     /**
@@ -285,23 +310,22 @@ public class GridResourceProcessor extends GridProcessorAdapter {
         // Unwrap Proxy object.
         Object jobObj = unwrapTarget(unwrapJob(job));
 
-        injectBasicResource(jobObj, GridLoggerResource.class, injectLog.getLogger(jobObj.getClass()), dep, taskCls);
-        injectBasicResource(jobObj, GridTaskSessionResource.class, ses, dep, taskCls);
-        injectBasicResource(jobObj, GridJobContextResource.class, jobCtx, dep, taskCls);
-
-        ioc.inject(jobObj, GridInstanceResource.class, gridInjector, dep, taskCls);
-        ioc.inject(jobObj, GridExecutorServiceResource.class, execInjector, dep, taskCls);
-        ioc.inject(jobObj, GridLocalNodeIdResource.class, nodeIdInjector, dep, taskCls);
-        ioc.inject(jobObj, GridLocalHostResource.class, locHostInjector, dep, taskCls);
-        ioc.inject(jobObj, GridMBeanServerResource.class, mbeanSrvInjector, dep, taskCls);
-        ioc.inject(jobObj, GridHomeResource.class, ggHomeInjector, dep, taskCls);
-        ioc.inject(jobObj, GridNameResource.class, ggNameInjector, dep, taskCls);
-        ioc.inject(jobObj, GridMarshallerResource.class, marshallerInjector, dep, taskCls);
-        ioc.inject(jobObj, GridSpringApplicationContextResource.class, springCtxInjector, dep, taskCls);
-        ioc.inject(jobObj, GridSpringResource.class, springBeanInjector, dep, taskCls);
-
-        // Inject users resource.
-        ioc.inject(jobObj, GridUserResource.class, customInjector, dep, taskCls);
+        ioc.inject(jobObj, ioc.injections()
+            .add(GridLoggerResource.class,
+                new GridResourceBasicInjector<GridLogger>(injectLog.getLogger(jobObj.getClass())))
+            .add(GridTaskSessionResource.class, new GridResourceBasicInjector<GridTaskSession>(ses))
+            .add(GridJobContextResource.class, new GridResourceBasicInjector<GridJobContext>(jobCtx))
+            .add(GridInstanceResource.class, gridInjector)
+            .add(GridExecutorServiceResource.class, execInjector)
+            .add(GridLocalNodeIdResource.class, nodeIdInjector)
+            .add(GridLocalHostResource.class, locHostInjector)
+            .add(GridMBeanServerResource.class, mbeanSrvInjector)
+            .add(GridHomeResource.class, ggHomeInjector)
+            .add(GridNameResource.class, ggNameInjector)
+            .add(GridMarshallerResource.class, marshallerInjector)
+            .add(GridSpringApplicationContextResource.class, springCtxInjector)
+            .add(GridSpringResource.class, springBeanInjector)
+            .add(GridUserResource.class, customInjector), dep, taskCls);
     }
 
     /**
@@ -337,25 +361,23 @@ public class GridResourceProcessor extends GridProcessorAdapter {
 
         Class<?> cls = obj.getClass();
 
-        // Basic injection.
-        injectBasicResource(obj, GridLoggerResource.class, injectLog.getLogger(cls), dep, cls);
-        injectBasicResource(obj, GridTaskSessionResource.class, ses, dep, cls);
-        injectBasicResource(obj, GridLoadBalancerResource.class, balancer, dep, cls);
-        injectBasicResource(obj, GridTaskContinuousMapperResource.class, mapper, dep, cls);
-
-        ioc.inject(obj, GridInstanceResource.class, gridInjector, dep, cls);
-        ioc.inject(obj, GridExecutorServiceResource.class, execInjector, dep, cls);
-        ioc.inject(obj, GridLocalNodeIdResource.class, nodeIdInjector, dep, cls);
-        ioc.inject(obj, GridLocalHostResource.class, locHostInjector, dep, cls);
-        ioc.inject(obj, GridMBeanServerResource.class, mbeanSrvInjector, dep, cls);
-        ioc.inject(obj, GridHomeResource.class, ggHomeInjector, dep, cls);
-        ioc.inject(obj, GridNameResource.class, ggNameInjector, dep, cls);
-        ioc.inject(obj, GridMarshallerResource.class, marshallerInjector, dep, cls);
-        ioc.inject(obj, GridSpringApplicationContextResource.class, springCtxInjector, dep, cls);
-        ioc.inject(obj, GridSpringResource.class, springBeanInjector, dep, cls);
-
-        // Inject users resource.
-        ioc.inject(obj, GridUserResource.class, customInjector, dep, cls);
+        ioc.inject(obj, ioc.injections()
+            .add(GridLoggerResource.class, new GridResourceBasicInjector<GridLogger>(injectLog.getLogger(cls)))
+            .add(GridTaskSessionResource.class, new GridResourceBasicInjector<GridTaskSession>(ses))
+            .add(GridLoadBalancerResource.class, new GridResourceBasicInjector<GridLoadBalancer>(balancer))
+            .add(GridTaskContinuousMapperResource.class,
+                new GridResourceBasicInjector<GridTaskContinuousMapper>(mapper))
+            .add(GridInstanceResource.class, gridInjector)
+            .add(GridExecutorServiceResource.class, execInjector)
+            .add(GridLocalNodeIdResource.class, nodeIdInjector)
+            .add(GridLocalHostResource.class, locHostInjector)
+            .add(GridMBeanServerResource.class, mbeanSrvInjector)
+            .add(GridHomeResource.class, ggHomeInjector)
+            .add(GridNameResource.class, ggNameInjector)
+            .add(GridMarshallerResource.class, marshallerInjector)
+            .add(GridSpringApplicationContextResource.class, springCtxInjector)
+            .add(GridSpringResource.class, springBeanInjector)
+            .add(GridUserResource.class, customInjector), dep, cls);
     }
 
     /**
@@ -25,6 +25,7 @@ import java.util.*;
 import java.util.concurrent.*;
 
 import static org.gridgain.grid.GridEventType.*;
+import static org.gridgain.grid.GridSystemProperties.*;
 import static org.gridgain.grid.kernal.GridTopic.*;
 import static org.gridgain.grid.kernal.processors.task.GridTaskThreadContextKey.*;
 
@@ -38,12 +39,40 @@ public class GridTaskProcessor extends GridProcessorAdapter {
     /** Wait for 5 seconds to allow discovery to take effect (best effort). */
     private static final long DISCO_TIMEOUT = 5000;
 
+    /** Default time window to coalesce session attribute updates within. */
+    private static final long DFLT_SES_ATTR_WINDOW = 10;
+
+    /** Time window to coalesce session attribute updates within. */
+    private static final long SES_ATTR_WINDOW;
+
+    /**
+     * Initializes session attribute window.
+     */
+    static {
+        String s = X.getSystemOrEnv(GG_SES_ATTR_WINDOW, Long.toString(DFLT_SES_ATTR_WINDOW));
+
+        long window;
+
+        try {
+            window = Long.parseLong(s);
+        }
+        catch (NumberFormatException ignore) {
+            window = DFLT_SES_ATTR_WINDOW;
+        }
+
+        SES_ATTR_WINDOW = window;
+    }
+
     /** */
     private final GridMarshaller marshaller;
 
     /** */
     private final Map<GridUuid, GridTaskWorker<?, ?>> tasks = new HashMap<GridUuid, GridTaskWorker<?, ?>>();
 
+    /** Session attribute updates waiting to be sent to sibling jobs, by session ID. */
+    private final ConcurrentMap<GridUuid, GridTaskSessionAttributesBatch> sesAttrBatches =
+        new ConcurrentHashMap<GridUuid, GridTaskSessionAttributesBatch>();
+
     /** */
     private boolean stopping;
 
@@ -726,23 +755,148 @@ public class GridTaskProcessor extends GridProcessorAdapter {
 
         // Siblings should never be empty. However, future
         // may set attributes prior to map method being called.
-        GridByteArrayList serAttrs = U.marshal(marshaller, attrs);
+        if (SES_ATTR_WINDOW > 0)
+            batchSessionAttributes(ses, attrs);
+        else
+            sendSessionAttributes(null, attrs, ses);
+    }
+
+    /**
+     * Adds attributes to the current batch of session, so that all updates made within
+     * {@link GridSystemProperties#GG_SES_ATTR_WINDOW} are sent to siblings together.
+     *
+     * @param ses Task session.
+     * @param attrs Attributes.
+     */
+    private void batchSessionAttributes(final GridTaskSessionImpl ses, Map<?, ?> attrs) {
+        final GridUuid sesId = ses.getId();
+
+        while (true) {
+            GridTaskSessionAttributesBatch batch = sesAttrBatches.get(sesId);
+
+            if (batch == null) {
+                batch = new GridTaskSessionAttributesBatch(SES_ATTR_WINDOW) {
+                    @Override protected void onFlush(Map<Object, Object> attrs) {
+                        ctx.timeout().removeTimeoutObject(this);
+
+                        if (!attrs.isEmpty()) {
+                            try {
+                                sendSessionAttributes(null, attrs, ses);
+                            }
+                            catch (GridException e) {
+                                U.error(log, "Failed to send session attributes to sibling jobs: " + ses, e);
+                            }
+                        }
+
+                        // Removed only once sent, so that next batch is sent after this one.
+                        sesAttrBatches.remove(sesId, this);
+                    }
 
-        sendSessionAttributes(serAttrs, attrs, ses);
+                    @Override public void onTimeout() {
+                        // Sending may wait for discovery on failures, so don't do it in timeout thread.
+                        ctx.closure().runLocalSafe(new GPR() {
+                            @Override public void run() {
+                                flush();
+                            }
+                        }, true);
+                    }
+                };
+
+                GridTaskSessionAttributesBatch old = sesAttrBatches.putIfAbsent(sesId, batch);
+
+                if (old == null)
+                    ctx.timeout().addTimeoutObject(batch);
+                else
+                    batch = old;
+            }
+
+            if (batch.add(attrs))
+                return;
+
+            // Batch has been flushed concurrently.
+            sesAttrBatches.remove(sesId, batch);
+        }
+    }
+
+    /**
+     * Gets attributes to send to nodes which execute only jobs interested in some
+     * of the attribute keys (see {@link GridJobSessionAttributeKeys}).
+     *
+     * @param siblings Job siblings.
+     * @param attrs Attributes.
+     * @param locNodeId Local node ID.
+     * @return Attributes to send by node ID, nodes not present in the map get all attributes.
+     */
+    private Map<UUID, Map<Object, Object>> filterSessionAttributes(Collection<GridJobSibling> siblings,
+        Map<?, ?> attrs, UUID locNodeId) {
+        Map<UUID, Set<String>> nodeKeys = null;
+
+        Collection<UUID> allKeysNodes = null;
+
+        for (GridJobSibling s : siblings) {
+            GridJobSiblingImpl sibling = (GridJobSiblingImpl)s;
+
+            UUID nodeId = sibling.nodeId();
+
+            if (nodeId.equals(locNodeId) || sibling.isJobDone())
+                continue;
+
+            Set<String> keys = sibling.attributeKeys();
+
+            if (keys == null) {
+                if (allKeysNodes == null)
+                    allKeysNodes = new HashSet<UUID>();
+
+                allKeysNodes.add(nodeId);
+            }
+            else {
+                if (nodeKeys == null)
+                    nodeKeys = new HashMap<UUID, Set<String>>();
+
+                Set<String> cur = nodeKeys.get(nodeId);
+
+                if (cur == null)
+                    nodeKeys.put(nodeId, cur = new HashSet<String>());
+
+                cur.addAll(keys);
+            }
+        }
+
+        if (nodeKeys == null)
+            return Collections.emptyMap();
+
+        Map<UUID, Map<Object, Object>> res = new HashMap<UUID, Map<Object, Object>>(nodeKeys.size(), 1.0f);
+
+        for (Map.Entry<UUID, Set<String>> e : nodeKeys.entrySet()) {
+            // Node also runs jobs interested in all attributes.
+            if (allKeysNodes != null && allKeysNodes.contains(e.getKey()))
+                continue;
+
+            Map<Object, Object> nodeAttrs = new HashMap<Object, Object>();
+
+            for (Map.Entry<?, ?> attr : attrs.entrySet())
+                if (e.getValue().contains(attr.getKey()))
+                    nodeAttrs.put(attr.getKey(), attr.getValue());
+
+            res.put(e.getKey(), nodeAttrs);
+        }
+
+        return res;
     }
 
     /**
      * This method will make the best attempt to send attributes to all jobs.
+     * Every node gets a single message, which carries only attributes
+     * that jobs executing on the node are interested in.
      *
-     * @param serAttrs Serialized session attributes.
+     * @param serAttrs Serialized session attributes, if available.
      * @param attrs Deserialized session attributes.
      * @param ses Task session.
      * @throws GridException If send to any of the jobs failed.
      */
     @SuppressWarnings({"SynchronizationOnLocalVariableOrMethodParameter", "BusyWait"})
-    private void sendSessionAttributes(GridByteArrayList serAttrs, Map<?, ?> attrs, GridTaskSessionImpl ses)
-        throws GridException {
-        assert serAttrs != null;
+    private void sendSessionAttributes(@Nullable GridByteArrayList serAttrs, Map<?, ?> attrs,
+        GridTaskSessionImpl ses) throws GridException {
         assert attrs != null;
         assert ses != null;
 
@@ -762,6 +916,8 @@ public class GridTaskProcessor extends GridProcessorAdapter {
 
         UUID locNodeId = ctx.discovery().localNode().id();
 
+        Map<UUID, Map<Object, Object>> nodeAttrs = filterSessionAttributes(siblings, attrs, locNodeId);
+
         synchronized (ses) {
             if (ses.isClosed()) {
                 if (log.isDebugEnabled())
@@ -779,7 +935,13 @@ public class GridTaskProcessor extends GridProcessorAdapter {
 
                 UUID nodeId = sibling.nodeId();
 
-                if (!nodeId.equals(locNodeId) && !sibling.isJobDone() && !msgIds.containsKey(nodeId))
+                if (nodeId.equals(locNodeId) || sibling.isJobDone() || msgIds.containsKey(nodeId))
+                    continue;
+
+                Map<Object, Object> filtered = nodeAttrs.get(nodeId);
+
+                // Skip nodes which are not interested in any of changed attributes.
+                if (filtered == null || !filtered.isEmpty())
                     msgIds.put(nodeId, commMgr.getNextMessageId(sibling.jobTopic(), nodeId));
             }
         }
@@ -814,7 +976,20 @@ public class GridTaskProcessor extends GridProcessorAdapter {
 
                 // Check that node didn't change (it could happen in case of failover).
                 if (node != null) {
-                    GridTaskSessionRequest req = new GridTaskSessionRequest(ses.getId(), null, serAttrs);
+                    Map<Object, Object> filtered = nodeAttrs.get(nodeId);
+
+                    GridByteArrayList nodeSerAttrs;
+
+                    if (filtered != null)
+                        nodeSerAttrs = U.marshal(marshaller, filtered);
+                    else {
+                        if (serAttrs == null)
+                            serAttrs = U.marshal(marshaller, attrs);
+
+                        nodeSerAttrs = serAttrs;
+                    }
+
+                    GridTaskSessionRequest req = new GridTaskSessionRequest(ses.getId(), null, nodeSerAttrs);
 
                     try {
                         commMgr.sendOrderedMessage(
@@ -1047,7 +1222,12 @@ public class GridTaskProcessor extends GridProcessorAdapter {
 
                 GridTaskSessionImpl ses = task.getSession();
 
-                sendSessionAttributes(msg.getAttributes(), attrs, ses);
+                if (SES_ATTR_WINDOW > 0)
+                    // Job updates are already coalesced by job node, but updates of all jobs
+                    // and of task itself are also fanned out to siblings in batches.
+                    batchSessionAttributes(ses, attrs);
+                else
+                    sendSessionAttributes(msg.getAttributes(), attrs, ses);
             }
             catch (GridException e) {
                 U.error(log, "Failed to deserialize session request: " + msg, e);
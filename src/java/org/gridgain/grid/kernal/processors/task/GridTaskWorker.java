@@ -442,6 +442,11 @@ class GridTaskWorker<T, R> extends GridWorker implements GridTimeoutObject {
 
             GridJobSiblingImpl sib = new GridJobSiblingImpl(ses.getId(), jobId, node.id(), ctx);
 
+            GridJobSessionAttributeKeys attrKeys = dep.annotation(job.getClass(), GridJobSessionAttributeKeys.class);
+
+            if (attrKeys != null)
+                sib.attributeKeys(new HashSet<String>(Arrays.asList(attrKeys.value())));
+
             jobResList.add(new GridJobResultImpl(job, jobId, node, sib));
 
             sibs.add(sib);
@@ -19,6 +19,7 @@ import org.jetbrains.annotations.*;
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 /**
  * Convenient adapter for {@link GridMetadataAware}.
@@ -30,19 +31,23 @@ import java.util.concurrent.*;
  */
 @SuppressWarnings( {"SynchronizeOnNonFinalField"})
 public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
+    /** Mutex updater. */
+    private static final AtomicReferenceFieldUpdater<GridMetadataAwareAdapter, GridMutex> muxUpdater =
+        AtomicReferenceFieldUpdater.newUpdater(GridMetadataAwareAdapter.class, GridMutex.class, "mux");
+
     /** Attributes. */
     @GridToStringInclude
     private GridLeanMap<String, Object> data;
 
-    /** Serializable mutex. */
+    /** Serializable mutex, created on first metadata access. */
     @SuppressWarnings( {"FieldAccessedSynchronizedAndUnsynchronized"})
-    private GridMutex mux;
+    private volatile GridMutex mux;
 
     /**
      * Default constructor.
      */
     public GridMetadataAwareAdapter() {
-        mux = new GridMutex();
+        // No-op.
     }
 
     /**
@@ -51,12 +56,25 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
      * @param data Data to copy.
      */
     public GridMetadataAwareAdapter(Map<String, Object> data) {
-        mux = new GridMutex();
-
         if (data != null && !data.isEmpty())
             this.data = new GridLeanMap<String, Object>(data);
     }
 
+    /**
+     * Gets mutex, creating it if this is the first access to metadata. Most adapters
+     * never have metadata attached, so they should not pay for the mutex either.
+     *
+     * @return Mutex.
+     */
+    private GridMutex mux() {
+        GridMutex mux = this.mux;
+
+        if (mux == null && !muxUpdater.compareAndSet(this, null, mux = new GridMutex()))
+            mux = this.mux;
+
+        return mux;
+    }
+
     /**
      * Ensures that internal data storage is created.
      *
@@ -77,7 +95,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Override public void copyMeta(GridMetadataAware from) {
         A.notNull(from, "from");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             Map m = from.allMeta();
 
             ensureData(m.size());
@@ -90,7 +108,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Override public void copyMeta(Map<String, ?> data) {
         A.notNull(data, "data");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             ensureData(data.size());
 
             this.data.putAll(data);
@@ -102,7 +120,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Override @Nullable public <V> V addMeta(String name, V val) {
         A.notNull(name, "name", val, "val");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             ensureData(1);
 
             return (V)data.put(name, val);
@@ -114,7 +132,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Override @Nullable public <V> V meta(String name) {
         A.notNull(name, "name");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             return data == null ? null : (V)data.get(name);
         }
     }
@@ -125,7 +143,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Override public <V> V removeMeta(String name) {
         A.notNull(name, "name");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             if (data == null)
                 return null;
 
@@ -143,7 +161,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Override public <V> boolean removeMeta(String name, V val) {
         A.notNull(name, "name", val, "val");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             if (data == null)
                 return false;
 
@@ -162,7 +180,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     /** {@inheritDoc} */
     @SuppressWarnings( {"unchecked", "RedundantCast"})
     @Override public <V> Map<String, V> allMeta() {
-        synchronized (mux) {
+        synchronized (mux()) {
             if (data == null)
                 return Collections.emptyMap();
 
@@ -194,7 +212,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Override @Nullable public <V> V putMetaIfAbsent(String name, V val) {
         A.notNull(name, "name", val, "val");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             V v = (V) meta(name);
 
             if (v == null)
@@ -209,7 +227,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Override @Nullable public <V> V putMetaIfAbsent(String name, Callable<V> c) {
         A.notNull(name, "name", c, "c");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             V v = (V) meta(name);
 
             if (v == null)
@@ -229,7 +247,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Override public <V> V addMetaIfAbsent(String name, V val) {
         A.notNull(name, "name", val, "val");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             V v = (V) meta(name);
 
             if (v == null)
@@ -244,7 +262,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Nullable @Override public <V> V addMetaIfAbsent(String name, @Nullable Callable<V> c) {
         A.notNull(name, "name", c, "c");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             V v = (V) meta(name);
 
             if (v == null && c != null)
@@ -264,7 +282,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     @Override public <V> boolean replaceMeta(String name, V curVal, V newVal) {
         A.notNull(name, "name", newVal, "newVal", curVal, "curVal");
 
-        synchronized (mux) {
+        synchronized (mux()) {
             if (hasMeta(name)) {
                 V val = this.<V>meta(name);
 
@@ -291,7 +309,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
         Map<String, Object> cp;
 
         // Avoid code warning (suppressing is bad here, because we need this warning for other places).
-        synchronized (mux) {
+        synchronized (mux()) {
             cp = new GridLeanMap<String, Object>(data);
         }
 
@@ -311,7 +329,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
     protected void readExternalMeta(ObjectInput in) throws IOException, ClassNotFoundException {
         GridLeanMap<String, Object> cp = (GridLeanMap<String, Object>)in.readObject();
 
-        synchronized (mux) {
+        synchronized (mux()) {
             data = cp;
         }
     }
@@ -322,7 +340,7 @@ public class GridMetadataAwareAdapter implements GridMetadataAware, Cloneable {
         try {
             GridMetadataAwareAdapter clone = (GridMetadataAwareAdapter)super.clone();
 
-            clone.mux = (GridMutex)mux.clone();
+            clone.mux = null;
 
             clone.data = null;
 
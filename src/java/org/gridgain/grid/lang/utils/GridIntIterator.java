@@ -0,0 +1,30 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.lang.utils;
+
+/**
+ * Iterator over primitive {@code int} values, used by primitive collections
+ * to iterate over elements without boxing them.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public interface GridIntIterator {
+    /**
+     * @return {@code True} if iterator has more elements.
+     */
+    public boolean hasNext();
+
+    /**
+     * @return Next element.
+     * @throws java.util.NoSuchElementException If there are no more elements.
+     */
+    public int next();
+}
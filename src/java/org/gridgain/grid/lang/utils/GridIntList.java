@@ -0,0 +1,173 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+
+package org.gridgain.grid.lang.utils;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Growable list of primitive {@code int} values backed by {@code int} array.
+ * List is {@link Externalizable} and is written as number of values followed
+ * by values.
+ * <p>
+ * List is not thread safe.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridIntList implements Externalizable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Values. */
+    private int[] arr;
+
+    /** Size. */
+    private int size;
+
+    /**
+     * Creates empty list.
+     */
+    public GridIntList() {
+        this(8);
+    }
+
+    /**
+     * @param cap Initial capacity.
+     */
+    public GridIntList(int cap) {
+        arr = new int[Math.max(cap, 1)];
+    }
+
+    /**
+     * @param val Value to add.
+     */
+    public void add(int val) {
+        if (size == arr.length)
+            arr = Arrays.copyOf(arr, arr.length << 1);
+
+        arr[size++] = val;
+    }
+
+    /**
+     * @param it Values to add.
+     */
+    public void addAll(GridIntIterator it) {
+        while (it.hasNext())
+            add(it.next());
+    }
+
+    /**
+     * @param idx Index.
+     * @return Value at given index.
+     */
+    public int get(int idx) {
+        if (idx >= size)
+            throw new IndexOutOfBoundsException("Index: " + idx + ", size: " + size);
+
+        return arr[idx];
+    }
+
+    /**
+     * @param val Value.
+     * @return {@code True} if list contains given value.
+     */
+    public boolean contains(int val) {
+        for (int i = 0; i < size; i++) {
+            if (arr[i] == val)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @return Number of values in list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code True} if list is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return Copy of values.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(arr, size);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(size);
+
+        for (int i = 0; i < size; i++)
+            out.writeInt(arr[i]);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException {
+        size = in.readInt();
+
+        arr = new int[Math.max(size, 1)];
+
+        for (int i = 0; i < size; i++)
+            arr[i] = in.readInt();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (o == this)
+            return true;
+
+        if (!(o instanceof GridIntList))
+            return false;
+
+        GridIntList l = (GridIntList)o;
+
+        if (l.size != size)
+            return false;
+
+        for (int i = 0; i < size; i++) {
+            if (arr[i] != l.arr[i])
+                return false;
+        }
+
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        int h = 1;
+
+        for (int i = 0; i < size; i++)
+            h = 31 * h + arr[i];
+
+        return h;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
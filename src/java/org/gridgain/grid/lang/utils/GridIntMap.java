@@ -0,0 +1,313 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+
+package org.gridgain.grid.lang.utils;
+
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Hash map with primitive {@code int} keys. Mappings are kept in open addressing table
+ * with linear probing, so keys are not boxed and no entry objects are created. Map does
+ * not allow {@code null} values. Map is {@link Externalizable} and is written as number
+ * of mappings followed by keys and values.
+ * <p>
+ * Map is not thread safe and must not be modified while iterated over.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridIntMap<V> implements Externalizable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Keys. */
+    private int[] keys;
+
+    /** Values, {@code null} for empty slots. */
+    private Object[] vals;
+
+    /** Size. */
+    private int size;
+
+    /**
+     * Creates empty map.
+     */
+    public GridIntMap() {
+        this(4);
+    }
+
+    /**
+     * @param expSize Expected number of mappings.
+     */
+    public GridIntMap(int expSize) {
+        init(GridIntSet.tableSize(expSize));
+    }
+
+    /**
+     * @param m Map to copy.
+     */
+    public GridIntMap(GridIntMap<V> m) {
+        keys = m.keys.clone();
+        vals = m.vals.clone();
+        size = m.size;
+    }
+
+    /**
+     * @param cap Table size.
+     */
+    private void init(int cap) {
+        keys = new int[cap];
+        vals = new Object[cap];
+    }
+
+    /**
+     * @param key Key.
+     * @return Value mapped to given key or {@code null} if there is no mapping.
+     */
+    @SuppressWarnings({"unchecked"})
+    @Nullable public V get(int key) {
+        return (V)vals[slot(keys, vals, key)];
+    }
+
+    /**
+     * @param key Key.
+     * @return {@code True} if map contains mapping for given key.
+     */
+    public boolean containsKey(int key) {
+        return vals[slot(keys, vals, key)] != null;
+    }
+
+    /**
+     * @param key Key.
+     * @param val Value.
+     * @return Previous value or {@code null} if there was no mapping.
+     */
+    @SuppressWarnings({"unchecked"})
+    @Nullable public V put(int key, V val) {
+        assert val != null;
+
+        int i = slot(keys, vals, key);
+
+        V old = (V)vals[i];
+
+        keys[i] = key;
+        vals[i] = val;
+
+        if (old == null && ++size > (keys.length >> 1) + (keys.length >> 2))
+            rehash(keys.length << 1);
+
+        return old;
+    }
+
+    /**
+     * @param key Key.
+     * @return Removed value or {@code null} if there was no mapping.
+     */
+    @SuppressWarnings({"unchecked"})
+    @Nullable public V remove(int key) {
+        int i = slot(keys, vals, key);
+
+        V old = (V)vals[i];
+
+        if (old == null)
+            return null;
+
+        int mask = keys.length - 1;
+
+        // Shift following mappings of the same probe sequence back,
+        // so that lookups do not need tombstones.
+        for (int j = (i + 1) & mask; vals[j] != null; j = (j + 1) & mask) {
+            int h = GridIntSet.hash(keys[j]) & mask;
+
+            // Mapping stays if its home slot is cyclically in (i, j].
+            if (i <= j ? (i < h && h <= j) : (i < h || h <= j))
+                continue;
+
+            keys[i] = keys[j];
+            vals[i] = vals[j];
+
+            i = j;
+        }
+
+        vals[i] = null;
+
+        size--;
+
+        return old;
+    }
+
+    /**
+     * @return Number of mappings.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code True} if map is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all mappings.
+     */
+    public void clear() {
+        Arrays.fill(vals, null);
+
+        size = 0;
+    }
+
+    /**
+     * @return Iterator over keys in no particular order.
+     */
+    public GridIntIterator keys() {
+        return new GridIntIterator() {
+            /** Next slot to check. */
+            private int idx = advance(0);
+
+            /**
+             * @param from Slot to start from.
+             * @return Index of first used slot starting from given one.
+             */
+            private int advance(int from) {
+                while (from < vals.length && vals[from] == null)
+                    from++;
+
+                return from;
+            }
+
+            @Override public boolean hasNext() {
+                return idx < vals.length;
+            }
+
+            @Override public int next() {
+                if (idx >= vals.length)
+                    throw new NoSuchElementException();
+
+                int key = keys[idx];
+
+                idx = advance(idx + 1);
+
+                return key;
+            }
+        };
+    }
+
+    /**
+     * @return Set of keys (copy).
+     */
+    public GridIntSet keySet() {
+        GridIntSet s = new GridIntSet(size);
+
+        for (int i = 0; i < vals.length; i++) {
+            if (vals[i] != null)
+                s.add(keys[i]);
+        }
+
+        return s;
+    }
+
+    /**
+     * @return Values (copy) in no particular order.
+     */
+    @SuppressWarnings({"unchecked"})
+    public List<V> values() {
+        List<V> res = new ArrayList<V>(size);
+
+        for (Object val : vals) {
+            if (val != null)
+                res.add((V)val);
+        }
+
+        return res;
+    }
+
+    /**
+     * @param cap New table size.
+     */
+    private void rehash(int cap) {
+        int[] oldKeys = keys;
+        Object[] oldVals = vals;
+
+        init(cap);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldVals[i] != null) {
+                int j = slot(keys, vals, oldKeys[i]);
+
+                keys[j] = oldKeys[i];
+                vals[j] = oldVals[i];
+            }
+        }
+    }
+
+    /**
+     * @param keys Keys.
+     * @param vals Values.
+     * @param key Key.
+     * @return Slot containing given key or empty slot where it should be put.
+     */
+    private static int slot(int[] keys, Object[] vals, int key) {
+        int mask = keys.length - 1;
+
+        int i = GridIntSet.hash(key) & mask;
+
+        while (vals[i] != null && keys[i] != key)
+            i = (i + 1) & mask;
+
+        return i;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(size);
+
+        for (int i = 0; i < keys.length; i++) {
+            if (vals[i] != null) {
+                out.writeInt(keys[i]);
+                out.writeObject(vals[i]);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings({"unchecked"})
+    @Override public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int cnt = in.readInt();
+
+        init(GridIntSet.tableSize(cnt));
+
+        size = 0;
+
+        for (int i = 0; i < cnt; i++)
+            put(in.readInt(), (V)in.readObject());
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+
+        for (int i = 0; i < keys.length; i++) {
+            if (vals[i] != null) {
+                if (sb.length() > 1)
+                    sb.append(", ");
+
+                sb.append(keys[i]).append('=').append(vals[i]);
+            }
+        }
+
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,357 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.lang.utils;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Hash set of primitive {@code int} values. Values are kept in open addressing table
+ * with linear probing, so neither values nor table entries are boxed. Set is
+ * {@link Externalizable} and is written as number of values followed by values.
+ * <p>
+ * Set is not thread safe and must not be modified while iterated over.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridIntSet implements Externalizable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Minimum table size. */
+    private static final int MIN_CAP = 8;
+
+    /** Values. */
+    private int[] vals;
+
+    /** Occupied slots. */
+    private boolean[] used;
+
+    /** Size. */
+    private int size;
+
+    /**
+     * Creates empty set.
+     */
+    public GridIntSet() {
+        this(MIN_CAP / 2);
+    }
+
+    /**
+     * @param expSize Expected number of values.
+     */
+    public GridIntSet(int expSize) {
+        init(tableSize(expSize));
+    }
+
+    /**
+     * @param s Set to copy.
+     */
+    public GridIntSet(GridIntSet s) {
+        vals = s.vals.clone();
+        used = s.used.clone();
+        size = s.size;
+    }
+
+    /**
+     * @param cap Table size.
+     */
+    private void init(int cap) {
+        vals = new int[cap];
+        used = new boolean[cap];
+    }
+
+    /**
+     * @param val Value.
+     * @return {@code True} if set did not contain given value.
+     */
+    public boolean add(int val) {
+        int i = slot(vals, used, val);
+
+        if (used[i])
+            return false;
+
+        vals[i] = val;
+        used[i] = true;
+
+        if (++size > (vals.length >> 1) + (vals.length >> 2))
+            rehash(vals.length << 1);
+
+        return true;
+    }
+
+    /**
+     * @param s Set of values to add.
+     * @return {@code True} if this set has changed.
+     */
+    public boolean addAll(GridIntSet s) {
+        boolean changed = false;
+
+        for (int i = 0; i < s.vals.length; i++) {
+            if (s.used[i])
+                changed |= add(s.vals[i]);
+        }
+
+        return changed;
+    }
+
+    /**
+     * @param val Value.
+     * @return {@code True} if set contains given value.
+     */
+    public boolean contains(int val) {
+        return used[slot(vals, used, val)];
+    }
+
+    /**
+     * @param val Value.
+     * @return {@code True} if value was removed.
+     */
+    public boolean remove(int val) {
+        int i = slot(vals, used, val);
+
+        if (!used[i])
+            return false;
+
+        int mask = vals.length - 1;
+
+        // Shift following values of the same probe sequence back,
+        // so that lookups do not need tombstones.
+        for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+            int h = hash(vals[j]) & mask;
+
+            // Value stays if its home slot is cyclically in (i, j].
+            if (i <= j ? (i < h && h <= j) : (i < h || h <= j))
+                continue;
+
+            vals[i] = vals[j];
+
+            i = j;
+        }
+
+        used[i] = false;
+
+        size--;
+
+        return true;
+    }
+
+    /**
+     * @param s Values to remove.
+     * @return {@code True} if this set has changed.
+     */
+    public boolean removeAll(GridIntSet s) {
+        boolean changed = false;
+
+        for (int i = 0; i < s.vals.length; i++) {
+            if (s.used[i])
+                changed |= remove(s.vals[i]);
+        }
+
+        return changed;
+    }
+
+    /**
+     * @return Number of values in set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code True} if set is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+
+        size = 0;
+    }
+
+    /**
+     * @return Iterator over values in no particular order.
+     */
+    public GridIntIterator iterator() {
+        return new GridIntIterator() {
+            /** Next slot to check. */
+            private int idx = advance(0);
+
+            /**
+             * @param from Slot to start from.
+             * @return Index of first used slot starting from given one.
+             */
+            private int advance(int from) {
+                while (from < used.length && !used[from])
+                    from++;
+
+                return from;
+            }
+
+            @Override public boolean hasNext() {
+                return idx < used.length;
+            }
+
+            @Override public int next() {
+                if (idx >= used.length)
+                    throw new NoSuchElementException();
+
+                int val = vals[idx];
+
+                idx = advance(idx + 1);
+
+                return val;
+            }
+        };
+    }
+
+    /**
+     * @return Array of values in no particular order.
+     */
+    public int[] toArray() {
+        int[] arr = new int[size];
+
+        for (int i = 0, j = 0; i < vals.length; i++) {
+            if (used[i])
+                arr[j++] = vals[i];
+        }
+
+        return arr;
+    }
+
+    /**
+     * @param cap New table size.
+     */
+    private void rehash(int cap) {
+        int[] oldVals = vals;
+        boolean[] oldUsed = used;
+
+        init(cap);
+
+        for (int i = 0; i < oldVals.length; i++) {
+            if (oldUsed[i]) {
+                int j = slot(vals, used, oldVals[i]);
+
+                vals[j] = oldVals[i];
+                used[j] = true;
+            }
+        }
+    }
+
+    /**
+     * @param vals Values.
+     * @param used Occupied slots.
+     * @param val Value.
+     * @return Slot containing given value or empty slot where it should be put.
+     */
+    private static int slot(int[] vals, boolean[] used, int val) {
+        int mask = vals.length - 1;
+
+        int i = hash(val) & mask;
+
+        while (used[i] && vals[i] != val)
+            i = (i + 1) & mask;
+
+        return i;
+    }
+
+    /**
+     * @param val Value.
+     * @return Hash spreading sequential values (e.g. partition numbers) over the table.
+     */
+    static int hash(int val) {
+        int h = val * 0x9E3779B9;
+
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @param expSize Expected number of elements.
+     * @return Table size keeping load factor under 3/4.
+     */
+    static int tableSize(int expSize) {
+        int cap = MIN_CAP;
+
+        while (cap - (cap >> 2) <= expSize)
+            cap <<= 1;
+
+        return cap;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(size);
+
+        for (int i = 0; i < vals.length; i++) {
+            if (used[i])
+                out.writeInt(vals[i]);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void readExternal(ObjectInput in) throws IOException {
+        int cnt = in.readInt();
+
+        init(tableSize(cnt));
+
+        size = 0;
+
+        for (int i = 0; i < cnt; i++)
+            add(in.readInt());
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (o == this)
+            return true;
+
+        if (!(o instanceof GridIntSet))
+            return false;
+
+        GridIntSet s = (GridIntSet)o;
+
+        if (s.size != size)
+            return false;
+
+        for (int i = 0; i < vals.length; i++) {
+            if (used[i] && !s.contains(vals[i]))
+                return false;
+        }
+
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        int h = 0;
+
+        for (int i = 0; i < vals.length; i++) {
+            if (used[i])
+                h += vals[i];
+        }
+
+        return h;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        int[] arr = toArray();
+
+        Arrays.sort(arr);
+
+        return Arrays.toString(arr);
+    }
+}
@@ -32,6 +32,9 @@ import org.jetbrains.annotations.*;
  *      <li>{@link org.gridgain.grid.spi.collision.priorityqueue.GridPriorityQueueCollisionSpi}</li>
  *      <li>{@link org.gridgain.grid.spi.collision.jobstealing.GridJobStealingCollisionSpi}</li>
  * </ul>
+ * All of the above implement {@link GridIncrementalCollisionSpi} and get notified about every
+ * job state change instead of receiving snapshot of all jobs on every collision.
+ * <p>
  * <b>NOTE:</b> this SPI (i.e. methods in this interface) should never be used directly. SPIs provide
  * internal view on the subsystem and is used internally by GridGain kernal. In rare use cases when
  * access to a specific implementation of this SPI is required - an instance of this SPI can be obtained
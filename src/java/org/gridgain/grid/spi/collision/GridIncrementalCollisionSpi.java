@@ -0,0 +1,74 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.spi.collision;
+
+/**
+ * Collision SPI which keeps its own queues of waiting and active jobs and gets notified
+ * about every job state change, instead of receiving full snapshot of all jobs in
+ * {@link #onCollision(GridCollisionContext)}. For SPI implementing this interface kernal
+ * never calls {@link #onCollision(GridCollisionContext)} and never copies job lists, so
+ * cost of collision resolution does not depend on number of jobs queued on the node.
+ * <p>
+ * Kernal passes the same job context (or an equal one, see {@link Object#equals(Object)})
+ * for all notifications about the same job, so implementations can keep contexts in hash
+ * based collections. Calls to {@link GridCollisionJobContext#activate()} and
+ * {@link GridCollisionJobContext#cancel()} take effect immediately, while job execution or
+ * rejection is performed by kernal after notification method returns. If SPI activates or
+ * cancels jobs outside of notification methods (e.g. on external event), it should notify
+ * listener set via {@link #setExternalCollisionListener(GridCollisionExternalListener)}
+ * afterwards.
+ * <p>
+ * Notification methods may be called concurrently from different threads. Notifications
+ * about jobs that SPI does not know about (e.g. job rejected before it was reported as
+ * arrived) should be ignored. Jobs in {@code held} state (see {@link org.gridgain.grid.GridJobContinuation})
+ * stay active until they finish, but SPI is notified when job is held and resumed, so that
+ * held jobs can be excluded from running jobs without checking every active job.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public interface GridIncrementalCollisionSpi extends GridCollisionSpi {
+    /**
+     * Callback invoked when new job arrived and was put to waiting state.
+     *
+     * @param ctx Collision context of arrived job.
+     */
+    public void onJobArrived(GridCollisionJobContext ctx);
+
+    /**
+     * Callback invoked when job finished its execution or was rejected.
+     *
+     * @param ctx Collision context of finished job.
+     */
+    public void onJobFinished(GridCollisionJobContext ctx);
+
+    /**
+     * Callback invoked when waiting job was rejected or active job was cancelled by kernal
+     * (e.g. on user request or because task node left grid). Cancelled active job may still
+     * be running, but should not be accounted as active anymore.
+     *
+     * @param ctx Collision context of cancelled job.
+     */
+    public void onJobCancelled(GridCollisionJobContext ctx);
+
+    /**
+     * Callback invoked when active job was put on hold and does not execute until it is resumed.
+     *
+     * @param ctx Collision context of held job.
+     */
+    public void onJobHeld(GridCollisionJobContext ctx);
+
+    /**
+     * Callback invoked when held job was resumed and continues execution.
+     *
+     * @param ctx Collision context of resumed job.
+     */
+    public void onJobResumed(GridCollisionJobContext ctx);
+}
@@ -22,6 +22,10 @@ import java.util.concurrent.atomic.*;
  * This class provides implementation for Collision SPI based on FIFO queue. Jobs are ordered
  * as they arrived and only {@link #getParallelJobsNumber()} number of jobs is allowed to
  * execute in parallel. Other jobs will be buffered in the passive queue.
+ * <p>
+ * This SPI is {@link GridIncrementalCollisionSpi incremental}: it keeps its own queue of
+ * waiting jobs and set of active jobs, so every job arrival or completion is handled in
+ * time independent of number of waiting jobs.
  * <h1 class="header">Configuration</h1>
  * <h2 class="header">Mandatory</h2>
  * This SPI has no mandatory configuration parameters.
@@ -72,7 +76,7 @@ import java.util.concurrent.atomic.*;
     email = "support@gridgain.com",
     version = "3.6.0c.09012012")
 @GridSpiMultipleInstancesSupport(true)
-public class GridFifoQueueCollisionSpi extends GridSpiAdapter implements GridCollisionSpi,
+public class GridFifoQueueCollisionSpi extends GridSpiAdapter implements GridIncrementalCollisionSpi,
     GridFifoQueueCollisionSpiMBean {
     /**
      * Default number of parallel jobs allowed (value is {@code 95} which is
@@ -103,8 +107,17 @@ public class GridFifoQueueCollisionSpi extends GridSpiAdapter implements GridCol
     /** Number of jobs that were waiting for execution last time. */
     private final AtomicInteger waitingCnt = new AtomicInteger(0);
 
-    /** Number of jobs that are held. */
-    private final AtomicInteger heldCnt = new AtomicInteger(0);
+    /** Waiting jobs in order of arrival. */
+    private final Collection<GridCollisionJobContext> waitJobs = new LinkedHashSet<GridCollisionJobContext>();
+
+    /** Jobs activated by this SPI. */
+    private final Collection<GridCollisionJobContext> activeJobs = new HashSet<GridCollisionJobContext>();
+
+    /** Active jobs in held state, they do not occupy execution slots. */
+    private final Collection<GridCollisionJobContext> heldJobs = new HashSet<GridCollisionJobContext>();
+
+    /** Mutex guarding job collections. */
+    private final Object mux = new Object();
 
     /**
      * Sets number of jobs that are allowed to be executed in parallel on this node.
@@ -156,7 +169,9 @@ public class GridFifoQueueCollisionSpi extends GridSpiAdapter implements GridCol
 
     /** {@inheritDoc} */
     @Override public int getCurrentHeldJobsNumber() {
-        return heldCnt.get();
+        synchronized (mux) {
+            return heldJobs.size();
+        }
     }
 
     /** {@inheritDoc} */
@@ -194,55 +209,98 @@ public class GridFifoQueueCollisionSpi extends GridSpiAdapter implements GridCol
 
     /** {@inheritDoc} */
     @Override public void onCollision(GridCollisionContext ctx) {
+        throw new IllegalStateException("Incremental collision SPI should be notified about job state " +
+            "changes instead of collision snapshots: " + GridFifoQueueCollisionSpi.class.getSimpleName());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onJobArrived(GridCollisionJobContext ctx) {
+        assert ctx != null;
+
+        synchronized (mux) {
+            waitJobs.add(ctx);
+
+            resolve();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onJobFinished(GridCollisionJobContext ctx) {
+        assert ctx != null;
+
+        synchronized (mux) {
+            heldJobs.remove(ctx);
+
+            if (!activeJobs.remove(ctx))
+                waitJobs.remove(ctx);
+
+            resolve();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onJobCancelled(GridCollisionJobContext ctx) {
+        onJobFinished(ctx);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onJobHeld(GridCollisionJobContext ctx) {
         assert ctx != null;
 
-        Collection<GridCollisionJobContext> activeJobs = ctx.activeJobs();
-        Collection<GridCollisionJobContext> waitJobs = ctx.waitingJobs();
+        synchronized (mux) {
+            // Job could have been cancelled or finished concurrently.
+            if (activeJobs.contains(ctx) && heldJobs.add(ctx))
+                resolve();
+        }
+    }
 
-        int activeSize = activeJobs.size();
-        int waitSize = waitJobs.size();
+    /** {@inheritDoc} */
+    @Override public void onJobResumed(GridCollisionJobContext ctx) {
+        assert ctx != null;
 
-        waitingCnt.set(waitSize);
-        runningCnt.set(activeSize);
-        heldCnt.set(ctx.heldJobs().size());
+        synchronized (mux) {
+            if (heldJobs.remove(ctx))
+                resolve();
+        }
+    }
 
-        int activateCnt = parallelJobsNum.get() - activeSize;
+    /**
+     * Activates waiting jobs while there are free slots and rejects oldest
+     * waiting jobs above waiting jobs limit.
+     */
+    private void resolve() {
+        assert Thread.holdsLock(mux);
 
-        Iterator<GridCollisionJobContext> it = null;
+        int parallelJobsNum = this.parallelJobsNum.get();
 
-        if (activateCnt > 0 && !waitJobs.isEmpty()) {
-            if (it == null)
-                it = waitJobs.iterator();
+        // Held jobs do not occupy execution slots.
+        int runningSize = activeJobs.size() - heldJobs.size();
 
-            int cnt = 0;
+        Iterator<GridCollisionJobContext> it = waitJobs.iterator();
 
-            while (it.hasNext()) {
-                GridCollisionJobContext waitCtx = it.next();
+        while (runningSize < parallelJobsNum && it.hasNext()) {
+            GridCollisionJobContext waitCtx = it.next();
 
-                if (cnt++ == activateCnt)
-                    break;
+            it.remove();
 
-                waitCtx.activate();
+            // Job could have been rejected or cancelled concurrently.
+            if (waitCtx.activate()) {
+                activeJobs.add(waitCtx);
 
-                waitSize--;
+                runningSize++;
             }
         }
 
         int waitJobsNum = this.waitJobsNum.get();
 
-        if (waitSize > waitJobsNum) {
-            if (it == null)
-                it = waitJobs.iterator();
-
-            while (it.hasNext()) {
-                GridCollisionJobContext waitCtx = it.next();
+        while (waitJobs.size() > waitJobsNum && it.hasNext()) {
+            it.next().cancel();
 
-                 waitCtx.cancel();
-
-                 if (--waitSize <= waitJobsNum)
-                     break;
-             }
+            it.remove();
         }
+
+        waitingCnt.set(waitJobs.size());
+        runningCnt.set(runningSize);
     }
 
     /** {@inheritDoc} */
@@ -157,7 +157,7 @@ import static org.gridgain.grid.GridEventType.*;
     email = "support@gridgain.com",
     version = "3.6.0c.09012012")
 @GridSpiMultipleInstancesSupport(true)
-public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridCollisionSpi,
+public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridIncrementalCollisionSpi,
     GridJobStealingCollisionSpiMBean {
     /** Maximum number of attempts to steal job by another node (default is {@code 5}). */
     public static final int DFLT_MAX_STEALING_ATTEMPTS = 5;
@@ -218,13 +218,6 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
     /** Stealing priority attribute name. */
     public static final String STEALING_PRIORITY_ATTR = "gridgain.stealing.priority";
 
-    /** Running (not held) jobs predicate. */
-    private static final GridPredicate<GridCollisionJobContext> RUNNING_JOBS = new P1<GridCollisionJobContext>() {
-        @Override public boolean apply(GridCollisionJobContext ctx) {
-            return !ctx.getJobContext().heldcc();
-        }
-    };
-
 
     /** Grid logger. */
     @SuppressWarnings({"FieldAccessedSynchronizedAndUnsynchronized"})
@@ -254,8 +247,29 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
     /** Number of jobs that were waiting for execution last time. */
     private final AtomicInteger waitingCnt = new AtomicInteger(0);
 
-    /** Number of currently held jobs. */
-    private final AtomicInteger heldCnt = new AtomicInteger(0);
+    /** Waiting jobs ordered by stealing priority and arrival. */
+    private final NavigableSet<WaitJob> waitJobs = new TreeSet<WaitJob>();
+
+    /** Index of waiting jobs. */
+    private final Map<GridCollisionJobContext, WaitJob> waitJobsIdx = new HashMap<GridCollisionJobContext, WaitJob>();
+
+    /** Jobs activated by this SPI. */
+    private final Collection<GridCollisionJobContext> activeJobs = new HashSet<GridCollisionJobContext>();
+
+    /** Active jobs in held state, they do not occupy execution slots. */
+    private final Collection<GridCollisionJobContext> heldJobs = new HashSet<GridCollisionJobContext>();
+
+    /** Arrival counter. */
+    private long arrivalCntr;
+
+    /**
+     * Counter used to determine whether all nodes updated metrics or not.
+     * This counter is reset every time stealing is checked on metrics update.
+     */
+    private int metricsUpdateCntr;
+
+    /** Mutex guarding job collections. */
+    private final Object mux = new Object();
 
     /** Total number of stolen jobs. */
     private final AtomicInteger totalStolenJobsNum = new AtomicInteger(0);
@@ -356,7 +370,9 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
 
     /** {@inheritDoc} */
     @Override public int getCurrentHeldJobsNumber() {
-        return heldCnt.get();
+        synchronized (mux) {
+            return heldJobs.size();
+        }
     }
 
     /** {@inheritDoc} */
@@ -532,6 +548,22 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
                         break;
                     }
 
+                    case EVT_NODE_METRICS_UPDATED: {
+                        // Check whether there are jobs to steal once all nodes updated metrics.
+                        synchronized (mux) {
+                            if (getSpiContext().nodes().size() > ++metricsUpdateCntr)
+                                break;
+
+                            metricsUpdateCntr = 0;
+
+                            resolve();
+                        }
+
+                        notifyExternalListener();
+
+                        break;
+                    }
+
                     case EVT_NODE_LEFT:
                     case EVT_NODE_FAILED: {
                         Iterator<GridNode> iter = nodeQueue.iterator();
@@ -554,7 +586,8 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
         },
             EVT_NODE_FAILED,
             EVT_NODE_JOINED,
-            EVT_NODE_LEFT
+            EVT_NODE_LEFT,
+            EVT_NODE_METRICS_UPDATED
         );
 
         getSpiContext().addMessageListener(msgLsnr = new GridMessageListener() {
@@ -579,12 +612,11 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
                     info.reset((Integer)msg);
                 }
 
-                GridCollisionExternalListener tmp = extLsnr;
-
-                // Let grid know that collisions should be resolved.
-                if (tmp != null) {
-                    tmp.onExternalCollision();
+                synchronized (mux) {
+                    resolve();
                 }
+
+                notifyExternalListener();
             }
         },
         JOB_STEALING_COMM_TOPIC);
@@ -605,18 +637,89 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
 
     /** {@inheritDoc} */
     @Override public void onCollision(GridCollisionContext ctx) {
+        throw new IllegalStateException("Incremental collision SPI should be notified about job state " +
+            "changes instead of collision snapshots: " + GridJobStealingCollisionSpi.class.getSimpleName());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onJobArrived(GridCollisionJobContext ctx) {
+        assert ctx != null;
+
+        // Evaluate priority outside of synchronization.
+        int priority = getJobPriority(ctx.getJobContext());
+
+        synchronized (mux) {
+            WaitJob waitJob = new WaitJob(ctx, priority, arrivalCntr++);
+
+            waitJobs.add(waitJob);
+            waitJobsIdx.put(ctx, waitJob);
+
+            resolve();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onJobFinished(GridCollisionJobContext ctx) {
+        assert ctx != null;
+
+        synchronized (mux) {
+            heldJobs.remove(ctx);
+
+            if (!activeJobs.remove(ctx)) {
+                WaitJob waitJob = waitJobsIdx.remove(ctx);
+
+                if (waitJob != null) {
+                    waitJobs.remove(waitJob);
+                }
+            }
+
+            resolve();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onJobCancelled(GridCollisionJobContext ctx) {
+        onJobFinished(ctx);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onJobHeld(GridCollisionJobContext ctx) {
+        assert ctx != null;
+
+        synchronized (mux) {
+            // Job could have been cancelled or finished concurrently.
+            if (activeJobs.contains(ctx) && heldJobs.add(ctx)) {
+                resolve();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onJobResumed(GridCollisionJobContext ctx) {
         assert ctx != null;
 
-        Collection<GridCollisionJobContext> activeJobs = ctx.activeJobs();
-        Collection<GridCollisionJobContext> waitJobs = ctx.waitingJobs();
+        synchronized (mux) {
+            if (heldJobs.remove(ctx)) {
+                resolve();
+            }
+        }
+    }
 
-        assert activeJobs.size() <= activeJobsThreshold : "Amount of active jobs exceeds threshold [activeJobs=" +
-            activeJobs.size() + ", activeJobsThreshold=" + activeJobsThreshold + ']';
+    /**
+     * Activates or rejects waiting jobs and requests jobs from other
+     * nodes if this node is under-utilized.
+     */
+    private void resolve() {
+        assert Thread.holdsLock(mux);
+
+        // Held jobs do not occupy execution slots.
+        int activeSize = activeJobs.size() - heldJobs.size();
 
-        heldCnt.set(ctx.heldJobs().size());
+        assert activeSize <= activeJobsThreshold : "Amount of active jobs exceeds threshold [activeJobs=" +
+            activeSize + ", activeJobsThreshold=" + activeJobsThreshold + ']';
 
         // Check if there are any jobs to activate or reject.
-        int rejected = checkBusy(waitJobs, activeJobs);
+        int rejected = checkBusy(activeSize);
 
         totalStolenJobsNum.addAndGet(rejected);
 
@@ -631,23 +734,34 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
 
         if (isStealingEnabled) {
             // Check if there are jobs to steal.
-            checkIdle(waitJobs, activeJobs);
+            checkIdle(activeJobs.size() - heldJobs.size());
+        }
+    }
+
+    /**
+     * Lets grid know that jobs were activated or rejected outside of
+     * collision notification.
+     */
+    private void notifyExternalListener() {
+        GridCollisionExternalListener tmp = extLsnr;
+
+        if (tmp != null) {
+            tmp.onExternalCollision();
         }
     }
 
     /**
      * Check if node is busy and activate/reject proper number of jobs.
      *
-     * @param waitJobs Waiting jobs.
-     * @param activeJobs Active jobs.
+     * @param activeSize Number of running jobs.
      * @return Number of rejected jobs.
      */
-    private int checkBusy(Collection<GridCollisionJobContext> waitJobs,
-        Collection<GridCollisionJobContext> activeJobs) {
+    private int checkBusy(int activeSize) {
+        assert Thread.holdsLock(mux);
 
-        int activeSize = activeJobs.size();
+        int waitSize = waitJobs.size();
 
-        waitingCnt.set(waitJobs.size());
+        waitingCnt.set(waitSize);
         runningCnt.set(activeSize);
 
         GridSpiContext ctx = getSpiContext();
@@ -658,15 +772,21 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
 
         int rejected = 0;
 
-        Collection<GridCollisionJobContext> waitPriorityJobs = sortJobs(waitJobs);
+        for (Iterator<WaitJob> it = waitJobs.iterator(); it.hasNext();) {
+            GridCollisionJobContext waitCtx = it.next().ctx;
 
-        for (GridCollisionJobContext waitCtx : waitPriorityJobs) {
             if (activateCnt > 0 && cnt < activateCnt) {
                 cnt++;
 
-                // If job was activated/cancelled by another thread, then
+                it.remove();
+
+                waitJobsIdx.remove(waitCtx);
+
+                // If job was cancelled by another thread, then
                 // this method is no-op.
-                waitCtx.activate();
+                if (waitCtx.activate()) {
+                    activeJobs.add(waitCtx);
+                }
             }
             else if (!waitCtx.getJob().getClass().isAnnotationPresent(GridJobStealingDisabled.class)
                 && stealReqs.get() > 0) {
@@ -691,7 +811,7 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
                 }
 
                 // Check if allowed to reject job.
-                int jobsToReject = waitPriorityJobs.size() - cnt - rejected - waitJobsThreshold;
+                int jobsToReject = waitSize - cnt - rejected - waitJobsThreshold;
 
                 if (log.isDebugEnabled()) {
                     log.debug("Jobs to reject count [jobsToReject=" + jobsToReject + ", waitCtx=" + waitCtx + ']');
@@ -780,6 +900,10 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
 
                         rejected++;
 
+                        it.remove();
+
+                        waitJobsIdx.remove(waitCtx);
+
                         // If job was not cancelled already by another thread.
                         if (waitCtx.cancel()) {
                             stealReqs.decrementAndGet();
@@ -815,27 +939,6 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
         return rejected;
     }
 
-    /**
-     * Sort jobs by priority from high to lowest value.
-     *
-     * @param waitJobs Waiting jobs.
-     * @return Sorted waiting jobs by priority.
-     */
-    private Collection<GridCollisionJobContext> sortJobs(Collection<GridCollisionJobContext> waitJobs) {
-        List<GridCollisionJobContext> passiveList = new ArrayList<GridCollisionJobContext>(waitJobs);
-
-        Collections.sort(passiveList, new Comparator<GridCollisionJobContext>() {
-            @Override public int compare(GridCollisionJobContext o1, GridCollisionJobContext o2) {
-                int p1 = getJobPriority(o1.getJobContext());
-                int p2 = getJobPriority(o2.getJobContext());
-
-                return p1 < p2 ? 1 : p1 == p2 ? 0 : -1;
-            }
-        });
-
-        return passiveList;
-    }
-
     /**
      * Gets task priority from task context. If task has no priority default
      * one will be used.
@@ -880,16 +983,14 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
      * Check if the node is idle and steal as many jobs from other nodes
      * as possible.
      *
-     * @param waitJobs Waiting jobs.
-     * @param activeJobs Active jobs.
+     * @param activeSize Number of running jobs.
      */
-    private void checkIdle(Collection<GridCollisionJobContext> waitJobs,
-        Collection<GridCollisionJobContext> activeJobs) {
+    private void checkIdle(int activeSize) {
         // Check for overflow.
         int max = waitJobsThreshold + activeJobsThreshold < 0 ?
             Integer.MAX_VALUE : waitJobsThreshold + activeJobsThreshold;
 
-        int jobsToSteal = max - (waitJobs.size() + activeJobs.size());
+        int jobsToSteal = max - (waitJobs.size() + activeSize);
 
         if (log.isDebugEnabled()) {
             log.debug("Total number of jobs to be stolen: " + jobsToSteal);
@@ -1047,4 +1148,44 @@ public class GridJobStealingCollisionSpi extends GridSpiAdapter implements GridC
     @Override public String toString() {
         return S.toString(GridJobStealingCollisionSpi.class, this);
     }
+
+    /**
+     * Waiting job. Jobs with higher stealing priority go first, jobs with
+     * equal priority are ordered by arrival.
+     */
+    private static class WaitJob implements Comparable<WaitJob> {
+        /** */
+        private final GridCollisionJobContext ctx;
+
+        /** */
+        private final int priority;
+
+        /** */
+        private final long arrival;
+
+        /**
+         * @param ctx Collision job context.
+         * @param priority Job priority.
+         * @param arrival Arrival order.
+         */
+        WaitJob(GridCollisionJobContext ctx, int priority, long arrival) {
+            this.ctx = ctx;
+            this.priority = priority;
+            this.arrival = arrival;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int compareTo(WaitJob o) {
+            if (priority != o.priority) {
+                return priority > o.priority ? -1 : 1;
+            }
+
+            return arrival < o.arrival ? -1 : arrival == o.arrival ? 0 : 1;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(WaitJob.class, this);
+        }
+    }
 }
@@ -24,6 +24,10 @@ import java.util.concurrent.atomic.*;
  * This class provides implementation for Collision SPI based on priority queue. Jobs are first ordered
  * by their priority, if one is specified, and only first {@link #getParallelJobsNumber()} jobs
  * is allowed to execute in parallel. Other jobs will be queued up.
+ * <p>
+ * This SPI is {@link GridIncrementalCollisionSpi incremental}: waiting jobs are kept in
+ * a priority queue maintained by the SPI itself, so job priority is evaluated once when
+ * job arrives and waiting jobs are never re-sorted.
  * <h1 class="header">Configuration</h1>
  * <h2 class="header">Mandatory</h2>
  * This SPI has no mandatory configuration parameters.
@@ -158,7 +162,7 @@ import java.util.concurrent.atomic.*;
     email = "support@gridgain.com",
     version = "3.6.0c.09012012")
 @GridSpiMultipleInstancesSupport(true)
-public class GridPriorityQueueCollisionSpi extends GridSpiAdapter implements GridCollisionSpi,
+public class GridPriorityQueueCollisionSpi extends GridSpiAdapter implements GridIncrementalCollisionSpi,
     GridPriorityQueueCollisionSpiMBean {
     /**
      * Default number of parallel jobs allowed (value is {@code 95} which is
@@ -206,8 +210,24 @@ public class GridPriorityQueueCollisionSpi extends GridSpiAdapter implements Gri
     /** Number of jobs that were waiting for execution last time. */
     private final AtomicInteger waitingCnt = new AtomicInteger(0);
 
-    /** Number of currently held jobs. */
-    private final AtomicInteger heldCnt = new AtomicInteger(0);
+    /** Waiting jobs ordered by priority and arrival. */
+    private final NavigableSet<WaitJob> waitJobs = new TreeSet<WaitJob>();
+
+    /** Waiting jobs in order of arrival. */
+    private final Map<GridCollisionJobContext, WaitJob> waitJobsIdx =
+        new LinkedHashMap<GridCollisionJobContext, WaitJob>();
+
+    /** Jobs activated by this SPI. */
+    private final Collection<GridCollisionJobContext> activeJobs = new HashSet<GridCollisionJobContext>();
+
+    /** Active jobs in held state, they do not occupy execution slots. */
+    private final Collection<GridCollisionJobContext> heldJobs = new HashSet<GridCollisionJobContext>();
+
+    /** Arrival counter. */
+    private long arrivalCntr;
+
+    /** Mutex guarding job collections. */
+    private final Object mux = new Object();
 
     /** */
     private String taskAttrKey = DFLT_PRIORITY_ATTRIBUTE_KEY;
@@ -269,7 +289,9 @@ public class GridPriorityQueueCollisionSpi extends GridSpiAdapter implements Gri
 
     /** {@inheritDoc} */
     @Override public int getCurrentActiveJobsNumber() {
-        return runningCnt.get() + heldCnt.get();
+        synchronized (mux) {
+            return activeJobs.size();
+        }
     }
 
     /** {@inheritDoc} */
@@ -279,7 +301,9 @@ public class GridPriorityQueueCollisionSpi extends GridSpiAdapter implements Gri
 
     /** {@inheritDoc} */
     @Override public int getCurrentHeldJobsNumber() {
-        return heldCnt.get();
+        synchronized (mux) {
+            return heldJobs.size();
+        }
     }
 
     /**
@@ -419,121 +443,130 @@ public class GridPriorityQueueCollisionSpi extends GridSpiAdapter implements Gri
 
     /** {@inheritDoc} */
     @Override public void onCollision(GridCollisionContext ctx) {
+        throw new IllegalStateException("Incremental collision SPI should be notified about job state " +
+            "changes instead of collision snapshots: " + GridPriorityQueueCollisionSpi.class.getSimpleName());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void onJobArrived(GridCollisionJobContext ctx) {
         assert ctx != null;
 
-        Collection<GridCollisionJobContext> activeJobs = ctx.activeJobs();
-        Collection<GridCollisionJobContext> waitJobs = ctx.waitingJobs();
+        // Evaluate priority outside of synchronization.
+        int priority = getJobPriority(ctx);
 
-        int activeSize = activeJobs.size();
+        synchronized (mux) {
+            WaitJob waitJob = new WaitJob(ctx, priority, arrivalCntr++);
 
-        waitingCnt.set(waitJobs.size());
-        runningCnt.set(activeSize);
-        heldCnt.set(ctx.heldJobs().size());
+            waitJobs.add(waitJob);
+            waitJobsIdx.put(ctx, waitJob);
 
-        int waitSize = waitJobs.size();
+            resolve();
+        }
+    }
 
-        int activateCnt = parallelJobsNum - activeSize;
+    /** {@inheritDoc} */
+    @Override public void onJobFinished(GridCollisionJobContext ctx) {
+        assert ctx != null;
 
-        if (activateCnt > 0 && !waitJobs.isEmpty()) {
-            if (waitJobs.size() <= activateCnt) {
-                for (GridCollisionJobContext waitJob : waitJobs) {
-                    waitJob.activate();
+        synchronized (mux) {
+            heldJobs.remove(ctx);
 
-                    waitSize--;
-                }
+            if (!activeJobs.remove(ctx)) {
+                WaitJob waitJob = waitJobsIdx.remove(ctx);
+
+                if (waitJob != null)
+                    waitJobs.remove(waitJob);
             }
-            else {
-                List<GridCollisionJobContext> passiveList = new ArrayList<GridCollisionJobContext>(waitJobs);
 
-                Collections.sort(passiveList, new Comparator<GridCollisionJobContext>() {
-                    /** {@inheritDoc} */
-                    @Override public int compare(GridCollisionJobContext o1, GridCollisionJobContext o2) {
-                        int p1 = getJobPriority(o1);
-                        int p2 = getJobPriority(o2);
+            resolve();
+        }
+    }
 
-                        return p1 < p2 ? 1 : p1 == p2 ? 0 : -1;
-                    }
-                });
+    /** {@inheritDoc} */
+    @Override public void onJobCancelled(GridCollisionJobContext ctx) {
+        onJobFinished(ctx);
+    }
 
-                if (preventStarvation)
-                    bumpPriority(waitJobs, passiveList);
+    /** {@inheritDoc} */
+    @Override public void onJobHeld(GridCollisionJobContext ctx) {
+        assert ctx != null;
 
-                for (int i = 0; i < activateCnt; i++) {
-                    passiveList.get(i).activate();
+        synchronized (mux) {
+            // Job could have been cancelled or finished concurrently.
+            if (activeJobs.contains(ctx) && heldJobs.add(ctx))
+                resolve();
+        }
+    }
 
-                    waitSize--;
-                }
-            }
+    /** {@inheritDoc} */
+    @Override public void onJobResumed(GridCollisionJobContext ctx) {
+        assert ctx != null;
+
+        synchronized (mux) {
+            if (heldJobs.remove(ctx))
+                resolve();
         }
+    }
 
-        if (waitSize > waitJobsNum) {
-            List<GridCollisionJobContext> waitList = new ArrayList<GridCollisionJobContext>(waitJobs);
+    /**
+     * Activates highest priority waiting jobs while there are free slots and rejects
+     * lowest priority waiting jobs above waiting jobs limit.
+     */
+    private void resolve() {
+        assert Thread.holdsLock(mux);
 
-            // Put jobs with highest priority first.
-            Collections.sort(waitList, new Comparator<GridCollisionJobContext>() {
-                /** {@inheritDoc} */
-                @Override public int compare(GridCollisionJobContext o1, GridCollisionJobContext o2) {
-                    int p1 = getJobPriority(o1);
-                    int p2 = getJobPriority(o2);
+        // Held jobs do not occupy execution slots.
+        int runningSize = activeJobs.size() - heldJobs.size();
 
-                    return p1 < p2 ? 1 : p1 == p2 ? 0 : -1;
-                }
-            });
+        while (runningSize < parallelJobsNum && !waitJobs.isEmpty()) {
+            WaitJob waitJob = waitJobs.pollFirst();
 
-            int skip = waitJobs.size() - waitSize;
+            waitJobsIdx.remove(waitJob.ctx);
 
-            int i = 0;
+            if (preventStarvation)
+                bumpPriority(waitJob);
 
-            for (GridCollisionJobContext waitCtx : waitList) {
-                if (++i >= skip) {
-                    waitCtx.cancel();
+            // Job could have been rejected or cancelled concurrently.
+            if (waitJob.ctx.activate()) {
+                activeJobs.add(waitJob.ctx);
 
-                    if (--waitSize <= waitJobsNum)
-                        break;
-                }
+                runningSize++;
             }
         }
-    }
 
-    /**
-     * Increases priority if job has bumped down.
-     *
-     * @param waitJobs Ordered collection of collision contexts for jobs that are currently waiting
-     *      for execution.
-     * @param passiveJobs Reordered collection of collision contexts for waiting jobs.
-     */
-    private void bumpPriority(Collection<GridCollisionJobContext> waitJobs, List<GridCollisionJobContext> passiveJobs) {
-        assert waitJobs != null;
-        assert passiveJobs != null;
-        assert waitJobs.size() == passiveJobs.size();
+        while (waitJobs.size() > waitJobsNum) {
+            WaitJob waitJob = waitJobs.pollLast();
 
-        for (int i = 0; i < passiveJobs.size(); i++) {
-            GridCollisionJobContext ctx = passiveJobs.get(i);
+            waitJobsIdx.remove(waitJob.ctx);
 
-            if (i > indexOf(waitJobs, ctx))
-                ctx.getJobContext().setAttribute(jobAttrKey, getJobPriority(ctx) + starvationInc);
+            waitJob.ctx.cancel();
         }
+
+        waitingCnt.set(waitJobs.size());
+        runningCnt.set(runningSize);
     }
 
     /**
-     * @param ctxs Collection of contexts.
-     * @param ctx Context to find.
-     * @return Index of found context.
+     * Increases priority of waiting jobs which arrived before activated job,
+     * i.e. of jobs that got bumped down.
+     *
+     * @param activated Activated job.
      */
-    private int indexOf(Iterable<GridCollisionJobContext> ctxs, GridCollisionJobContext ctx) {
-        int i = 0;
+    private void bumpPriority(WaitJob activated) {
+        assert Thread.holdsLock(mux);
 
-        for (GridCollisionJobContext c : ctxs) {
-            if (c == ctx) {
-                return i;
-            }
+        for (WaitJob waitJob : waitJobsIdx.values()) {
+            if (waitJob.arrival > activated.arrival)
+                break;
 
-            i++;
-        }
+            waitJobs.remove(waitJob);
 
-        assert false : "Failed to find collision context [ctx=" + ctx + ", ctxs=" + ctxs + ']';
+            waitJob.priority += starvationInc;
 
-        return -1;
+            waitJob.ctx.getJobContext().setAttribute(jobAttrKey, waitJob.priority);
+
+            waitJobs.add(waitJob);
+        }
     }
 
     /**
@@ -594,4 +627,43 @@ public class GridPriorityQueueCollisionSpi extends GridSpiAdapter implements Gri
     @Override public String toString() {
         return S.toString(GridPriorityQueueCollisionSpi.class, this);
     }
+
+    /**
+     * Waiting job. Jobs with higher priority go first, jobs with
+     * equal priority are ordered by arrival.
+     */
+    private static class WaitJob implements Comparable<WaitJob> {
+        /** */
+        private final GridCollisionJobContext ctx;
+
+        /** */
+        private int priority;
+
+        /** */
+        private final long arrival;
+
+        /**
+         * @param ctx Collision job context.
+         * @param priority Job priority.
+         * @param arrival Arrival order.
+         */
+        WaitJob(GridCollisionJobContext ctx, int priority, long arrival) {
+            this.ctx = ctx;
+            this.priority = priority;
+            this.arrival = arrival;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int compareTo(WaitJob o) {
+            if (priority != o.priority)
+                return priority > o.priority ? -1 : 1;
+
+            return arrival < o.arrival ? -1 : arrival == o.arrival ? 0 : 1;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(WaitJob.class, this);
+        }
+    }
 }
@@ -784,13 +784,21 @@ public class GridTcpCommunicationSpi extends GridSpiAdapter implements GridCommu
             try {
                 client = reserveClient(node);
 
-                GridByteArrayList buf = U.marshal(marsh, new GridTcpCommunicationMessage(nodeId, msg));
+                // Client writes to socket synchronously, so per-thread buffer can be sent without copying.
+                GridByteArrayOutputStream buf = GridByteArrayOutputStreamFactory.acquire();
 
-                client.sendMessage(buf.getInternalArray(), buf.getSize());
+                try {
+                    marsh.marshal(new GridTcpCommunicationMessage(nodeId, msg), buf);
+
+                    client.sendMessage(buf.getInternalArray(), buf.size());
 
-                sentMsgsCnt.incrementAndGet();
+                    sentMsgsCnt.incrementAndGet();
 
-                sentBytesCnt.addAndGet(buf.getSize());
+                    sentBytesCnt.addAndGet(buf.size());
+                }
+                finally {
+                    GridByteArrayOutputStreamFactory.release(buf);
+                }
             }
             catch (GridException e) {
                 throw new GridSpiException("Failed to send message to remote node: " + node, e);
@@ -4423,7 +4423,7 @@ public class GridFileSwapSpaceSpi extends GridSpiAdapter implements GridSwapSpac
             byte[] arr = swapEntry.spaceKey().swapKey().keyBytes();
 
             if (arr == null) {
-                arr = U.marshal(marsh, swapEntry.spaceKey().swapKey().key()).getArray();
+                arr = U.marshal(marsh, swapEntry.spaceKey().swapKey().key()).getEntireArray();
 
                 swapEntry.spaceKey().swapKey().keyBytes(arr);
             }
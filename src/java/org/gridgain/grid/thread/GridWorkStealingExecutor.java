@@ -0,0 +1,542 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.thread;
+
+import org.gridgain.grid.lang.utils.*;
+import org.gridgain.grid.typedef.internal.*;
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * An {@link ExecutorService} that executes submitted tasks using work-stealing grid threads.
+ * <p>
+ * Every worker thread owns a deque of tasks. Tasks submitted from a worker thread of this
+ * executor (e.g. jobs or closures forked locally by a running job) are pushed to the head
+ * of that worker's deque and are executed in LIFO order by the owner, while idle workers
+ * steal the oldest tasks from the tail. Tasks submitted from other threads go through a
+ * shared lock-free submission queue. This way there is no single lock all producers and
+ * consumers contend on.
+ * <p>
+ * When worker thread blocks waiting for a grid future (see {@link #beginBlocking()}),
+ * executor compensates by starting a spare worker, so that tasks which would complete
+ * that future are not starved. Spare workers terminate after being idle for
+ * {@link #KEEP_ALIVE_TIME} milliseconds once they are no longer needed.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public class GridWorkStealingExecutor extends AbstractExecutorService {
+    /** Time in milliseconds idle spare worker waits for a task before terminating. */
+    public static final long KEEP_ALIVE_TIME = 1000;
+
+    /** Grid name. */
+    private final String gridName;
+
+    /** Number of workers that are kept running. */
+    private final int parallelism;
+
+    /** Maximum number of workers including spare ones. */
+    private final int maxPoolSize;
+
+    /** Workers, copied on write under {@link #mux}. */
+    private volatile Worker[] workers = new Worker[0];
+
+    /** Tasks submitted from non-worker threads. */
+    private final Queue<Runnable> subQueue = new ConcurrentLinkedQueue<Runnable>();
+
+    /** Parked workers. */
+    private final Queue<Worker> idle = new ConcurrentLinkedQueue<Worker>();
+
+    /** Number of workers blocked on futures. */
+    private final AtomicInteger blocked = new AtomicInteger();
+
+    /** Number of completed tasks. */
+    private final AtomicLong completed = new AtomicLong();
+
+    /** Number of steals. */
+    private final AtomicLong steals = new AtomicLong();
+
+    /** Largest number of workers. */
+    private int largestPoolSize;
+
+    /** Shutdown flag. */
+    private volatile boolean shutdown;
+
+    /** Mutex. */
+    private final Object mux = new Object();
+
+    /**
+     * Creates executor and starts its workers.
+     *
+     * @param gridName Name of the grid.
+     * @param parallelism Number of workers that are kept running.
+     * @param maxPoolSize Maximum number of workers including spare ones started
+     *      to compensate for workers blocked on futures.
+     */
+    public GridWorkStealingExecutor(String gridName, int parallelism, int maxPoolSize) {
+        A.ensure(parallelism > 0, "parallelism > 0");
+        A.ensure(maxPoolSize >= parallelism, "maxPoolSize >= parallelism");
+
+        this.gridName = gridName;
+        this.parallelism = parallelism;
+        this.maxPoolSize = maxPoolSize;
+
+        synchronized (mux) {
+            for (int i = 0; i < parallelism; i++)
+                startWorker();
+        }
+    }
+
+    /**
+     * Notifies executor owning current thread that the thread is about to block
+     * waiting for a future. If current thread is not a worker of any work-stealing
+     * executor, then this method is a no-op. Every call which returned {@code true}
+     * must be followed by {@link #endBlocking()} call once thread stops waiting.
+     *
+     * @return {@code True} if current thread is a worker of work-stealing executor.
+     */
+    public static boolean beginBlocking() {
+        Thread t = Thread.currentThread();
+
+        if (!(t instanceof Worker))
+            return false;
+
+        ((Worker)t).pool().onBlock();
+
+        return true;
+    }
+
+    /**
+     * Notifies executor owning current thread that the thread stopped waiting.
+     */
+    public static void endBlocking() {
+        Thread t = Thread.currentThread();
+
+        assert t instanceof Worker;
+
+        ((Worker)t).pool().blocked.decrementAndGet();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void execute(Runnable r) {
+        if (r == null)
+            throw new NullPointerException();
+
+        if (shutdown)
+            throw new RejectedExecutionException("Executor has been shut down.");
+
+        Thread t = Thread.currentThread();
+
+        // Locally forked task goes to the current worker's own deque.
+        if (t instanceof Worker && ((Worker)t).pool() == this)
+            ((Worker)t).deque.addFirst(r);
+        else {
+            subQueue.add(r);
+
+            // Task may have been added after all workers exited.
+            if (shutdown && isTerminated() && subQueue.remove(r))
+                throw new RejectedExecutionException("Executor has been shut down.");
+        }
+
+        signalWork();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void shutdown() {
+        shutdown = true;
+
+        for (Worker w : workers)
+            LockSupport.unpark(w);
+    }
+
+    /** {@inheritDoc} */
+    @Override public List<Runnable> shutdownNow() {
+        shutdown = true;
+
+        List<Runnable> res = new ArrayList<Runnable>();
+
+        for (Runnable r = subQueue.poll(); r != null; r = subQueue.poll())
+            res.add(r);
+
+        for (Worker w : workers) {
+            for (Runnable r = w.deque.pollLast(); r != null; r = w.deque.pollLast())
+                res.add(r);
+
+            w.interrupt();
+
+            LockSupport.unpark(w);
+        }
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean isTerminated() {
+        return shutdown && workers.length == 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long end = System.currentTimeMillis() + unit.toMillis(timeout);
+
+        // Prevent overflow.
+        if (end < 0)
+            end = Long.MAX_VALUE;
+
+        synchronized (mux) {
+            while (!isTerminated()) {
+                long left = end - System.currentTimeMillis();
+
+                if (left <= 0)
+                    return false;
+
+                mux.wait(left);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Number of workers that are kept running.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return Maximum number of workers including spare ones.
+     */
+    public int getMaximumPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * @return Current number of workers.
+     */
+    public int getPoolSize() {
+        return workers.length;
+    }
+
+    /**
+     * @return Largest number of workers that have ever simultaneously been in the pool.
+     */
+    public int getLargestPoolSize() {
+        synchronized (mux) {
+            return largestPoolSize;
+        }
+    }
+
+    /**
+     * @return Approximate number of workers that are not parked waiting for tasks.
+     */
+    public int getActiveCount() {
+        return Math.max(0, workers.length - idle.size());
+    }
+
+    /**
+     * @return Approximate number of workers blocked on futures.
+     */
+    public int getBlockedCount() {
+        return blocked.get();
+    }
+
+    /**
+     * @return Approximate number of queued tasks.
+     */
+    public int getQueueSize() {
+        int size = subQueue.size();
+
+        for (Worker w : workers)
+            size += w.deque.sizex();
+
+        return size;
+    }
+
+    /**
+     * @return Number of completed tasks.
+     */
+    public long getCompletedTaskCount() {
+        return completed.get();
+    }
+
+    /**
+     * @return Number of tasks stolen by workers from other workers' deques.
+     */
+    public long getStealCount() {
+        return steals.get();
+    }
+
+    /**
+     * Starts new worker. Must be called under {@link #mux}.
+     */
+    private void startWorker() {
+        assert Thread.holdsLock(mux);
+
+        Worker w = new Worker();
+
+        Worker[] arr = Arrays.copyOf(workers, workers.length + 1);
+
+        arr[arr.length - 1] = w;
+
+        workers = arr;
+
+        largestPoolSize = Math.max(largestPoolSize, arr.length);
+
+        w.start();
+    }
+
+    /**
+     * Removes worker. Must be called under {@link #mux}.
+     *
+     * @param w Worker to remove.
+     * @return {@code True} if worker was removed.
+     */
+    @SuppressWarnings({"ObjectEquality"})
+    private boolean removeWorker(Worker w) {
+        assert Thread.holdsLock(mux);
+
+        Worker[] cur = workers;
+
+        for (int i = 0; i < cur.length; i++) {
+            if (cur[i] == w) {
+                Worker[] arr = new Worker[cur.length - 1];
+
+                System.arraycopy(cur, 0, arr, 0, i);
+                System.arraycopy(cur, i + 1, arr, i, arr.length - i);
+
+                workers = arr;
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Called when a worker is about to block on a future.
+     */
+    private void onBlock() {
+        int b = blocked.incrementAndGet();
+
+        if (shutdown || workers.length - b >= parallelism)
+            return;
+
+        synchronized (mux) {
+            if (workers.length - blocked.get() < parallelism && workers.length < maxPoolSize)
+                startWorker();
+        }
+    }
+
+    /**
+     * Wakes up a parked worker, if any.
+     */
+    private void signalWork() {
+        Worker w = idle.poll();
+
+        if (w != null)
+            LockSupport.unpark(w);
+    }
+
+    /**
+     * @return {@code True} if there are queued tasks.
+     */
+    private boolean hasWork() {
+        if (!subQueue.isEmpty())
+            return true;
+
+        for (Worker w : workers)
+            if (!w.deque.isEmptyx())
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Gets next task for the worker: first from own deque, then from submission
+     * queue, and at last by stealing from other workers.
+     *
+     * @param w Worker.
+     * @return Next task or {@code null} if there are none.
+     */
+    @SuppressWarnings({"ObjectEquality"})
+    @Nullable private Runnable next(Worker w) {
+        Runnable r = w.deque.pollFirst();
+
+        if (r != null)
+            return r;
+
+        r = subQueue.poll();
+
+        if (r != null)
+            return r;
+
+        Worker[] arr = workers;
+
+        if (arr.length == 0)
+            return null;
+
+        // Start from a different victim every time to spread steals. Index is kept
+        // within array bounds, since array may shrink between calls.
+        int start = w.stealIdx % arr.length;
+
+        for (int i = 0; i < arr.length; i++) {
+            int idx = (start + i) % arr.length;
+
+            Worker victim = arr[idx];
+
+            if (victim != w) {
+                r = victim.deque.pollLast();
+
+                if (r != null) {
+                    steals.incrementAndGet();
+
+                    w.stealIdx = idx;
+
+                    return r;
+                }
+            }
+        }
+
+        w.stealIdx = (start + 1) % arr.length;
+
+        return null;
+    }
+
+    /**
+     * Parks worker until there is work for it.
+     *
+     * @param w Worker.
+     * @return {@code False} if worker should terminate.
+     */
+    private boolean await(Worker w) {
+        if (shutdown)
+            return hasWork();
+
+        idle.add(w);
+
+        // Double check, as task could have been added before worker became visible as idle.
+        if (hasWork() || shutdown) {
+            idle.remove(w);
+
+            return true;
+        }
+
+        long start = System.currentTimeMillis();
+
+        // Interrupt left by a task would make parking return immediately.
+        Thread.interrupted();
+
+        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(KEEP_ALIVE_TIME));
+
+        idle.remove(w);
+
+        if (System.currentTimeMillis() - start >= KEEP_ALIVE_TIME && !hasWork()) {
+            // Retire spare worker which is no longer needed.
+            synchronized (mux) {
+                if (workers.length - blocked.get() > parallelism)
+                    return !removeWorker(w);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Called by exiting worker.
+     *
+     * @param w Worker.
+     */
+    private void onExit(Worker w) {
+        synchronized (mux) {
+            removeWorker(w);
+
+            // Replace worker killed by an error.
+            if (!shutdown && workers.length < parallelism)
+                startWorker();
+
+            mux.notifyAll();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridWorkStealingExecutor.class, this, "poolSize", workers.length);
+    }
+
+    /**
+     * Worker thread.
+     *
+     * @author 2012 Copyright (C) GridGain Systems
+     * @version 3.6.0c.09012012
+     */
+    private class Worker extends GridThread {
+        /** Own tasks. */
+        private final GridConcurrentLinkedDeque<Runnable> deque = new GridConcurrentLinkedDeque<Runnable>();
+
+        /** Index of the next worker to steal from. */
+        private int stealIdx;
+
+        /**
+         * Creates worker.
+         */
+        Worker() {
+            super(gridName, "gridgain-ws", null);
+
+            stealIdx = workers.length;
+        }
+
+        /**
+         * @return Executor this worker belongs to.
+         */
+        GridWorkStealingExecutor pool() {
+            return GridWorkStealingExecutor.this;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void run() {
+            try {
+                while (true) {
+                    Runnable r = next(this);
+
+                    if (r == null) {
+                        if (!await(this))
+                            break;
+
+                        continue;
+                    }
+
+                    try {
+                        r.run();
+                    }
+                    catch (RuntimeException e) {
+                        getUncaughtExceptionHandler().uncaughtException(this, e);
+                    }
+                    finally {
+                        completed.incrementAndGet();
+                    }
+                }
+            }
+            finally {
+                onExit(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+// Copyright (C) GridGain Systems Licensed under GPLv3, http://www.gnu.org/licenses/gpl.html
+
+/*  _________        _____ __________________        _____
+ *  __  ____/___________(_)______  /__  ____/______ ____(_)_______
+ *  _  / __  __  ___/__  / _  __  / _  / __  _  __ `/__  / __  __ \
+ *  / /_/ /  _  /    _  /  / /_/ /  / /_/ /  / /_/ / _  /  _  / / /
+ *  \____/   /_/     /_/   \_,__/   \____/   \__,_/  /_/   /_/ /_/
+ */
+
+package org.gridgain.grid.util;
+
+import org.gridgain.grid.typedef.*;
+
+import static org.gridgain.grid.GridSystemProperties.*;
+
+/**
+ * Per-thread cache of {@link GridByteArrayOutputStream} instances used for marshalling.
+ * Cached stream keeps its grown buffer between uses, so marshalling of similar objects
+ * does not reallocate buffer over and over again. Buffer which has grown over maximum
+ * cached size (see {@link org.gridgain.grid.GridSystemProperties#GG_MARSH_BUF_CACHE_SIZE})
+ * is not kept, instead it is replaced with a buffer of size typical for recent uses in
+ * this thread.
+ * <p>
+ * Content of cached stream is valid only until it is released, so consumers that need
+ * bytes afterwards must copy them.
+ *
+ * @author 2012 Copyright (C) GridGain Systems
+ * @version 3.6.0c.09012012
+ */
+public final class GridByteArrayOutputStreamFactory {
+    /** Default maximum size of buffer kept in cache. */
+    public static final int DFLT_MAX_CACHED_SIZE = 64 * 1024;
+
+    /** Maximum size of buffer kept in cache. */
+    private static final int MAX_CACHED_SIZE;
+
+    /**
+     * Initializes maximum cached size.
+     */
+    static {
+        String s = X.getSystemOrEnv(GG_MARSH_BUF_CACHE_SIZE, Integer.toString(DFLT_MAX_CACHED_SIZE));
+
+        int size;
+
+        try {
+            size = Integer.parseInt(s);
+        }
+        catch (NumberFormatException ignore) {
+            size = DFLT_MAX_CACHED_SIZE;
+        }
+
+        MAX_CACHED_SIZE = Math.max(size, GridUtils.DFLT_BUFFER_SIZE);
+    }
+
+    /** Cache streams per thread for better performance. */
+    private static ThreadLocal<CachedStream> streams = new ThreadLocal<CachedStream>() {
+        @Override protected CachedStream initialValue() {
+            return new CachedStream();
+        }
+    };
+
+    /**
+     * Acquires a cached instance of {@link GridByteArrayOutputStream} if
+     * current thread is not using it yet. Otherwise a new instance of
+     * stream sized by recent uses is returned.
+     *
+     * @return Cached instance of {@link GridByteArrayOutputStream}.
+     */
+    public static GridByteArrayOutputStream acquire() {
+        return streams.get().acquire();
+    }
+
+    /**
+     * Checks whether given stream is the one cached for current thread. Content of
+     * cached stream must be copied before the stream is released.
+     *
+     * @param out Stream to check.
+     * @return {@code True} if given stream is cached for current thread.
+     */
+    @SuppressWarnings({"ObjectEquality"})
+    public static boolean isCached(GridByteArrayOutputStream out) {
+        return streams.get().out == out;
+    }
+
+    /**
+     * Releases {@link GridByteArrayOutputStream} back to cache.
+     *
+     * @param out Stream to release.
+     */
+    public static void release(GridByteArrayOutputStream out) {
+        streams.get().release(out);
+    }
+
+    /**
+     * No-op constructor to ensure singleton.
+     */
+    private GridByteArrayOutputStreamFactory() {
+        /* No-op. */
+    }
+
+    /**
+     * Cached stream.
+     *
+     * @author 2012 Copyright (C) GridGain Systems
+     * @version 3.6.0c.09012012
+     */
+    private static class CachedStream {
+        /** Cached stream. */
+        private GridByteArrayOutputStream out = new GridByteArrayOutputStream(GridUtils.DFLT_BUFFER_SIZE);
+
+        /** Moving average of written sizes. */
+        private int avgSize = GridUtils.DFLT_BUFFER_SIZE;
+
+        /** {@code True} if already used by a thread. */
+        private boolean used;
+
+        /**
+         * @return The cached stream.
+         */
+        GridByteArrayOutputStream acquire() {
+            // If cached instance is already used (e.g. nested marshalling),
+            // then simply return a new stream of typical size.
+            if (used)
+                return new GridByteArrayOutputStream(avgSize);
+
+            used = true;
+
+            return out;
+        }
+
+        /**
+         * Releases stream for reuse.
+         *
+         * @param out Stream to release.
+         */
+        @SuppressWarnings({"ObjectEquality"})
+        void release(GridByteArrayOutputStream out) {
+            int size = out.size();
+
+            // Weight of latest size is 1/8.
+            avgSize = Math.max(GridUtils.DFLT_BUFFER_SIZE, avgSize - (avgSize >> 3) + (size >> 3));
+
+            if (this.out == out) {
+                if (out.getInternalArray().length > MAX_CACHED_SIZE)
+                    this.out = new GridByteArrayOutputStream(Math.min(avgSize, MAX_CACHED_SIZE));
+                else
+                    out.reset();
+
+                used = false;
+            }
+        }
+    }
+}
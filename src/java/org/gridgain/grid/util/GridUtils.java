@@ -1225,6 +1225,10 @@ public abstract class GridUtils {
 
     /**
      * Marshals object to a {@link GridByteArrayList} using given {@link GridMarshaller}.
+     * Object is marshalled into per-thread cached buffer (see {@link GridByteArrayOutputStreamFactory})
+     * and then copied into array of exact size, so {@link GridByteArrayList#getEntireArray()}
+     * on returned list does not copy again. If cached buffer is already in use by current thread
+     * (nested marshalling), then buffer of fresh stream is returned without copying.
      *
      * @param marshaller Marshaller.
      * @param obj Object to marshal.
@@ -1234,17 +1238,16 @@ public abstract class GridUtils {
     public static GridByteArrayList marshal(GridMarshaller marshaller, @Nullable Object obj) throws GridException {
         assert marshaller != null;
 
-        GridByteArrayOutputStream out = null;
+        GridByteArrayOutputStream out = GridByteArrayOutputStreamFactory.acquire();
 
         try {
-            out = new GridByteArrayOutputStream(DFLT_BUFFER_SIZE);
-
             marshaller.marshal(obj, out);
 
-            return out.toByteArrayList();
+            return GridByteArrayOutputStreamFactory.isCached(out) ? new GridByteArrayList(out.toByteArray()) :
+                out.toByteArrayList();
         }
         finally {
-            U.close(out, null);
+            GridByteArrayOutputStreamFactory.release(out);
         }
     }
 
@@ -1281,7 +1284,8 @@ public abstract class GridUtils {
         ByteArrayInputStream in = null;
 
         try {
-            in = new ByteArrayInputStream(buf.getArray(), 0, buf.getSize());
+            // Read internal array directly, no need to copy it.
+            in = new ByteArrayInputStream(buf.getInternalArray(), 0, buf.getSize());
 
             return (T)marshaller.unmarshal(in, clsLdr);
         }
@@ -3702,6 +3706,70 @@ public abstract class GridUtils {
         return set;
     }
 
+    /**
+     * @param out Output.
+     * @param set Set to write.
+     * @throws IOException If write failed.
+     */
+    public static void writeGridIntSet(ObjectOutput out, @Nullable GridIntSet set) throws IOException {
+        // Write null flag.
+        out.writeBoolean(set == null);
+
+        if (set != null)
+            set.writeExternal(out);
+    }
+
+    /**
+     * @param in Input.
+     * @return Deserialized set.
+     * @throws IOException If deserialization failed.
+     */
+    @Nullable public static GridIntSet readGridIntSet(ObjectInput in) throws IOException {
+        GridIntSet set = null;
+
+        // Check null flag.
+        if (!in.readBoolean()) {
+            set = new GridIntSet();
+
+            set.readExternal(in);
+        }
+
+        return set;
+    }
+
+    /**
+     * @param out Output.
+     * @param map Map to write.
+     * @throws IOException If write failed.
+     */
+    public static void writeGridIntMap(ObjectOutput out, @Nullable GridIntMap<?> map) throws IOException {
+        // Write null flag.
+        out.writeBoolean(map == null);
+
+        if (map != null)
+            map.writeExternal(out);
+    }
+
+    /**
+     * @param in Input.
+     * @return Deserialized map.
+     * @throws IOException If deserialization failed.
+     * @throws ClassNotFoundException If deserialized class could not be found.
+     */
+    @Nullable public static <V> GridIntMap<V> readGridIntMap(ObjectInput in) throws IOException,
+        ClassNotFoundException {
+        GridIntMap<V> map = null;
+
+        // Check null flag.
+        if (!in.readBoolean()) {
+            map = new GridIntMap<V>();
+
+            map.readExternal(in);
+        }
+
+        return map;
+    }
+
     /**
      * Writes string to output stream accounting for {@code null} values.
      *
@@ -14,6 +14,7 @@ import org.gridgain.grid.kernal.*;
 import org.gridgain.grid.lang.*;
 import org.gridgain.grid.lang.utils.*;
 import org.gridgain.grid.logger.*;
+import org.gridgain.grid.thread.*;
 import org.gridgain.grid.typedef.*;
 import org.gridgain.grid.typedef.internal.*;
 import org.gridgain.grid.util.stopwatch.*;
@@ -43,14 +44,37 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
     /** Concurrent notification flag. */
     private static final boolean CONCUR_NOTIFY = U.isFutureNotificationConcurrent("false");
 
-    /** Done flag. */
-    private AtomicBoolean done = new AtomicBoolean();
+    /** State bit set by the thread which won the right to complete the future. */
+    private static final int DONE = 1;
 
-    /** Cancelled flag. */
-    private AtomicBoolean cancelled = new AtomicBoolean();
+    /** State bit set once result and error are visible to readers. */
+    private static final int RES = 2;
 
-    /** */
-    private CountDownLatch doneLatch = new CountDownLatch(1);
+    /** State bit set when future is cancelled. */
+    private static final int CANCELLED = 4;
+
+    /** State updater. */
+    @SuppressWarnings({"unchecked"})
+    private static final AtomicIntegerFieldUpdater<GridFutureAdapter<?>> stateUpdater =
+        AtomicIntegerFieldUpdater.newUpdater((Class<GridFutureAdapter<?>>)(Class<?>)GridFutureAdapter.class, "state");
+
+    /** Latch updater. */
+    @SuppressWarnings({"unchecked"})
+    private static final AtomicReferenceFieldUpdater<GridFutureAdapter<?>, CountDownLatch> latchUpdater =
+        AtomicReferenceFieldUpdater.newUpdater((Class<GridFutureAdapter<?>>)(Class<?>)GridFutureAdapter.class,
+            CountDownLatch.class, "doneLatch");
+
+    /** Listeners updater. */
+    @SuppressWarnings({"unchecked"})
+    private static final AtomicReferenceFieldUpdater<GridFutureAdapter<?>, Collection<?>> lsnrsUpdater =
+        AtomicReferenceFieldUpdater.newUpdater((Class<GridFutureAdapter<?>>)(Class<?>)GridFutureAdapter.class,
+            (Class<Collection<?>>)(Class<?>)Collection.class, "lsnrs");
+
+    /** Combination of {@link #DONE}, {@link #RES} and {@link #CANCELLED} bits. */
+    private volatile int state;
+
+    /** Latch created by the first thread which has to wait for completion. */
+    private volatile CountDownLatch doneLatch;
 
     /** Result. */
     @GridToStringInclude
@@ -62,9 +86,8 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
     /** Set to {@code false} on deserialization whenever incomplete future is serialized. */
     private boolean valid = true;
 
-    /** Asynchronous listener. */
-    private final Collection<GridInClosure<? super GridFuture<R>>>
-        lsnrs = new GridConcurrentLinkedDeque<GridInClosure<? super GridFuture<R>>>();
+    /** Asynchronous listeners, created on first registration. */
+    private volatile Collection<GridInClosure<? super GridFuture<R>>> lsnrs;
 
     /** Creator thread. */
     private Thread thread = Thread.currentThread();
@@ -188,20 +211,76 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
         return valid;
     }
 
+    /**
+     * @param state State.
+     * @return {@code True} if waiters may proceed, i.e. result is set or future is cancelled.
+     */
+    private static boolean released(int state) {
+        return (state & (RES | CANCELLED)) != 0;
+    }
+
+    /**
+     * Atomically sets given bits in state.
+     *
+     * @param bits Bits to set.
+     */
+    private void setState(int bits) {
+        while (true) {
+            int s = state;
+
+            if ((s & bits) == bits || stateUpdater.compareAndSet(this, s, s | bits))
+                return;
+        }
+    }
+
+    /**
+     * Gets latch to wait on, creating it if no other waiter has done it yet.
+     *
+     * @return Latch or {@code null} if future got released concurrently.
+     */
+    @Nullable private CountDownLatch latch() {
+        CountDownLatch latch = doneLatch;
+
+        if (latch == null && !latchUpdater.compareAndSet(this, null, latch = new CountDownLatch(1)))
+            latch = doneLatch;
+
+        // Double check, since releasing thread reads latch only after it has updated the state.
+        return released(state) ? null : latch;
+    }
+
     /**
      * Await for done signal.
      *
      * @throws InterruptedException If interrupted.
      */
     private void latchAwait() throws InterruptedException {
-        doneLatch.await();
+        if (released(state))
+            return;
+
+        CountDownLatch latch = latch();
+
+        if (latch != null) {
+            // Let work-stealing pool compensate for blocked worker.
+            boolean managed = GridWorkStealingExecutor.beginBlocking();
+
+            try {
+                latch.await();
+            }
+            finally {
+                if (managed)
+                    GridWorkStealingExecutor.endBlocking();
+            }
+        }
     }
 
     /**
      * Signal all waiters for done condition.
      */
     private void latchCountDown() {
-        doneLatch.countDown();
+        CountDownLatch latch = doneLatch;
+
+        if (latch != null)
+            latch.countDown();
     }
 
     /**
@@ -212,7 +291,7 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
      * @throws InterruptedException If interrupted.
      */
     protected final boolean latchAwait(long ms) throws InterruptedException {
-        return doneLatch.await(ms, TimeUnit.MILLISECONDS);
+        return latchAwait(ms, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -224,7 +303,24 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
      * @throws InterruptedException If interrupted.
      */
     protected final boolean latchAwait(long time, TimeUnit unit) throws InterruptedException {
-        return doneLatch.await(time, unit);
+        if (released(state))
+            return true;
+
+        CountDownLatch latch = latch();
+
+        if (latch == null)
+            return true;
+
+        // Let work-stealing pool compensate for blocked worker.
+        boolean managed = GridWorkStealingExecutor.beginBlocking();
+
+        try {
+            return latch.await(time, unit);
+        }
+        finally {
+            if (managed)
+                GridWorkStealingExecutor.endBlocking();
+        }
     }
 
     /**
@@ -260,10 +356,9 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
         checkValid();
 
         try {
-            if (doneLatch.getCount() != 0)
-                latchAwait();
+            latchAwait();
 
-            if (done.get()) {
+            if ((state & RES) != 0) {
                 Throwable err = this.err;
 
                 if (err != null)
@@ -287,17 +382,18 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
         checkValid();
 
         try {
-            if (doneLatch.getCount() != 0)
-                latchAwait(timeout, unit);
+            latchAwait(timeout, unit);
+
+            int s = state;
 
-            if (done.get()) {
+            if ((s & RES) != 0) {
                 if (err != null)
                     throw U.cast(err);
 
                 return res;
             }
 
-            if (cancelled.get())
+            if ((s & CANCELLED) != 0)
                 throw new GridFutureCancelledException("Future was cancelled: " + this);
 
             throw new GridFutureTimeoutException("Timeout was reached before computation completed [duration=" +
@@ -319,7 +415,7 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
 
             GridInClosure<? super GridFuture<R>> lsnr0 = lsnr;
 
-            done = this.done.get();
+            done = (state & DONE) != 0;
 
             if (!done) {
                 lsnr0 = new GridInClosure<GridFuture<R>>() {
@@ -339,9 +435,9 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
                     }
                 };
 
-                lsnrs.add(lsnr0);
+                listeners(true).add(lsnr0);
 
-                done = this.done.get(); // Double check.
+                done = (state & DONE) != 0; // Double check.
             }
 
             if (done) {
@@ -367,6 +463,11 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
 
     /** {@inheritDoc} */
     @Override public void stopListenAsync(@Nullable GridInClosure<? super GridFuture<R>>... lsnr) {
+        Collection<GridInClosure<? super GridFuture<R>>> lsnrs = this.lsnrs;
+
+        if (lsnrs == null)
+            return;
+
         if (lsnr == null || lsnr.length == 0)
             lsnrs.clear();
         else {
@@ -382,11 +483,34 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
         }
     }
 
+    /**
+     * Gets listeners collection.
+     *
+     * @param create Whether collection should be created if there were no listeners so far.
+     * @return Listeners or {@code null} if there are none and {@code create} is {@code false}.
+     */
+    @SuppressWarnings({"unchecked"})
+    @Nullable private Collection<GridInClosure<? super GridFuture<R>>> listeners(boolean create) {
+        Collection<GridInClosure<? super GridFuture<R>>> lsnrs = this.lsnrs;
+
+        if (lsnrs == null && create && !lsnrsUpdater.compareAndSet(this, null,
+            lsnrs = new GridConcurrentLinkedDeque<GridInClosure<? super GridFuture<R>>>()))
+            lsnrs = this.lsnrs;
+
+        return lsnrs;
+    }
+
     /**
      * Notifies all registered listeners.
      */
     @SuppressWarnings({"TooBroadScope"})
     private void notifyListeners() {
+        final Collection<GridInClosure<? super GridFuture<R>>> lsnrs = this.lsnrs;
+
+        // Nothing to notify, so don't bother scheduling anything.
+        if (lsnrs == null || lsnrs.isEmpty())
+            return;
+
         if (concurNotify) {
             for (final GridInClosure<? super GridFuture<R>> lsnr : lsnrs)
                 ctx.closure().runLocalSafe(new GPR() {
@@ -456,7 +580,7 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
     @Override public boolean isDone() {
         // Don't check for "valid" here, as "done" flag can be read
         // even in invalid state.
-        return done.get() || cancelled.get();
+        return (state & (DONE | CANCELLED)) != 0;
     }
 
     /** {@inheritDoc} */
@@ -472,7 +596,7 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
     @Override public boolean isCancelled() {
         checkValid();
 
-        return cancelled.get();
+        return (state & CANCELLED) != 0;
     }
 
     /**
@@ -518,38 +642,35 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
     public boolean onDone(@Nullable R res, @Nullable Throwable err) {
         checkValid();
 
-        boolean notify = false;
+        int s;
 
-        boolean gotDone = false;
+        do {
+            s = state;
 
-        try {
-            if (done.compareAndSet(false, true)) {
-                gotDone = true;
-
-                endTime = System.currentTimeMillis();
+            if ((s & DONE) != 0)
+                return false;
+        }
+        while (!stateUpdater.compareAndSet(this, s, s | DONE));
 
-                this.res = res;
-                this.err = err;
+        try {
+            endTime = System.currentTimeMillis();
 
-                notify = true;
+            this.res = res;
+            this.err = err;
 
-                latchCountDown();
+            setState(RES);
 
-                return true;
-            }
+            latchCountDown();
 
-            return false;
+            return true;
         }
         finally {
-            if (gotDone) {
-                GridStopwatch w = watch;
+            GridStopwatch w = watch;
 
-                if (w != null)
-                    w.stop();
-            }
+            if (w != null)
+                w.stop();
 
-            if (notify)
-                notifyListeners();
+            notifyListeners();
         }
     }
 
@@ -561,31 +682,29 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
     public boolean onCancelled() {
         checkValid();
 
-        boolean c = cancelled.get();
-
-        if (c || done.get())
+        if (state != 0 || !stateUpdater.compareAndSet(this, 0, CANCELLED))
             return false;
 
-        if (cancelled.compareAndSet(false, true)) {
-            latchCountDown();
+        latchCountDown();
 
-            return true;
-        }
-
-        return false;
+        return true;
     }
 
     /** {@inheritDoc} */
     @SuppressWarnings({"TooBroadScope"})
     @Override public void writeExternal(ObjectOutput out) throws IOException {
-        out.writeBoolean(done.get());
+        int s = state;
+
+        boolean done = (s & RES) != 0;
+
+        out.writeBoolean(done);
         out.writeBoolean(syncNotify);
         out.writeBoolean(concurNotify);
 
         // Don't write any further if not done, as deserialized future
         // will be invalid anyways.
-        if (done.get()) {
-            out.writeBoolean(cancelled.get());
+        if (done) {
+            out.writeBoolean((s & CANCELLED) != 0);
             out.writeObject(res);
             out.writeObject(err);
         }
@@ -604,14 +723,10 @@ public class GridFutureAdapter<R> extends GridMetadataAwareAdapter implements Gr
         else {
             boolean cancelled = in.readBoolean();
 
-            R res = (R)in.readObject();
-
-            Throwable err = (Throwable)in.readObject();
+            res = (R)in.readObject();
+            err = (Throwable)in.readObject();
 
-            this.done.set(done);
-            this.cancelled.set(cancelled);
-            this.res = res;
-            this.err = err;
+            state = DONE | RES | (cancelled ? CANCELLED : 0);
         }
     }
 
@@ -351,59 +351,52 @@ public class GridNioServer {
 
                     SocketAddress rmtAddr = sockCh.socket().getRemoteSocketAddress();
 
+                    GridNioServerBuffer nioBuf = (GridNioServerBuffer)key.attachment();
+
                     try {
-                        // Reset buffer to read bytes up to its capacity.
-                        readBuf.clear();
+                        boolean more;
 
-                        // Attempt to read off the channel
-                        int cnt = sockCh.read(readBuf);
+                        // Large message body is read in several chunks through the same read buffer.
+                        // Channel never reads into message array directly, because for heap arrays
+                        // JDK would copy through temporary direct buffer as large as the read.
+                        do {
+                            // Reset buffer to read bytes up to its capacity.
+                            readBuf.clear();
 
-                        if (log.isDebugEnabled())
-                            log.debug("Read bytes from client socket [cnt=" + cnt +
-                                ", rmtAddr=" + rmtAddr + ']');
+                            // Attempt to read off the channel
+                            int cnt = sockCh.read(readBuf);
 
-                        if (cnt == -1) {
                             if (log.isDebugEnabled())
-                                log.debug("Remote client closed connection: " + rmtAddr);
+                                log.debug("Read bytes from client socket [cnt=" + cnt +
+                                    ", rmtAddr=" + rmtAddr + ']');
 
-                            U.close(key, log);
+                            if (cnt == -1) {
+                                if (log.isDebugEnabled())
+                                    log.debug("Remote client closed connection: " + rmtAddr);
 
-                            continue;
-                        }
-                        else if (cnt == 0)
-                            continue;
+                                U.close(key, log);
 
-                        // Sets limit to current position and
-                        // resets position to 0.
-                        readBuf.flip();
+                                break;
+                            }
+                            else if (cnt == 0)
+                                break;
 
-                        GridNioServerBuffer nioBuf = (GridNioServerBuffer)key.attachment();
+                            // Sets limit to current position and
+                            // resets position to 0.
+                            readBuf.flip();
 
-                        // We have size let's test if we have object
-                        while (readBuf.remaining() > 0) {
-                            // Always write into the buffer.
-                            nioBuf.read(readBuf);
+                            // We have size let's test if we have object
+                            while (readBuf.remaining() > 0) {
+                                // Always write into the buffer.
+                                nioBuf.read(readBuf);
 
-                            if (nioBuf.isFilled()) {
-                                if (log.isDebugEnabled())
-                                    log.debug("Read full message from client socket: " + rmtAddr);
-
-                                // Copy array so we can keep reading into the same buffer.
-                                final byte[] data = nioBuf.getMessageBytes().getArray();
-
-                                nioBuf.reset();
-
-                                if (syncNotification)
-                                    listener.onMessage(data);
-                                else {
-                                    workerPool.execute(new GridWorker(gridName, "grid-nio-worker", log) {
-                                        @Override protected void body() {
-                                            listener.onMessage(data);
-                                        }
-                                    });
-                                }
+                                if (nioBuf.isFilled())
+                                    onMessage(nioBuf, rmtAddr);
                             }
+
+                            more = cnt == readBuf.capacity() && nioBuf.missing() >= readBuf.capacity();
                         }
+                        while (more);
                     }
                     catch (ClosedByInterruptException e) {
                         // This exception will be handled below.
@@ -419,6 +412,33 @@ public class GridNioServer {
                 }
             }
         }
+
+        /**
+         * Notifies listener about fully read message and resets buffer for next message.
+         * Message array is handed over to listener as is, buffer allocates new one for
+         * next message.
+         *
+         * @param nioBuf Filled buffer.
+         * @param rmtAddr Remote address.
+         */
+        private void onMessage(GridNioServerBuffer nioBuf, SocketAddress rmtAddr) {
+            if (log.isDebugEnabled())
+                log.debug("Read full message from client socket: " + rmtAddr);
+
+            final byte[] data = nioBuf.getMessageBytes();
+
+            nioBuf.reset();
+
+            if (syncNotification)
+                listener.onMessage(data);
+            else {
+                workerPool.execute(new GridWorker(gridName, "grid-nio-worker", log) {
+                    @Override protected void body() {
+                        listener.onMessage(data);
+                    }
+                });
+            }
+        }
     }
 
     /**
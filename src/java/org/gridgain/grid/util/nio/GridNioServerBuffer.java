@@ -9,27 +9,36 @@
 
 package org.gridgain.grid.util.nio;
 
-import org.gridgain.grid.lang.utils.*;
 import java.nio.*;
 
 /**
- * NIO server buffer.
+ * NIO server buffer. Assembles one message at a time: reads 4-byte length header and then
+ * reads message body into array of exact message size, which is handed to listener as is
+ * without copying. Bodies which are larger than read buffer are read in several chunks
+ * (see {@link #missing()}).
  *
  * @author 2012 Copyright (C) GridGain Systems
  * @version 3.6.0c.09012012
  */
 class GridNioServerBuffer {
-    /** Preallocate 8K. */
-    private GridByteArrayList msgBytes = new GridByteArrayList(1024 << 3);
+    /** Length header. */
+    private final byte[] hdr = new byte[4];
 
-    /** */
-    private int msgSize = -1;
+    /** Number of header bytes read so far. */
+    private int hdrCnt;
+
+    /** Message bytes, {@code null} until header is read. */
+    private byte[] msgBytes;
+
+    /** Number of message bytes read so far. */
+    private int msgCnt;
 
     /** */
     void reset() {
-        msgBytes.reset();
+        hdrCnt = 0;
 
-        msgSize = -1;
+        msgBytes = null;
+        msgCnt = 0;
     }
 
     /**
@@ -37,59 +46,58 @@ class GridNioServerBuffer {
      *
      * @return Message size.
      */
-    int getMessageSize() { return msgSize; }
+    int getMessageSize() { return msgBytes == null ? -1 : msgBytes.length; }
 
     /**
-     * Gets message bytes read so far.
+     * Gets message bytes. Returned array belongs to caller only after {@link #reset()}.
      *
-     * @return Message bytes read so far.
+     * @return Message bytes.
      */
-    GridByteArrayList getMessageBytes() { return msgSize < 0 ? null : msgBytes; }
+    byte[] getMessageBytes() { return msgBytes; }
 
     /**
      * Checks whether the byte array is filled.
      *
      * @return Flag indicating whether byte array is filled or not.
      */
-    boolean isFilled() { return msgSize > 0 && msgBytes.getSize() == msgSize; }
+    boolean isFilled() { return msgBytes != null && msgCnt == msgBytes.length; }
 
     /**
      * @param buf Buffer.
      */
     void read(ByteBuffer buf) {
-        if (msgSize < 0) {
-            int remaining = buf.remaining();
+        if (msgBytes == null) {
+            int cnt = Math.min(4 - hdrCnt, buf.remaining());
 
-            if (remaining > 0) {
-                int missing = 4 - msgBytes.getSize();
+            buf.get(hdr, hdrCnt, cnt);
 
-                msgBytes.add(buf, missing < remaining ? missing : remaining);
+            hdrCnt += cnt;
 
-                assert msgBytes.getSize() <= 4;
+            if (hdrCnt == 4) {
+                int msgSize = ((hdr[0] & 0xFF) << 24) | ((hdr[1] & 0xFF) << 16) | ((hdr[2] & 0xFF) << 8) |
+                    (hdr[3] & 0xFF);
 
-                if (msgBytes.getSize() == 4) {
-                    msgSize = msgBytes.getInt(0);
+                assert msgSize > 0;
 
-                    assert msgSize > 0;
-
-                    msgBytes.reset();
-
-                    // Allocate required size.
-                    msgBytes.allocate(msgSize);
-                }
+                // Allocate required size.
+                msgBytes = new byte[msgSize];
             }
         }
 
-        int remaining = buf.remaining();
+        if (msgBytes != null) {
+            // Read only up to message size.
+            int cnt = Math.min(msgBytes.length - msgCnt, buf.remaining());
 
-        // If there are more bytes in buffer.
-        if (remaining > 0) {
-            int missing = msgSize - msgBytes.getSize();
+            buf.get(msgBytes, msgCnt, cnt);
 
-            // Read only up to message size.
-            if (missing > 0) {
-                msgBytes.add(buf, missing < remaining ? missing : remaining);
-            }
+            msgCnt += cnt;
         }
     }
+
+    /**
+     * @return Number of message body bytes still missing, or {@code -1} if header is not read yet.
+     */
+    int missing() {
+        return msgBytes == null ? -1 : msgBytes.length - msgCnt;
+    }
 }